@@ -0,0 +1,108 @@
+package online.limingming.jdk.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The data shared by the benchmarks.  Every array is generated from a fixed
+ * seed, so that all the runs measure the same input.
+ */
+public final class BenchmarkData {
+
+    /** The seed of the generated data. */
+    public static final long SEED = 0x5DEECE66DL;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Returns {@code size} distinct integers in random order.
+     */
+    public static Integer[] distinctKeys(int size) {
+        Random random = new Random(SEED);
+        Integer[] keys = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            // spread the keys, so that their hash codes are not consecutive
+            keys[i] = i * 0x9E3779B1;
+        }
+        shuffle(keys, random);
+        return keys;
+    }
+
+    /**
+     * Returns {@code size} integers, none of which is in {@link #distinctKeys}
+     * of the same size.
+     */
+    public static Integer[] missingKeys(int size) {
+        Integer[] keys = distinctKeys(size);
+        for (int i = 0; i < size; i++) {
+            keys[i] = keys[i] + 1;
+        }
+        return keys;
+    }
+
+    /**
+     * Returns {@code size} integers of the given distribution.
+     *
+     * @param distribution one of {@code random}, {@code sorted},
+     *        {@code reversed}, {@code nearlySorted}, {@code fewUnique}
+     */
+    public static int[] ints(String distribution, int size) {
+        Random random = new Random(SEED);
+        int[] a = new int[size];
+        switch (distribution) {
+            case "random":
+                for (int i = 0; i < size; i++) {
+                    a[i] = random.nextInt();
+                }
+                break;
+            case "sorted":
+                for (int i = 0; i < size; i++) {
+                    a[i] = i;
+                }
+                break;
+            case "reversed":
+                for (int i = 0; i < size; i++) {
+                    a[i] = size - i;
+                }
+                break;
+            case "nearlySorted":
+                // sorted, then 1% of the elements swapped
+                for (int i = 0; i < size; i++) {
+                    a[i] = i;
+                }
+                for (int n = size / 100; n > 0; n--) {
+                    int i = random.nextInt(size);
+                    int j = random.nextInt(size);
+                    int t = a[i];
+                    a[i] = a[j];
+                    a[j] = t;
+                }
+                break;
+            case "fewUnique":
+                for (int i = 0; i < size; i++) {
+                    a[i] = random.nextInt(16);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown distribution: " + distribution);
+        }
+        return a;
+    }
+
+    /**
+     * Returns the given ints, boxed.
+     */
+    public static Integer[] boxed(int[] a) {
+        return Arrays.stream(a).boxed().toArray(Integer[]::new);
+    }
+
+    private static void shuffle(Object[] a, Random random) {
+        for (int i = a.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Object t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+}
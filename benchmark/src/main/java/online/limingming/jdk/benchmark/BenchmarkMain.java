@@ -0,0 +1,41 @@
+package online.limingming.jdk.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks selected by the JMH command line options, and writes
+ * the results as JSON, to {@code jmh-result.json} unless other
+ * {@code -rf}/{@code -rff} options are given, so that successive runs can be
+ * compared:
+ * <pre>
+ *     java -jar target/benchmarks.jar MapBenchmark -p size=1024
+ *     java -jar target/benchmarks.jar -rff map-1024.json MapBenchmark
+ * </pre>
+ */
+public class BenchmarkMain {
+
+    /** The default file of the results. */
+    public static final String RESULT_FILE = "jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListWithParams()
+                || cmd.shouldListProfilers() || cmd.shouldListResultFormats()) {
+            // the options that only print something
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+        if (!cmd.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmd.getResult().hasValue()) {
+            options.result(RESULT_FILE);
+        }
+        new Runner(options.build()).run();
+    }
+}
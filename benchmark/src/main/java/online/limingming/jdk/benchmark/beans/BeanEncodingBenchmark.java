@@ -0,0 +1,179 @@
+package online.limingming.jdk.benchmark.beans;
+
+import java.beans.BeanAccessor;
+import java.beans.BinaryDecoder;
+import java.beans.BinaryEncoder;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.beans.XMLDecoder;
+import java.beans.XMLEncoder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Archiving of a large graph of beans with {@link XMLEncoder} and
+ * {@link BinaryEncoder}, and reading it back with {@link XMLDecoder} and
+ * {@link BinaryDecoder}; and the lookup of a property and the call of its
+ * read method through the {@link Introspector} and through a
+ * {@link BeanAccessor}.
+ * <p>
+ * The binary encoder and the bean accessor are only in the JDK built from
+ * the {@code jdk1.9} sources of this repository.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class BeanEncodingBenchmark {
+
+    public static class Setting {
+        private String name;
+        private String value;
+        private int priority;
+        private boolean enabled = true;
+        private double weight;
+        private List<String> tags = new ArrayList<>();
+        private Map<String, Integer> limits;
+        private Setting parent;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getValue() { return value; }
+        public void setValue(String value) { this.value = value; }
+        public int getPriority() { return priority; }
+        public void setPriority(int priority) { this.priority = priority; }
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public double getWeight() { return weight; }
+        public void setWeight(double weight) { this.weight = weight; }
+        public List<String> getTags() { return tags; }
+        public void setTags(List<String> tags) { this.tags = tags; }
+        public Map<String, Integer> getLimits() { return limits; }
+        public void setLimits(Map<String, Integer> limits) { this.limits = limits; }
+        public Setting getParent() { return parent; }
+        public void setParent(Setting parent) { this.parent = parent; }
+    }
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private List<Setting> graph;
+    private byte[] xml;
+    private byte[] binary;
+
+    private Setting bean;
+    private Method readMethod;
+    private BeanAccessor.Property property;
+
+    @Setup
+    public void setup() throws IntrospectionException {
+        graph = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Setting s = new Setting();
+            s.setName("setting." + i);
+            s.setValue(Integer.toHexString(i * 31));
+            s.setPriority(i % 10);
+            s.setEnabled((i % 3) != 0);
+            s.setWeight(i / 7.0);
+            s.getTags().add("group-" + (i % 16));
+            if ((i % 4) == 0) {
+                Map<String, Integer> limits = new HashMap<>();
+                limits.put("max", i);
+                limits.put("min", -i);
+                s.setLimits(limits);
+            }
+            if (i > 0) {
+                s.setParent(graph.get(i / 2));
+            }
+            graph.add(s);
+        }
+        xml = writeXml();
+        binary = writeBinary();
+
+        bean = graph.get(0);
+        readMethod = new PropertyDescriptor("priority", Setting.class).getReadMethod();
+        property = BeanAccessor.of(Setting.class).getProperty("priority");
+    }
+
+    @Benchmark
+    public byte[] writeXml() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XMLEncoder encoder = new XMLEncoder(out)) {
+            encoder.writeObject(graph);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeBinary() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BinaryEncoder encoder = new BinaryEncoder(out)) {
+            encoder.writeObject(graph);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public Object readXml() {
+        try (XMLDecoder decoder = new XMLDecoder(new ByteArrayInputStream(xml))) {
+            return decoder.readObject();
+        }
+    }
+
+    @Benchmark
+    public Object readBinary() {
+        try (BinaryDecoder decoder = new BinaryDecoder(new ByteArrayInputStream(binary))) {
+            return decoder.readObject();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object getWithMethod() throws Exception {
+        return readMethod.invoke(bean);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object getWithAccessor() {
+        return property.get(bean);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Method findWithIntrospector() throws IntrospectionException {
+        for (PropertyDescriptor pd : Introspector.getBeanInfo(Setting.class).getPropertyDescriptors()) {
+            if (pd.getName().equals("priority")) {
+                return pd.getReadMethod();
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public BeanAccessor.Property findWithAccessor() throws IntrospectionException {
+        return BeanAccessor.of(Setting.class).getProperty("priority");
+    }
+}
@@ -0,0 +1,152 @@
+package online.limingming.jdk.benchmark.concurrent;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+/**
+ * Producer/consumer throughput of every {@link BlockingQueue} of
+ * {@code java.util.concurrent}, with one producer and one consumer, and with
+ * four of each.  Other thread counts can be run with the {@code -tg} option,
+ * for example {@code -tg 8,2}.
+ * <p>
+ * The producers and consumers wait at most {@value #TIMEOUT_MS} ms at a
+ * time, and give up when the iteration ends, so that no thread stays blocked
+ * when the other side has stopped.  The unbounded queues are bounded with
+ * a semaphore of {@code capacity} permits, which the producers acquire
+ * before offering and the consumers release after taking, so that the
+ * queue's own, possibly linear or locked, {@code size()} is not polled.
+ * The queues are replaced at each iteration.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Group)
+public class BlockingQueueBenchmark {
+
+    static final long TIMEOUT_MS = 10;
+
+    private static final Integer ITEM = 42;
+
+    @Param({"ArrayBlockingQueue", "LinkedBlockingQueue", "LinkedBlockingDeque",
+            "LinkedTransferQueue", "PriorityBlockingQueue", "SynchronousQueue"})
+    public String impl;
+
+    @Param({"1024"})
+    public int capacity;
+
+    private BlockingQueue<Integer> queue;
+
+    // the free space of an unbounded queue, null if the queue is bounded
+    private Semaphore space;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        space = null;
+        switch (impl) {
+            case "ArrayBlockingQueue":
+                queue = new ArrayBlockingQueue<>(capacity);
+                break;
+            case "LinkedBlockingQueue":
+                queue = new LinkedBlockingQueue<>(capacity);
+                break;
+            case "LinkedBlockingDeque":
+                queue = new LinkedBlockingDeque<>(capacity);
+                break;
+            case "LinkedTransferQueue":
+                queue = new LinkedTransferQueue<>();
+                space = new Semaphore(capacity);
+                break;
+            case "PriorityBlockingQueue":
+                queue = new PriorityBlockingQueue<>(capacity);
+                space = new Semaphore(capacity);
+                break;
+            case "SynchronousQueue":
+                queue = new SynchronousQueue<>();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown queue: " + impl);
+        }
+    }
+
+    private boolean produce(Control control) throws InterruptedException {
+        if (space != null) {
+            while (!space.tryAcquire(TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                if (control.stopMeasurement) {
+                    return false;
+                }
+            }
+        }
+        while (!control.stopMeasurement) {
+            if (queue.offer(ITEM, TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Integer consume(Control control) throws InterruptedException {
+        while (!control.stopMeasurement) {
+            Integer item = queue.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            if (item != null) {
+                if (space != null) {
+                    space.release();
+                }
+                return item;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    @Group("oneToOne")
+    @GroupThreads(1)
+    public boolean put1(Control control) throws InterruptedException {
+        return produce(control);
+    }
+
+    @Benchmark
+    @Group("oneToOne")
+    @GroupThreads(1)
+    public Integer take1(Control control) throws InterruptedException {
+        return consume(control);
+    }
+
+    @Benchmark
+    @Group("manyToMany")
+    @GroupThreads(4)
+    public boolean put4(Control control) throws InterruptedException {
+        return produce(control);
+    }
+
+    @Benchmark
+    @Group("manyToMany")
+    @GroupThreads(4)
+    public Integer take4(Control control) throws InterruptedException {
+        return consume(control);
+    }
+}
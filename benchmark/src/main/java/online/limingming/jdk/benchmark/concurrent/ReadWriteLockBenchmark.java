@@ -0,0 +1,161 @@
+package online.limingming.jdk.benchmark.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.BiasedReadWriteLock;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Read-mostly throughput of {@link ReentrantReadWriteLock},
+ * {@link StampedLock} and {@link BiasedReadWriteLock}: readers only
+ * ({@code readOnly}), seven readers and one writer that writes every
+ * {@code writeEvery} tokens of work ({@code readMostly}), and optimistic
+ * reads, which fall back to the read lock when a write intervenes
+ * ({@code optimistic}; {@code ReentrantReadWriteLock} always uses its
+ * read lock).
+ * <p>
+ * The readers read two fields that the writer keeps equal.  Other thread
+ * counts can be run with the {@code -tg} option, for example
+ * {@code -tg 95,1}.
+ * <p>
+ * {@link BiasedReadWriteLock} is only in the JDK built from the
+ * {@code jdk1.9} sources of this repository.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Group)
+public class ReadWriteLockBenchmark {
+
+    @Param({"ReentrantReadWriteLock", "StampedLock", "BiasedReadWriteLock"})
+    public String impl;
+
+    @Param({"1000"})
+    public int writeEvery;
+
+    private Lock readLock;
+    private Lock writeLock;
+    private StampedLock stampedLock;
+    private BiasedReadWriteLock biasedLock;
+
+    private long x;
+    private long y;
+
+    @Setup
+    public void setup() {
+        stampedLock = null;
+        biasedLock = null;
+        switch (impl) {
+            case "ReentrantReadWriteLock":
+                ReentrantReadWriteLock rrwl = new ReentrantReadWriteLock();
+                readLock = rrwl.readLock();
+                writeLock = rrwl.writeLock();
+                break;
+            case "StampedLock":
+                stampedLock = new StampedLock();
+                readLock = stampedLock.asReadLock();
+                writeLock = stampedLock.asWriteLock();
+                break;
+            case "BiasedReadWriteLock":
+                biasedLock = new BiasedReadWriteLock();
+                readLock = biasedLock.readLock();
+                writeLock = biasedLock.writeLock();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown lock: " + impl);
+        }
+    }
+
+    private long read() {
+        readLock.lock();
+        try {
+            return x - y;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private void write() {
+        Blackhole.consumeCPU(writeEvery);
+        writeLock.lock();
+        try {
+            x++;
+            y++;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private long readOptimistic() {
+        long dx, dy;
+        if (stampedLock != null) {
+            long stamp = stampedLock.tryOptimisticRead();
+            dx = x;
+            dy = y;
+            if (stampedLock.validate(stamp)) {
+                return dx - dy;
+            }
+        } else if (biasedLock != null) {
+            long stamp = biasedLock.tryOptimisticRead();
+            dx = x;
+            dy = y;
+            if (biasedLock.validate(stamp)) {
+                return dx - dy;
+            }
+        }
+        return read();
+    }
+
+    @Benchmark
+    @Group("readOnly")
+    @GroupThreads(8)
+    public long readOnly() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(7)
+    public long reader() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(1)
+    public void writer() {
+        write();
+    }
+
+    @Benchmark
+    @Group("optimistic")
+    @GroupThreads(7)
+    public long optimisticReader() {
+        return readOptimistic();
+    }
+
+    @Benchmark
+    @Group("optimistic")
+    @GroupThreads(1)
+    public void optimisticWriter() {
+        write();
+    }
+}
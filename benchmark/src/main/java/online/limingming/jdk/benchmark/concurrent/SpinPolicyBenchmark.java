@@ -0,0 +1,154 @@
+package online.limingming.jdk.benchmark.concurrent;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.SpinPolicy;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of very short critical sections guarded by the locks of
+ * {@code java.util.concurrent} that are built on
+ * {@code AbstractQueuedSynchronizer}, without a {@link SpinPolicy}
+ * ({@code none}), with a policy that only records the contention
+ * ({@code statistics}) and with an adaptive policy ({@code adaptive}).
+ * <p>
+ * The threads do {@code work} tokens of work inside the lock and
+ * {@code think} tokens outside it.  Other thread counts can be run with
+ * the {@code -t} option.  The statistics of the policy in each iteration
+ * are reported as the secondary results of {@link Counters}.
+ * <p>
+ * {@link SpinPolicy} is only in the JDK built from the {@code jdk1.9}
+ * sources of this repository.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+@State(Scope.Benchmark)
+public class SpinPolicyBenchmark {
+
+    @Param({"ReentrantLock", "ReentrantReadWriteLock", "Semaphore"})
+    public String impl;
+
+    @Param({"none", "statistics", "adaptive"})
+    public String policy;
+
+    @Param({"10"})
+    public int work;
+
+    @Param({"100"})
+    public int think;
+
+    /**
+     * The statistics of the policy of an iteration, reported by the first
+     * thread that ends it, the other threads report zero so that the sums
+     * over the threads are the statistics.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long contendedAcquisitions;
+        public long spinAcquisitions;
+        public long parks;
+        public long averageWaitNanos;
+        public long spinLimit;
+
+        @TearDown(Level.Iteration)
+        public void tearDown(SpinPolicyBenchmark benchmark) {
+            SpinPolicy policy = benchmark.spinPolicy;
+            if (policy != null && benchmark.reported.compareAndSet(false, true)) {
+                contendedAcquisitions = policy.getContendedAcquisitions();
+                spinAcquisitions = policy.getSpinAcquisitions();
+                parks = policy.getParks();
+                averageWaitNanos = policy.getAverageWaitNanos();
+                spinLimit = policy.getSpinLimit();
+            } else {
+                contendedAcquisitions = 0;
+                spinAcquisitions = 0;
+                parks = 0;
+                averageWaitNanos = 0;
+                spinLimit = 0;
+            }
+        }
+    }
+
+    private final AtomicBoolean reported = new AtomicBoolean();
+    private SpinPolicy spinPolicy;
+    private Lock lock;
+    private Semaphore semaphore;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        reported.set(false);
+        switch (policy) {
+            case "none":
+                spinPolicy = null;
+                break;
+            case "statistics":
+                spinPolicy = new SpinPolicy(0);
+                break;
+            case "adaptive":
+                spinPolicy = new SpinPolicy();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown policy: " + policy);
+        }
+        lock = null;
+        semaphore = null;
+        switch (impl) {
+            case "ReentrantLock":
+                lock = new ReentrantLock(false, spinPolicy);
+                break;
+            case "ReentrantReadWriteLock":
+                lock = new ReentrantReadWriteLock(false, spinPolicy).writeLock();
+                break;
+            case "Semaphore":
+                semaphore = new Semaphore(1, false, spinPolicy);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown lock: " + impl);
+        }
+    }
+
+    @Benchmark
+    public void acquireRelease(Counters counters) throws InterruptedException {
+        if (lock != null) {
+            lock.lock();
+            try {
+                Blackhole.consumeCPU(work);
+            } finally {
+                lock.unlock();
+            }
+        } else {
+            semaphore.acquire();
+            try {
+                Blackhole.consumeCPU(work);
+            } finally {
+                semaphore.release();
+            }
+        }
+        Blackhole.consumeCPU(think);
+    }
+}
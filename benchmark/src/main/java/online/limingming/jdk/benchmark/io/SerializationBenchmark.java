@@ -0,0 +1,152 @@
+package online.limingming.jdk.benchmark.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serialization of a list of small objects with {@link ObjectOutputStream}
+ * and {@link ObjectInputStream}, with new streams for each message, and
+ * with streams {@linkplain ObjectOutputStream#recycle recycled} with their
+ * class descriptors.
+ * <p>
+ * The benchmarks are run with the fields accessed through
+ * {@code Unsafe} ({@link Reflective}) and through generated accessors
+ * ({@link Generated}), as selected by the
+ * {@code sun.io.serialization.generatedAccessors} property.
+ * <p>
+ * {@code recycle} and {@code setRetainClassDescriptors} are only in the
+ * JDK built from the {@code jdk1.9} sources of this repository.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public abstract class SerializationBenchmark {
+
+    @Fork(value = 2, jvmArgsAppend = "-Dsun.io.serialization.generatedAccessors=false")
+    public static class Reflective extends SerializationBenchmark {
+    }
+
+    @Fork(value = 2, jvmArgsAppend = "-Dsun.io.serialization.generatedAccessors=true")
+    public static class Generated extends SerializationBenchmark {
+    }
+
+    public static class Point implements Serializable {
+        private static final long serialVersionUID = 1L;
+        int x;
+        int y;
+        long time;
+        double weight;
+        boolean visible;
+        String label;
+        Point next;
+    }
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private List<Point> message;
+    private byte[] bytes;
+
+    // a message written after the first one with the class descriptors retained
+    private byte[] retainedBytes;
+
+    private ByteArrayOutputStream recycledBytes;
+    private ObjectOutputStream recycledOut;
+    private ObjectInputStream recycledIn;
+
+    @Setup
+    public void setup() throws IOException {
+        message = new ArrayList<>(size);
+        Point previous = null;
+        for (int i = 0; i < size; i++) {
+            Point p = new Point();
+            p.x = i;
+            p.y = -i;
+            p.time = 1_500_000_000_000L + i;
+            p.weight = i * 0.25;
+            p.visible = (i & 1) == 0;
+            p.label = "point-" + (i % 32);
+            p.next = previous;
+            previous = p;
+            message.add(p);
+        }
+        bytes = write();
+
+        recycledBytes = new ByteArrayOutputStream();
+        recycledOut = new ObjectOutputStream(recycledBytes);
+        recycledOut.setRetainClassDescriptors(true);
+        recycledOut.writeObject(message);
+        recycledOut.flush();
+        byte[] first = recycledBytes.toByteArray();
+        recycledBytes.reset();
+        recycledOut.recycle(recycledBytes);
+        recycledOut.writeObject(message);
+        recycledOut.flush();
+        retainedBytes = recycledBytes.toByteArray();
+
+        // the descriptors of the first message are those used by the others
+        recycledIn = new ObjectInputStream(new ByteArrayInputStream(first));
+        recycledIn.setRetainClassDescriptors(true);
+        try {
+            recycledIn.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private byte[] write() throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bout)) {
+            out.writeObject(message);
+        }
+        return bout.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeObject() throws IOException {
+        return write();
+    }
+
+    @Benchmark
+    public Object readObject() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    public int writeObjectRecycled() throws IOException {
+        recycledBytes.reset();
+        recycledOut.recycle(recycledBytes);
+        recycledOut.writeObject(message);
+        recycledOut.flush();
+        return recycledBytes.size();
+    }
+
+    @Benchmark
+    public Object readObjectRecycled() throws IOException, ClassNotFoundException {
+        recycledIn.recycle(new ByteArrayInputStream(retainedBytes));
+        return recycledIn.readObject();
+    }
+}
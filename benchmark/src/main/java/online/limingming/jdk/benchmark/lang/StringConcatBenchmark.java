@@ -0,0 +1,135 @@
+package online.limingming.jdk.benchmark.lang;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * String concatenation of log lines, with the {@code MH_INLINE_SIZED_EXACT}
+ * strategy ({@link Exact}), which converts every operand that is not a
+ * {@code String} or a primitive with {@code String.valueOf}, and with the
+ * {@code MH_INLINE_SIZED_EXACT_DIRECT} strategy ({@link Direct}), which
+ * writes boxed numbers, UUIDs and {@link StringConcatAppendable}s straight
+ * into the result.
+ * <p>
+ * {@code boxed} concatenates a boxed {@code Integer}, a {@code Long} and a
+ * {@link UUID}, {@code appendable} also a {@link StringConcatAppendable}.
+ * Run with {@code -prof gc} to compare the bytes allocated per line
+ * ({@code gc.alloc.rate.norm}).
+ * <p>
+ * {@link StringConcatAppendable} and {@code MH_INLINE_SIZED_EXACT_DIRECT}
+ * are only in the JDK built from the {@code jdk1.9} sources of this
+ * repository.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public abstract class StringConcatBenchmark {
+
+    @Fork(value = 2, jvmArgsAppend = "-Djava.lang.invoke.stringConcat=MH_INLINE_SIZED_EXACT")
+    public static class Exact extends StringConcatBenchmark {
+    }
+
+    @Fork(value = 2, jvmArgsAppend = "-Djava.lang.invoke.stringConcat=MH_INLINE_SIZED_EXACT_DIRECT")
+    public static class Direct extends StringConcatBenchmark {
+    }
+
+    /** A duration in milliseconds, with three decimals. */
+    public static final class Millis implements StringConcatAppendable {
+        private final long whole;
+        private final int fraction;
+
+        Millis(long nanos) {
+            whole = nanos / 1_000_000;
+            fraction = (int) (nanos / 1_000 % 1_000);
+        }
+
+        private static int digits(long v) {
+            int n = 1;
+            while (v >= 10) {
+                v /= 10;
+                n++;
+            }
+            return n;
+        }
+
+        @Override
+        public int concatLength() {
+            return digits(whole) + 4;
+        }
+
+        @Override
+        public boolean isConcatLatin1() {
+            return true;
+        }
+
+        @Override
+        public void concatTo(Sink sink) {
+            sink.append(whole).append('.');
+            if (fraction < 100) {
+                sink.append('0');
+            }
+            if (fraction < 10) {
+                sink.append('0');
+            }
+            sink.append(fraction);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(concatLength());
+            sb.append(whole).append('.');
+            if (fraction < 100) {
+                sb.append('0');
+            }
+            if (fraction < 10) {
+                sb.append('0');
+            }
+            return sb.append(fraction).toString();
+        }
+    }
+
+    private String level;
+    private String thread;
+    private long timestamp;
+    private Integer userId;
+    private Long orderId;
+    private UUID requestId;
+    private Millis elapsed;
+
+    @Setup
+    public void setup() {
+        level = "INFO";
+        thread = "worker-7";
+        timestamp = 1_508_284_800_123L;
+        userId = 1_048_576;
+        orderId = 9_007_199_254_740_993L;
+        requestId = UUID.fromString("3f2a9c4e-8b1d-4e6f-a0c2-5d7e9b1f3a86");
+        elapsed = new Millis(12_345_678L);
+    }
+
+    @Benchmark
+    public String boxed() {
+        return timestamp + " " + level + " [" + thread + "] user=" + userId
+            + " order=" + orderId + " request=" + requestId;
+    }
+
+    @Benchmark
+    public String appendable() {
+        return timestamp + " " + level + " [" + thread + "] user=" + userId
+            + " order=" + orderId + " request=" + requestId
+            + " elapsed=" + elapsed + "ms";
+    }
+}
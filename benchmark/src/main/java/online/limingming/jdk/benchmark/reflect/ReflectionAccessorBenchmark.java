@@ -0,0 +1,159 @@
+package online.limingming.jdk.benchmark.reflect;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Method#invoke} and {@link Constructor#newInstance} through the
+ * native accessors ({@link Native}), the generated bytecode accessors
+ * ({@link Generated}) and the method handle accessors
+ * ({@link MethodHandleAccessors}), as selected by the
+ * {@code sun.reflect.inflationThreshold}, {@code sun.reflect.noInflation}
+ * and {@code sun.reflect.useMethodHandleAccessors} properties.
+ * <p>
+ * The throughput benchmarks call members whose accessors are created once.
+ * {@code firstInvoke} measures the warm-up of a new member: it defines the
+ * target class in a new class loader and invokes one of its static
+ * methods once, which creates the accessor; {@code loadOnly} is the same without the
+ * invocation, so that the difference is the cost of the accessor.
+ * <p>
+ * The method handle accessors are only in the JDK built from the
+ * {@code jdk1.9} sources of this repository; elsewhere the setup of
+ * {@link MethodHandleAccessors} fails, rather than measuring the generated
+ * accessors again.
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public abstract class ReflectionAccessorBenchmark {
+
+    @Fork(value = 2, jvmArgsAppend = "-Dsun.reflect.inflationThreshold=2147483647")
+    public static class Native extends ReflectionAccessorBenchmark {
+    }
+
+    @Fork(value = 2, jvmArgsAppend = "-Dsun.reflect.noInflation=true")
+    public static class Generated extends ReflectionAccessorBenchmark {
+    }
+
+    @Fork(value = 2, jvmArgsAppend = {"-Dsun.reflect.noInflation=true",
+                                      "-Dsun.reflect.useMethodHandleAccessors=true"})
+    public static class MethodHandleAccessors extends ReflectionAccessorBenchmark {
+        @Setup
+        public void checkSupported() {
+            try {
+                Class.forName("jdk.internal.reflect.MethodHandleMethodAccessorImpl",
+                              false, null);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(
+                    "sun.reflect.useMethodHandleAccessors is not supported by this JDK");
+            }
+        }
+    }
+
+    public static class Target {
+        private int value;
+
+        public Target() {
+        }
+
+        public Target(int value) {
+            this.value = value;
+        }
+
+        public int add(int x) {
+            return value += x;
+        }
+
+        public static long mix(long x, Object o) {
+            return x * 31 + o.hashCode();
+        }
+    }
+
+    /** Defines each class it is given; a new loader can define it again. */
+    private static final class Loader extends ClassLoader {
+        Loader() {
+            super(ReflectionAccessorBenchmark.class.getClassLoader());
+        }
+
+        Class<?> define(byte[] bytes) {
+            return defineClass(null, bytes, 0, bytes.length);
+        }
+    }
+
+    private Target target;
+    private Method add;
+    private Method mix;
+    private Constructor<Target> constructor;
+    private Integer one;
+    private Long seed;
+    private String key;
+
+    private byte[] targetBytes;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException, IOException {
+        target = new Target();
+        add = Target.class.getMethod("add", int.class);
+        mix = Target.class.getMethod("mix", long.class, Object.class);
+        constructor = Target.class.getConstructor(int.class);
+        one = 1;
+        seed = 17L;
+        key = "key";
+        try (InputStream in = Target.class.getResourceAsStream(
+                 "ReflectionAccessorBenchmark$Target.class")) {
+            targetBytes = in.readAllBytes();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object invokeVirtual() throws ReflectiveOperationException {
+        return add.invoke(target, one);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object invokeStatic() throws ReflectiveOperationException {
+        return mix.invoke(null, seed, key);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object newInstance() throws ReflectiveOperationException {
+        return constructor.newInstance(one);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object loadOnly() throws ReflectiveOperationException {
+        Class<?> c = new Loader().define(targetBytes);
+        return c.getMethod("mix", long.class, Object.class);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object firstInvoke() throws ReflectiveOperationException {
+        Class<?> c = new Loader().define(targetBytes);
+        Method m = c.getMethod("mix", long.class, Object.class);
+        return m.invoke(null, seed, key);
+    }
+}
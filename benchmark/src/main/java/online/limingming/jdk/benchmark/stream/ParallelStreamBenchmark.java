@@ -0,0 +1,103 @@
+package online.limingming.jdk.benchmark.stream;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import online.limingming.jdk.benchmark.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scaling of parallel stream pipelines with the number of cores.
+ * <p>
+ * A parallel stream runs its tasks in the {@link ForkJoinPool} of the
+ * thread that starts the terminal operation, so each pipeline is started
+ * from a task of a pool of {@code parallelism} threads.  A parallelism of
+ * {@code 0} runs the sequential pipeline, for reference.  The values above
+ * the number of available processors measure oversubscription.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ParallelStreamBenchmark {
+
+    @Param({"0", "1", "2", "4", "8", "16", "32"})
+    public int parallelism;
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private ForkJoinPool pool;
+    private int[] ints;
+
+    @Setup
+    public void setup() {
+        pool = (parallelism > 0) ? new ForkJoinPool(parallelism) : null;
+        ints = BenchmarkData.ints("random", size);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private IntStream ints() {
+        IntStream s = IntStream.of(ints);
+        return (pool != null) ? s.parallel() : s;
+    }
+
+    private <T> T run(Callable<T> pipeline) throws Exception {
+        return (pool != null) ? pool.submit(pipeline).get() : pipeline.call();
+    }
+
+    /** A computation bound pipeline, with no allocation. */
+    @Benchmark
+    public long sumOfSquares() throws Exception {
+        return run(() -> {
+            LongStream s = LongStream.range(0, size);
+            return ((pool != null) ? s.parallel() : s).map(i -> i * i).sum();
+        });
+    }
+
+    @Benchmark
+    public long filterCount() throws Exception {
+        return run(() -> ints().filter(i -> (i & 1) == 0).count());
+    }
+
+    @Benchmark
+    public List<Integer> mapCollect() throws Exception {
+        return run(() -> ints().mapToObj(Integer::valueOf).collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> groupingBy() throws Exception {
+        return run(() -> ints().boxed().collect(
+                Collectors.groupingBy(i -> i & 0xFF, Collectors.counting())));
+    }
+
+    @Benchmark
+    public int[] sorted() throws Exception {
+        return run(() -> ints().sorted().toArray());
+    }
+}
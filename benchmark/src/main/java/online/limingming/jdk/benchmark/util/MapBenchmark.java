@@ -0,0 +1,136 @@
+package online.limingming.jdk.benchmark.util;
+
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+import online.limingming.jdk.benchmark.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Put, get and iteration of the {@link Map} implementations, for several
+ * sizes.  The hash maps are also run for several load factors, which the
+ * sorted maps do not have.
+ * <p>
+ * {@code put} fills a new map with default capacity, so it includes the
+ * resizes, and is measured per map; {@code get}, {@code getMissing} and
+ * {@code iterate} use a map filled once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public abstract class MapBenchmark {
+
+    public static class Hashed extends MapBenchmark {
+        @Param({"HashMap", "LinkedHashMap", "Hashtable", "ConcurrentHashMap"})
+        public String impl;
+
+        @Param({"0.5", "0.75", "1.0"})
+        public float loadFactor;
+
+        @Override
+        Map<Integer, Integer> newMap() {
+            switch (impl) {
+                case "HashMap":
+                    return new HashMap<>(16, loadFactor);
+                case "LinkedHashMap":
+                    return new LinkedHashMap<>(16, loadFactor);
+                case "Hashtable":
+                    return new Hashtable<>(16, loadFactor);
+                case "ConcurrentHashMap":
+                    return new ConcurrentHashMap<>(16, loadFactor);
+                default:
+                    throw new IllegalArgumentException("Unknown map: " + impl);
+            }
+        }
+    }
+
+    public static class Sorted extends MapBenchmark {
+        @Param({"TreeMap", "ConcurrentSkipListMap"})
+        public String impl;
+
+        @Override
+        Map<Integer, Integer> newMap() {
+            switch (impl) {
+                case "TreeMap":
+                    return new TreeMap<>();
+                case "ConcurrentSkipListMap":
+                    return new ConcurrentSkipListMap<>();
+                default:
+                    throw new IllegalArgumentException("Unknown map: " + impl);
+            }
+        }
+    }
+
+    @Param({"16", "1024", "65536", "1048576"})
+    public int size;
+
+    private Integer[] keys;
+    private Integer[] missing;
+    private Map<Integer, Integer> map;
+    private int index;
+
+    @Setup
+    public void setup() {
+        keys = BenchmarkData.distinctKeys(size);
+        missing = BenchmarkData.missingKeys(size);
+        map = newMap();
+        for (Integer key : keys) {
+            map.put(key, key);
+        }
+    }
+
+    abstract Map<Integer, Integer> newMap();
+
+    @Benchmark
+    public Map<Integer, Integer> put() {
+        Map<Integer, Integer> m = newMap();
+        for (Integer key : keys) {
+            m.put(key, key);
+        }
+        return m;
+    }
+
+    private int nextIndex() {
+        int i = index;
+        index = (i + 1 == size) ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public Integer get() {
+        return map.get(keys[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer getMissing() {
+        return map.get(missing[nextIndex()]);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole bh) {
+        for (Map.Entry<Integer, Integer> e : map.entrySet()) {
+            bh.consume(e.getKey());
+            bh.consume(e.getValue());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package online.limingming.jdk.benchmark.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import online.limingming.jdk.benchmark.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The sort variants of the JDK: dual-pivot quicksort of primitives, parallel
+ * merge sort, TimSort of objects with and without a comparator, and the
+ * sort of lists and streams, on several distributions of the input.
+ * <p>
+ * Every benchmark sorts a copy of the same input; {@code copy} measures the
+ * copy alone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SortBenchmark {
+
+    @Param({"random", "sorted", "reversed", "nearlySorted", "fewUnique"})
+    public String distribution;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private int[] ints;
+    private Integer[] boxed;
+    private List<Integer> list;
+
+    @Setup
+    public void setup() {
+        ints = BenchmarkData.ints(distribution, size);
+        boxed = BenchmarkData.boxed(ints);
+        list = Arrays.asList(boxed);
+    }
+
+    @Benchmark
+    public int[] copy() {
+        return ints.clone();
+    }
+
+    @Benchmark
+    public int[] sortInts() {
+        int[] a = ints.clone();
+        Arrays.sort(a);
+        return a;
+    }
+
+    @Benchmark
+    public int[] parallelSortInts() {
+        int[] a = ints.clone();
+        Arrays.parallelSort(a);
+        return a;
+    }
+
+    @Benchmark
+    public Integer[] sortObjects() {
+        Integer[] a = boxed.clone();
+        Arrays.sort(a);
+        return a;
+    }
+
+    @Benchmark
+    public Integer[] sortObjectsWithComparator() {
+        Integer[] a = boxed.clone();
+        Arrays.sort(a, Comparator.reverseOrder());
+        return a;
+    }
+
+    @Benchmark
+    public Integer[] parallelSortObjects() {
+        Integer[] a = boxed.clone();
+        Arrays.parallelSort(a);
+        return a;
+    }
+
+    @Benchmark
+    public List<Integer> sortList() {
+        List<Integer> l = new ArrayList<>(list);
+        Collections.sort(l);
+        return l;
+    }
+
+    @Benchmark
+    public int[] sortedStream() {
+        return Arrays.stream(ints).sorted().toArray();
+    }
+
+    @Benchmark
+    public int[] sortedParallelStream() {
+        return Arrays.stream(ints).parallel().sorted().toArray();
+    }
+}
@@ -294,6 +294,8 @@ public class ObjectInputStream
     private final boolean enableOverride;
     /** if true, invoke resolveObject() */
     private boolean enableResolve;
+    /** if true, class descriptors are kept when the stream is reset */
+    private boolean retainClassDescriptors;
 
     /**
      * Context during upcalls to class-defined readObject methods; holds
@@ -963,6 +965,67 @@ public class ObjectInputStream
         bin.close();
     }
 
+    /**
+     * Specifies whether the class descriptors already read from the stream
+     * are kept when the stream is reset by the corresponding {@code
+     * ObjectOutputStream}, or {@linkplain #recycle(InputStream) recycled}.
+     * The same value must be set at the same point of the stream with
+     * {@link ObjectOutputStream#setRetainClassDescriptors} on the stream that
+     * writes it, or the objects read after a reset will be corrupted.  By
+     * default class descriptors are not kept.
+     *
+     * @param   retain true to keep the class descriptors on reset
+     * @throws  IOException if invoked while deserializing an object
+     * @see     ObjectOutputStream#setRetainClassDescriptors(boolean)
+     * @since   9
+     */
+    public void setRetainClassDescriptors(boolean retain) throws IOException {
+        if (depth != 0) {
+            throw new IOException("stream active");
+        }
+        retainClassDescriptors = retain;
+    }
+
+    /**
+     * Starts reading a new serialization stream from the given input stream,
+     * reusing the buffers and tables of this stream.  The objects read from
+     * this stream are forgotten, as if the stream were reset, and the stream
+     * header is read from the new input stream.  The previous input stream is
+     * not closed, and any data that remains in it is ignored.  The
+     * serialization filter of this stream is unchanged.
+     *
+     * <p>This method lets a single {@code ObjectInputStream} read a sequence
+     * of messages, each from its own input stream, such as those written by
+     * an {@code ObjectOutputStream} with {@link
+     * ObjectOutputStream#recycle(OutputStream)}.
+     *
+     * @param   in input stream to read the next message from
+     * @throws  StreamCorruptedException if the stream header is incorrect
+     * @throws  IOException if invoked while deserializing an object, or if an
+     *          I/O error occurs while reading the stream header
+     * @throws  IllegalStateException if this stream was created by the
+     *          no-arg constructor of a subclass
+     * @throws  NullPointerException if {@code in} is {@code null}
+     * @since   9
+     */
+    public void recycle(InputStream in) throws IOException {
+        Objects.requireNonNull(in);
+        if (enableOverride) {
+            throw new IllegalStateException("stream not recyclable");
+        }
+        if (depth != 0) {
+            throw new IOException("stream active");
+        }
+        bin.setInputStream(in);
+        clear();
+        totalObjectRefs = 0;
+        passHandle = NULL_HANDLE;
+        defaultDataEnd = false;
+        closed = false;
+        readStreamHeader();
+        bin.setBlockDataMode(true);
+    }
+
     /**
      * Reads in a boolean.
      *
@@ -1497,7 +1560,11 @@ public class ObjectInputStream
      * Clears internal data structures.
      */
     private void clear() {
-        handles.clear();
+        if (retainClassDescriptors) {
+            handles.retainClassDescriptors();
+        } else {
+            handles.clear();
+        }
         vlist.clear();
     }
 
@@ -1767,6 +1834,9 @@ public class ObjectInputStream
 
         ObjectStreamClass desc = new ObjectStreamClass();
         int descHandle = handles.assign(unshared ? unsharedMarker : desc);
+        if (!unshared) {
+            handles.markClassDescriptor(descHandle);
+        }
         passHandle = NULL_HANDLE;
 
         int numIfaces = bin.readInt();
@@ -1832,6 +1902,9 @@ public class ObjectInputStream
 
         ObjectStreamClass desc = new ObjectStreamClass();
         int descHandle = handles.assign(unshared ? unsharedMarker : desc);
+        if (!unshared) {
+            handles.markClassDescriptor(descHandle);
+        }
         passHandle = NULL_HANDLE;
 
         ObjectStreamClass readDesc;
@@ -2663,7 +2736,7 @@ public class ObjectInputStream
     private static class PeekInputStream extends InputStream {
 
         /** underlying stream */
-        private final InputStream in;
+        private InputStream in;
         /** peeked byte */
         private int peekb = -1;
         /** total bytes read from the stream */
@@ -2676,6 +2749,15 @@ public class ObjectInputStream
             this.in = in;
         }
 
+        /**
+         * Replaces the underlying stream, dropping the peeked byte.
+         */
+        void setInputStream(InputStream in) {
+            this.in = in;
+            peekb = -1;
+            totalBytesRead = 0;
+        }
+
         /**
          * Peeks at next byte value in stream.  Similar to read(), except
          * that it does not consume the read value.
@@ -2830,6 +2912,18 @@ public class ObjectInputStream
             din = new DataInputStream(this);
         }
 
+        /**
+         * Replaces the underlying stream, dropping any buffered data, and
+         * turns block data mode off.
+         */
+        void setInputStream(InputStream in) {
+            this.in.setInputStream(in);
+            blkmode = false;
+            pos = 0;
+            end = -1;
+            unread = 0;
+        }
+
         /**
          * Sets block data mode to the given mode (true == on, false == off)
          * and returns the previous mode value.  If the new mode is the same as
@@ -3691,6 +3785,8 @@ public class ObjectInputStream
         Object[] entries;
         /** array mapping handle -> list of dependent handles (if any) */
         HandleList[] deps;
+        /** array mapping handle -> true if class descriptor */
+        boolean[] classDescs;
         /** lowest unresolved dependency */
         int lowDep = -1;
         /** number of handles in table */
@@ -3703,6 +3799,7 @@ public class ObjectInputStream
             status = new byte[initialCapacity];
             entries = new Object[initialCapacity];
             deps = new HandleList[initialCapacity];
+            classDescs = new boolean[initialCapacity];
         }
 
         /**
@@ -3889,10 +3986,41 @@ public class ObjectInputStream
             Arrays.fill(status, 0, size, (byte) 0);
             Arrays.fill(entries, 0, size, null);
             Arrays.fill(deps, 0, size, null);
+            Arrays.fill(classDescs, 0, size, false);
             lowDep = -1;
             size = 0;
         }
 
+        /**
+         * Marks the given handle as the handle of a class descriptor.
+         */
+        void markClassDescriptor(int handle) {
+            classDescs[handle] = true;
+        }
+
+        /**
+         * Removes all handles but those of class descriptors, and renumbers
+         * these in ascending order from 0, in the order of their previous
+         * handles.  Must be called when no handle is open.
+         */
+        void retainClassDescriptors() {
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (classDescs[i]) {
+                    status[n] = status[i];
+                    entries[n] = entries[i];
+                    classDescs[n] = true;
+                    n++;
+                }
+            }
+            Arrays.fill(status, n, size, (byte) 0);
+            Arrays.fill(entries, n, size, null);
+            Arrays.fill(deps, 0, size, null);
+            Arrays.fill(classDescs, n, size, false);
+            lowDep = -1;
+            size = n;
+        }
+
         /**
          * Returns number of handles registered in table.
          */
@@ -3909,14 +4037,17 @@ public class ObjectInputStream
             byte[] newStatus = new byte[newCapacity];
             Object[] newEntries = new Object[newCapacity];
             HandleList[] newDeps = new HandleList[newCapacity];
+            boolean[] newClassDescs = new boolean[newCapacity];
 
             System.arraycopy(status, 0, newStatus, 0, size);
             System.arraycopy(entries, 0, newEntries, 0, size);
             System.arraycopy(deps, 0, newDeps, 0, size);
+            System.arraycopy(classDescs, 0, newClassDescs, 0, size);
 
             status = newStatus;
             entries = newEntries;
             deps = newDeps;
+            classDescs = newClassDescs;
         }
 
         /**
@@ -32,6 +32,7 @@ import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.StringJoiner;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -192,6 +193,8 @@ public class ObjectOutputStream
     private final boolean enableOverride;
     /** if true, invoke replaceObject() */
     private boolean enableReplace;
+    /** if true, class descriptors are kept when the stream is reset */
+    private boolean retainClassDescriptors;
 
     // values below valid only during upcalls to writeObject()/writeExternal()
     /**
@@ -504,6 +507,71 @@ public class ObjectOutputStream
         bout.setBlockDataMode(true);
     }
 
+    /**
+     * Specifies whether the class descriptors already written to the stream
+     * are kept when the stream is {@linkplain #reset() reset} or
+     * {@linkplain #recycle(OutputStream) recycled}.  If they are kept, a
+     * class descriptor is written once, and the objects of its class written
+     * after a reset refer to it instead of writing it again.
+     *
+     * <p>This is not part of the serialization protocol: the stream must be
+     * read by an {@code ObjectInputStream} for which the same value has been
+     * set with {@link ObjectInputStream#setRetainClassDescriptors} at the
+     * same point of the stream.  By default class descriptors are not kept.
+     *
+     * @param   retain true to keep the class descriptors on reset
+     * @throws  IOException if invoked while serializing an object
+     * @see     ObjectInputStream#setRetainClassDescriptors(boolean)
+     * @since   9
+     */
+    public void setRetainClassDescriptors(boolean retain) throws IOException {
+        if (depth != 0) {
+            throw new IOException("stream active");
+        }
+        retainClassDescriptors = retain;
+    }
+
+    /**
+     * Flushes this stream, and starts a new serialization stream on the given
+     * output stream, reusing the buffers and tables of this stream.  The
+     * state of this stream is reset as by {@link #reset()}, except that no
+     * reset mark is written, and the stream header is written to the new
+     * output stream.  The previous output stream is not closed.
+     *
+     * <p>This method lets a single {@code ObjectOutputStream} write a
+     * sequence of messages, each to its own output stream, without creating a
+     * stream per message.  Each message can be read by a new
+     * {@code ObjectInputStream}, or by an {@code ObjectInputStream} recycled
+     * with {@link ObjectInputStream#recycle(InputStream)}.  If {@linkplain
+     * #setRetainClassDescriptors class descriptors are retained}, the
+     * messages must be read in order by a single recycled
+     * {@code ObjectInputStream}, which retains them too.
+     *
+     * @param   out output stream to write the next message to
+     * @throws  IOException if invoked while serializing an object, or if an
+     *          I/O error occurs while flushing this stream or writing the
+     *          stream header
+     * @throws  IllegalStateException if this stream was created by the
+     *          no-arg constructor of a subclass
+     * @throws  NullPointerException if {@code out} is {@code null}
+     * @since   9
+     */
+    public void recycle(OutputStream out) throws IOException {
+        Objects.requireNonNull(out);
+        if (enableOverride) {
+            throw new IllegalStateException("stream not recyclable");
+        }
+        if (depth != 0) {
+            throw new IOException("stream active");
+        }
+        bout.setBlockDataMode(false);
+        bout.flush();
+        bout.setOutputStream(out);
+        clear();
+        writeStreamHeader();
+        bout.setBlockDataMode(true);
+    }
+
     /**
      * Subclasses may implement this method to allow class data to be stored in
      * the stream. By default this method does nothing.  The corresponding
@@ -1097,7 +1165,11 @@ public class ObjectOutputStream
      */
     private void clear() {
         subs.clear();
-        handles.clear();
+        if (retainClassDescriptors) {
+            handles.retainClassDescriptors();
+        } else {
+            handles.clear();
+        }
     }
 
     /**
@@ -1765,7 +1837,7 @@ public class ObjectOutputStream
         private int pos = 0;
 
         /** underlying output stream */
-        private final OutputStream out;
+        private OutputStream out;
         /** loopback stream (for data writes that span data blocks) */
         private final DataOutputStream dout;
 
@@ -1778,6 +1850,14 @@ public class ObjectOutputStream
             dout = new DataOutputStream(this);
         }
 
+        /**
+         * Replaces the underlying stream.  Must be called with block data
+         * mode off and no buffered data.
+         */
+        void setOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
         /**
          * Sets block data mode to the given mode (true == on, false == off)
          * and returns the previous mode value.  If the new mode is the same as
@@ -2306,14 +2386,42 @@ public class ObjectOutputStream
         }
 
         /**
-         * Resets table to its initial (empty) state.
+         * Resets table to its initial (empty) state.  If the table has few
+         * mappings for its size, only their buckets are cleared.
          */
         void clear() {
-            Arrays.fill(spine, -1);
+            if (size < spine.length >> 2) {
+                for (int i = 0; i < size; i++) {
+                    spine[hash(objs[i]) % spine.length] = -1;
+                }
+            } else {
+                Arrays.fill(spine, -1);
+            }
             Arrays.fill(objs, 0, size, null);
             size = 0;
         }
 
+        /**
+         * Removes the mappings of all objects but class descriptors, and
+         * reassigns handles to the descriptors in ascending order from 0,
+         * in the order of their previous handles.
+         */
+        void retainClassDescriptors() {
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (objs[i] instanceof ObjectStreamClass) {
+                    objs[n++] = objs[i];
+                }
+            }
+            int oldSize = size;
+            size = n;
+            Arrays.fill(spine, -1);
+            Arrays.fill(objs, n, oldSize, null);
+            for (int i = 0; i < n; i++) {
+                insert(objs[i], i);
+            }
+        }
+
         /**
          * Returns the number of mappings currently in table.
          */
@@ -52,6 +52,7 @@ import jdk.internal.misc.Unsafe;
 import jdk.internal.reflect.CallerSensitive;
 import jdk.internal.reflect.Reflection;
 import jdk.internal.reflect.ReflectionFactory;
+import jdk.internal.reflect.SerialFieldAccessor;
 import sun.reflect.misc.ReflectUtil;
 
 import static java.io.ObjectStreamField.*;
@@ -87,6 +88,15 @@ public class ObjectStreamClass implements Serializable {
         AccessController.doPrivileged(
             new ReflectionFactory.GetReflectionFactoryAction());
 
+    /**
+     * true if field reflectors use generated accessors, from the value of
+     * the "sun.io.serialization.generatedAccessors" property
+     */
+    private static final boolean generatedAccessors =
+        AccessController.doPrivileged(
+            new sun.security.action.GetBooleanAction(
+                "sun.io.serialization.generatedAccessors")).booleanValue();
+
     private static class Caches {
         /** cache mapping local classes -> descriptors */
         static final ConcurrentMap<WeakClassKey,Reference<?>> localDescs =
@@ -1852,8 +1862,10 @@ public class ObjectStreamClass implements Serializable {
 
     /**
      * Class for setting and retrieving serializable field values in batch.
+     * If generated accessors are enabled, the values are read, and the
+     * non-final fields set, by a class generated for the fields, which
+     * is cached with the reflector.  The serialized form is the same.
      */
-    // REMIND: dynamically generate these?
     private static class FieldReflector {
 
         /** handle for performing unsafe operations */
@@ -1867,6 +1879,10 @@ public class ObjectStreamClass implements Serializable {
         private final long[] readKeys;
         /** unsafe fields keys for writing fields - no dupes */
         private final long[] writeKeys;
+        /** unsafe field keys for writing fields not set by the accessor */
+        private final long[] unsafeWriteKeys;
+        /** generated accessor of the fields, or null */
+        private final SerialFieldAccessor accessor;
         /** field data offsets */
         private final int[] offsets;
         /** field type codes */
@@ -1909,6 +1925,56 @@ public class ObjectStreamClass implements Serializable {
 
             types = typeList.toArray(new Class<?>[typeList.size()]);
             numPrimFields = nfields - types.length;
+
+            unsafeWriteKeys = writeKeys.clone();
+            accessor = generatedAccessors ? generateAccessor() : null;
+        }
+
+        /**
+         * Generates the accessor of the fields, and clears the unsafe keys
+         * of the fields it sets.  Returns null if the fields are not all
+         * declared by the same class, or if the accessor cannot be
+         * generated.
+         */
+        private SerialFieldAccessor generateAccessor() {
+            int nfields = fields.length;
+            Field[] getFields = new Field[nfields];
+            Field[] setFields = new Field[nfields];
+            Class<?> cl = null;
+            for (int i = 0; i < nfields; i++) {
+                Field rf = fields[i].getField();
+                if (rf == null) {
+                    continue;
+                }
+                if (cl == null) {
+                    cl = rf.getDeclaringClass();
+                } else if (cl != rf.getDeclaringClass()) {
+                    return null;
+                }
+                getFields[i] = rf;
+                if (writeKeys[i] != Unsafe.INVALID_FIELD_OFFSET &&
+                    !Modifier.isFinal(rf.getModifiers())) {
+                    setFields[i] = rf;
+                }
+            }
+            if (cl == null) {
+                return null;
+            }
+            SerialFieldAccessor acc;
+            try {
+                acc = reflFactory.newFieldAccessorForSerialization(
+                    cl, getFields, setFields, offsets);
+            } catch (InternalError | LinkageError | IllegalArgumentException e) {
+                return null;
+            }
+            if (acc != null) {
+                for (int i = 0; i < nfields; i++) {
+                    if (setFields[i] != null) {
+                        unsafeWriteKeys[i] = Unsafe.INVALID_FIELD_OFFSET;
+                    }
+                }
+            }
+            return acc;
         }
 
         /**
@@ -1930,6 +1996,10 @@ public class ObjectStreamClass implements Serializable {
             if (obj == null) {
                 throw new NullPointerException();
             }
+            if (accessor != null) {
+                accessor.getPrimFieldValues(obj, buf);
+                return;
+            }
             /* assuming checkDefaultSerialize() has been called on the class
              * descriptor this FieldReflector was obtained from, no field keys
              * in array should be equal to Unsafe.INVALID_FIELD_OFFSET.
@@ -1985,10 +2055,13 @@ public class ObjectStreamClass implements Serializable {
             if (obj == null) {
                 throw new NullPointerException();
             }
+            if (accessor != null) {
+                accessor.setPrimFieldValues(obj, buf);
+            }
             for (int i = 0; i < numPrimFields; i++) {
-                long key = writeKeys[i];
+                long key = unsafeWriteKeys[i];
                 if (key == Unsafe.INVALID_FIELD_OFFSET) {
-                    continue;           // discard value
+                    continue;           // discard or already set value
                 }
                 int off = offsets[i];
                 switch (typeCodes[i]) {
@@ -2039,6 +2112,10 @@ public class ObjectStreamClass implements Serializable {
             if (obj == null) {
                 throw new NullPointerException();
             }
+            if (accessor != null) {
+                accessor.getObjFieldValues(obj, vals);
+                return;
+            }
             /* assuming checkDefaultSerialize() has been called on the class
              * descriptor this FieldReflector was obtained from, no field keys
              * in array should be equal to Unsafe.INVALID_FIELD_OFFSET.
@@ -2073,6 +2150,18 @@ public class ObjectStreamClass implements Serializable {
          * ClassCastException.
          */
         void setObjFieldValues(Object obj, Object[] vals) {
+            if (accessor != null) {
+                if (obj == null) {
+                    throw new NullPointerException();
+                }
+                try {
+                    accessor.setObjFieldValues(obj, vals);
+                } catch (ClassCastException e) {
+                    // throw the exception that names the field
+                    setObjFieldValues(obj, vals, true);
+                    throw e;
+                }
+            }
             setObjFieldValues(obj, vals, false);
         }
 
@@ -2081,9 +2170,9 @@ public class ObjectStreamClass implements Serializable {
                 throw new NullPointerException();
             }
             for (int i = numPrimFields; i < fields.length; i++) {
-                long key = writeKeys[i];
+                long key = dryRun ? writeKeys[i] : unsafeWriteKeys[i];
                 if (key == Unsafe.INVALID_FIELD_OFFSET) {
-                    continue;           // discard value
+                    continue;           // discard or already set value
                 }
                 switch (typeCodes[i]) {
                     case 'L':
@@ -26,10 +26,20 @@
 package java.lang;
 
 import jdk.internal.math.FloatingDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.util.Arrays;
+import java.util.Objects;
 import java.util.Spliterator;
 import java.util.stream.IntStream;
 import java.util.stream.StreamSupport;
+import sun.nio.cs.ByteBufferStringCoder;
 
 import static java.lang.String.COMPACT_STRINGS;
 import static java.lang.String.UTF16;
@@ -259,6 +269,39 @@ abstract class AbstractStringBuilder implements Appendable, CharSequence {
         count = newLength;
     }
 
+    /**
+     * Empties this sequence so that its storage can be reused, releasing
+     * the storage if it has grown beyond the given capacity.
+     *
+     * <p>The length becomes {@code 0}.  If the current capacity is greater
+     * than {@code maxCapacity}, the storage is replaced with storage of
+     * capacity {@code maxCapacity}; otherwise it is kept and can be filled
+     * again without allocation.  Storage that was widened to hold characters
+     * outside of the Latin-1 range is reused in the compact form, at twice
+     * its former capacity.
+     *
+     * @param  maxCapacity  the maximum capacity retained.
+     * @return a reference to this object.
+     * @throws IllegalArgumentException if {@code maxCapacity} is negative.
+     * @since 9
+     */
+    public AbstractStringBuilder reset(int maxCapacity) {
+        if (maxCapacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + maxCapacity);
+        }
+        if (COMPACT_STRINGS) {
+            // the bytes of UTF16 storage serve as Latin1 storage
+            if (value.length > maxCapacity) {
+                value = new byte[maxCapacity];
+            }
+            coder = LATIN1;
+        } else if ((value.length >> 1) > maxCapacity) {
+            value = StringUTF16.newBytesFor(maxCapacity);
+        }
+        count = 0;
+        return this;
+    }
+
     /**
      * Returns the {@code char} value in this sequence at the specified index.
      * The first {@code char} value is at index {@code 0}, the next at index
@@ -662,6 +705,114 @@ abstract class AbstractStringBuilder implements Appendable, CharSequence {
         return this;
     }
 
+    /**
+     * Appends the characters decoded from the remaining bytes of the given
+     * buffer to this sequence.
+     * <p>
+     * The bytes from the buffer's position up to its limit are decoded with
+     * the given charset and the buffer's position is advanced to its limit.
+     * Malformed input and unmappable characters are replaced with the
+     * charset's default replacement, as by {@link
+     * String#String(byte[],java.nio.charset.Charset) String(byte[], Charset)}.
+     * The overall effect is exactly as if the bytes were decoded to a
+     * string which was then {@link #append(String) appended} to this
+     * character sequence, but while this sequence holds only Latin-1
+     * characters, bytes in the ISO-8859-1 and US-ASCII charsets, and
+     * UTF-8 bytes of Latin-1 characters, are decoded directly into its
+     * storage.
+     *
+     * @param   src   the buffer holding the bytes to decode.
+     * @param   cs    the charset used to decode the bytes.
+     * @return  a reference to this object.
+     * @since 9
+     */
+    public AbstractStringBuilder append(ByteBuffer src, Charset cs) {
+        Objects.requireNonNull(cs);
+        int n = src.remaining();
+        if (n == 0) {
+            return this;
+        }
+        if (cs instanceof ByteBufferStringCoder) {
+            ByteBufferStringCoder coder = (ByteBufferStringCoder)cs;
+            if (isLatin1()) {
+                // each byte decodes to at most one character
+                ensureCapacityInternal(count + n);
+                count = coder.decodeLatin1(src, value, count);
+                if (!src.hasRemaining()) {
+                    return this;
+                }
+            }
+            return append(coder.decodeToString(src));
+        }
+        CharsetDecoder cd = cs.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        int len = (int)Math.min((long)(src.remaining() * (double)cd.maxCharsPerByte()) + 1,
+                                DECODE_CHUNK_SIZE);
+        char[] ca = new char[Math.max(len, 2)];
+        CharBuffer cb = CharBuffer.wrap(ca);
+        CoderResult cr;
+        do {
+            cr = cd.decode(src, cb, true);
+            append(ca, 0, cb.position());
+            cb.clear();
+        } while (cr.isOverflow());
+        do {
+            cr = cd.flush(cb);
+            append(ca, 0, cb.position());
+            cb.clear();
+        } while (cr.isOverflow());
+        return this;
+    }
+
+    /**
+     * The maximum number of characters decoded at a time by
+     * {@link #append(ByteBuffer,Charset)} if the charset cannot be decoded
+     * directly into the storage of this sequence.
+     */
+    private static final int DECODE_CHUNK_SIZE = 1024;
+
+    /**
+     * Encodes the characters of this sequence with the given charset into
+     * the given buffer, starting at its position.
+     * <p>
+     * Malformed-input and unmappable-character sequences are replaced with
+     * the charset's default replacement byte array, as by {@link
+     * String#getBytes(java.nio.charset.Charset) String.getBytes(Charset)}.
+     * If the buffer has enough room for the encoded bytes, its position is
+     * advanced by their number.  Otherwise a {@code BufferOverflowException}
+     * is thrown and the buffer's position is left unchanged, although bytes
+     * past it may have been modified.  No intermediate string is created.
+     *
+     * @param   dst   the buffer into which the bytes are written.
+     * @param   cs    the charset used to encode the characters.
+     * @return  the number of bytes written.
+     * @throws  java.nio.BufferOverflowException
+     *          if there is insufficient space in the buffer.
+     * @throws  java.nio.ReadOnlyBufferException
+     *          if the buffer is read-only.
+     * @since 9
+     */
+    public int appendTo(ByteBuffer dst, Charset cs) {
+        Objects.requireNonNull(cs);
+        if (isLatin1() && cs instanceof ByteBufferStringCoder) {
+            return ((ByteBufferStringCoder)cs).encodeLatin1(value, count, dst);
+        }
+        CharsetEncoder ce = cs.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        int start = dst.position();
+        CoderResult cr = ce.encode(CharBuffer.wrap(this, 0, count), dst, true);
+        if (cr.isUnderflow()) {
+            cr = ce.flush(dst);
+        }
+        if (cr.isOverflow()) {
+            dst.position(start);
+            throw new BufferOverflowException();
+        }
+        return dst.position() - start;
+    }
+
     /**
      * Appends the string representation of the {@code boolean}
      * argument to the sequence.
@@ -29,6 +29,9 @@ import java.io.InputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.io.File;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.net.URL;
@@ -289,10 +292,15 @@ public abstract class ClassLoader {
     }
 
     // Maps class name to the corresponding lock object when the current
-    // class loader is parallel capable.
+    // class loader is parallel capable.  The lock objects are weakly
+    // referenced so that the entry of a class name goes away once no thread
+    // holds or waits for its lock.
     // Note: VM also uses this field to decide if the current class loader
     // is parallel capable and the appropriate lock object for class loading.
-    private final ConcurrentHashMap<String, Object> parallelLockMap;
+    private final ConcurrentHashMap<String, LockRef> parallelLockMap;
+
+    // Queue of the references to the collected lock objects
+    private final ReferenceQueue<Object> parallelLockQueue;
 
     // Maps packages to certs
     private final Map <String, Certificate[]> package2certs;
@@ -370,11 +378,13 @@ public abstract class ClassLoader {
         this.unnamedModule = new Module(this);
         if (ParallelLoaders.isRegistered(this.getClass())) {
             parallelLockMap = new ConcurrentHashMap<>();
+            parallelLockQueue = new ReferenceQueue<>();
             package2certs = new ConcurrentHashMap<>();
             assertionLock = new Object();
         } else {
             // no finer-grained lock; lock on the classloader instance
             parallelLockMap = null;
+            parallelLockQueue = null;
             package2certs = new Hashtable<>();
             assertionLock = this;
         }
@@ -620,8 +630,9 @@ public abstract class ClassLoader {
      * For backward compatibility, the default implementation of this method
      * behaves as follows. If this ClassLoader object is registered as
      * parallel capable, the method returns a dedicated object associated
-     * with the specified class name. Otherwise, the method returns this
-     * ClassLoader object.
+     * with the specified class name; once no longer referenced, such an
+     * object may be discarded and a new one associated with the name.
+     * Otherwise, the method returns this ClassLoader object.
      *
      * @param  className
      *         The name of the to-be-loaded class
@@ -636,15 +647,57 @@ public abstract class ClassLoader {
      * @since  1.7
      */
     protected Object getClassLoadingLock(String className) {
-        Object lock = this;
-        if (parallelLockMap != null) {
+        if (parallelLockMap == null) {
+            return this;
+        }
+        expungeStaleLocks();
+        LockRef ref = parallelLockMap.get(className);
+        for (;;) {
+            Object lock;
+            if (ref != null && (lock = ref.get()) != null) {
+                return lock;
+            }
+            // A lock that was collected was not in use by any thread, so
+            // it can be replaced with a new one
             Object newLock = new Object();
-            lock = parallelLockMap.putIfAbsent(className, newLock);
-            if (lock == null) {
-                lock = newLock;
+            LockRef newRef = new LockRef(className, newLock, parallelLockQueue);
+            if (ref == null) {
+                ref = parallelLockMap.putIfAbsent(className, newRef);
+                if (ref == null) {
+                    return newLock;
+                }
+            } else if (parallelLockMap.replace(className, ref, newRef)) {
+                return newLock;
+            } else {
+                ref = parallelLockMap.get(className);
             }
         }
-        return lock;
+    }
+
+    /**
+     * Removes the entries of the collected lock objects from the
+     * parallelLockMap.
+     */
+    private void expungeStaleLocks() {
+        Reference<?> ref;
+        while ((ref = parallelLockQueue.poll()) != null) {
+            LockRef lockRef = (LockRef)ref;
+            parallelLockMap.remove(lockRef.className, lockRef);
+        }
+    }
+
+    /**
+     * A weak reference to the lock object for loading a class.  A thread
+     * holding or waiting for the lock keeps it strongly reachable, so that
+     * all threads loading the class get the same lock object.
+     */
+    private static final class LockRef extends WeakReference<Object> {
+        final String className;
+
+        LockRef(String className, Object lock, ReferenceQueue<Object> queue) {
+            super(lock, queue);
+            this.className = className;
+        }
     }
 
     // This method is invoked by the virtual machine to load a class.
@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang;
+import java.lang.ref.*;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * This class extends {@code ThreadLocal} to store the values of the
+ * variable in indexed slots rather than in a hash table.  Each indexed
+ * thread-local variable is assigned a small integer index when it is
+ * created, and each thread keeps its values in an array indexed by it, so
+ * that {@link #get} and {@link #set} find the value of the current thread
+ * without hashing or probing.
+ *
+ * <p>The values of ordinary thread-local variables that are no longer
+ * reachable are only removed from a thread's table as a side effect of
+ * later lookups in that table, so that a long-lived thread touching many
+ * short-lived thread-local variables accumulates a large table of stale
+ * entries.  When an indexed thread-local variable is garbage collected
+ * its values are instead removed from all threads, the next time an
+ * indexed thread-local variable is created or first set in a thread, and
+ * its index is reused.
+ *
+ * <p>The array of a thread is as long as the highest index of the indexed
+ * thread-local variables it has used, so this class is best suited to
+ * variables of which a bounded number are alive at any time.  As with
+ * {@code ThreadLocal}, a value that strongly refers to its thread-local
+ * variable keeps the variable, and so the value, from being collected.
+ *
+ * @param <T> the type of the thread local's value
+ *
+ * @see     ThreadLocal
+ * @since   9
+ */
+
+public class IndexedThreadLocal<T> extends ThreadLocal<T> {
+
+    /**
+     * The key shared by the entries of this thread-local variable in all
+     * threads.  An entry belongs to this variable if, and only if, it
+     * refers to this key, so that an entry left over from a collected
+     * variable that had the same index is never mistaken for a value.
+     */
+    private final Key key;
+
+    /**
+     * Creates an indexed thread local variable.
+     * @see #withInitial(java.util.function.Supplier)
+     */
+    public IndexedThreadLocal() {
+        key = new Key(this, Index.allocate());
+    }
+
+    /**
+     * Creates an indexed thread local variable. The initial value of the
+     * variable is determined by invoking the {@code get} method on the
+     * {@code Supplier}.
+     *
+     * @param <S> the type of the thread local's value
+     * @param supplier the supplier to be used to determine the initial value
+     * @return a new indexed thread local variable
+     * @throws NullPointerException if the specified supplier is null
+     */
+    public static <S> IndexedThreadLocal<S> withInitial(Supplier<? extends S> supplier) {
+        return new SuppliedIndexedThreadLocal<>(supplier);
+    }
+
+    /**
+     * Returns the value in the current thread's copy of this
+     * thread-local variable.  If the variable has no value for the
+     * current thread, it is first initialized to the value returned
+     * by an invocation of the {@link #initialValue} method.
+     *
+     * @return the current thread's value of this thread-local
+     */
+    @Override
+    public T get() {
+        Slots slots = Thread.currentThread().indexedThreadLocals;
+        if (slots != null) {
+            Entry[] table = slots.table;
+            int i = key.index;
+            if (i < table.length) {
+                Entry e = table[i];
+                if (e != null && e.key == key) {
+                    @SuppressWarnings("unchecked")
+                    T result = (T)e.value;
+                    return result;
+                }
+            }
+        }
+        return setInitialValue();
+    }
+
+    /**
+     * Variant of set() to establish initialValue. Used instead
+     * of set() in case user has overridden the set() method.
+     *
+     * @return the initial value
+     */
+    private T setInitialValue() {
+        T value = initialValue();
+        put(value);
+        return value;
+    }
+
+    /**
+     * Sets the current thread's copy of this thread-local variable
+     * to the specified value.
+     *
+     * @param value the value to be stored in the current thread's copy of
+     *        this thread-local.
+     */
+    @Override
+    public void set(T value) {
+        put(value);
+    }
+
+    /**
+     * Removes the current thread's value for this thread-local
+     * variable.  If this thread-local variable is subsequently
+     * {@linkplain #get read} by the current thread, its value will be
+     * reinitialized by invoking its {@link #initialValue} method,
+     * unless its value is {@linkplain #set set} by the current thread
+     * in the interim.
+     */
+    @Override
+    public void remove() {
+        Slots slots = Thread.currentThread().indexedThreadLocals;
+        if (slots != null) {
+            Entry[] table = slots.table;
+            int i = key.index;
+            if (i < table.length && table[i] != null && table[i].key == key)
+                table[i] = null;
+        }
+    }
+
+    private void put(Object value) {
+        Thread t = Thread.currentThread();
+        Slots slots = t.indexedThreadLocals;
+        int i = key.index;
+        if (slots != null) {
+            Entry[] table = slots.table;
+            if (i < table.length) {
+                Entry e = table[i];
+                if (e != null && e.key == key) {
+                    e.value = value;
+                } else {
+                    table[i] = new Entry(key, value);
+                }
+                return;
+            }
+        } else {
+            t.indexedThreadLocals = slots = Slots.register();
+        }
+        Index.expungeStaleKeys();
+        slots.grow(i + 1)[i] = new Entry(key, value);
+    }
+
+    /**
+     * The value of an indexed thread-local variable in one thread.
+     */
+    static final class Entry {
+        final Key key;
+        Object value;
+
+        Entry(Key key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Weakly refers to an indexed thread-local variable and holds its
+     * index, so that the index can be reclaimed once the variable has been
+     * collected.
+     */
+    static final class Key extends WeakReference<IndexedThreadLocal<?>> {
+        final int index;
+
+        Key(IndexedThreadLocal<?> local, int index) {
+            super(local, Index.queue);
+            this.index = index;
+        }
+    }
+
+    /**
+     * The indexed thread-local values of a thread.  The table is only
+     * written by its thread, except for the clearing of the entries of
+     * collected variables, and is replaced by a longer copy while holding
+     * the lock on this object so that such a clearing is never lost.
+     */
+    static final class Slots {
+        Entry[] table = new Entry[Index.INITIAL_CAPACITY];
+
+        /**
+         * Creates the slots of the current thread and registers them for
+         * the clearing of collected variables.
+         */
+        static Slots register() {
+            Slots slots = new Slots();
+            synchronized (Index.class) {
+                Index.expungeStaleSlots();
+                Index.slots.add(new WeakReference<>(slots, Index.slotsQueue));
+            }
+            return slots;
+        }
+
+        synchronized Entry[] grow(int minCapacity) {
+            Entry[] t = table;
+            if (t.length < minCapacity)
+                table = t = Arrays.copyOf(t, Math.max(minCapacity, t.length << 1));
+            return t;
+        }
+
+        synchronized void clear(Key key) {
+            Entry[] t = table;
+            int i = key.index;
+            if (i < t.length && t[i] != null && t[i].key == key)
+                t[i] = null;
+        }
+    }
+
+    /**
+     * The allocation of indexes and their reclamation.  All state is
+     * guarded by the lock on this class.
+     */
+    private static final class Index {
+        static final int INITIAL_CAPACITY = 16;
+
+        /** Queue of the keys of collected variables */
+        static final ReferenceQueue<IndexedThreadLocal<?>> queue =
+            new ReferenceQueue<>();
+
+        /** Slots of all the live threads that used an indexed variable */
+        static final HashSet<Reference<Slots>> slots = new HashSet<>();
+
+        /** Queue of the references to the slots of terminated threads */
+        static final ReferenceQueue<Slots> slotsQueue = new ReferenceQueue<>();
+
+        /** Stack of the reclaimed indexes */
+        static int[] free = new int[INITIAL_CAPACITY];
+        static int freeCount;
+
+        /** Next never allocated index */
+        static int next;
+
+        static synchronized int allocate() {
+            expungeStaleKeys();
+            if (freeCount > 0)
+                return free[--freeCount];
+            if (next == Integer.MAX_VALUE)
+                throw new InternalError("Too many indexed thread-local variables");
+            return next++;
+        }
+
+        /**
+         * Removes the values of the collected variables from all threads
+         * and makes their indexes available for reuse.
+         */
+        static void expungeStaleKeys() {
+            Reference<? extends IndexedThreadLocal<?>> ref = queue.poll();
+            if (ref == null)
+                return;
+            synchronized (Index.class) {
+                do {
+                    Key key = (Key)ref;
+                    for (Iterator<Reference<Slots>> it = slots.iterator(); it.hasNext(); ) {
+                        Slots s = it.next().get();
+                        if (s == null)
+                            it.remove();
+                        else
+                            s.clear(key);
+                    }
+                    if (freeCount == free.length)
+                        free = Arrays.copyOf(free, freeCount << 1);
+                    free[freeCount++] = key.index;
+                } while ((ref = queue.poll()) != null);
+            }
+        }
+
+        /**
+         * Forgets the slots of the threads that have terminated, so that
+         * their number does not grow with every thread ever started.
+         */
+        static void expungeStaleSlots() {
+            Reference<? extends Slots> ref;
+            while ((ref = slotsQueue.poll()) != null)
+                slots.remove(ref);
+        }
+    }
+
+    /**
+     * An extension of IndexedThreadLocal that obtains its initial value
+     * from the specified {@code Supplier}.
+     */
+    static final class SuppliedIndexedThreadLocal<T> extends IndexedThreadLocal<T> {
+
+        private final Supplier<? extends T> supplier;
+
+        SuppliedIndexedThreadLocal(Supplier<? extends T> supplier) {
+            this.supplier = Objects.requireNonNull(supplier);
+        }
+
+        @Override
+        protected T initialValue() {
+            return supplier.get();
+        }
+    }
+}
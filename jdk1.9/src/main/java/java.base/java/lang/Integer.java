@@ -26,6 +26,9 @@
 package java.lang;
 
 import java.lang.annotation.Native;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.util.Objects;
 import jdk.internal.HotSpotIntrinsicCandidate;
 import jdk.internal.misc.VM;
@@ -465,6 +468,97 @@ public final class Integer extends Number implements Comparable<Integer> {
         return Long.toString(toUnsignedLong(i));
     }
 
+    /**
+     * Writes the ASCII characters of the signed decimal representation of
+     * the argument, as returned by {@link #toString(int)}, to the {@code
+     * byte} array starting at {@code offset}.
+     *
+     * @param   i        an integer to be converted.
+     * @param   dst      the destination array.
+     * @param   offset   the index of the first byte to write.
+     * @return  the number of bytes written.
+     * @throws  IndexOutOfBoundsException if {@code offset} is negative, or
+     *          if the representation does not fit between {@code offset}
+     *          and the end of {@code dst}; nothing is written then.
+     * @since   9
+     */
+    public static int getBytes(int i, byte[] dst, int offset) {
+        int size = stringSize(i);
+        Objects.checkFromIndexSize(offset, size, dst.length);
+        getChars(i, offset + size, dst);
+        return size;
+    }
+
+    /**
+     * Writes the ASCII characters of the signed decimal representation of
+     * the argument, as returned by {@link #toString(int)}, to the buffer at
+     * its current position, and then increments the position.
+     *
+     * @param   i      an integer to be converted.
+     * @param   dst    the destination buffer.
+     * @return  the number of bytes written.
+     * @throws  java.nio.BufferOverflowException if the representation does
+     *          not fit in the remaining bytes of {@code dst}; nothing is
+     *          written then.
+     * @throws  java.nio.ReadOnlyBufferException if {@code dst} is read-only.
+     * @since   9
+     */
+    public static int getBytes(int i, ByteBuffer dst) {
+        int size = stringSize(i);
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        int pos = dst.position();
+        if (size > dst.limit() - pos) {
+            throw new BufferOverflowException();
+        }
+        if (dst.hasArray()) {
+            getChars(i, dst.arrayOffset() + pos + size, dst.array());
+        } else {
+            getChars(i, pos + size, dst);
+        }
+        dst.position(pos + size);
+        return size;
+    }
+
+    /**
+     * Variant of {@link #getChars(int, int, byte[])} that writes to a
+     * buffer with absolute puts.
+     */
+    static int getChars(int i, int index, ByteBuffer buf) {
+        int q, r;
+        int charPos = index;
+
+        boolean negative = i < 0;
+        if (!negative) {
+            i = -i;
+        }
+
+        // Generate two digits per iteration
+        while (i <= -100) {
+            q = i / 100;
+            r = (q * 100) - i;
+            i = q;
+            buf.put(--charPos, DigitOnes[r]);
+            buf.put(--charPos, DigitTens[r]);
+        }
+
+        // We know there are at most two digits left at this point.
+        q = i / 10;
+        r = (q * 10) - i;
+        buf.put(--charPos, (byte)('0' + r));
+
+        // Whatever left is the remaining digit.
+        if (q < 0) {
+            buf.put(--charPos, (byte)('0' - q));
+        }
+
+        if (negative) {
+            buf.put(--charPos, (byte)'-');
+        }
+        return charPos;
+    }
+
     /**
      * Places characters representing the integer i into the
      * character array buf. The characters are placed into
@@ -749,6 +843,195 @@ public final class Integer extends Number implements Comparable<Integer> {
         }
     }
 
+    /**
+     * Parses the ASCII characters of the {@code byte} array argument as a
+     * signed {@code int} in the specified {@code radix}, beginning at the
+     * specified {@code beginIndex} and extending to {@code endIndex - 1}.
+     * The bytes are parsed as if by {@link #parseInt(CharSequence, int, int, int)},
+     * each byte being a character in the range {@code '\u0000'} to
+     * {@code '\u00FF'}, without creating a {@code String}.
+     *
+     * @param      b   the {@code byte} array containing the {@code int}
+     *                  representation to be parsed
+     * @param      beginIndex   the beginning index, inclusive.
+     * @param      endIndex     the ending index, exclusive.
+     * @param      radix   the radix to be used while parsing {@code b}.
+     * @return     the signed {@code int} represented by the subarray in
+     *             the specified radix.
+     * @throws     NullPointerException  if {@code b} is null.
+     * @throws     IndexOutOfBoundsException  if {@code beginIndex} is
+     *             negative, or if {@code beginIndex} is greater than
+     *             {@code endIndex} or if {@code endIndex} is greater than
+     *             {@code b.length}.
+     * @throws     NumberFormatException  if the subarray does not
+     *             contain a parsable {@code int} in the specified
+     *             {@code radix}, or if {@code radix} is either smaller than
+     *             {@link java.lang.Character#MIN_RADIX} or larger than
+     *             {@link java.lang.Character#MAX_RADIX}.
+     * @since  9
+     */
+    public static int parseInt(byte[] b, int beginIndex, int endIndex, int radix)
+                throws NumberFormatException {
+        Objects.requireNonNull(b);
+
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > b.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        checkRadix(radix);
+
+        boolean negative = false;
+        int i = beginIndex;
+        int limit = -Integer.MAX_VALUE;
+
+        if (i < endIndex) {
+            byte firstChar = b[i];
+            if (firstChar < '0') { // Possible leading "+" or "-"
+                if (firstChar == '-') {
+                    negative = true;
+                    limit = Integer.MIN_VALUE;
+                } else if (firstChar != '+') {
+                    throw NumberFormatException.forBytes(b, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                if (i == endIndex) { // Cannot have lone "+" or "-"
+                    throw NumberFormatException.forBytes(b, beginIndex,
+                            endIndex, i);
+                }
+            }
+            int multmin = limit / radix;
+            int result = 0;
+            while (i < endIndex) {
+                // Accumulating negatively avoids surprises near MAX_VALUE
+                int digit = digit(b[i], radix);
+                if (digit < 0 || result < multmin) {
+                    throw NumberFormatException.forBytes(b, beginIndex,
+                            endIndex, i);
+                }
+                result *= radix;
+                if (result < limit + digit) {
+                    throw NumberFormatException.forBytes(b, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                result -= digit;
+            }
+            return negative ? result : -result;
+        } else {
+            throw NumberFormatException.forInputString("");
+        }
+    }
+
+    /**
+     * Parses the ASCII characters of the {@code ByteBuffer} argument as a
+     * signed {@code int} in the specified {@code radix}, beginning at the
+     * specified absolute {@code beginIndex} and extending to {@code
+     * endIndex - 1}.  The bytes are parsed as by {@link #parseInt(byte[],
+     * int, int, int)}.  The position and limit of the buffer are not used
+     * nor changed.
+     *
+     * @param      buf   the buffer containing the {@code int}
+     *                  representation to be parsed
+     * @param      beginIndex   the beginning index, inclusive.
+     * @param      endIndex     the ending index, exclusive.
+     * @param      radix   the radix to be used while parsing {@code buf}.
+     * @return     the signed {@code int} represented by the bytes in
+     *             the specified radix.
+     * @throws     NullPointerException  if {@code buf} is null.
+     * @throws     IndexOutOfBoundsException  if {@code beginIndex} is
+     *             negative, or if {@code beginIndex} is greater than
+     *             {@code endIndex} or if {@code endIndex} is greater than
+     *             the limit of {@code buf}.
+     * @throws     NumberFormatException  if the bytes do not contain a
+     *             parsable {@code int} in the specified {@code radix}, or
+     *             if {@code radix} is either smaller than
+     *             {@link java.lang.Character#MIN_RADIX} or larger than
+     *             {@link java.lang.Character#MAX_RADIX}.
+     * @since  9
+     */
+    public static int parseInt(ByteBuffer buf, int beginIndex, int endIndex, int radix)
+                throws NumberFormatException {
+        Objects.requireNonNull(buf);
+
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > buf.limit()) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (buf.hasArray()) {
+            int offset = buf.arrayOffset();
+            return parseInt(buf.array(), offset + beginIndex, offset + endIndex, radix);
+        }
+        checkRadix(radix);
+
+        boolean negative = false;
+        int i = beginIndex;
+        int limit = -Integer.MAX_VALUE;
+
+        if (i < endIndex) {
+            byte firstChar = buf.get(i);
+            if (firstChar < '0') { // Possible leading "+" or "-"
+                if (firstChar == '-') {
+                    negative = true;
+                    limit = Integer.MIN_VALUE;
+                } else if (firstChar != '+') {
+                    throw NumberFormatException.forByteBuffer(buf, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                if (i == endIndex) { // Cannot have lone "+" or "-"
+                    throw NumberFormatException.forByteBuffer(buf, beginIndex,
+                            endIndex, i);
+                }
+            }
+            int multmin = limit / radix;
+            int result = 0;
+            while (i < endIndex) {
+                // Accumulating negatively avoids surprises near MAX_VALUE
+                int digit = digit(buf.get(i), radix);
+                if (digit < 0 || result < multmin) {
+                    throw NumberFormatException.forByteBuffer(buf, beginIndex,
+                            endIndex, i);
+                }
+                result *= radix;
+                if (result < limit + digit) {
+                    throw NumberFormatException.forByteBuffer(buf, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                result -= digit;
+            }
+            return negative ? result : -result;
+        } else {
+            throw NumberFormatException.forInputString("");
+        }
+    }
+
+    /**
+     * Throws a {@code NumberFormatException} if the radix is out of range.
+     */
+    static void checkRadix(int radix) {
+        if (radix < Character.MIN_RADIX) {
+            throw new NumberFormatException("radix " + radix +
+                                            " less than Character.MIN_RADIX");
+        }
+        if (radix > Character.MAX_RADIX) {
+            throw new NumberFormatException("radix " + radix +
+                                            " greater than Character.MAX_RADIX");
+        }
+    }
+
+    /**
+     * Returns the value of the ISO-8859-1 character in the specified
+     * radix, or -1 if it is not a digit, as {@link Character#digit(int, int)}
+     * does.  Decimal digits are decoded without a table lookup.
+     */
+    static int digit(byte b, int radix) {
+        if (radix == 10) {
+            int d = b - '0';
+            return (d >= 0 && d <= 9) ? d : -1;
+        }
+        return Character.digit(b & 0xff, radix);
+    }
+
     /**
      * Parses the string argument as a signed decimal integer. The
      * characters in the string must all be decimal digits, except
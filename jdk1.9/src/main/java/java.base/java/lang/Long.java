@@ -26,6 +26,9 @@
 package java.lang;
 
 import java.lang.annotation.Native;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.math.*;
 import java.util.Objects;
 import jdk.internal.HotSpotIntrinsicCandidate;
@@ -427,36 +430,51 @@ public final class Long extends Number implements Comparable<Long> {
     static String fastUUID(long lsb, long msb) {
         if (COMPACT_STRINGS) {
             byte[] buf = new byte[36];
-            formatUnsignedLong0(lsb,        4, buf, 24, 12);
-            formatUnsignedLong0(lsb >>> 48, 4, buf, 19, 4);
-            formatUnsignedLong0(msb,        4, buf, 14, 4);
-            formatUnsignedLong0(msb >>> 16, 4, buf, 9,  4);
-            formatUnsignedLong0(msb >>> 32, 4, buf, 0,  8);
-
-            buf[23] = '-';
-            buf[18] = '-';
-            buf[13] = '-';
-            buf[8]  = '-';
-
+            getUUIDChars(lsb, msb, buf, 0, LATIN1);
             return new String(buf, LATIN1);
         } else {
             byte[] buf = new byte[72];
-
-            formatUnsignedLong0UTF16(lsb,        4, buf, 24, 12);
-            formatUnsignedLong0UTF16(lsb >>> 48, 4, buf, 19, 4);
-            formatUnsignedLong0UTF16(msb,        4, buf, 14, 4);
-            formatUnsignedLong0UTF16(msb >>> 16, 4, buf, 9,  4);
-            formatUnsignedLong0UTF16(msb >>> 32, 4, buf, 0,  8);
-
-            StringUTF16.putChar(buf, 23, '-');
-            StringUTF16.putChar(buf, 18, '-');
-            StringUTF16.putChar(buf, 13, '-');
-            StringUTF16.putChar(buf,  8, '-');
-
+            getUUIDChars(lsb, msb, buf, 0, UTF16);
             return new String(buf, UTF16);
         }
     }
 
+    /**
+     * Places the 36 characters of the string representation of a UUID in
+     * the buffer, starting at the given char offset.
+     *
+     * @param lsb the least significant bits of the UUID
+     * @param msb the most significant bits of the UUID
+     * @param buf the buffer to write to
+     * @param offset the char offset in the buffer to start at
+     * @param coder the coder of the buffer
+     */
+    static void getUUIDChars(long lsb, long msb, byte[] buf, int offset, byte coder) {
+        if (coder == LATIN1) {
+            formatUnsignedLong0(lsb,        4, buf, offset + 24, 12);
+            formatUnsignedLong0(lsb >>> 48, 4, buf, offset + 19, 4);
+            formatUnsignedLong0(msb,        4, buf, offset + 14, 4);
+            formatUnsignedLong0(msb >>> 16, 4, buf, offset + 9,  4);
+            formatUnsignedLong0(msb >>> 32, 4, buf, offset,      8);
+
+            buf[offset + 23] = '-';
+            buf[offset + 18] = '-';
+            buf[offset + 13] = '-';
+            buf[offset + 8]  = '-';
+        } else {
+            formatUnsignedLong0UTF16(lsb,        4, buf, offset + 24, 12);
+            formatUnsignedLong0UTF16(lsb >>> 48, 4, buf, offset + 19, 4);
+            formatUnsignedLong0UTF16(msb,        4, buf, offset + 14, 4);
+            formatUnsignedLong0UTF16(msb >>> 16, 4, buf, offset + 9,  4);
+            formatUnsignedLong0UTF16(msb >>> 32, 4, buf, offset,      8);
+
+            StringUTF16.putChar(buf, offset + 23, '-');
+            StringUTF16.putChar(buf, offset + 18, '-');
+            StringUTF16.putChar(buf, offset + 13, '-');
+            StringUTF16.putChar(buf, offset + 8,  '-');
+        }
+    }
+
     /**
      * Returns a {@code String} object representing the specified
      * {@code long}.  The argument is converted to signed decimal
@@ -498,6 +516,109 @@ public final class Long extends Number implements Comparable<Long> {
         return toUnsignedString(i, 10);
     }
 
+    /**
+     * Writes the ASCII characters of the signed decimal representation of
+     * the argument, as returned by {@link #toString(long)}, to the {@code
+     * byte} array starting at {@code offset}.
+     *
+     * @param   i        a {@code long} to be converted.
+     * @param   dst      the destination array.
+     * @param   offset   the index of the first byte to write.
+     * @return  the number of bytes written.
+     * @throws  IndexOutOfBoundsException if {@code offset} is negative, or
+     *          if the representation does not fit between {@code offset}
+     *          and the end of {@code dst}; nothing is written then.
+     * @since   9
+     */
+    public static int getBytes(long i, byte[] dst, int offset) {
+        int size = stringSize(i);
+        Objects.checkFromIndexSize(offset, size, dst.length);
+        getChars(i, offset + size, dst);
+        return size;
+    }
+
+    /**
+     * Writes the ASCII characters of the signed decimal representation of
+     * the argument, as returned by {@link #toString(long)}, to the buffer at
+     * its current position, and then increments the position.
+     *
+     * @param   i      a {@code long} to be converted.
+     * @param   dst    the destination buffer.
+     * @return  the number of bytes written.
+     * @throws  java.nio.BufferOverflowException if the representation does
+     *          not fit in the remaining bytes of {@code dst}; nothing is
+     *          written then.
+     * @throws  java.nio.ReadOnlyBufferException if {@code dst} is read-only.
+     * @since   9
+     */
+    public static int getBytes(long i, ByteBuffer dst) {
+        int size = stringSize(i);
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        int pos = dst.position();
+        if (size > dst.limit() - pos) {
+            throw new BufferOverflowException();
+        }
+        if (dst.hasArray()) {
+            getChars(i, dst.arrayOffset() + pos + size, dst.array());
+        } else {
+            getChars(i, pos + size, dst);
+        }
+        dst.position(pos + size);
+        return size;
+    }
+
+    /**
+     * Variant of {@link #getChars(long, int, byte[])} that writes to a
+     * buffer with absolute puts.
+     */
+    static int getChars(long i, int index, ByteBuffer buf) {
+        long q;
+        int r;
+        int charPos = index;
+
+        boolean negative = (i < 0);
+        if (!negative) {
+            i = -i;
+        }
+
+        // Get 2 digits/iteration using longs until quotient fits into an int
+        while (i <= Integer.MIN_VALUE) {
+            q = i / 100;
+            r = (int)((q * 100) - i);
+            i = q;
+            buf.put(--charPos, Integer.DigitOnes[r]);
+            buf.put(--charPos, Integer.DigitTens[r]);
+        }
+
+        // Get 2 digits/iteration using ints
+        int q2;
+        int i2 = (int)i;
+        while (i2 <= -100) {
+            q2 = i2 / 100;
+            r  = (q2 * 100) - i2;
+            i2 = q2;
+            buf.put(--charPos, Integer.DigitOnes[r]);
+            buf.put(--charPos, Integer.DigitTens[r]);
+        }
+
+        // We know there are at most two digits left at this point.
+        q2 = i2 / 10;
+        r  = (q2 * 10) - i2;
+        buf.put(--charPos, (byte)('0' + r));
+
+        // Whatever left is the remaining digit.
+        if (q2 < 0) {
+            buf.put(--charPos, (byte)('0' - q2));
+        }
+
+        if (negative) {
+            buf.put(--charPos, (byte)'-');
+        }
+        return charPos;
+    }
+
     /**
      * Places characters representing the long i into the
      * character array buf. The characters are placed into
@@ -789,6 +910,168 @@ public final class Long extends Number implements Comparable<Long> {
         }
     }
 
+    /**
+     * Parses the ASCII characters of the {@code byte} array argument as a
+     * signed {@code long} in the specified {@code radix}, beginning at the
+     * specified {@code beginIndex} and extending to {@code endIndex - 1}.
+     * The bytes are parsed as if by {@link #parseLong(CharSequence, int, int, int)},
+     * each byte being a character in the range {@code '\u0000'} to
+     * {@code '\u00FF'}, without creating a {@code String}.
+     *
+     * @param      b   the {@code byte} array containing the {@code long}
+     *                  representation to be parsed
+     * @param      beginIndex   the beginning index, inclusive.
+     * @param      endIndex     the ending index, exclusive.
+     * @param      radix   the radix to be used while parsing {@code b}.
+     * @return     the signed {@code long} represented by the subarray in
+     *             the specified radix.
+     * @throws     NullPointerException  if {@code b} is null.
+     * @throws     IndexOutOfBoundsException  if {@code beginIndex} is
+     *             negative, or if {@code beginIndex} is greater than
+     *             {@code endIndex} or if {@code endIndex} is greater than
+     *             {@code b.length}.
+     * @throws     NumberFormatException  if the subarray does not
+     *             contain a parsable {@code long} in the specified
+     *             {@code radix}, or if {@code radix} is either smaller than
+     *             {@link java.lang.Character#MIN_RADIX} or larger than
+     *             {@link java.lang.Character#MAX_RADIX}.
+     * @since  9
+     */
+    public static long parseLong(byte[] b, int beginIndex, int endIndex, int radix)
+                throws NumberFormatException {
+        Objects.requireNonNull(b);
+
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > b.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        Integer.checkRadix(radix);
+
+        boolean negative = false;
+        int i = beginIndex;
+        long limit = -Long.MAX_VALUE;
+
+        if (i < endIndex) {
+            byte firstChar = b[i];
+            if (firstChar < '0') { // Possible leading "+" or "-"
+                if (firstChar == '-') {
+                    negative = true;
+                    limit = Long.MIN_VALUE;
+                } else if (firstChar != '+') {
+                    throw NumberFormatException.forBytes(b, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                if (i == endIndex) { // Cannot have lone "+" or "-"
+                    throw NumberFormatException.forBytes(b, beginIndex,
+                            endIndex, i);
+                }
+            }
+            long multmin = limit / radix;
+            long result = 0;
+            while (i < endIndex) {
+                // Accumulating negatively avoids surprises near MAX_VALUE
+                int digit = Integer.digit(b[i], radix);
+                if (digit < 0 || result < multmin) {
+                    throw NumberFormatException.forBytes(b, beginIndex,
+                            endIndex, i);
+                }
+                result *= radix;
+                if (result < limit + digit) {
+                    throw NumberFormatException.forBytes(b, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                result -= digit;
+            }
+            return negative ? result : -result;
+        } else {
+            throw new NumberFormatException("");
+        }
+    }
+
+    /**
+     * Parses the ASCII characters of the {@code ByteBuffer} argument as a
+     * signed {@code long} in the specified {@code radix}, beginning at the
+     * specified absolute {@code beginIndex} and extending to {@code
+     * endIndex - 1}.  The bytes are parsed as by {@link #parseLong(byte[],
+     * int, int, int)}.  The position and limit of the buffer are not used
+     * nor changed.
+     *
+     * @param      buf   the buffer containing the {@code long}
+     *                  representation to be parsed
+     * @param      beginIndex   the beginning index, inclusive.
+     * @param      endIndex     the ending index, exclusive.
+     * @param      radix   the radix to be used while parsing {@code buf}.
+     * @return     the signed {@code long} represented by the bytes in
+     *             the specified radix.
+     * @throws     NullPointerException  if {@code buf} is null.
+     * @throws     IndexOutOfBoundsException  if {@code beginIndex} is
+     *             negative, or if {@code beginIndex} is greater than
+     *             {@code endIndex} or if {@code endIndex} is greater than
+     *             the limit of {@code buf}.
+     * @throws     NumberFormatException  if the bytes do not contain a
+     *             parsable {@code long} in the specified {@code radix}, or
+     *             if {@code radix} is either smaller than
+     *             {@link java.lang.Character#MIN_RADIX} or larger than
+     *             {@link java.lang.Character#MAX_RADIX}.
+     * @since  9
+     */
+    public static long parseLong(ByteBuffer buf, int beginIndex, int endIndex, int radix)
+                throws NumberFormatException {
+        Objects.requireNonNull(buf);
+
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > buf.limit()) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (buf.hasArray()) {
+            int offset = buf.arrayOffset();
+            return parseLong(buf.array(), offset + beginIndex, offset + endIndex, radix);
+        }
+        Integer.checkRadix(radix);
+
+        boolean negative = false;
+        int i = beginIndex;
+        long limit = -Long.MAX_VALUE;
+
+        if (i < endIndex) {
+            byte firstChar = buf.get(i);
+            if (firstChar < '0') { // Possible leading "+" or "-"
+                if (firstChar == '-') {
+                    negative = true;
+                    limit = Long.MIN_VALUE;
+                } else if (firstChar != '+') {
+                    throw NumberFormatException.forByteBuffer(buf, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                if (i == endIndex) { // Cannot have lone "+" or "-"
+                    throw NumberFormatException.forByteBuffer(buf, beginIndex,
+                            endIndex, i);
+                }
+            }
+            long multmin = limit / radix;
+            long result = 0;
+            while (i < endIndex) {
+                // Accumulating negatively avoids surprises near MAX_VALUE
+                int digit = Integer.digit(buf.get(i), radix);
+                if (digit < 0 || result < multmin) {
+                    throw NumberFormatException.forByteBuffer(buf, beginIndex,
+                            endIndex, i);
+                }
+                result *= radix;
+                if (result < limit + digit) {
+                    throw NumberFormatException.forByteBuffer(buf, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                result -= digit;
+            }
+            return negative ? result : -result;
+        } else {
+            throw new NumberFormatException("");
+        }
+    }
+
     /**
      * Parses the string argument as a signed decimal {@code long}.
      * The characters in the string must all be decimal digits, except
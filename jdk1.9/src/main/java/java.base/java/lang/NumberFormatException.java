@@ -25,6 +25,9 @@
 
 package java.lang;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Thrown to indicate that the application has attempted to convert
  * a string to one of the numeric types, but that the string does not
@@ -80,4 +83,39 @@ class NumberFormatException extends IllegalArgumentException {
                 + (errorIndex - beginIndex) + " in: \""
                 + s.subSequence(beginIndex, endIndex) + "\"");
     }
+
+    /**
+     * Factory method for making a {@code NumberFormatException}
+     * given the specified ISO-8859-1 input which caused the error.
+     *
+     * @param   b   the input causing the error
+     * @param   beginIndex   the beginning index, inclusive.
+     * @param   endIndex     the ending index, exclusive.
+     * @param   errorIndex   the index of the first error in b
+     */
+    static NumberFormatException forBytes(byte[] b,
+            int beginIndex, int endIndex, int errorIndex) {
+        return new NumberFormatException("Error at index "
+                + (errorIndex - beginIndex) + " in: \""
+                + new String(b, beginIndex, endIndex - beginIndex,
+                             StandardCharsets.ISO_8859_1) + "\"");
+    }
+
+    /**
+     * Factory method for making a {@code NumberFormatException}
+     * given the specified ISO-8859-1 input which caused the error.
+     *
+     * @param   buf   the input causing the error
+     * @param   beginIndex   the beginning absolute index, inclusive.
+     * @param   endIndex     the ending absolute index, exclusive.
+     * @param   errorIndex   the absolute index of the first error in buf
+     */
+    static NumberFormatException forByteBuffer(ByteBuffer buf,
+            int beginIndex, int endIndex, int errorIndex) {
+        byte[] b = new byte[endIndex - beginIndex];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = buf.get(beginIndex + i);
+        }
+        return forBytes(b, 0, b.length, errorIndex - beginIndex);
+    }
 }
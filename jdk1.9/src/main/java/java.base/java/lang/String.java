@@ -3063,6 +3063,17 @@ public final class String
         return COMPACT_STRINGS && coder == LATIN1;
     }
 
+    /*
+     * Creates a string from Latin-1 bytes, sharing the array if compact
+     * strings are enabled.
+     */
+    static String newLatin1Unsafe(byte[] latin1) {
+        if (COMPACT_STRINGS) {
+            return new String(latin1, LATIN1);
+        }
+        return new String(StringLatin1.inflate(latin1, 0, latin1.length), UTF16);
+    }
+
     static final byte LATIN1 = 0;
     static final byte UTF16  = 1;
 
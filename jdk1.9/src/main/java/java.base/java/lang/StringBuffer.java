@@ -25,6 +25,8 @@
 
 package java.lang;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.Arrays;
 import jdk.internal.HotSpotIntrinsicCandidate;
 
@@ -373,6 +375,26 @@ import jdk.internal.HotSpotIntrinsicCandidate;
         return this;
     }
 
+    /**
+     * @since 9
+     */
+    @Override
+    public synchronized StringBuffer append(ByteBuffer src, Charset cs) {
+        toStringCache = null;
+        super.append(src, cs);
+        return this;
+    }
+
+    /**
+     * @throws java.nio.BufferOverflowException {@inheritDoc}
+     * @throws java.nio.ReadOnlyBufferException {@inheritDoc}
+     * @since 9
+     */
+    @Override
+    public synchronized int appendTo(ByteBuffer dst, Charset cs) {
+        return super.appendTo(dst, cs);
+    }
+
     @Override
     public synchronized StringBuffer append(boolean b) {
         toStringCache = null;
@@ -660,6 +682,17 @@ import jdk.internal.HotSpotIntrinsicCandidate;
         return super.lastIndexOf(str, fromIndex);
     }
 
+    /**
+     * @throws IllegalArgumentException {@inheritDoc}
+     * @since 9
+     */
+    @Override
+    public synchronized StringBuffer reset(int maxCapacity) {
+        toStringCache = null;
+        super.reset(maxCapacity);
+        return this;
+    }
+
     /**
      * @since   1.0.2
      */
@@ -25,6 +25,8 @@
 
 package java.lang;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import jdk.internal.HotSpotIntrinsicCandidate;
 
 /**
@@ -196,6 +198,15 @@ public final class StringBuilder
         return this;
     }
 
+    /**
+     * @since 9
+     */
+    @Override
+    public StringBuilder append(ByteBuffer src, Charset cs) {
+        super.append(src, cs);
+        return this;
+    }
+
     @Override
     public StringBuilder append(boolean b) {
         super.append(b);
@@ -402,6 +413,16 @@ public final class StringBuilder
         return super.lastIndexOf(str, fromIndex);
     }
 
+    /**
+     * @throws IllegalArgumentException {@inheritDoc}
+     * @since 9
+     */
+    @Override
+    public StringBuilder reset(int maxCapacity) {
+        super.reset(maxCapacity);
+        return this;
+    }
+
     @Override
     public StringBuilder reverse() {
         super.reverse();
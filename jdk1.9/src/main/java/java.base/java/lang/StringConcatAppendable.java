@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang;
+
+/**
+ * An object whose string representation can be written directly into a
+ * string being built by string concatenation, without first creating a
+ * {@code String} from it.
+ *
+ * <p>String concatenation ({@code "a" + x}) normally converts every operand
+ * that is not a {@code String} with {@link String#valueOf(Object)}, which
+ * creates a temporary string that is copied into the result and dropped.
+ * When the {@code MH_INLINE_SIZED_EXACT_DIRECT} concatenation strategy is
+ * selected with the {@code java.lang.invoke.stringConcat} system property,
+ * operands that implement this interface are instead asked for the length
+ * of their representation, and then write it into the storage of the
+ * resulting string through a {@link Sink}.
+ *
+ * <p>The characters written by {@link #concatTo} must be the same as those
+ * of {@link Object#toString()}, and their number must be the one returned
+ * by {@link #concatLength} just before.  An implementation that is not
+ * immutable should not be concatenated while it is being modified.
+ *
+ * <p>The operands of a concatenation are processed from left to right in
+ * each of its steps: first, every operand is either converted to a string
+ * or, if it is an appendable, asked for its length and whether it is
+ * Latin-1, once; then the appendables write their representations, in the
+ * order in which they appear in the expression.
+ *
+ * @since 9
+ */
+public interface StringConcatAppendable {
+
+    /**
+     * Returns the number of {@code char}s of the string representation of
+     * this object.
+     *
+     * @return the length of the string representation, not negative
+     */
+    int concatLength();
+
+    /**
+     * Returns {@code true} if every {@code char} of the string
+     * representation of this object is in the range {@code '\u0000'}
+     * to {@code '\u00FF'}.  The resulting string can then use a
+     * compact representation.
+     *
+     * @implSpec
+     * The default implementation returns {@code false}, which is correct
+     * for any representation.
+     *
+     * @return {@code true} if the representation only has Latin-1 characters
+     */
+    default boolean isConcatLatin1() {
+        return false;
+    }
+
+    /**
+     * Writes the string representation of this object to the given sink.
+     * Exactly {@link #concatLength} characters must be written.  The sink
+     * can only be written to until this method returns.
+     *
+     * @param sink the sink to write to
+     */
+    void concatTo(Sink sink);
+
+    /**
+     * The destination of the string representation of a {@code
+     * StringConcatAppendable}, a fixed-size range of the storage of a string
+     * under construction.
+     *
+     * <p>Every method throws an {@code IllegalStateException}, and leaves
+     * the sink unchanged, if more characters would be written than the
+     * {@linkplain StringConcatAppendable#concatLength length} of the
+     * appendable, or if a character outside of Latin-1 is written for an
+     * appendable that declared a {@linkplain
+     * StringConcatAppendable#isConcatLatin1 Latin-1} representation.
+     * A sink is only valid during the call to {@link
+     * StringConcatAppendable#concatTo concatTo} it is passed to; once that
+     * call has returned, every method throws an {@code
+     * IllegalStateException}, as the string may have been published.
+     *
+     * @since 9
+     */
+    final class Sink {
+        private final StringConcatAppendable appendable;
+        private final int length;
+        private final boolean latin1;
+
+        // the storage while the appendable writes to it, null otherwise
+        private volatile byte[] buf;
+        private byte coder;
+        private int index;
+        private int end;
+
+        /**
+         * Creates a sink for the given appendable, asking it for its
+         * length and whether it is Latin-1.
+         */
+        Sink(StringConcatAppendable appendable) {
+            int length = appendable.concatLength();
+            if (length < 0) {
+                throw new IllegalStateException("Negative concatLength: " + length);
+            }
+            this.appendable = appendable;
+            this.length = length;
+            this.latin1 = appendable.isConcatLatin1();
+        }
+
+        /**
+         * Returns the length of the appendable, as it was when this sink
+         * was created.
+         */
+        int length() {
+            return length;
+        }
+
+        /**
+         * Returns whether the appendable was Latin-1 when this sink was
+         * created.
+         */
+        boolean isLatin1() {
+            return latin1;
+        }
+
+        /**
+         * Has the appendable write exactly {@link #length} chars of the
+         * given buffer from {@code index} on, and then detaches this sink
+         * from the buffer.
+         */
+        void writeTo(byte[] buf, byte coder, int index) {
+            this.coder = coder;
+            this.index = index;
+            this.end = index + length;
+            this.buf = buf;
+            try {
+                appendable.concatTo(this);
+                if (this.index != end) {
+                    throw new IllegalStateException(
+                        "Representation shorter than the declared concatLength");
+                }
+            } finally {
+                this.buf = null;
+            }
+        }
+
+        /**
+         * Appends the given character.
+         *
+         * @param c the character
+         * @return this sink
+         */
+        public Sink append(char c) {
+            byte[] buf = storage(1);
+            if (coder == String.LATIN1) {
+                if (!StringLatin1.canEncode(c)) {
+                    throw new IllegalStateException("Not a Latin-1 character: " + (int)c);
+                }
+                buf[index++] = (byte)c;
+            } else {
+                StringUTF16.putChar(buf, index++, c);
+            }
+            return this;
+        }
+
+        /**
+         * Appends the characters of the given character sequence, or
+         * {@code "null"} if it is {@code null}.
+         *
+         * @param s the character sequence
+         * @return this sink
+         */
+        public Sink append(CharSequence s) {
+            if (s == null) {
+                s = "null";
+            }
+            return append(s, 0, s.length());
+        }
+
+        /**
+         * Appends the characters {@code start} to {@code end - 1} of the given
+         * character sequence, or of {@code "null"} if it is {@code null}.
+         *
+         * @param s the character sequence
+         * @param start the index of the first character
+         * @param end the index after the last character
+         * @return this sink
+         * @throws IndexOutOfBoundsException if {@code start} or {@code end}
+         *         are out of the bounds of {@code s}, or {@code start} is
+         *         greater than {@code end}
+         */
+        public Sink append(CharSequence s, int start, int end) {
+            if (s == null) {
+                s = "null";
+            }
+            String.checkBoundsBeginEnd(start, end, s.length());
+            byte[] buf = storage(end - start);
+            if (s instanceof String && start == 0 && end == s.length()) {
+                String str = (String)s;
+                if (coder == String.UTF16 || str.coder() == String.LATIN1) {
+                    str.getBytes(buf, index, coder);
+                    index += end;
+                    return this;
+                }
+            }
+            if (coder == String.LATIN1) {
+                checkLatin1(s, start, end);
+            }
+            for (int i = start; i < end; i++) {
+                char c = s.charAt(i);
+                if (coder == String.LATIN1) {
+                    buf[index++] = (byte)c;
+                } else {
+                    StringUTF16.putChar(buf, index++, c);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Appends the decimal representation of the given {@code int}.
+         *
+         * @param i the value
+         * @return this sink
+         */
+        public Sink append(int i) {
+            int size = Integer.stringSize(i);
+            byte[] buf = storage(size);
+            if (coder == String.LATIN1) {
+                Integer.getChars(i, index + size, buf);
+            } else {
+                StringUTF16.getChars(i, index + size, buf);
+            }
+            index += size;
+            return this;
+        }
+
+        /**
+         * Appends the decimal representation of the given {@code long}.
+         *
+         * @param l the value
+         * @return this sink
+         */
+        public Sink append(long l) {
+            int size = Long.stringSize(l);
+            byte[] buf = storage(size);
+            if (coder == String.LATIN1) {
+                Long.getChars(l, index + size, buf);
+            } else {
+                StringUTF16.getChars(l, index + size, buf);
+            }
+            index += size;
+            return this;
+        }
+
+        /**
+         * Appends {@code "true"} or {@code "false"}.
+         *
+         * @param b the value
+         * @return this sink
+         */
+        public Sink append(boolean b) {
+            return append(b ? "true" : "false");
+        }
+
+        /**
+         * Returns the storage, if this sink is valid and has room for
+         * {@code n} more chars.
+         */
+        private byte[] storage(int n) {
+            byte[] buf = this.buf;
+            if (buf == null) {
+                throw new IllegalStateException(
+                    "Sink used outside of concatTo");
+            }
+            if (n > end - index) {
+                throw new IllegalStateException(
+                    "Representation longer than the declared concatLength");
+            }
+            return buf;
+        }
+
+        private static void checkLatin1(CharSequence s, int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (!StringLatin1.canEncode(s.charAt(i))) {
+                    throw new IllegalStateException(
+                        "Not a Latin-1 character: " + (int)s.charAt(i));
+                }
+            }
+        }
+    }
+}
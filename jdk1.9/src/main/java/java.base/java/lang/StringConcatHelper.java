@@ -23,6 +23,8 @@
 
 package java.lang;
 
+import java.util.UUID;
+
 /**
  * Helper for string concatenation. These methods are mostly looked up with private lookups
  * from {@link java.lang.invoke.StringConcatFactory}, and used in {@link java.lang.invoke.MethodHandle}
@@ -331,6 +333,232 @@ final class StringConcatHelper {
         return index;
     }
 
+    /**
+     * Converts an argument of reference type to the form taken by the
+     * Object mixers and appenders: the boxed integral types, Boolean,
+     * Character and UUID are kept as is, so that they are written directly
+     * into the buffer, a StringConcatAppendable is wrapped in the Sink it
+     * will write to, which records its length and coder, and any other
+     * value is converted with String.valueOf.
+     *
+     * @param value value to convert
+     * @return the value itself, or its String representation
+     */
+    static Object prepare(Object value) {
+        if (value instanceof String ||
+                value instanceof Integer || value instanceof Long ||
+                value instanceof Short || value instanceof Byte ||
+                value instanceof Boolean || value instanceof Character ||
+                value instanceof UUID) {
+            return value;
+        }
+        if (value instanceof StringConcatAppendable) {
+            return new StringConcatAppendable.Sink((StringConcatAppendable) value);
+        }
+        String s = String.valueOf(value);
+        // String.valueOf(Object) may return null, which is "null" as well
+        return (s != null) ? s : "null";
+    }
+
+    /**
+     * Mix value length into current length
+     * @param current current length
+     * @param value   value to mix in, as returned by {@link #prepare}
+     * @return new length
+     */
+    static int mixLen(int current, Object value) {
+        if (value instanceof String) {
+            return mixLen(current, (String) value);
+        } else if (value instanceof Integer) {
+            return mixLen(current, ((Integer) value).intValue());
+        } else if (value instanceof Long) {
+            return mixLen(current, ((Long) value).longValue());
+        } else if (value instanceof Short || value instanceof Byte) {
+            return mixLen(current, ((Number) value).intValue());
+        } else if (value instanceof Boolean) {
+            return mixLen(current, ((Boolean) value).booleanValue());
+        } else if (value instanceof Character) {
+            return mixLen(current, ((Character) value).charValue());
+        } else if (value instanceof UUID) {
+            return checkOverflow(current + 36);
+        } else {
+            return checkOverflow(current + ((StringConcatAppendable.Sink) value).length());
+        }
+    }
+
+    /**
+     * Mix coder into current coder
+     * @param current current coder
+     * @param value   value to mix in, as returned by {@link #prepare}
+     * @return new coder
+     */
+    static byte mixCoder(byte current, Object value) {
+        if (value instanceof String) {
+            return mixCoder(current, (String) value);
+        } else if (value instanceof Character) {
+            return mixCoder(current, ((Character) value).charValue());
+        } else if (value instanceof StringConcatAppendable.Sink) {
+            return (byte)(current | (((StringConcatAppendable.Sink) value).isLatin1() ? 0 : 1));
+        }
+        // Numbers, Booleans and UUIDs are represented with Latin1
+        return current;
+    }
+
+    /**
+     * Returns the end index, in chars, of a value of the given size that
+     * is appended at the given remaining index.
+     */
+    private static int appendEnd(int index, byte[] buf, byte coder, int size) {
+        return (buf.length >> coder) - index + size;
+    }
+
+    /**
+     * Appends the stringly representation of boolean value into buffer,
+     * given the coder and remaining index. The value is written at the
+     * first of the last {@code index} chars of the buffer, so that the
+     * values are written from left to right. Index is measured in chars,
+     * not in bytes!
+     *
+     * @param index remaining char index in the buffer
+     * @param buf   buffer to append to
+     * @param coder coder to add with
+     * @param value boolean value to encode
+     * @return new index
+     */
+    static int append(int index, byte[] buf, byte coder, boolean value) {
+        int size = value ? 4 : 5;
+        prepend(appendEnd(index, buf, coder, size), buf, coder, value);
+        return index - size;
+    }
+
+    /**
+     * Appends the stringly representation of byte value into buffer,
+     * given the coder and remaining index. Index is measured in chars, not in bytes!
+     *
+     * @param index remaining char index in the buffer
+     * @param buf   buffer to append to
+     * @param coder coder to add with
+     * @param value byte value to encode
+     * @return new index
+     */
+    static int append(int index, byte[] buf, byte coder, byte value) {
+        return append(index, buf, coder, (int)value);
+    }
+
+    /**
+     * Appends the stringly representation of char value into buffer,
+     * given the coder and remaining index. Index is measured in chars, not in bytes!
+     *
+     * @param index remaining char index in the buffer
+     * @param buf   buffer to append to
+     * @param coder coder to add with
+     * @param value char value to encode
+     * @return new index
+     */
+    static int append(int index, byte[] buf, byte coder, char value) {
+        prepend(appendEnd(index, buf, coder, 1), buf, coder, value);
+        return index - 1;
+    }
+
+    /**
+     * Appends the stringly representation of short value into buffer,
+     * given the coder and remaining index. Index is measured in chars, not in bytes!
+     *
+     * @param index remaining char index in the buffer
+     * @param buf   buffer to append to
+     * @param coder coder to add with
+     * @param value short value to encode
+     * @return new index
+     */
+    static int append(int index, byte[] buf, byte coder, short value) {
+        return append(index, buf, coder, (int)value);
+    }
+
+    /**
+     * Appends the stringly representation of integer value into buffer,
+     * given the coder and remaining index. Index is measured in chars, not in bytes!
+     *
+     * @param index remaining char index in the buffer
+     * @param buf   buffer to append to
+     * @param coder coder to add with
+     * @param value integer value to encode
+     * @return new index
+     */
+    static int append(int index, byte[] buf, byte coder, int value) {
+        int size = Integer.stringSize(value);
+        prepend(appendEnd(index, buf, coder, size), buf, coder, value);
+        return index - size;
+    }
+
+    /**
+     * Appends the stringly representation of long value into buffer,
+     * given the coder and remaining index. Index is measured in chars, not in bytes!
+     *
+     * @param index remaining char index in the buffer
+     * @param buf   buffer to append to
+     * @param coder coder to add with
+     * @param value long value to encode
+     * @return new index
+     */
+    static int append(int index, byte[] buf, byte coder, long value) {
+        int size = Long.stringSize(value);
+        prepend(appendEnd(index, buf, coder, size), buf, coder, value);
+        return index - size;
+    }
+
+    /**
+     * Appends the stringly representation of String value into buffer,
+     * given the coder and remaining index. Index is measured in chars, not in bytes!
+     *
+     * @param index remaining char index in the buffer
+     * @param buf   buffer to append to
+     * @param coder coder to add with
+     * @param value String value to encode
+     * @return new index
+     */
+    static int append(int index, byte[] buf, byte coder, String value) {
+        int size = value.length();
+        prepend(appendEnd(index, buf, coder, size), buf, coder, value);
+        return index - size;
+    }
+
+    /**
+     * Appends the stringly representation of a prepared value into buffer,
+     * given the coder and remaining index. Index is measured in chars, not in bytes!
+     *
+     * @param index remaining char index in the buffer
+     * @param buf   buffer to append to
+     * @param coder coder to add with
+     * @param value value to encode, as returned by {@link #prepare}
+     * @return new index
+     */
+    static int append(int index, byte[] buf, byte coder, Object value) {
+        if (value instanceof String) {
+            return append(index, buf, coder, (String) value);
+        } else if (value instanceof Integer) {
+            return append(index, buf, coder, ((Integer) value).intValue());
+        } else if (value instanceof Long) {
+            return append(index, buf, coder, ((Long) value).longValue());
+        } else if (value instanceof Short || value instanceof Byte) {
+            return append(index, buf, coder, ((Number) value).intValue());
+        } else if (value instanceof Boolean) {
+            return append(index, buf, coder, ((Boolean) value).booleanValue());
+        } else if (value instanceof Character) {
+            return append(index, buf, coder, ((Character) value).charValue());
+        } else if (value instanceof UUID) {
+            UUID uuid = (UUID) value;
+            Long.getUUIDChars(uuid.getLeastSignificantBits(), uuid.getMostSignificantBits(),
+                              buf, appendEnd(index, buf, coder, 0), coder);
+            return index - 36;
+        } else {
+            // The sink makes sure that exactly the length that was mixed
+            // in is written
+            StringConcatAppendable.Sink sink = (StringConcatAppendable.Sink) value;
+            sink.writeTo(buf, coder, appendEnd(index, buf, coder, 0));
+            return index - sink.length();
+        }
+    }
+
     /**
      * Instantiates the String with given buffer and coder
      * @param buf     buffer to use
@@ -0,0 +1,517 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of canonical strings.  Interning a string returns a string equal to
+ * it from the pool, adding it first if the pool has no equal string, so that
+ * the many equal strings produced while parsing text can share a single
+ * instance.
+ *
+ * <p> Unlike {@link String#intern()}, an interner is an ordinary object whose
+ * strings become collectable together with the interner, and its content is
+ * bounded in one of two ways:
+ * <ul>
+ *   <li> A {@linkplain #newWeakInterner() weak interner} holds its strings
+ *   weakly and removes them once they are no longer referenced elsewhere. It
+ *   never returns two distinct instances for equal strings that are alive at
+ *   the same time. </li>
+ *   <li> A {@linkplain #newBoundedInterner(int) bounded interner} holds at
+ *   most a fixed number of strings, replacing older strings when new ones
+ *   collide with them.  It may therefore return distinct instances for equal
+ *   strings, and is suited to deduplication where a miss only costs an extra
+ *   string. </li>
+ * </ul>
+ *
+ * <p> Besides strings, an interner accepts a range of characters of a
+ * {@code CharSequence} or a {@code char} array, or a range of Latin-1 bytes,
+ * and only creates a string when no equal string is found in the pool.  Text
+ * read as bytes, such as the keys of a JSON document, can thereby be
+ * deduplicated without creating a string per occurrence.  Latin-1 bytes are
+ * compared directly with the content of strings stored in the compact
+ * Latin-1 form.
+ *
+ * <p> An interner counts its hits and misses so that its efficiency can be
+ * monitored.  Interners are safe for use by multiple concurrent threads.
+ *
+ * @since 9
+ */
+public final class StringInterner {
+
+    // Kinds of source a string is interned from
+    private static final int STRING     = 0;
+    private static final int CHARSEQ    = 1;
+    private static final int CHAR_ARRAY = 2;
+    private static final int LATIN1     = 3;
+
+    private final Table table;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private StringInterner(Table table) {
+        this.table = table;
+    }
+
+    /**
+     * Creates an interner that holds its strings weakly.
+     *
+     * @return  A new, empty interner
+     */
+    public static StringInterner newWeakInterner() {
+        return new StringInterner(new WeakTable());
+    }
+
+    /**
+     * Creates an interner that holds at most the given number of strings.
+     *
+     * @param  maxSize
+     *         The maximum number of strings, rounded up to a power of two
+     *
+     * @return  A new, empty interner
+     *
+     * @throws  IllegalArgumentException
+     *          If {@code maxSize} is not positive or is greater than
+     *          2<sup>30</sup>
+     */
+    public static StringInterner newBoundedInterner(int maxSize) {
+        if (maxSize <= 0 || maxSize > (1 << 30))
+            throw new IllegalArgumentException("Illegal size: " + maxSize);
+        return new StringInterner(new BoundedTable(maxSize));
+    }
+
+    /**
+     * Returns a string of this pool equal to the given string, adding the
+     * given string to the pool if it has none.
+     *
+     * @param  s
+     *         The string to intern
+     *
+     * @return  A string equal to {@code s}
+     */
+    public String intern(String s) {
+        return intern(s, STRING, 0, s.length());
+    }
+
+    /**
+     * Returns a string of this pool equal to the given range of characters,
+     * adding a new string to the pool if it has none.
+     *
+     * @param  cs
+     *         The character sequence
+     * @param  start
+     *         The index of the first character
+     * @param  end
+     *         The index after the last character
+     *
+     * @return  A string equal to {@code cs.subSequence(start, end).toString()}
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If {@code start} or {@code end} are negative, if {@code end}
+     *          is greater than {@code cs.length()}, or if {@code start} is
+     *          greater than {@code end}
+     */
+    public String intern(CharSequence cs, int start, int end) {
+        Objects.checkFromToIndex(start, end, cs.length());
+        return intern(cs, CHARSEQ, start, end - start);
+    }
+
+    /**
+     * Returns a string of this pool equal to the given range of characters,
+     * adding a new string to the pool if it has none.
+     *
+     * @param  chars
+     *         The characters
+     * @param  offset
+     *         The index of the first character
+     * @param  length
+     *         The number of characters
+     *
+     * @return  A string equal to {@code new String(chars, offset, length)}
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If {@code offset} and {@code length} specify a range outside
+     *          of {@code chars}
+     */
+    public String intern(char[] chars, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, chars.length);
+        return intern(chars, CHAR_ARRAY, offset, length);
+    }
+
+    /**
+     * Returns a string of this pool equal to the given range of bytes
+     * decoded as ISO-8859-1 (Latin-1), adding a new string to the pool if it
+     * has none.
+     *
+     * @param  bytes
+     *         The bytes, each of which is a character
+     * @param  offset
+     *         The index of the first byte
+     * @param  length
+     *         The number of bytes
+     *
+     * @return  A string equal to
+     *          {@code new String(bytes, offset, length, ISO_8859_1)}
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If {@code offset} and {@code length} specify a range outside
+     *          of {@code bytes}
+     */
+    public String internLatin1(byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        return intern(bytes, LATIN1, offset, length);
+    }
+
+    /**
+     * Returns the number of interning requests that found an equal string in
+     * this pool.
+     *
+     * @return  The number of hits
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of interning requests that added a string to this
+     * pool.
+     *
+     * @return  The number of misses
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the ratio of hits to interning requests.
+     *
+     * @return  The hit rate, between 0.0 and 1.0, or 0.0 if nothing has been
+     *          interned
+     */
+    public double hitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return (total == 0) ? 0.0 : (double)h / total;
+    }
+
+    /**
+     * Resets the hit and miss counts to zero.
+     */
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+    }
+
+    private String intern(Object src, int kind, int off, int len) {
+        int h = hash(src, kind, off, len);
+        String s = table.get(h, src, kind, off, len);
+        if (s != null) {
+            hits.increment();
+            return s;
+        }
+        misses.increment();
+        return table.add(h, src, kind, off, len);
+    }
+
+    // -- Comparison of the sources with strings --
+
+    // Same as String.hashCode, computed over the source
+    private static int hash(Object src, int kind, int off, int len) {
+        int h = 0;
+        switch (kind) {
+            case STRING:
+                return src.hashCode();
+            case CHARSEQ:
+                CharSequence cs = (CharSequence)src;
+                for (int i = off; i < off + len; i++)
+                    h = 31 * h + cs.charAt(i);
+                return h;
+            case CHAR_ARRAY:
+                char[] ca = (char[])src;
+                for (int i = off; i < off + len; i++)
+                    h = 31 * h + ca[i];
+                return h;
+            default:
+                byte[] ba = (byte[])src;
+                for (int i = off; i < off + len; i++)
+                    h = 31 * h + (ba[i] & 0xff);
+                return h;
+        }
+    }
+
+    private static boolean matches(String s, Object src, int kind, int off, int len) {
+        if (s.length() != len)
+            return false;
+        byte[] latin1 = s.latin1Value();
+        switch (kind) {
+            case STRING:
+                return s.equals(src);
+            case CHARSEQ:
+                CharSequence cs = (CharSequence)src;
+                for (int i = 0; i < len; i++) {
+                    char c = (latin1 != null) ? (char)(latin1[i] & 0xff) : s.charAt(i);
+                    if (c != cs.charAt(off + i))
+                        return false;
+                }
+                return true;
+            case CHAR_ARRAY:
+                char[] ca = (char[])src;
+                for (int i = 0; i < len; i++) {
+                    char c = (latin1 != null) ? (char)(latin1[i] & 0xff) : s.charAt(i);
+                    if (c != ca[off + i])
+                        return false;
+                }
+                return true;
+            default:
+                byte[] ba = (byte[])src;
+                if (latin1 != null) {
+                    for (int i = 0; i < len; i++) {
+                        if (latin1[i] != ba[off + i])
+                            return false;
+                    }
+                    return true;
+                }
+                // A string of Latin-1 characters is stored as UTF-16 only
+                // if compact strings are disabled
+                if (String.COMPACT_STRINGS)
+                    return false;
+                for (int i = 0; i < len; i++) {
+                    if (s.charAt(i) != (char)(ba[off + i] & 0xff))
+                        return false;
+                }
+                return true;
+        }
+    }
+
+    private static String newString(Object src, int kind, int off, int len) {
+        switch (kind) {
+            case STRING:
+                return (String)src;
+            case CHARSEQ:
+                CharSequence cs = (CharSequence)src;
+                if (cs instanceof String)
+                    return ((String)cs).substring(off, off + len);
+                char[] buf = new char[len];
+                for (int i = 0; i < len; i++)
+                    buf[i] = cs.charAt(off + i);
+                return new String(buf);
+            case CHAR_ARRAY:
+                return new String((char[])src, off, len);
+            default:
+                return String.newLatin1Unsafe(
+                    Arrays.copyOfRange((byte[])src, off, off + len));
+        }
+    }
+
+    // Spreads the higher bits of the hash to the bits used for indexing
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    // -- Tables --
+
+    private abstract static class Table {
+        // Returns the string equal to the source or null
+        abstract String get(int h, Object src, int kind, int off, int len);
+
+        // Returns the string equal to the source, creating and adding it to
+        // the table if it has none
+        abstract String add(int h, Object src, int kind, int off, int len);
+    }
+
+    /**
+     * A two-way set-associative cache of strings.  A string may be stored in
+     * either of a pair of adjacent slots; a new string goes to the first
+     * slot of its pair and moves the string there to the second one.  The
+     * slots are read and written without locking, which is safe as strings
+     * are immutable.
+     */
+    private static final class BoundedTable extends Table {
+        private final String[] slots;
+
+        BoundedTable(int maxSize) {
+            int n = 2;
+            while (n < maxSize)
+                n <<= 1;
+            slots = new String[n];
+        }
+
+        String get(int h, Object src, int kind, int off, int len) {
+            String[] ss = slots;
+            int i = spread(h) & (ss.length - 2);
+            String s = ss[i];
+            if (s != null && s.hashCode() == h && matches(s, src, kind, off, len))
+                return s;
+            s = ss[i + 1];
+            if (s != null && s.hashCode() == h && matches(s, src, kind, off, len))
+                return s;
+            return null;
+        }
+
+        String add(int h, Object src, int kind, int off, int len) {
+            String[] ss = slots;
+            int i = spread(h) & (ss.length - 2);
+            String s = newString(src, kind, off, len);
+            String first = ss[i];
+            if (first != null)
+                ss[i + 1] = first;
+            ss[i] = s;
+            return s;
+        }
+    }
+
+    /**
+     * A hash table of weakly referenced strings, split into segments each
+     * with its own lock.  Lookups traverse the immutable bucket chains
+     * without locking; a lookup that misses is retried while holding the
+     * segment lock before a string is added.  Entries of collected strings
+     * are removed when their segment is next updated.
+     */
+    private static final class WeakTable extends Table {
+        private static final int SEGMENT_SHIFT = 4;
+        private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+        private final Segment[] segments = new Segment[1 << SEGMENT_SHIFT];
+
+        WeakTable() {
+            for (int i = 0; i < segments.length; i++)
+                segments[i] = new Segment();
+        }
+
+        private Segment segmentFor(int h) {
+            return segments[spread(h) & SEGMENT_MASK];
+        }
+
+        String get(int h, Object src, int kind, int off, int len) {
+            return segmentFor(h).get(h, src, kind, off, len);
+        }
+
+        String add(int h, Object src, int kind, int off, int len) {
+            return segmentFor(h).add(h, src, kind, off, len);
+        }
+    }
+
+    private static final class Entry extends WeakReference<String> {
+        final int hash;
+        final Entry next;
+
+        Entry(String s, int hash, Entry next, ReferenceQueue<String> queue) {
+            super(s, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    private static final class Segment {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final ReferenceQueue<String> queue = new ReferenceQueue<>();
+        private volatile Entry[] table = new Entry[INITIAL_CAPACITY];
+        private int count;      // guarded by this
+
+        // Bucket index, the lower bits of the hash select the segment
+        private static int indexFor(int h, int length) {
+            return (spread(h) >>> WeakTable.SEGMENT_SHIFT) & (length - 1);
+        }
+
+        String get(int h, Object src, int kind, int off, int len) {
+            Entry[] tab = table;
+            for (Entry e = tab[indexFor(h, tab.length)]; e != null; e = e.next) {
+                if (e.hash == h) {
+                    String s = e.get();
+                    if (s != null && matches(s, src, kind, off, len))
+                        return s;
+                }
+            }
+            return null;
+        }
+
+        synchronized String add(int h, Object src, int kind, int off, int len) {
+            expungeStaleEntries();
+            String s = get(h, src, kind, off, len);
+            if (s != null)
+                return s;
+            Entry[] tab = table;
+            if (count >= tab.length - (tab.length >>> 2))
+                tab = resize(tab);
+            int i = indexFor(h, tab.length);
+            s = newString(src, kind, off, len);
+            tab[i] = new Entry(s, h, tab[i], queue);
+            count++;
+            return s;
+        }
+
+        private Entry[] resize(Entry[] oldTab) {
+            Entry[] newTab = new Entry[oldTab.length << 1];
+            int live = 0;
+            for (Entry head : oldTab) {
+                for (Entry e = head; e != null; e = e.next) {
+                    String s = e.get();
+                    if (s != null) {
+                        int i = indexFor(e.hash, newTab.length);
+                        newTab[i] = new Entry(s, e.hash, newTab[i], queue);
+                        live++;
+                    }
+                }
+            }
+            count = live;
+            table = newTab;
+            return newTab;
+        }
+
+        // Removes the entries of collected strings, copying the part of
+        // their chain that precedes them
+        private void expungeStaleEntries() {
+            Object x;
+            while ((x = queue.poll()) != null) {
+                Entry stale = (Entry)x;
+                Entry[] tab = table;
+                int i = indexFor(stale.hash, tab.length);
+                Entry head = tab[i];
+                for (Entry e = head; e != null; e = e.next) {
+                    if (e == stale) {
+                        Entry newHead = stale.next;
+                        for (Entry p = head; p != stale; p = p.next) {
+                            String s = p.get();
+                            if (s != null)
+                                newHead = new Entry(s, p.hash, newHead, queue);
+                            else
+                                count--;
+                        }
+                        tab[i] = newHead;
+                        count--;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -2106,6 +2106,9 @@ public final class System {
             public String newStringUnsafe(char[] chars) {
                 return new String(chars, true);
             }
+            public String newStringLatin1Unsafe(byte[] bytes) {
+                return String.newLatin1Unsafe(bytes);
+            }
             public Thread newThreadWithAcc(Runnable target, AccessControlContext acc) {
                 return new Thread(target, acc);
             }
@@ -187,6 +187,12 @@ class Thread implements Runnable {
      */
     ThreadLocal.ThreadLocalMap inheritableThreadLocals = null;
 
+    /*
+     * IndexedThreadLocal values pertaining to this thread. These slots are
+     * maintained by the IndexedThreadLocal class.
+     */
+    IndexedThreadLocal.Slots indexedThreadLocals = null;
+
     /*
      * The requested stack size for this thread, or 0 if the creator did
      * not specify a stack size.  It is up to the VM to do whatever it
@@ -859,6 +865,7 @@ class Thread implements Runnable {
         /* Speed the release of some of these resources */
         threadLocals = null;
         inheritableThreadLocals = null;
+        indexedThreadLocals = null;
         inheritedAccessControlContext = null;
         blocker = null;
         uncaughtExceptionHandler = null;
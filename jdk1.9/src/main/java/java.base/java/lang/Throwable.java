@@ -27,6 +27,7 @@ package java.lang;
 
 import  java.io.*;
 import  java.util.*;
+import  jdk.internal.misc.StackTraceCapture;
 
 /**
  * The {@code Throwable} class is the superclass of all errors and
@@ -159,6 +160,13 @@ public class Throwable implements Serializable {
      */
     private static final StackTraceElement[] UNASSIGNED_STACK = new StackTraceElement[0];
 
+    /**
+     * The stack trace of throwables whose stack trace is not captured, per
+     * the {@code StackTraceCapture} policy.  Shared, as the stack trace is
+     * only ever exposed as a copy.
+     */
+    private static final StackTraceElement[] NO_STACK_TRACE = new StackTraceElement[0];
+
     /*
      * To allow Throwable objects to be made immutable and safely
      * reused by the JVM, such as OutOfMemoryErrors, fields of
@@ -215,6 +223,13 @@ public class Throwable implements Serializable {
      */
     private transient int depth;
 
+    /**
+     * The frames captured by a depth-limited {@link #fillInStackTrace()},
+     * decoded into {@code stackTrace} when it is first requested.  Only the
+     * first {@code depth} elements are set.
+     */
+    private transient StackWalker.StackFrame[] capturedFrames;
+
     // Setting this static field introduces an acceptable
     // initialization dependency on a few java.util classes.
     private static final List<Throwable> SUPPRESSED_SENTINEL = Collections.emptyList();
@@ -784,8 +799,35 @@ public class Throwable implements Serializable {
     public synchronized Throwable fillInStackTrace() {
         if (stackTrace != null ||
             backtrace != null /* Out of protocol state */ ) {
-            fillInStackTrace(0);
-            stackTrace = UNASSIGNED_STACK;
+            Class<?> c = getClass();
+            StackTraceCapture.recordCapture(c);
+            int captureDepth = (stackTrace != null)
+                    ? StackTraceCapture.captureDepth(c) : StackTraceCapture.FULL;
+            if (captureDepth == StackTraceCapture.FULL) {
+                capturedFrames = null;
+                fillInStackTrace(0);
+                stackTrace = UNASSIGNED_STACK;
+            } else {
+                // Capture limited by the StackTraceCapture policy
+                backtrace = null;
+                depth = 0;
+                if (captureDepth == StackTraceCapture.NONE) {
+                    capturedFrames = null;
+                    stackTrace = NO_STACK_TRACE;
+                } else {
+                    StackWalker.StackFrame[] frames =
+                        new StackWalker.StackFrame[captureDepth];
+                    int n = StackTraceCapture.capture(this, frames);
+                    if (n >= 0) {
+                        capturedFrames = frames;
+                        depth = n;
+                    } else {
+                        capturedFrames = null;
+                        fillInStackTrace(0);
+                    }
+                    stackTrace = UNASSIGNED_STACK;
+                }
+            }
         }
         return this;
     }
@@ -825,7 +867,17 @@ public class Throwable implements Serializable {
         // backtrace if this is the first call to this method
         if (stackTrace == UNASSIGNED_STACK ||
             (stackTrace == null && backtrace != null) /* Out of protocol state */) {
-            stackTrace = StackTraceElement.of(this, depth);
+            StackWalker.StackFrame[] frames = capturedFrames;
+            if (frames != null) {
+                StackTraceElement[] elements = new StackTraceElement[depth];
+                for (int i = 0; i < elements.length; i++) {
+                    elements[i] = frames[i].toStackTraceElement();
+                }
+                capturedFrames = null;
+                stackTrace = elements;
+            } else {
+                stackTrace = StackTraceElement.of(this, depth);
+            }
         } else if (stackTrace == null) {
             return UNASSIGNED_STACK;
         }
@@ -873,6 +925,7 @@ public class Throwable implements Serializable {
                 backtrace == null) // Test for out of protocol state
                 return;
             this.stackTrace = defensiveCopy;
+            this.capturedFrames = null;
         }
     }
 
@@ -499,10 +499,17 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
                         }
                         if (c != null) {
                             return c.asSubclass(BoundMethodHandle.class);
-                        } else {
-                            // Not pregenerated, generate the class
-                            return generateConcreteBMHClass(shortTypes, types);
                         }
+                        if (LambdaFormArchive.ENABLED) {
+                            byte[] classFile =
+                                LambdaFormArchive.speciesClassBytesOrRecord(shortTypes, types);
+                            if (classFile != null) {
+                                return defineConcreteBMHClass(
+                                        speciesInternalClassName(shortTypes), classFile);
+                            }
+                        }
+                        // Not pregenerated, generate the class
+                        return generateConcreteBMHClass(shortTypes, types);
                     }
                 });
         }
@@ -578,12 +585,21 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
 
             // load class
             InvokerBytecodeGenerator.maybeDump(className, classFile);
-            Class<? extends BoundMethodHandle> bmhClass =
-                UNSAFE.defineClass(className, classFile, 0, classFile.length,
-                                   BoundMethodHandle.class.getClassLoader(), null)
-                    .asSubclass(BoundMethodHandle.class);
+            return defineConcreteBMHClass(className, classFile);
+        }
 
-            return bmhClass;
+        /**
+         * Define a concrete subclass of BMH from its class file.
+         *
+         * @param className the internal name of the class
+         * @param classFile the class file, as generated by {@link #generateConcreteBMHClassBytes}
+         * @return the concrete BMH class
+         */
+        static Class<? extends BoundMethodHandle> defineConcreteBMHClass(String className,
+                byte[] classFile) {
+            return UNSAFE.defineClass(className, classFile, 0, classFile.length,
+                                      BoundMethodHandle.class.getClassLoader(), null)
+                    .asSubclass(BoundMethodHandle.class);
         }
 
         static String speciesInternalClassName(String shortTypes) {
@@ -161,6 +161,33 @@ class GenerateJLIClassesHelper {
                 forms.toArray(new LambdaForm[0]));
     }
 
+    /*
+     * Generate code for the LambdaForms recorded by the LambdaFormArchive into
+     * a class with a specified name, skipping the forms whose code refers to
+     * constants that can't be expressed in a class file.
+     */
+    static byte[] generateArchivedFormsClassBytes(String className,
+            String[] names, LambdaForm[] forms) {
+        ArrayList<LambdaForm> archivable = new ArrayList<>();
+        ArrayList<String> archivableNames = new ArrayList<>();
+        for (int i = 0; i < forms.length; i++) {
+            ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS + ClassWriter.COMPUTE_FRAMES);
+            cw.visit(Opcodes.V1_8, Opcodes.ACC_PRIVATE + Opcodes.ACC_FINAL + Opcodes.ACC_SUPER,
+                    className, null, InvokerBytecodeGenerator.INVOKER_SUPER_NAME, null);
+            InvokerBytecodeGenerator g = new InvokerBytecodeGenerator(className,
+                    names[i], forms[i], forms[i].methodType());
+            g.setClassWriter(cw);
+            g.addMethod();
+            if (!g.needsConstantPatches()) {
+                archivable.add(forms[i]);
+                archivableNames.add(names[i]);
+            }
+        }
+        return generateCodeBytesForLFs(className,
+                archivableNames.toArray(new String[0]),
+                archivable.toArray(new LambdaForm[0]));
+    }
+
     /*
      * Generate customized code for a set of LambdaForms of specified types into
      * a class with a specified name.
@@ -607,7 +607,7 @@ class InvokerBytecodeGenerator {
         return c.getName().replace('.', '/');
     }
 
-    private static MemberName resolveFrom(String name, MethodType type, Class<?> holder) {
+    static MemberName resolveFrom(String name, MethodType type, Class<?> holder) {
         MemberName member = new MemberName(holder, name, type, REF_invokeStatic);
         MemberName resolvedMember = MemberName.getFactory().resolveOrNull(REF_invokeStatic, member, holder);
         if (TRACE_RESOLVE) {
@@ -622,23 +622,34 @@ class InvokerBytecodeGenerator {
             // No pre-generated version for customized LF
             return null;
         }
+        Class<?> holder = pregeneratedHolder(form.kind);
+        if (holder == null) {
+            return null;
+        }
         MethodType invokerType = form.methodType();
-        String name = form.kind.methodName;
-        switch (form.kind) {
-            case BOUND_REINVOKER: {
-                name = name + "_" + BoundMethodHandle.speciesData(form).fieldSignature();
-                return resolveFrom(name, invokerType, DelegatingMethodHandle.Holder.class);
-            }
-            case DELEGATE:                  return resolveFrom(name, invokerType, DelegatingMethodHandle.Holder.class);
+        String name = pregeneratedName(form);
+        MemberName member = resolveFrom(name, invokerType, holder);
+        if (member == null && LambdaFormArchive.ENABLED) {
+            // not generated at link time, try the forms archived at run time
+            member = LambdaFormArchive.resolveOrRecord(form, name, invokerType);
+        }
+        return member;
+    }
+
+    /**
+     * Returns the holder class of the pre-generated invokers of the given
+     * kind, or null if invokers of that kind are not pre-generated.
+     */
+    private static Class<?> pregeneratedHolder(Kind kind) {
+        switch (kind) {
+            case BOUND_REINVOKER:           // fall-through
+            case DELEGATE:                  return DelegatingMethodHandle.Holder.class;
             case ZERO:                      // fall-through
-            case IDENTITY: {
-                name = name + "_" + form.returnType().basicTypeChar();
-                return resolveFrom(name, invokerType, LambdaForm.Holder.class);
-            }
+            case IDENTITY:                  return LambdaForm.Holder.class;
             case EXACT_INVOKER:             // fall-through
             case EXACT_LINKER:              // fall-through
             case GENERIC_INVOKER:           // fall-through
-            case GENERIC_LINKER:            return resolveFrom(name, invokerType.basicType(), Invokers.Holder.class);
+            case GENERIC_LINKER:            return Invokers.Holder.class;
             case GET_OBJECT:                // fall-through
             case GET_BOOLEAN:               // fall-through
             case GET_BYTE:                  // fall-through
@@ -661,11 +672,26 @@ class InvokerBytecodeGenerator {
             case DIRECT_INVOKE_SPECIAL:     // fall-through
             case DIRECT_INVOKE_STATIC:      // fall-through
             case DIRECT_INVOKE_STATIC_INIT: // fall-through
-            case DIRECT_INVOKE_VIRTUAL:     return resolveFrom(name, invokerType, DirectMethodHandle.Holder.class);
+            case DIRECT_INVOKE_VIRTUAL:     return DirectMethodHandle.Holder.class;
         }
         return null;
     }
 
+    /**
+     * Returns the name of the pre-generated invoker of the given form.
+     */
+    private static String pregeneratedName(LambdaForm form) {
+        String name = form.kind.methodName;
+        switch (form.kind) {
+            case BOUND_REINVOKER:
+                return name + "_" + BoundMethodHandle.speciesData(form).fieldSignature();
+            case ZERO:                      // fall-through
+            case IDENTITY:
+                return name + "_" + form.returnType().basicTypeChar();
+        }
+        return name;
+    }
+
     /**
      * Generate customized bytecode for a given LambdaForm.
      */
@@ -728,6 +754,15 @@ class InvokerBytecodeGenerator {
         this.cw = cw;
     }
 
+    /**
+     * Returns true if the code added by {@link #addMethod} refers to
+     * constants that must be patched into the constant pool, other than
+     * the lambda form itself, so that it cannot be pre-generated.
+     */
+    boolean needsConstantPatches() {
+        return cpPatches.size() > 1;
+    }
+
     void addMethod() {
         methodPrologue();
 
@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang.invoke;
+
+import jdk.internal.misc.SharedSecrets;
+import sun.security.action.GetPropertyAction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.invoke.LambdaForm.*;
+import static java.lang.invoke.MethodHandleStatics.*;
+
+/**
+ * An archive of the lambda forms and bound method handle species that an
+ * application generates at run time, so that they need not be generated
+ * again on its next start.
+ * <p>
+ * The archive is enabled by setting the system property
+ * {@code java.lang.invoke.MethodHandle.LAMBDA_FORM_ARCHIVE} to the path of
+ * the archive file.  The lambda forms that are looked up in the holder
+ * classes pre-generated at link time, but are not found there, and the
+ * species that are not pre-generated, are recorded.  When the VM shuts down
+ * their classes are generated and written to the archive, the same way
+ * the {@code GenerateJLIClassesPlugin} of jlink generates the holder
+ * classes and species of the run-time image.  On the next start the
+ * archived holder class and species are defined from the archive instead
+ * of being spun one by one.
+ * <p>
+ * The lambda forms are archived in a single holder class, which is
+ * generated anew whenever forms were recorded.  It has the forms that were
+ * recorded and the archived forms that were looked up in the run; archived
+ * forms that were not looked up are dropped, as only the class file of the
+ * holder is kept.  The species are kept across runs.
+ * <p>
+ * The classes of the archive are defined to the boot class loader, so the
+ * archive file must be as trusted as the run-time image.  The archive is
+ * ignored, and written anew, if it was written by a different Java runtime
+ * version.  A new archive is written to a temporary file in the same
+ * directory and then moved over the old one, atomically where the file
+ * system supports it.
+ * <p>
+ * The archive is a sequence of:
+ * <pre>
+ *     int      magic
+ *     UTF      java.runtime.version
+ *     int      length of the holder class file, zero if there is none,
+ *                followed by the class file
+ *     int      number of species, followed for each of them by
+ *                UTF short type signature, int length, byte[] class file
+ * </pre>
+ */
+final class LambdaFormArchive {
+    private static final int MAGIC = 0x4C46_4132;  // "LFA2"
+    private static final String HOLDER_NAME = "java/lang/invoke/LambdaFormArchive$Holder";
+
+    // slot of the shutdown hook that writes the archive
+    private static final int SHUTDOWN_HOOK_SLOT = 4;
+
+    /** True if the archive is enabled. */
+    static final boolean ENABLED = LAMBDA_FORM_ARCHIVE != null && !LAMBDA_FORM_ARCHIVE.isEmpty();
+
+    private LambdaFormArchive() { }  // do not instantiate
+
+    /**
+     * The contents of the archive file and the forms and species recorded
+     * in this run, created when first used.
+     */
+    private static final class Archive implements Runnable {
+        static final Archive INSTANCE = new Archive(new File(LAMBDA_FORM_ARCHIVE));
+
+        final File file;
+        final String version;
+
+        // class file of the holder class, null if there is none
+        byte[] holderBytes;
+
+        // short type signature -> class file of the archived species
+        final Map<String, byte[]> species = new HashMap<>();
+
+        // the defined holder class, null if there is none
+        final Class<?> holder;
+
+        // name and basic type signature -> recorded lambda form
+        final ConcurrentHashMap<String, Recorded> recordedForms = new ConcurrentHashMap<>();
+
+        // name and basic type signature -> archived lambda form that was
+        // looked up, to be kept in the next holder class
+        final ConcurrentHashMap<String, Recorded> archivedForms = new ConcurrentHashMap<>();
+
+        // type signature of the recorded species
+        final ConcurrentHashMap<String, String> recordedSpecies = new ConcurrentHashMap<>();
+
+        boolean hookRegistered;
+        volatile boolean closed;
+
+        Archive(File file) {
+            this.file = file;
+            this.version = GetPropertyAction.privilegedGetProperty("java.runtime.version");
+            AccessController.doPrivileged(new PrivilegedAction<>() {
+                public Void run() {
+                    read();
+                    return null;
+                }
+            });
+            Class<?> c = null;
+            byte[] b = holderBytes;
+            if (b != null) {
+                try {
+                    c = UNSAFE.defineClass(HOLDER_NAME, b, 0, b.length, null, null);
+                    UNSAFE.ensureClassInitialized(c);
+                } catch (LinkageError e) {
+                    // malformed archive, ignore it
+                    c = null;
+                    holderBytes = null;
+                    species.clear();
+                }
+            }
+            holder = c;
+        }
+
+        private void read() {
+            if (!file.isFile())
+                return;
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(file)))) {
+                if (in.readInt() != MAGIC || !in.readUTF().equals(version))
+                    return;
+                byte[] bytes = readClassFile(in);
+                Map<String, byte[]> map = new HashMap<>();
+                int n = in.readInt();
+                for (int i = 0; i < n; i++) {
+                    String shortTypes = in.readUTF();
+                    map.put(shortTypes, readClassFile(in));
+                }
+                holderBytes = (bytes.length == 0) ? null : bytes;
+                species.putAll(map);
+            } catch (IOException | RuntimeException e) {
+                // ignore the archive, it is written anew at shutdown
+            }
+        }
+
+        private static byte[] readClassFile(DataInputStream in) throws IOException {
+            byte[] b = new byte[in.readInt()];
+            in.readFully(b);
+            return b;
+        }
+
+        void registerShutdownHook() {
+            synchronized (this) {
+                if (hookRegistered)
+                    return;
+                hookRegistered = true;
+            }
+            try {
+                SharedSecrets.getJavaLangAccess()
+                    .registerShutdownHook(SHUTDOWN_HOOK_SLOT, false, this);
+            } catch (IllegalStateException e) {
+                // shutdown in progress
+            }
+        }
+
+        /**
+         * Generates the classes of the recorded forms and species and
+         * writes them to the archive, along with the archived classes.
+         */
+        @Override
+        public void run() {
+            closed = true;
+            if (recordedForms.isEmpty() && recordedSpecies.isEmpty())
+                return;
+            AccessController.doPrivileged(new PrivilegedAction<>() {
+                public Void run() {
+                    write();
+                    return null;
+                }
+            });
+        }
+
+        private void write() {
+            byte[] bytes = holderBytes;
+            Map<String, byte[]> speciesBytes = new HashMap<>(species);
+            Path target = file.getAbsoluteFile().toPath();
+            Path tmp = null;
+            try {
+                if (!recordedForms.isEmpty()) {
+                    // one holder class with the recorded forms and the
+                    // archived forms that are still in use
+                    ArrayList<String> methodNames = new ArrayList<>();
+                    ArrayList<LambdaForm> forms = new ArrayList<>();
+                    addForms(archivedForms.values(), methodNames, forms);
+                    addForms(recordedForms.values(), methodNames, forms);
+                    bytes = GenerateJLIClassesHelper.generateArchivedFormsClassBytes(
+                            HOLDER_NAME,
+                            methodNames.toArray(new String[0]),
+                            forms.toArray(new LambdaForm[0]));
+                }
+                for (String types : recordedSpecies.values()) {
+                    speciesBytes.put(shortenSignature(types),
+                            GenerateJLIClassesHelper.generateConcreteBMHClassBytes(types)
+                                                    .getValue());
+                }
+
+                tmp = Files.createTempFile(target.getParent(),
+                                           target.getFileName().toString(), ".tmp");
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeUTF(version);
+                    if (bytes == null) {
+                        out.writeInt(0);
+                    } else {
+                        out.writeInt(bytes.length);
+                        out.write(bytes);
+                    }
+                    out.writeInt(speciesBytes.size());
+                    for (Map.Entry<String, byte[]> e : speciesBytes.entrySet()) {
+                        out.writeUTF(e.getKey());
+                        out.writeInt(e.getValue().length);
+                        out.write(e.getValue());
+                    }
+                }
+                try {
+                    Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE,
+                               StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException | RuntimeException | InternalError e) {
+                if (tmp != null) {
+                    try {
+                        Files.deleteIfExists(tmp);
+                    } catch (IOException ignore) { }
+                }
+            }
+        }
+
+        private static void addForms(Collection<Recorded> recorded,
+                                     ArrayList<String> methodNames,
+                                     ArrayList<LambdaForm> forms) {
+            for (Recorded r : recorded) {
+                methodNames.add(r.name);
+                forms.add(r.form);
+            }
+        }
+    }
+
+    /** A lambda form that was not found pre-generated. */
+    private static final class Recorded {
+        final String name;
+        final LambdaForm form;
+
+        Recorded(String name, LambdaForm form) {
+            this.name = name;
+            this.form = form;
+        }
+    }
+
+    /**
+     * Resolves the invoker of the given lambda form in the archived holder
+     * class.  If it is not archived, the form is recorded to be archived
+     * at shutdown; if it is, it is kept in the holder class that is
+     * written at shutdown.
+     *
+     * @param form the uncustomized lambda form
+     * @param name the name of the invoker in a holder class
+     * @param type the basic type of the invoker
+     * @return the archived invoker, or null if it is not archived
+     */
+    static MemberName resolveOrRecord(LambdaForm form, String name, MethodType type) {
+        Archive archive = Archive.INSTANCE;
+        Class<?> holder = archive.holder;
+        MemberName member = (holder == null) ? null
+                : InvokerBytecodeGenerator.resolveFrom(name, type, holder);
+        if (!archive.closed) {
+            String key = name + " " + basicTypeSignature(type);
+            if (member != null) {
+                archive.archivedForms.putIfAbsent(key, new Recorded(name, form));
+            } else if (archive.recordedForms.putIfAbsent(key, new Recorded(name, form)) == null) {
+                archive.registerShutdownHook();
+            }
+        }
+        return member;
+    }
+
+    /**
+     * Returns the class file of the archived species of the given types.
+     * If it is not archived, the species is recorded to be archived at
+     * shutdown.
+     *
+     * @param shortTypes the shortened type signature of the species
+     * @param types the type signature of the species
+     * @return the class file, or null if the species is not archived
+     */
+    static byte[] speciesClassBytesOrRecord(String shortTypes, String types) {
+        Archive archive = Archive.INSTANCE;
+        byte[] b = archive.species.get(shortTypes);
+        if (b == null && !archive.closed) {
+            if (archive.recordedSpecies.putIfAbsent(shortTypes, types) == null)
+                archive.registerShutdownHook();
+        }
+        return b;
+    }
+}
@@ -40,6 +40,8 @@ import sun.invoke.util.VerifyType;
 import sun.invoke.util.Wrapper;
 
 import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
@@ -1753,6 +1755,24 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
                 return GenerateJLIClassesHelper
                         .generateInvokersHolderClassBytes(className, methodTypes);
             }
+
+            @Override
+            public MethodHandle unreflect(Method method) {
+                try {
+                    return IMPL_LOOKUP.unreflect(method);
+                } catch (IllegalAccessException ex) {
+                    throw newInternalError(ex);
+                }
+            }
+
+            @Override
+            public MethodHandle unreflectConstructor(Constructor<?> ctor) {
+                try {
+                    return IMPL_LOOKUP.unreflectConstructor(ctor);
+                } catch (IllegalAccessException ex) {
+                    throw newInternalError(ex);
+                }
+            }
         });
     }
 
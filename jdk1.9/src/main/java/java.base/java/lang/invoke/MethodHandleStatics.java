@@ -47,6 +47,7 @@ import java.util.Properties;
     static final boolean TRACE_INTERPRETER;
     static final boolean TRACE_METHOD_LINKAGE;
     static final boolean TRACE_RESOLVE;
+    static final String LAMBDA_FORM_ARCHIVE;
     static final int COMPILE_THRESHOLD;
     static final boolean LOG_LF_COMPILATION_FAILURE;
     static final int DONT_INLINE_THRESHOLD;
@@ -68,6 +69,8 @@ import java.util.Properties;
                 props.getProperty("java.lang.invoke.MethodHandle.TRACE_METHOD_LINKAGE"));
         TRACE_RESOLVE = Boolean.parseBoolean(
                 props.getProperty("java.lang.invoke.MethodHandle.TRACE_RESOLVE"));
+        LAMBDA_FORM_ARCHIVE =
+                props.getProperty("java.lang.invoke.MethodHandle.LAMBDA_FORM_ARCHIVE");
         COMPILE_THRESHOLD = Integer.parseInt(
                 props.getProperty("java.lang.invoke.MethodHandle.COMPILE_THRESHOLD", "0"));
         LOG_LF_COMPILATION_FAILURE = Boolean.parseBoolean(
@@ -164,7 +164,16 @@ public final class StringConcatFactory {
          * MethodHandle-based generator, that constructs its own byte[] array from
          * the arguments. It computes the required storage exactly.
          */
-        MH_INLINE_SIZED_EXACT
+        MH_INLINE_SIZED_EXACT,
+
+        /**
+         * MethodHandle-based generator, that constructs its own byte[] array from
+         * the arguments, like {@link #MH_INLINE_SIZED_EXACT}. Reference arguments that
+         * are boxed integral types, Booleans, Characters, UUIDs or implement
+         * {@link java.lang.StringConcatAppendable} are written directly into the
+         * array, without converting them to Strings first.
+         */
+        MH_INLINE_SIZED_EXACT_DIRECT
     }
 
     /**
@@ -698,6 +707,7 @@ public final class StringConcatFactory {
             case MH_SB_SIZED:
             case MH_SB_SIZED_EXACT:
             case MH_INLINE_SIZED_EXACT:
+            case MH_INLINE_SIZED_EXACT_DIRECT:
                 // MethodHandle strategies do not need a class name.
                 return "";
             default:
@@ -719,7 +729,9 @@ public final class StringConcatFactory {
                 case MH_SB_SIZED_EXACT:
                     return MethodHandleStringBuilderStrategy.generate(mt, recipe, Mode.SIZED_EXACT);
                 case MH_INLINE_SIZED_EXACT:
-                    return MethodHandleInlineCopyStrategy.generate(mt, recipe);
+                    return MethodHandleInlineCopyStrategy.generate(mt, recipe, false);
+                case MH_INLINE_SIZED_EXACT_DIRECT:
+                    return MethodHandleInlineCopyStrategy.generate(mt, recipe, true);
                 default:
                     throw new StringConcatException("Concatenation strategy " + STRATEGY + " is not implemented");
             }
@@ -1463,6 +1475,21 @@ public final class StringConcatFactory {
      * particular implementation details for String, this opens the door for
      * building a very optimal concatenation sequence. This is the only strategy
      * that requires porting if there are private JDK changes occur.
+     *
+     * <p><b>{@link Strategy#MH_INLINE_SIZED_EXACT_DIRECT}: "MethodHandles inline,
+     * sized exactly, direct".</b>
+     *
+     * <p>This strategy is the same, except that reference arguments other than
+     * Strings are not converted to Strings up front. They are filtered through
+     * StringConcatHelper.prepare, which keeps the values it can write directly
+     * (boxed integral types, Boolean, Character, UUID, and StringConcatAppendable
+     * wrapped in its Sink), and are mixed and appended by the Object
+     * specializations in StringConcatHelper, which dispatch on the actual class.
+     *
+     * <p>As StringConcatAppendable calls back into user code, the arguments are
+     * processed from left to right in each phase: they are filtered, then their
+     * lengths and coders are mixed, and then they are appended, from the first
+     * char of the storage, instead of being prepended from its last char.
      */
     private static final class MethodHandleInlineCopyStrategy {
         static final Unsafe UNSAFE = Unsafe.getUnsafe();
@@ -1471,7 +1498,7 @@ public final class StringConcatFactory {
             // no instantiation
         }
 
-        static MethodHandle generate(MethodType mt, Recipe recipe) throws Throwable {
+        static MethodHandle generate(MethodType mt, Recipe recipe, boolean direct) throws Throwable {
 
             // Create filters and obtain filtered parameter types. Filters would be used in the beginning
             // to convert the incoming arguments into the arguments we can process (e.g. Objects -> Strings).
@@ -1479,7 +1506,13 @@ public final class StringConcatFactory {
             Class<?>[] ptypes = mt.parameterArray();
             MethodHandle[] filters = null;
             for (int i = 0; i < ptypes.length; i++) {
-                MethodHandle filter = Stringifiers.forMost(ptypes[i]);
+                MethodHandle filter;
+                if (direct && !ptypes[i].isPrimitive() && ptypes[i] != String.class) {
+                    // Keep the arguments that can be written directly, as Objects
+                    filter = PREPARE.asType(MethodType.methodType(Object.class, ptypes[i]));
+                } else {
+                    filter = Stringifiers.forMost(ptypes[i]);
+                }
                 if (filter != null) {
                     if (filters == null) {
                         filters = new MethodHandle[ptypes.length];
@@ -1498,16 +1531,27 @@ public final class StringConcatFactory {
 
             mh = MethodHandles.dropArguments(NEW_STRING, 3, ptypes);
 
+            // The combinators folded last run first. The direct strategy folds the elements from last to
+            // first, so that they run from left to right.
+            List<RecipeElement> elements = recipe.getElements();
+            if (direct) {
+                elements = new ArrayList<>(elements);
+                Collections.reverse(elements);
+            }
+
             // Mix in prependers. This happens when (byte[], int, byte) = (storage, index, coder) is already
             // known from the combinators below. We are assembling the string backwards, so "index" is the
-            // *ending* index.
-            for (RecipeElement el : recipe.getElements()) {
+            // *ending* index. The direct strategy uses appenders instead, which assemble the string forwards,
+            // and "index" is the number of chars left to append.
+            for (RecipeElement el : elements) {
                 // Do the prepend, and put "new" index at index 1
                 mh = MethodHandles.dropArguments(mh, 2, int.class);
                 switch (el.getTag()) {
                     case TAG_CONST: {
                         Object cnst = el.getValue();
-                        MethodHandle prepender = MethodHandles.insertArguments(prepender(cnst.getClass()), 3, cnst);
+                        MethodHandle prepender = direct
+                                ? MethodHandles.insertArguments(appender(String.class), 3, cnst.toString())
+                                : MethodHandles.insertArguments(prepender(cnst.getClass()), 3, cnst);
                         mh = MethodHandles.foldArguments(mh, 1, prepender,
                                 2, 0, 3 // index, storage, coder
                         );
@@ -1515,7 +1559,7 @@ public final class StringConcatFactory {
                     }
                     case TAG_ARG: {
                         int pos = el.getArgPos();
-                        MethodHandle prepender = prepender(ptypes[pos]);
+                        MethodHandle prepender = direct ? appender(ptypes[pos]) : prepender(ptypes[pos]);
                         mh = MethodHandles.foldArguments(mh, 1, prepender,
                                 2, 0, 3, // index, storage, coder
                                 4 + pos  // selected argument
@@ -1547,7 +1591,7 @@ public final class StringConcatFactory {
             //   (int, byte, <args>)String = ("index", "coder", <args>)
             byte initialCoder = INITIAL_CODER;
             int initialLen = 0;    // initial length, in characters
-            for (RecipeElement el : recipe.getElements()) {
+            for (RecipeElement el : elements) {
                 switch (el.getTag()) {
                     case TAG_CONST:
                         Object constant = el.getValue();
@@ -1594,7 +1638,16 @@ public final class StringConcatFactory {
 
             // Apply filters, converting the arguments:
             if (filters != null) {
-                mh = MethodHandles.filterArguments(mh, 0, filters);
+                if (direct) {
+                    // One at a time, the filter applied last runs first
+                    for (int i = filters.length - 1; i >= 0; i--) {
+                        if (filters[i] != null) {
+                            mh = MethodHandles.filterArguments(mh, i, filters[i]);
+                        }
+                    }
+                } else {
+                    mh = MethodHandles.filterArguments(mh, 0, filters);
+                }
             }
 
             return mh;
@@ -1609,6 +1662,10 @@ public final class StringConcatFactory {
             return PREPENDERS.computeIfAbsent(cl, PREPEND);
         }
 
+        private static MethodHandle appender(Class<?> cl) {
+            return APPENDERS.computeIfAbsent(cl, APPEND);
+        }
+
         private static MethodHandle coderMixer(Class<?> cl) {
             return CODER_MIXERS.computeIfAbsent(cl, CODER_MIX);
         }
@@ -1625,6 +1682,14 @@ public final class StringConcatFactory {
             }
         };
 
+        // This one is deliberately non-lambdified to optimize startup time:
+        private static final Function<Class<?>, MethodHandle> APPEND = new Function<Class<?>, MethodHandle>() {
+            @Override
+            public MethodHandle apply(Class<?> c) {
+                return lookupStatic(Lookup.IMPL_LOOKUP, STRING_HELPER, "append", int.class, int.class, byte[].class, byte.class, c);
+            }
+        };
+
         // This one is deliberately non-lambdified to optimize startup time:
         private static final Function<Class<?>, MethodHandle> CODER_MIX = new Function<Class<?>, MethodHandle>() {
             @Override
@@ -1643,7 +1708,9 @@ public final class StringConcatFactory {
 
         private static final MethodHandle NEW_STRING;
         private static final MethodHandle NEW_ARRAY;
+        private static final MethodHandle PREPARE;
         private static final ConcurrentMap<Class<?>, MethodHandle> PREPENDERS;
+        private static final ConcurrentMap<Class<?>, MethodHandle> APPENDERS;
         private static final ConcurrentMap<Class<?>, MethodHandle> LENGTH_MIXERS;
         private static final ConcurrentMap<Class<?>, MethodHandle> CODER_MIXERS;
         private static final byte INITIAL_CODER;
@@ -1659,11 +1726,13 @@ public final class StringConcatFactory {
             }
 
             PREPENDERS = new ConcurrentHashMap<>();
+            APPENDERS = new ConcurrentHashMap<>();
             LENGTH_MIXERS = new ConcurrentHashMap<>();
             CODER_MIXERS = new ConcurrentHashMap<>();
 
             NEW_STRING = lookupStatic(Lookup.IMPL_LOOKUP, STRING_HELPER, "newString", String.class, byte[].class, int.class, byte.class);
             NEW_ARRAY  = lookupStatic(Lookup.IMPL_LOOKUP, MethodHandleInlineCopyStrategy.class, "newArray", byte[].class, int.class, byte.class);
+            PREPARE    = lookupStatic(Lookup.IMPL_LOOKUP, STRING_HELPER, "prepare", Object.class, Object.class);
         }
     }
 
@@ -31,6 +31,7 @@ import jdk.internal.misc.SharedSecrets;
 import jdk.internal.misc.Unsafe;
 import jdk.internal.misc.VM;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -109,12 +110,23 @@ class Bits {                            // package-private
     private static final AtomicLong count = new AtomicLong();
     private static volatile boolean memoryLimitSet;
 
+    // Capacity currently reserved by buffers whose memory is owned by a
+    // DirectBufferScope, the monitor on which threads wait for such memory
+    // to be freed explicitly, and the number of threads waiting on it
+    private static final AtomicLong scopedCapacity = new AtomicLong();
+    private static final Object explicitFreeLock = new Object();
+    private static final AtomicInteger explicitFreeWaiters = new AtomicInteger();
+
     // max. number of sleeps during try-reserving with exponentially
     // increasing delay before throwing OutOfMemoryError:
     // 1, 2, 4, 8, 16, 32, 64, 128, 256 (total 511 ms ~ 0.5 s)
     // which means that OOME will be thrown after 0.5 s of trying
     private static final int MAX_SLEEPS = 9;
 
+    // max. time to wait for scopes to free memory before falling back to
+    // reference processing and GC, matching the total of the sleeps above
+    private static final long MAX_EXPLICIT_FREE_WAIT_NANOS = 511L * 1000 * 1000;
+
     // These methods should be called whenever direct memory is allocated or
     // freed.  They allow the user to control the amount of direct memory
     // which a process may access.  All sizes are specified in bytes.
@@ -130,6 +142,12 @@ class Bits {                            // package-private
             return;
         }
 
+        // If closing scopes would make enough room then wait for that
+        // rather than forcing a GC
+        if (explicitFreesSuffice(cap) && waitForExplicitFrees(size, cap)) {
+            return;
+        }
+
         final JavaLangRefAccess jlra = SharedSecrets.getJavaLangRefAccess();
         boolean interrupted = false;
         try {
@@ -219,6 +237,74 @@ class Bits {                            // package-private
         assert cnt >= 0 && reservedMem >= 0 && totalCap >= 0;
     }
 
+    // Variants of the above for memory owned by a DirectBufferScope, which
+    // is freed explicitly rather than by a cleaner.
+    static void reserveScopedMemory(long size, int cap) {
+        reserveMemory(size, cap);
+        scopedCapacity.addAndGet(cap);
+    }
+
+    static void unreserveScopedMemory(long size, int cap) {
+        long scopedCap = scopedCapacity.addAndGet(-cap);
+        assert scopedCap >= 0;
+        unreserveMemory(size, cap);
+        // A waiter counts itself before it retries the reservation, so if
+        // none is counted here then any later one will see the freed memory
+        if (explicitFreeWaiters.get() != 0) {
+            synchronized (explicitFreeLock) {
+                explicitFreeLock.notifyAll();
+            }
+        }
+    }
+
+    // Tells whether freeing all scoped memory would make room for the given
+    // capacity
+    private static boolean explicitFreesSuffice(int cap) {
+        long scopedCap = scopedCapacity.get();
+        return scopedCap != 0 &&
+            cap <= maxMemory - (totalCapacity.get() - scopedCap);
+    }
+
+    // Waits, for a bounded time, until enough scoped memory has been freed to
+    // reserve the given amount.  Returns false without waiting if even
+    // freeing all scoped memory would not make enough room.
+    private static boolean waitForExplicitFrees(long size, int cap) {
+        boolean interrupted = false;
+        try {
+            long deadline = System.nanoTime() + MAX_EXPLICIT_FREE_WAIT_NANOS;
+            synchronized (explicitFreeLock) {
+                explicitFreeWaiters.incrementAndGet();
+                try {
+                    while (true) {
+                        if (tryReserveMemory(size, cap)) {
+                            return true;
+                        }
+                        if (!explicitFreesSuffice(cap)) {
+                            return false;
+                        }
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            return false;
+                        }
+                        try {
+                            explicitFreeLock.wait(remaining / 1000000 + 1);
+                        } catch (InterruptedException e) {
+                            // Defer interrupts and keep trying.
+                            interrupted = true;
+                        }
+                    }
+                } finally {
+                    explicitFreeWaiters.decrementAndGet();
+                }
+            }
+        } finally {
+            if (interrupted) {
+                // don't swallow interrupts
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     // -- Monitoring of direct buffer usage --
 
     static {
@@ -254,6 +340,21 @@ class Bits {                            // package-private
                 public void truncate(Buffer buf) {
                     buf.truncate();
                 }
+                @Override
+                public void acquireScope(Buffer buf) {
+                    if (buf instanceof DirectByteBuffer)
+                        ((DirectByteBuffer)buf).acquireScope();
+                }
+                @Override
+                public void releaseScope(Buffer buf) {
+                    if (buf instanceof DirectByteBuffer)
+                        ((DirectByteBuffer)buf).releaseScope();
+                }
+                @Override
+                public boolean hasScope(Buffer buf) {
+                    return (buf instanceof DirectByteBuffer)
+                        && ((DirectByteBuffer)buf).scope() != null;
+                }
         });
     }
 
@@ -39,8 +39,15 @@ class ByteBufferAsCharBufferL                  // package-private
     // Cached unsafe-access object
     private static final Unsafe unsafe = Bits.unsafe();
 
+    // Cached array base offset
+    private static final long arrayBaseOffset = (long)unsafe.arrayBaseOffset(char[].class);
+
     protected final ByteBuffer bb;
 
+    // The scope that owns the memory of bb, if any, which each access to
+    // that memory must hold open
+    private final DirectBufferScope scope;
+
 
 
     ByteBufferAsCharBufferL(ByteBuffer bb) {   // package-private
@@ -49,6 +56,7 @@ class ByteBufferAsCharBufferL                  // package-private
               bb.remaining() >> 1,
               bb.remaining() >> 1);
         this.bb = bb;
+        this.scope = DirectBufferScope.of(bb);
         // enforce limit == capacity
         int cap = this.capacity();
         this.limit(cap);
@@ -67,6 +75,7 @@ class ByteBufferAsCharBufferL                  // package-private
 
         super(mark, pos, lim, cap);
         this.bb = bb;
+        this.scope = DirectBufferScope.of(bb);
         address = addr;
         assert address >= bb.address;
 
@@ -116,22 +125,43 @@ class ByteBufferAsCharBufferL                  // package-private
         return (i << 1) + address;
     }
 
+    private char getUnaligned(long a) {
+        if (scope == null)
+            return unsafe.getCharUnaligned(bb.hb, a, false);
+        scope.acquire();
+        try {
+            return unsafe.getCharUnaligned(bb.hb, a, false);
+        } finally {
+            scope.release();
+        }
+    }
+
+    private void putUnaligned(long a, char y) {
+        if (scope == null) {
+            unsafe.putCharUnaligned(bb.hb, a, y, false);
+            return;
+        }
+        scope.acquire();
+        try {
+            unsafe.putCharUnaligned(bb.hb, a, y, false);
+        } finally {
+            scope.release();
+        }
+    }
+
     public char get() {
-        char x = unsafe.getCharUnaligned(bb.hb, byteOffset(nextGetIndex()),
-            false);
+        char x = getUnaligned(byteOffset(nextGetIndex()));
         return (x);
     }
 
     public char get(int i) {
-        char x = unsafe.getCharUnaligned(bb.hb, byteOffset(checkIndex(i)),
-            false);
+        char x = getUnaligned(byteOffset(checkIndex(i)));
         return (x);
     }
 
 
    char getUnchecked(int i) {
-        char x = unsafe.getCharUnaligned(bb.hb, byteOffset(i),
-            false);
+        char x = getUnaligned(byteOffset(i));
         return (x);
     }
 
@@ -141,8 +171,7 @@ class ByteBufferAsCharBufferL                  // package-private
     public CharBuffer put(char x) {
 
         char y = (x);
-        unsafe.putCharUnaligned(bb.hb, byteOffset(nextPutIndex()), y,
-            false);
+        putUnaligned(byteOffset(nextPutIndex()), y);
         return this;
 
 
@@ -152,14 +181,91 @@ class ByteBufferAsCharBufferL                  // package-private
     public CharBuffer put(int i, char x) {
 
         char y = (x);
-        unsafe.putCharUnaligned(bb.hb, byteOffset(checkIndex(i)), y,
-            false);
+        putUnaligned(byteOffset(checkIndex(i)), y);
         return this;
 
 
 
     }
 
+    public CharBuffer get(char[] dst, int offset, int length) {
+
+        if (((long)length << 1) > Bits.JNI_COPY_TO_ARRAY_THRESHOLD) {
+            checkBounds(offset, length, dst.length);
+            int pos = position();
+            int lim = limit();
+            assert (pos <= lim);
+            int rem = (pos <= lim ? lim - pos : 0);
+            if (length > rem)
+                throw new BufferUnderflowException();
+
+            long dstOffset = arrayBaseOffset + ((long)offset << 1);
+            if (scope != null)
+                scope.acquire();
+            try {
+                if (order() != ByteOrder.nativeOrder())
+                    unsafe.copySwapMemory(bb.hb,
+                                          byteOffset(pos),
+                                          dst,
+                                          dstOffset,
+                                          (long)length << 1,
+                                          (long)1 << 1);
+                else
+                    unsafe.copyMemory(bb.hb,
+                                      byteOffset(pos),
+                                      dst,
+                                      dstOffset,
+                                      (long)length << 1);
+            } finally {
+                if (scope != null)
+                    scope.release();
+            }
+            position(pos + length);
+        } else {
+            super.get(dst, offset, length);
+        }
+        return this;
+    }
+
+    public CharBuffer put(char[] src, int offset, int length) {
+
+        if (((long)length << 1) > Bits.JNI_COPY_FROM_ARRAY_THRESHOLD) {
+            checkBounds(offset, length, src.length);
+            int pos = position();
+            int lim = limit();
+            assert (pos <= lim);
+            int rem = (pos <= lim ? lim - pos : 0);
+            if (length > rem)
+                throw new BufferOverflowException();
+
+            long srcOffset = arrayBaseOffset + ((long)offset << 1);
+            if (scope != null)
+                scope.acquire();
+            try {
+                if (order() != ByteOrder.nativeOrder())
+                    unsafe.copySwapMemory(src,
+                                          srcOffset,
+                                          bb.hb,
+                                          byteOffset(pos),
+                                          (long)length << 1,
+                                          (long)1 << 1);
+                else
+                    unsafe.copyMemory(src,
+                                      srcOffset,
+                                      bb.hb,
+                                      byteOffset(pos),
+                                      (long)length << 1);
+            } finally {
+                if (scope != null)
+                    scope.release();
+            }
+            position(pos + length);
+        } else {
+            super.put(src, offset, length);
+        }
+        return this;
+    }
+
     public CharBuffer compact() {
 
         int pos = position();
@@ -39,8 +39,15 @@ class ByteBufferAsDoubleBufferB                  // package-private
     // Cached unsafe-access object
     private static final Unsafe unsafe = Bits.unsafe();
 
+    // Cached array base offset
+    private static final long arrayBaseOffset = (long)unsafe.arrayBaseOffset(double[].class);
+
     protected final ByteBuffer bb;
 
+    // The scope that owns the memory of bb, if any, which each access to
+    // that memory must hold open
+    private final DirectBufferScope scope;
+
 
 
     ByteBufferAsDoubleBufferB(ByteBuffer bb) {   // package-private
@@ -49,6 +56,7 @@ class ByteBufferAsDoubleBufferB                  // package-private
               bb.remaining() >> 3,
               bb.remaining() >> 3);
         this.bb = bb;
+        this.scope = DirectBufferScope.of(bb);
         // enforce limit == capacity
         int cap = this.capacity();
         this.limit(cap);
@@ -67,6 +75,7 @@ class ByteBufferAsDoubleBufferB                  // package-private
 
         super(mark, pos, lim, cap);
         this.bb = bb;
+        this.scope = DirectBufferScope.of(bb);
         address = addr;
         assert address >= bb.address;
 
@@ -116,15 +125,37 @@ class ByteBufferAsDoubleBufferB                  // package-private
         return (i << 3) + address;
     }
 
+    private long getUnaligned(long a) {
+        if (scope == null)
+            return unsafe.getLongUnaligned(bb.hb, a, true);
+        scope.acquire();
+        try {
+            return unsafe.getLongUnaligned(bb.hb, a, true);
+        } finally {
+            scope.release();
+        }
+    }
+
+    private void putUnaligned(long a, long y) {
+        if (scope == null) {
+            unsafe.putLongUnaligned(bb.hb, a, y, true);
+            return;
+        }
+        scope.acquire();
+        try {
+            unsafe.putLongUnaligned(bb.hb, a, y, true);
+        } finally {
+            scope.release();
+        }
+    }
+
     public double get() {
-        long x = unsafe.getLongUnaligned(bb.hb, byteOffset(nextGetIndex()),
-            true);
+        long x = getUnaligned(byteOffset(nextGetIndex()));
         return Double.longBitsToDouble(x);
     }
 
     public double get(int i) {
-        long x = unsafe.getLongUnaligned(bb.hb, byteOffset(checkIndex(i)),
-            true);
+        long x = getUnaligned(byteOffset(checkIndex(i)));
         return Double.longBitsToDouble(x);
     }
 
@@ -141,8 +172,7 @@ class ByteBufferAsDoubleBufferB                  // package-private
     public DoubleBuffer put(double x) {
 
         long y = Double.doubleToRawLongBits(x);
-        unsafe.putLongUnaligned(bb.hb, byteOffset(nextPutIndex()), y,
-            true);
+        putUnaligned(byteOffset(nextPutIndex()), y);
         return this;
 
 
@@ -152,14 +182,91 @@ class ByteBufferAsDoubleBufferB                  // package-private
     public DoubleBuffer put(int i, double x) {
 
         long y = Double.doubleToRawLongBits(x);
-        unsafe.putLongUnaligned(bb.hb, byteOffset(checkIndex(i)), y,
-            true);
+        putUnaligned(byteOffset(checkIndex(i)), y);
         return this;
 
 
 
     }
 
+    public DoubleBuffer get(double[] dst, int offset, int length) {
+
+        if (((long)length << 3) > Bits.JNI_COPY_TO_ARRAY_THRESHOLD) {
+            checkBounds(offset, length, dst.length);
+            int pos = position();
+            int lim = limit();
+            assert (pos <= lim);
+            int rem = (pos <= lim ? lim - pos : 0);
+            if (length > rem)
+                throw new BufferUnderflowException();
+
+            long dstOffset = arrayBaseOffset + ((long)offset << 3);
+            if (scope != null)
+                scope.acquire();
+            try {
+                if (order() != ByteOrder.nativeOrder())
+                    unsafe.copySwapMemory(bb.hb,
+                                          byteOffset(pos),
+                                          dst,
+                                          dstOffset,
+                                          (long)length << 3,
+                                          (long)1 << 3);
+                else
+                    unsafe.copyMemory(bb.hb,
+                                      byteOffset(pos),
+                                      dst,
+                                      dstOffset,
+                                      (long)length << 3);
+            } finally {
+                if (scope != null)
+                    scope.release();
+            }
+            position(pos + length);
+        } else {
+            super.get(dst, offset, length);
+        }
+        return this;
+    }
+
+    public DoubleBuffer put(double[] src, int offset, int length) {
+
+        if (((long)length << 3) > Bits.JNI_COPY_FROM_ARRAY_THRESHOLD) {
+            checkBounds(offset, length, src.length);
+            int pos = position();
+            int lim = limit();
+            assert (pos <= lim);
+            int rem = (pos <= lim ? lim - pos : 0);
+            if (length > rem)
+                throw new BufferOverflowException();
+
+            long srcOffset = arrayBaseOffset + ((long)offset << 3);
+            if (scope != null)
+                scope.acquire();
+            try {
+                if (order() != ByteOrder.nativeOrder())
+                    unsafe.copySwapMemory(src,
+                                          srcOffset,
+                                          bb.hb,
+                                          byteOffset(pos),
+                                          (long)length << 3,
+                                          (long)1 << 3);
+                else
+                    unsafe.copyMemory(src,
+                                      srcOffset,
+                                      bb.hb,
+                                      byteOffset(pos),
+                                      (long)length << 3);
+            } finally {
+                if (scope != null)
+                    scope.release();
+            }
+            position(pos + length);
+        } else {
+            super.put(src, offset, length);
+        }
+        return this;
+    }
+
     public DoubleBuffer compact() {
 
         int pos = position();
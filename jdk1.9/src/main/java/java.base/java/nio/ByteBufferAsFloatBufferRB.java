@@ -160,6 +160,10 @@ class ByteBufferAsFloatBufferRB                  // package-private
 
     }
 
+    public FloatBuffer put(float[] src, int offset, int length) {
+        throw new ReadOnlyBufferException();
+    }
+
     public FloatBuffer compact() {
 
 
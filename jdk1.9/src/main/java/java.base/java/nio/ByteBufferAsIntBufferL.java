@@ -39,8 +39,15 @@ class ByteBufferAsIntBufferL                  // package-private
     // Cached unsafe-access object
     private static final Unsafe unsafe = Bits.unsafe();
 
+    // Cached array base offset
+    private static final long arrayBaseOffset = (long)unsafe.arrayBaseOffset(int[].class);
+
     protected final ByteBuffer bb;
 
+    // The scope that owns the memory of bb, if any, which each access to
+    // that memory must hold open
+    private final DirectBufferScope scope;
+
 
 
     ByteBufferAsIntBufferL(ByteBuffer bb) {   // package-private
@@ -49,6 +56,7 @@ class ByteBufferAsIntBufferL                  // package-private
               bb.remaining() >> 2,
               bb.remaining() >> 2);
         this.bb = bb;
+        this.scope = DirectBufferScope.of(bb);
         // enforce limit == capacity
         int cap = this.capacity();
         this.limit(cap);
@@ -67,6 +75,7 @@ class ByteBufferAsIntBufferL                  // package-private
 
         super(mark, pos, lim, cap);
         this.bb = bb;
+        this.scope = DirectBufferScope.of(bb);
         address = addr;
         assert address >= bb.address;
 
@@ -116,15 +125,37 @@ class ByteBufferAsIntBufferL                  // package-private
         return (i << 2) + address;
     }
 
+    private int getUnaligned(long a) {
+        if (scope == null)
+            return unsafe.getIntUnaligned(bb.hb, a, false);
+        scope.acquire();
+        try {
+            return unsafe.getIntUnaligned(bb.hb, a, false);
+        } finally {
+            scope.release();
+        }
+    }
+
+    private void putUnaligned(long a, int y) {
+        if (scope == null) {
+            unsafe.putIntUnaligned(bb.hb, a, y, false);
+            return;
+        }
+        scope.acquire();
+        try {
+            unsafe.putIntUnaligned(bb.hb, a, y, false);
+        } finally {
+            scope.release();
+        }
+    }
+
     public int get() {
-        int x = unsafe.getIntUnaligned(bb.hb, byteOffset(nextGetIndex()),
-            false);
+        int x = getUnaligned(byteOffset(nextGetIndex()));
         return (x);
     }
 
     public int get(int i) {
-        int x = unsafe.getIntUnaligned(bb.hb, byteOffset(checkIndex(i)),
-            false);
+        int x = getUnaligned(byteOffset(checkIndex(i)));
         return (x);
     }
 
@@ -141,8 +172,7 @@ class ByteBufferAsIntBufferL                  // package-private
     public IntBuffer put(int x) {
 
         int y = (x);
-        unsafe.putIntUnaligned(bb.hb, byteOffset(nextPutIndex()), y,
-            false);
+        putUnaligned(byteOffset(nextPutIndex()), y);
         return this;
 
 
@@ -152,14 +182,91 @@ class ByteBufferAsIntBufferL                  // package-private
     public IntBuffer put(int i, int x) {
 
         int y = (x);
-        unsafe.putIntUnaligned(bb.hb, byteOffset(checkIndex(i)), y,
-            false);
+        putUnaligned(byteOffset(checkIndex(i)), y);
         return this;
 
 
 
     }
 
+    public IntBuffer get(int[] dst, int offset, int length) {
+
+        if (((long)length << 2) > Bits.JNI_COPY_TO_ARRAY_THRESHOLD) {
+            checkBounds(offset, length, dst.length);
+            int pos = position();
+            int lim = limit();
+            assert (pos <= lim);
+            int rem = (pos <= lim ? lim - pos : 0);
+            if (length > rem)
+                throw new BufferUnderflowException();
+
+            long dstOffset = arrayBaseOffset + ((long)offset << 2);
+            if (scope != null)
+                scope.acquire();
+            try {
+                if (order() != ByteOrder.nativeOrder())
+                    unsafe.copySwapMemory(bb.hb,
+                                          byteOffset(pos),
+                                          dst,
+                                          dstOffset,
+                                          (long)length << 2,
+                                          (long)1 << 2);
+                else
+                    unsafe.copyMemory(bb.hb,
+                                      byteOffset(pos),
+                                      dst,
+                                      dstOffset,
+                                      (long)length << 2);
+            } finally {
+                if (scope != null)
+                    scope.release();
+            }
+            position(pos + length);
+        } else {
+            super.get(dst, offset, length);
+        }
+        return this;
+    }
+
+    public IntBuffer put(int[] src, int offset, int length) {
+
+        if (((long)length << 2) > Bits.JNI_COPY_FROM_ARRAY_THRESHOLD) {
+            checkBounds(offset, length, src.length);
+            int pos = position();
+            int lim = limit();
+            assert (pos <= lim);
+            int rem = (pos <= lim ? lim - pos : 0);
+            if (length > rem)
+                throw new BufferOverflowException();
+
+            long srcOffset = arrayBaseOffset + ((long)offset << 2);
+            if (scope != null)
+                scope.acquire();
+            try {
+                if (order() != ByteOrder.nativeOrder())
+                    unsafe.copySwapMemory(src,
+                                          srcOffset,
+                                          bb.hb,
+                                          byteOffset(pos),
+                                          (long)length << 2,
+                                          (long)1 << 2);
+                else
+                    unsafe.copyMemory(src,
+                                      srcOffset,
+                                      bb.hb,
+                                      byteOffset(pos),
+                                      (long)length << 2);
+            } finally {
+                if (scope != null)
+                    scope.release();
+            }
+            position(pos + length);
+        } else {
+            super.put(src, offset, length);
+        }
+        return this;
+    }
+
     public IntBuffer compact() {
 
         int pos = position();
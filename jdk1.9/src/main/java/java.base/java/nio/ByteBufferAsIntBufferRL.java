@@ -160,6 +160,10 @@ class ByteBufferAsIntBufferRL                  // package-private
 
     }
 
+    public IntBuffer put(int[] src, int offset, int length) {
+        throw new ReadOnlyBufferException();
+    }
+
     public IntBuffer compact() {
 
 
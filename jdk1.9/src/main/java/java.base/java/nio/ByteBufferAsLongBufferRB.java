@@ -160,6 +160,10 @@ class ByteBufferAsLongBufferRB                  // package-private
 
     }
 
+    public LongBuffer put(long[] src, int offset, int length) {
+        throw new ReadOnlyBufferException();
+    }
+
     public LongBuffer compact() {
 
 
@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.internal.misc.Unsafe;
+import jdk.internal.ref.Cleaner;
+import sun.nio.ch.FileChannelImpl;
+
+
+/**
+ * A scope that owns the native memory of the direct byte buffers allocated
+ * through it, and releases that memory deterministically when it is closed.
+ *
+ * <p> The memory of a buffer created by {@link ByteBuffer#allocateDirect
+ * ByteBuffer.allocateDirect} is freed only after the buffer has been found
+ * unreachable by the garbage collector.  A buffer allocated by {@link
+ * #allocateDirect(int) allocateDirect} on a scope is instead freed when the
+ * scope is {@link #close closed}, typically at the end of a
+ * <i>try</i>-with-resources statement:
+ *
+ * <blockquote><pre>
+ * try (DirectBufferScope scope = DirectBufferScope.open()) {
+ *     ByteBuffer bb = scope.allocateDirect(64 * 1024);
+ *     ...
+ * }</pre></blockquote>
+ *
+ * <p> Similarly, a file region mapped by {@link #map map} is unmapped when
+ * the scope is closed rather than when the garbage collector finds the
+ * buffer unreachable.
+ *
+ * <p> Every access to the content of a buffer of a scope, or of a slice,
+ * duplicate or view of one of them, holds the scope open for the duration
+ * of the access; so do the I/O operations of the channels of the platform
+ * that read into or write from such a buffer.  Once a scope has been closed,
+ * any attempt to access the content of one of its buffers causes an {@link
+ * IllegalStateException} to be thrown rather than touching freed memory.  An
+ * attempt to close a scope while another thread is accessing one of its
+ * buffers also causes an {@code IllegalStateException} to be thrown, and
+ * leaves the scope open.
+ *
+ * <p> Memory held by scopes counts against the limit set by
+ * {@code -XX:MaxDirectMemorySize}.  A thread that cannot reserve direct memory
+ * first waits for scopes to release theirs before falling back to the
+ * garbage-collector driven reclamation used for ordinary direct buffers.
+ *
+ * <p> If a scope is never closed then its memory is released once the scope
+ * and all of its buffers have become unreachable. </p>
+ *
+ * @since 9
+ */
+
+public final class DirectBufferScope
+    implements AutoCloseable
+{
+
+    private static final Unsafe unsafe = Bits.unsafe();
+
+    private static final long STATE;
+
+    static {
+        try {
+            STATE = unsafe.objectFieldOffset
+                (DirectBufferScope.class.getDeclaredField("state"));
+        } catch (ReflectiveOperationException e) {
+            throw new Error(e);
+        }
+    }
+
+    // Value of state once the scope has been closed
+    private static final int CLOSED = -1;
+
+    // Deallocators and unmappers of the buffers allocated in this scope.
+    // Kept apart from the scope itself so that the cleaner's thunk does not
+    // keep the scope reachable.
+    //
+    private static class Resources
+        implements Runnable
+    {
+
+        private final List<Runnable> deallocators = new ArrayList<>();
+
+        private synchronized void add(Runnable deallocator) {
+            deallocators.add(deallocator);
+        }
+
+        public void run() {
+            Runnable[] toRun;
+            synchronized (this) {
+                toRun = deallocators.toArray(new Runnable[0]);
+                deallocators.clear();
+            }
+            for (Runnable r : toRun)
+                r.run();
+        }
+
+    }
+
+    private final Resources resources = new Resources();
+    private final Cleaner cleaner;
+
+    // The number of accesses in progress, or CLOSED
+    private volatile int state;
+
+    private DirectBufferScope() {
+        cleaner = Cleaner.create(this, resources);
+    }
+
+    /**
+     * Opens a new scope.
+     *
+     * @return  A new, open scope
+     */
+    public static DirectBufferScope open() {
+        return new DirectBufferScope();
+    }
+
+    /**
+     * Allocates a new direct byte buffer whose memory is owned by this scope.
+     *
+     * <p> The new buffer's position will be zero, its limit will be its
+     * capacity, its mark will be undefined, each of its elements will be
+     * initialized to zero, and its byte order will be {@link
+     * ByteOrder#BIG_ENDIAN BIG_ENDIAN}.  It will not have a backing array.
+     *
+     * @param  capacity
+     *         The new buffer's capacity, in bytes
+     *
+     * @return  The new byte buffer
+     *
+     * @throws  IllegalArgumentException
+     *          If the {@code capacity} is a negative integer
+     *
+     * @throws  IllegalStateException
+     *          If this scope has been closed
+     */
+    public ByteBuffer allocateDirect(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Negative capacity: " + capacity);
+        checkAlive();
+        return new DirectByteBuffer(capacity, this);
+    }
+
+    /**
+     * Maps a region of a channel's file directly into memory that is owned
+     * by this scope.
+     *
+     * <p> This method behaves as {@link FileChannel#map FileChannel.map},
+     * except that the mapping is unmapped when this scope is closed.
+     *
+     * @param  channel
+     *         The channel of the file to be mapped
+     *
+     * @param  mode
+     *         The mapping mode, as for {@link FileChannel#map
+     *         FileChannel.map}
+     *
+     * @param  position
+     *         The position within the file at which the mapped region
+     *         is to start; must be non-negative
+     *
+     * @param  size
+     *         The size of the region to be mapped; must be non-negative and
+     *         no greater than {@link java.lang.Integer#MAX_VALUE}
+     *
+     * @return  The mapped byte buffer
+     *
+     * @throws  IllegalStateException
+     *          If this scope has been closed
+     *
+     * @throws  UnsupportedOperationException
+     *          If the channel is not a channel of the default file system
+     *          provider
+     *
+     * @throws  IOException
+     *          If some other I/O error occurs, or for any of the reasons
+     *          given by {@link FileChannel#map FileChannel.map}
+     */
+    public MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode,
+                                long position, long size)
+        throws IOException
+    {
+        if (!(channel instanceof FileChannelImpl))
+            throw new UnsupportedOperationException(
+                "Channel cannot be mapped in a scope");
+        checkAlive();
+        return ((FileChannelImpl)channel).map(mode, position, size, this);
+    }
+
+    /**
+     * Tells whether or not this scope is open.
+     *
+     * @return  {@code true} if, and only if, this scope has not been closed
+     */
+    public boolean isAlive() {
+        return state != CLOSED;
+    }
+
+    /**
+     * Closes this scope, releasing the memory of all buffers allocated in it
+     * and unmapping all regions mapped in it.
+     *
+     * <p> If this scope is already closed then invoking this method has no
+     * effect.
+     *
+     * @throws  IllegalStateException
+     *          If a buffer of this scope is being accessed, in which case the
+     *          scope is not closed
+     */
+    public void close() {
+        int s;
+        do {
+            s = state;
+            if (s == CLOSED)
+                return;
+            if (s > 0)
+                throw new IllegalStateException("Buffer scope is in use");
+        } while (!unsafe.compareAndSetInt(this, STATE, 0, CLOSED));
+        cleaner.clean();
+    }
+
+    // Invoked by the DirectByteBuffer constructors to hand over the
+    // deallocator or unmapper of a new buffer.  Returns false if this scope
+    // has been closed, in which case the caller must free the memory itself.
+    //
+    boolean register(Runnable deallocator) {
+        if (!tryAcquire())
+            return false;
+        try {
+            resources.add(deallocator);
+        } finally {
+            release();
+        }
+        return true;
+    }
+
+    // Prevents this scope from being closed until the matching release.
+    // Invoked around each access to the memory of its buffers.
+    //
+    void acquire() {
+        if (!tryAcquire())
+            throw new IllegalStateException("Buffer scope is closed");
+    }
+
+    private boolean tryAcquire() {
+        int s;
+        do {
+            s = state;
+            if (s == CLOSED)
+                return false;
+        } while (!unsafe.compareAndSetInt(this, STATE, s, s + 1));
+        return true;
+    }
+
+    void release() {
+        int s = unsafe.getAndAddInt(this, STATE, -1);
+        assert s > 0;
+    }
+
+    // Returns the scope that owns the memory of the given buffer, or null if
+    // the memory is not owned by a scope
+    //
+    static DirectBufferScope of(ByteBuffer bb) {
+        return (bb instanceof DirectByteBuffer)
+            ? ((DirectByteBuffer)bb).scope() : null;
+    }
+
+    // Fails fast if this scope has been closed.  Not sufficient on its own
+    // to make an access safe; see acquire.
+    //
+    void checkAlive() {
+        if (state == CLOSED)
+            throw new IllegalStateException("Buffer scope is closed");
+    }
+
+}
@@ -78,12 +78,16 @@ class DirectByteBuffer
         private long address;
         private long size;
         private int capacity;
+        private boolean scoped;
 
-        private Deallocator(long address, long size, int capacity) {
+        private Deallocator(long address, long size, int capacity,
+                            boolean scoped)
+        {
             assert (address != 0);
             this.address = address;
             this.size = size;
             this.capacity = capacity;
+            this.scoped = scoped;
         }
 
         public void run() {
@@ -93,7 +97,10 @@ class DirectByteBuffer
             }
             unsafe.freeMemory(address);
             address = 0;
-            Bits.unreserveMemory(size, capacity);
+            if (scoped)
+                Bits.unreserveScopedMemory(size, capacity);
+            else
+                Bits.unreserveMemory(size, capacity);
         }
 
     }
@@ -102,6 +109,10 @@ class DirectByteBuffer
 
     public Cleaner cleaner() { return cleaner; }
 
+    // The scope that frees this buffer's memory explicitly, or null if the
+    // memory is not owned by a scope
+    private final DirectBufferScope scope;
+
 
 
 
@@ -116,17 +127,35 @@ class DirectByteBuffer
     //
     DirectByteBuffer(int cap) {                   // package-private
 
+        this(cap, null);
+
+    }
+
+
+
+    // Invoked by DirectBufferScope to allocate memory that the scope, rather
+    // than a cleaner, will free
+    //
+    DirectByteBuffer(int cap, DirectBufferScope scope) { // package-private
+
         super(-1, 0, cap, cap);
         boolean pa = VM.isDirectMemoryPageAligned();
         int ps = Bits.pageSize();
         long size = Math.max(1L, (long)cap + (pa ? ps : 0));
-        Bits.reserveMemory(size, cap);
+        boolean scoped = (scope != null);
+        if (scoped)
+            Bits.reserveScopedMemory(size, cap);
+        else
+            Bits.reserveMemory(size, cap);
 
         long base = 0;
         try {
             base = unsafe.allocateMemory(size);
         } catch (OutOfMemoryError x) {
-            Bits.unreserveMemory(size, cap);
+            if (scoped)
+                Bits.unreserveScopedMemory(size, cap);
+            else
+                Bits.unreserveMemory(size, cap);
             throw x;
         }
         unsafe.setMemory(base, size, (byte) 0);
@@ -136,7 +165,18 @@ class DirectByteBuffer
         } else {
             address = base;
         }
-        cleaner = Cleaner.create(this, new Deallocator(base, size, cap));
+        Deallocator d = new Deallocator(base, size, cap, scoped);
+        if (scoped) {
+            cleaner = null;
+            if (!scope.register(d)) {
+                // Closed while we were allocating
+                d.run();
+                throw new IllegalStateException("Buffer scope is closed");
+            }
+        } else {
+            cleaner = Cleaner.create(this, d);
+        }
+        this.scope = scope;
         att = null;
 
 
@@ -153,6 +193,7 @@ class DirectByteBuffer
         super(-1, 0, cap, cap);
         address = addr;
         cleaner = null;
+        scope = null;
         att = ob;
     }
 
@@ -163,6 +204,7 @@ class DirectByteBuffer
         super(-1, 0, cap, cap);
         address = addr;
         cleaner = null;
+        scope = null;
         att = null;
     }
 
@@ -172,12 +214,23 @@ class DirectByteBuffer
     //
     protected DirectByteBuffer(int cap, long addr,
                                      FileDescriptor fd,
-                                     Runnable unmapper)
+                                     Runnable unmapper,
+                                     DirectBufferScope scope)
     {
 
         super(-1, 0, cap, cap, fd);
         address = addr;
-        cleaner = Cleaner.create(this, unmapper);
+        if (scope != null) {
+            cleaner = null;
+            if (unmapper != null && !scope.register(unmapper)) {
+                // Closed while we were mapping
+                unmapper.run();
+                throw new IllegalStateException("Buffer scope is closed");
+            }
+        } else {
+            cleaner = Cleaner.create(this, unmapper);
+        }
+        this.scope = scope;
         att = null;
 
 
@@ -198,7 +251,8 @@ class DirectByteBuffer
         address = db.address() + off;
 
         cleaner = null;
-
+        scope = (db instanceof DirectByteBuffer)
+                ? ((DirectByteBuffer)db).scope : null;
         att = db;
 
 
@@ -249,7 +303,12 @@ class DirectByteBuffer
 
 
 
+    // Callers that access the memory at this address must bracket the
+    // access with acquireScope and releaseScope
+    //
     public long address() {
+        if (scope != null)
+            scope.checkAlive();
         return address;
     }
 
@@ -257,12 +316,49 @@ class DirectByteBuffer
         return address + ((long)i << 0);
     }
 
+    // Invoked around each access to the memory of this buffer, so that the
+    // scope that owns the memory, if any, cannot be closed while the access
+    // is in progress.  The typed views of a buffer with a scope are always
+    // ByteBufferAs views, which do the same.
+    //
+    final void acquireScope() {                 // package-private
+        if (scope != null)
+            scope.acquire();
+    }
+
+    final void releaseScope() {                 // package-private
+        if (scope != null)
+            scope.release();
+    }
+
+    final DirectBufferScope scope() {           // package-private
+        return scope;
+    }
+
+    private byte getByte(long a) {
+        acquireScope();
+        try {
+            return unsafe.getByte(a);
+        } finally {
+            releaseScope();
+        }
+    }
+
+    private void putByte(long a, byte x) {
+        acquireScope();
+        try {
+            unsafe.putByte(a, x);
+        } finally {
+            releaseScope();
+        }
+    }
+
     public byte get() {
-        return ((unsafe.getByte(ix(nextGetIndex()))));
+        return getByte(ix(nextGetIndex()));
     }
 
     public byte get(int i) {
-        return ((unsafe.getByte(ix(checkIndex(i)))));
+        return getByte(ix(checkIndex(i)));
     }
 
 
@@ -293,11 +389,16 @@ class DirectByteBuffer
 
 
 
-                unsafe.copyMemory(null,
-                                  ix(pos),
-                                  dst,
-                                  dstOffset,
-                                  (long)length << 0);
+                acquireScope();
+                try {
+                    unsafe.copyMemory(null,
+                                      ix(pos),
+                                      dst,
+                                      dstOffset,
+                                      (long)length << 0);
+                } finally {
+                    releaseScope();
+                }
             position(pos + length);
         } else {
             super.get(dst, offset, length);
@@ -312,7 +413,7 @@ class DirectByteBuffer
 
     public ByteBuffer put(byte x) {
 
-        unsafe.putByte(ix(nextPutIndex()), ((x)));
+        putByte(ix(nextPutIndex()), x);
         return this;
 
 
@@ -321,7 +422,7 @@ class DirectByteBuffer
 
     public ByteBuffer put(int i, byte x) {
 
-        unsafe.putByte(ix(checkIndex(i)), ((x)));
+        putByte(ix(checkIndex(i)), x);
         return this;
 
 
@@ -347,7 +448,17 @@ class DirectByteBuffer
 
             if (srem > rem)
                 throw new BufferOverflowException();
-            unsafe.copyMemory(sb.ix(spos), ix(pos), (long)srem << 0);
+            sb.acquireScope();
+            try {
+                acquireScope();
+                try {
+                    unsafe.copyMemory(sb.ix(spos), ix(pos), (long)srem << 0);
+                } finally {
+                    releaseScope();
+                }
+            } finally {
+                sb.releaseScope();
+            }
             sb.position(spos + srem);
             position(pos + srem);
         } else if (src.hb != null) {
@@ -391,11 +502,16 @@ class DirectByteBuffer
 
 
 
-                unsafe.copyMemory(src,
-                                  srcOffset,
-                                  null,
-                                  ix(pos),
-                                  (long)length << 0);
+                acquireScope();
+                try {
+                    unsafe.copyMemory(src,
+                                      srcOffset,
+                                      null,
+                                      ix(pos),
+                                      (long)length << 0);
+                } finally {
+                    releaseScope();
+                }
             position(pos + length);
         } else {
             super.put(src, offset, length);
@@ -413,7 +529,12 @@ class DirectByteBuffer
         assert (pos <= lim);
         int rem = (pos <= lim ? lim - pos : 0);
 
-        unsafe.copyMemory(ix(pos), ix(0), (long)rem << 0);
+        acquireScope();
+        try {
+            unsafe.copyMemory(ix(pos), ix(0), (long)rem << 0);
+        } finally {
+            releaseScope();
+        }
         position(rem);
         limit(capacity());
         discardMark();
@@ -495,12 +616,12 @@ class DirectByteBuffer
 
 
     byte _get(int i) {                          // package-private
-        return unsafe.getByte(address + i);
+        return getByte(ix(i));
     }
 
     void _put(int i, byte b) {                  // package-private
 
-        unsafe.putByte(address + i, b);
+        putByte(ix(i), b);
 
 
 
@@ -510,8 +631,13 @@ class DirectByteBuffer
 
 
     private char getChar(long a) {
-        char x = unsafe.getCharUnaligned(null, a, bigEndian);
-        return (x);
+        acquireScope();
+        try {
+            char x = unsafe.getCharUnaligned(null, a, bigEndian);
+            return (x);
+        } finally {
+            releaseScope();
+        }
     }
 
     public char getChar() {
@@ -527,7 +653,12 @@ class DirectByteBuffer
     private ByteBuffer putChar(long a, char x) {
 
         char y = (x);
-        unsafe.putCharUnaligned(null, a, y, bigEndian);
+        acquireScope();
+        try {
+            unsafe.putCharUnaligned(null, a, y, bigEndian);
+        } finally {
+            releaseScope();
+        }
         return this;
 
 
@@ -559,7 +690,8 @@ class DirectByteBuffer
         int rem = (off <= lim ? lim - off : 0);
 
         int size = rem >> 1;
-        if (!unaligned && ((address + off) % (1 << 1) != 0)) {
+        if (scope != null
+            || (!unaligned && ((address + off) % (1 << 1) != 0))) {
             return (bigEndian
                     ? (CharBuffer)(new ByteBufferAsCharBufferB(this,
                                                                        -1,
@@ -594,8 +726,13 @@ class DirectByteBuffer
 
 
     private short getShort(long a) {
-        short x = unsafe.getShortUnaligned(null, a, bigEndian);
-        return (x);
+        acquireScope();
+        try {
+            short x = unsafe.getShortUnaligned(null, a, bigEndian);
+            return (x);
+        } finally {
+            releaseScope();
+        }
     }
 
     public short getShort() {
@@ -611,7 +748,12 @@ class DirectByteBuffer
     private ByteBuffer putShort(long a, short x) {
 
         short y = (x);
-        unsafe.putShortUnaligned(null, a, y, bigEndian);
+        acquireScope();
+        try {
+            unsafe.putShortUnaligned(null, a, y, bigEndian);
+        } finally {
+            releaseScope();
+        }
         return this;
 
 
@@ -643,7 +785,8 @@ class DirectByteBuffer
         int rem = (off <= lim ? lim - off : 0);
 
         int size = rem >> 1;
-        if (!unaligned && ((address + off) % (1 << 1) != 0)) {
+        if (scope != null
+            || (!unaligned && ((address + off) % (1 << 1) != 0))) {
             return (bigEndian
                     ? (ShortBuffer)(new ByteBufferAsShortBufferB(this,
                                                                        -1,
@@ -678,8 +821,13 @@ class DirectByteBuffer
 
 
     private int getInt(long a) {
-        int x = unsafe.getIntUnaligned(null, a, bigEndian);
-        return (x);
+        acquireScope();
+        try {
+            int x = unsafe.getIntUnaligned(null, a, bigEndian);
+            return (x);
+        } finally {
+            releaseScope();
+        }
     }
 
     public int getInt() {
@@ -695,7 +843,12 @@ class DirectByteBuffer
     private ByteBuffer putInt(long a, int x) {
 
         int y = (x);
-        unsafe.putIntUnaligned(null, a, y, bigEndian);
+        acquireScope();
+        try {
+            unsafe.putIntUnaligned(null, a, y, bigEndian);
+        } finally {
+            releaseScope();
+        }
         return this;
 
 
@@ -727,7 +880,8 @@ class DirectByteBuffer
         int rem = (off <= lim ? lim - off : 0);
 
         int size = rem >> 2;
-        if (!unaligned && ((address + off) % (1 << 2) != 0)) {
+        if (scope != null
+            || (!unaligned && ((address + off) % (1 << 2) != 0))) {
             return (bigEndian
                     ? (IntBuffer)(new ByteBufferAsIntBufferB(this,
                                                                        -1,
@@ -762,8 +916,13 @@ class DirectByteBuffer
 
 
     private long getLong(long a) {
-        long x = unsafe.getLongUnaligned(null, a, bigEndian);
-        return (x);
+        acquireScope();
+        try {
+            long x = unsafe.getLongUnaligned(null, a, bigEndian);
+            return (x);
+        } finally {
+            releaseScope();
+        }
     }
 
     public long getLong() {
@@ -779,7 +938,12 @@ class DirectByteBuffer
     private ByteBuffer putLong(long a, long x) {
 
         long y = (x);
-        unsafe.putLongUnaligned(null, a, y, bigEndian);
+        acquireScope();
+        try {
+            unsafe.putLongUnaligned(null, a, y, bigEndian);
+        } finally {
+            releaseScope();
+        }
         return this;
 
 
@@ -811,7 +975,8 @@ class DirectByteBuffer
         int rem = (off <= lim ? lim - off : 0);
 
         int size = rem >> 3;
-        if (!unaligned && ((address + off) % (1 << 3) != 0)) {
+        if (scope != null
+            || (!unaligned && ((address + off) % (1 << 3) != 0))) {
             return (bigEndian
                     ? (LongBuffer)(new ByteBufferAsLongBufferB(this,
                                                                        -1,
@@ -846,8 +1011,13 @@ class DirectByteBuffer
 
 
     private float getFloat(long a) {
-        int x = unsafe.getIntUnaligned(null, a, bigEndian);
-        return Float.intBitsToFloat(x);
+        acquireScope();
+        try {
+            int x = unsafe.getIntUnaligned(null, a, bigEndian);
+            return Float.intBitsToFloat(x);
+        } finally {
+            releaseScope();
+        }
     }
 
     public float getFloat() {
@@ -863,7 +1033,12 @@ class DirectByteBuffer
     private ByteBuffer putFloat(long a, float x) {
 
         int y = Float.floatToRawIntBits(x);
-        unsafe.putIntUnaligned(null, a, y, bigEndian);
+        acquireScope();
+        try {
+            unsafe.putIntUnaligned(null, a, y, bigEndian);
+        } finally {
+            releaseScope();
+        }
         return this;
 
 
@@ -895,7 +1070,8 @@ class DirectByteBuffer
         int rem = (off <= lim ? lim - off : 0);
 
         int size = rem >> 2;
-        if (!unaligned && ((address + off) % (1 << 2) != 0)) {
+        if (scope != null
+            || (!unaligned && ((address + off) % (1 << 2) != 0))) {
             return (bigEndian
                     ? (FloatBuffer)(new ByteBufferAsFloatBufferB(this,
                                                                        -1,
@@ -930,8 +1106,13 @@ class DirectByteBuffer
 
 
     private double getDouble(long a) {
-        long x = unsafe.getLongUnaligned(null, a, bigEndian);
-        return Double.longBitsToDouble(x);
+        acquireScope();
+        try {
+            long x = unsafe.getLongUnaligned(null, a, bigEndian);
+            return Double.longBitsToDouble(x);
+        } finally {
+            releaseScope();
+        }
     }
 
     public double getDouble() {
@@ -947,7 +1128,12 @@ class DirectByteBuffer
     private ByteBuffer putDouble(long a, double x) {
 
         long y = Double.doubleToRawLongBits(x);
-        unsafe.putLongUnaligned(null, a, y, bigEndian);
+        acquireScope();
+        try {
+            unsafe.putLongUnaligned(null, a, y, bigEndian);
+        } finally {
+            releaseScope();
+        }
         return this;
 
 
@@ -979,7 +1165,8 @@ class DirectByteBuffer
         int rem = (off <= lim ? lim - off : 0);
 
         int size = rem >> 3;
-        if (!unaligned && ((address + off) % (1 << 3) != 0)) {
+        if (scope != null
+            || (!unaligned && ((address + off) % (1 << 3) != 0))) {
             return (bigEndian
                     ? (DoubleBuffer)(new ByteBufferAsDoubleBufferB(this,
                                                                        -1,
@@ -172,7 +172,8 @@ class DirectByteBufferR
     //
     protected DirectByteBufferR(int cap, long addr,
                                      FileDescriptor fd,
-                                     Runnable unmapper)
+                                     Runnable unmapper,
+                                     DirectBufferScope scope)
     {
 
 
@@ -180,7 +181,7 @@ class DirectByteBufferR
 
 
 
-        super(cap, addr, fd, unmapper);
+        super(cap, addr, fd, unmapper, scope);
         this.isReadOnly = true;
 
     }
@@ -495,7 +496,12 @@ class DirectByteBufferR
 
 
     byte _get(int i) {                          // package-private
-        return unsafe.getByte(address + i);
+        acquireScope();
+        try {
+            return unsafe.getByte(address + i);
+        } finally {
+            releaseScope();
+        }
     }
 
     void _put(int i, byte b) {                  // package-private
@@ -559,7 +565,8 @@ class DirectByteBufferR
         int rem = (off <= lim ? lim - off : 0);
 
         int size = rem >> 1;
-        if (!unaligned && ((address + off) % (1 << 1) != 0)) {
+        if (scope() != null
+            || (!unaligned && ((address + off) % (1 << 1) != 0))) {
             return (bigEndian
                     ? (CharBuffer)(new ByteBufferAsCharBufferRB(this,
                                                                        -1,
@@ -643,7 +650,8 @@ class DirectByteBufferR
         int rem = (off <= lim ? lim - off : 0);
 
         int size = rem >> 1;
-        if (!unaligned && ((address + off) % (1 << 1) != 0)) {
+        if (scope() != null
+            || (!unaligned && ((address + off) % (1 << 1) != 0))) {
             return (bigEndian
                     ? (ShortBuffer)(new ByteBufferAsShortBufferRB(this,
                                                                        -1,
@@ -727,7 +735,8 @@ class DirectByteBufferR
         int rem = (off <= lim ? lim - off : 0);
 
         int size = rem >> 2;
-        if (!unaligned && ((address + off) % (1 << 2) != 0)) {
+        if (scope() != null
+            || (!unaligned && ((address + off) % (1 << 2) != 0))) {
             return (bigEndian
                     ? (IntBuffer)(new ByteBufferAsIntBufferRB(this,
                                                                        -1,
@@ -811,7 +820,8 @@ class DirectByteBufferR
         int rem = (off <= lim ? lim - off : 0);
 
         int size = rem >> 3;
-        if (!unaligned && ((address + off) % (1 << 3) != 0)) {
+        if (scope() != null
+            || (!unaligned && ((address + off) % (1 << 3) != 0))) {
             return (bigEndian
                     ? (LongBuffer)(new ByteBufferAsLongBufferRB(this,
                                                                        -1,
@@ -895,7 +905,8 @@ class DirectByteBufferR
         int rem = (off <= lim ? lim - off : 0);
 
         int size = rem >> 2;
-        if (!unaligned && ((address + off) % (1 << 2) != 0)) {
+        if (scope() != null
+            || (!unaligned && ((address + off) % (1 << 2) != 0))) {
             return (bigEndian
                     ? (FloatBuffer)(new ByteBufferAsFloatBufferRB(this,
                                                                        -1,
@@ -979,7 +990,8 @@ class DirectByteBufferR
         int rem = (off <= lim ? lim - off : 0);
 
         int size = rem >> 3;
-        if (!unaligned && ((address + off) % (1 << 3) != 0)) {
+        if (scope() != null
+            || (!unaligned && ((address + off) % (1 << 3) != 0))) {
             return (bigEndian
                     ? (DoubleBuffer)(new ByteBufferAsDoubleBufferRB(this,
                                                                        -1,
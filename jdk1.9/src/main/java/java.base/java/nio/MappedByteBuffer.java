@@ -112,6 +112,13 @@ public abstract class MappedByteBuffer
         return (long)capacity() + mappingOffset;
     }
 
+    // Invoked around each access to the mapping, so that the scope that
+    // unmaps it, if any, cannot be closed while the access is in progress.
+    // Implemented by DirectByteBuffer.
+    abstract void acquireScope();
+
+    abstract void releaseScope();
+
     /**
      * Tells whether or not this buffer's content is resident in physical
      * memory.
@@ -136,7 +143,13 @@ public abstract class MappedByteBuffer
             return true;
         long offset = mappingOffset();
         long length = mappingLength(offset);
-        return isLoaded0(mappingAddress(offset), length, Bits.pageCount(length));
+        acquireScope();
+        try {
+            return isLoaded0(mappingAddress(offset), length,
+                             Bits.pageCount(length));
+        } finally {
+            releaseScope();
+        }
     }
 
     // not used, but a potential target for a store, see load() for details.
@@ -158,22 +171,27 @@ public abstract class MappedByteBuffer
             return this;
         long offset = mappingOffset();
         long length = mappingLength(offset);
-        load0(mappingAddress(offset), length);
+        acquireScope();
+        try {
+            load0(mappingAddress(offset), length);
 
-        // Read a byte from each page to bring it into memory. A checksum
-        // is computed as we go along to prevent the compiler from otherwise
-        // considering the loop as dead code.
-        Unsafe unsafe = Unsafe.getUnsafe();
-        int ps = Bits.pageSize();
-        int count = Bits.pageCount(length);
-        long a = mappingAddress(offset);
-        byte x = 0;
-        for (int i=0; i<count; i++) {
-            x ^= unsafe.getByte(a);
-            a += ps;
+            // Read a byte from each page to bring it into memory. A checksum
+            // is computed as we go along to prevent the compiler from otherwise
+            // considering the loop as dead code.
+            Unsafe unsafe = Unsafe.getUnsafe();
+            int ps = Bits.pageSize();
+            int count = Bits.pageCount(length);
+            long a = mappingAddress(offset);
+            byte x = 0;
+            for (int i=0; i<count; i++) {
+                x ^= unsafe.getByte(a);
+                a += ps;
+            }
+            if (unused != 0)
+                unused = x;
+        } finally {
+            releaseScope();
         }
-        if (unused != 0)
-            unused = x;
 
         return this;
     }
@@ -200,7 +218,12 @@ public abstract class MappedByteBuffer
         checkMapped();
         if ((address != 0) && (capacity() != 0)) {
             long offset = mappingOffset();
-            force0(fd, mappingAddress(offset), mappingLength(offset));
+            acquireScope();
+            try {
+                force0(fd, mappingAddress(offset), mappingLength(offset));
+            } finally {
+                releaseScope();
+            }
         }
         return this;
     }
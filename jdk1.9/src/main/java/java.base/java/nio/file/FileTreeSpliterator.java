@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.nio.file.FileTreeWalker.Event;
+
+/**
+ * A {@code Spliterator} over the nodes of a file tree.
+ *
+ * <p> When traversed sequentially the nodes are generated in the same
+ * depth-first order as by {@link FileTreeWalker}. Splitting hands part of
+ * the remaining tree to a new spliterator (see {@link FileTreeWalker#trySplit})
+ * so that a parallel stream reads the directories of the tree in the worker
+ * threads of its {@code ForkJoinPool}.
+ *
+ * <pre>{@code
+ *     FileTreeSpliterator spliterator = new FileTreeSpliterator(start, maxDepth, options);
+ *     try (Stream<Event> s = StreamSupport.stream(spliterator, true).onClose(spliterator::close)) {
+ *         s.forEach(ev -> process(ev.file(), ev.attributes()));
+ *     }
+ * }</pre>
+ */
+
+class FileTreeSpliterator implements Spliterator<Event>, Closeable {
+    private final FileTreeWalker walker;
+    // walkers of this spliterator and of all spliterators split from it
+    private final List<FileTreeWalker> walkers;
+    private Event next;
+
+    /**
+     * Creates a new spliterator to walk the file tree starting at the given
+     * file.
+     *
+     * @throws  IllegalArgumentException
+     *          if {@code maxDepth} is negative
+     * @throws  IOException
+     *          if an I/O errors occurs opening the starting file
+     * @throws  SecurityException
+     *          if the security manager denies access to the starting file
+     * @throws  NullPointerException
+     *          if {@code start} or {@code options} is {@code null} or
+     *          the options array contains a {@code null} element
+     */
+    FileTreeSpliterator(Path start, int maxDepth, FileVisitOption... options)
+        throws IOException
+    {
+        this.walker = new FileTreeWalker(Arrays.asList(options), maxDepth);
+        this.walkers = new ArrayList<>();
+        this.walkers.add(walker);
+        this.next = walker.walk(start);
+        assert next.type() == FileTreeWalker.EventType.ENTRY ||
+               next.type() == FileTreeWalker.EventType.START_DIRECTORY;
+
+        // IOException if there a problem accessing the starting file
+        IOException ioe = next.ioeException();
+        if (ioe != null)
+            throw ioe;
+    }
+
+    private FileTreeSpliterator(FileTreeWalker walker,
+                                List<FileTreeWalker> walkers)
+    {
+        this.walker = walker;
+        this.walkers = walkers;
+    }
+
+    private void fetchNextIfNeeded() {
+        if (next == null) {
+            FileTreeWalker.Event ev = walker.next();
+            while (ev != null) {
+                IOException ioe = ev.ioeException();
+                if (ioe != null)
+                    throw new UncheckedIOException(ioe);
+
+                // END_DIRECTORY events are ignored
+                if (ev.type() != FileTreeWalker.EventType.END_DIRECTORY) {
+                    next = ev;
+                    return;
+                }
+                ev = walker.next();
+            }
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Event> action) {
+        if (action == null)
+            throw new NullPointerException();
+        if (!walker.isOpen())
+            throw new IllegalStateException();
+        fetchNextIfNeeded();
+        if (next == null)
+            return false;
+        Event result = next;
+        next = null;
+        action.accept(result);
+        return true;
+    }
+
+    @Override
+    public Spliterator<Event> trySplit() {
+        if (!walker.isOpen())
+            return null;
+        FileTreeWalker split = walker.trySplit();
+        if (split == null && next == null) {
+            // a single directory remains, opening it may allow a split
+            fetchNextIfNeeded();
+            split = walker.trySplit();
+        }
+        if (split == null)
+            return null;
+        synchronized (walkers) {
+            if (!walker.isOpen()) {
+                split.close();
+                return null;
+            }
+            walkers.add(split);
+        }
+        return new FileTreeSpliterator(split, walkers);
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.DISTINCT | Spliterator.NONNULL;
+    }
+
+    /**
+     * Closes this spliterator and all spliterators split from it.
+     */
+    @Override
+    public void close() {
+        synchronized (walkers) {
+            for (FileTreeWalker w : walkers) {
+                w.close();
+            }
+        }
+    }
+}
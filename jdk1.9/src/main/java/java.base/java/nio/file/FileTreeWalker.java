@@ -29,8 +29,12 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import sun.nio.fs.BasicFileAttributesHolder;
 
 /**
@@ -51,7 +55,13 @@ import sun.nio.fs.BasicFileAttributesHolder;
  *     }
  * }</pre>
  *
+ * A walk may be split with {@link #trySplit} so that parts of the tree are
+ * walked by other walkers, possibly in other threads.  Each walker generates
+ * its events in depth-first order, but there is no ordering between the
+ * events of a walker and the events of walkers split from it.
+ *
  * @see Files#walkFileTree
+ * @see FileTreeSpliterator
  */
 
 class FileTreeWalker implements Closeable {
@@ -61,6 +71,13 @@ class FileTreeWalker implements Closeable {
     private final ArrayDeque<DirectoryNode> stack = new ArrayDeque<>();
     private boolean closed;
 
+    // For a walker created by splitting: the depth of the entries in roots,
+    // the directories above them (for cycle detection) and the entries that
+    // remain to be visited.  The entries of a directory are at depth 1.
+    private final int baseDepth;
+    private final List<DirectoryNode> ancestors;
+    private Iterator<Path> roots;
+
     /**
      * The element on the walking stack corresponding to a directory node.
      */
@@ -68,7 +85,7 @@ class FileTreeWalker implements Closeable {
         private final Path dir;
         private final Object key;
         private final DirectoryStream<Path> stream;
-        private final Iterator<Path> iterator;
+        private Iterator<Path> iterator;
         private boolean skipped;
 
         DirectoryNode(Path dir, Object key, DirectoryStream<Path> stream) {
@@ -78,6 +95,14 @@ class FileTreeWalker implements Closeable {
             this.iterator = stream.iterator();
         }
 
+        // a directory that is being walked by another walker
+        DirectoryNode(Path dir, Object key) {
+            this.dir = dir;
+            this.key = key;
+            this.stream = null;
+            this.iterator = Collections.emptyIterator();
+        }
+
         Path directory() {
             return dir;
         }
@@ -94,6 +119,10 @@ class FileTreeWalker implements Closeable {
             return iterator;
         }
 
+        void setIterator(Iterator<Path> iterator) {
+            this.iterator = iterator;
+        }
+
         void skip() {
             skipped = true;
         }
@@ -191,6 +220,26 @@ class FileTreeWalker implements Closeable {
         this.linkOptions = (fl) ? new LinkOption[0] :
             new LinkOption[] { LinkOption.NOFOLLOW_LINKS };
         this.maxDepth = maxDepth;
+        this.baseDepth = 0;
+        this.ancestors = Collections.emptyList();
+        this.roots = Collections.emptyIterator();
+    }
+
+    /**
+     * Creates a {@code FileTreeWalker} to walk the given entries, at the given
+     * depth, of a walk split from {@code parent}.
+     */
+    private FileTreeWalker(FileTreeWalker parent,
+                           int baseDepth,
+                           List<DirectoryNode> ancestors,
+                           Iterator<Path> roots)
+    {
+        this.followLinks = parent.followLinks;
+        this.linkOptions = parent.linkOptions;
+        this.maxDepth = parent.maxDepth;
+        this.baseDepth = baseDepth;
+        this.ancestors = ancestors;
+        this.roots = roots;
     }
 
     /**
@@ -236,7 +285,13 @@ class FileTreeWalker implements Closeable {
     private boolean wouldLoop(Path dir, Object key) {
         // if this directory and ancestor has a file key then we compare
         // them; otherwise we use less efficient isSameFile test.
-        for (DirectoryNode ancestor: stack) {
+        Iterable<DirectoryNode> nodes = stack;
+        if (!ancestors.isEmpty()) {
+            List<DirectoryNode> all = new ArrayList<>(stack);
+            all.addAll(ancestors);
+            nodes = all;
+        }
+        for (DirectoryNode ancestor: nodes) {
             Object ancestorKey = ancestor.key();
             if (key != null && ancestorKey != null) {
                 if (key.equals(ancestorKey)) {
@@ -283,7 +338,7 @@ class FileTreeWalker implements Closeable {
         }
 
         // at maximum depth or file is not a directory
-        int depth = stack.size();
+        int depth = baseDepth + stack.size();
         if (depth >= maxDepth || !attrs.isDirectory()) {
             return new Event(EventType.ENTRY, entry, attrs);
         }
@@ -333,7 +388,7 @@ class FileTreeWalker implements Closeable {
     Event next() {
         DirectoryNode top = stack.peek();
         if (top == null)
-            return null;      // stack is empty, we are done
+            return nextRoot();  // stack is empty, continue with next root
 
         // continue iteration of the directory at the top of the stack
         Event ev;
@@ -379,6 +434,129 @@ class FileTreeWalker implements Closeable {
         return ev;
     }
 
+    /**
+     * Visits the next of the entries given to a walker created by splitting,
+     * returning {@code null} if there are no more.
+     */
+    private Event nextRoot() {
+        while (!closed && roots.hasNext()) {
+            Event ev = visit(roots.next(),
+                             true,   // ignoreSecurityException
+                             true);  // canUseCached
+            if (ev != null)
+                return ev;
+        }
+        return null;
+    }
+
+    /**
+     * Splits off part of the remaining walk, returning a walker for that part
+     * or {@code null} if the walk cannot be split.
+     *
+     * If more than one of the entries given to this walker remain to be
+     * visited then half of them are given to the new walker. Otherwise the
+     * remaining entries of the shallowest directory that is open are read,
+     * and the new walker is given half of them. Entries read this way keep
+     * any attributes cached during iteration.
+     */
+    FileTreeWalker trySplit() {
+        if (closed)
+            return null;
+
+        if (roots.hasNext()) {
+            List<Path> remaining = new ArrayList<>();
+            roots.forEachRemaining(remaining::add);
+            if (remaining.size() < 2) {
+                roots = remaining.iterator();
+                return null;
+            }
+            return split(remaining, baseDepth, ancestors, null, null);
+        }
+
+        // the shallowest directory is at the bottom of the stack
+        List<DirectoryNode> above = new ArrayList<>(ancestors);
+        int entryDepth = baseDepth;
+        Iterator<DirectoryNode> nodes = stack.descendingIterator();
+        while (nodes.hasNext()) {
+            DirectoryNode node = nodes.next();
+            above.add(node);
+            entryDepth++;
+            if (node.skipped())
+                continue;
+
+            // read the remaining entries of the directory
+            List<Path> remaining = new ArrayList<>();
+            DirectoryIteratorException error = null;
+            Iterator<Path> iterator = node.iterator();
+            try {
+                while (iterator.hasNext()) {
+                    remaining.add(iterator.next());
+                }
+            } catch (DirectoryIteratorException x) {
+                error = x;
+            }
+            if (remaining.size() < 2) {
+                node.setIterator(entries(remaining, error));
+                continue;
+            }
+            return split(remaining, entryDepth, new ArrayList<>(above), node, error);
+        }
+        return null;
+    }
+
+    /**
+     * Gives the second half of the given entries to a new walker. The first
+     * half goes back to {@code node} or, if {@code node} is null, replaces
+     * the roots of this walker.
+     */
+    private FileTreeWalker split(List<Path> entries,
+                                 int entryDepth,
+                                 List<DirectoryNode> entryAncestors,
+                                 DirectoryNode node,
+                                 DirectoryIteratorException error)
+    {
+        int mid = entries.size() >>> 1;
+        Iterator<Path> mine = entries(entries.subList(0, mid), error);
+        Iterator<Path> theirs = entries.subList(mid, entries.size()).iterator();
+        if (node == null) {
+            roots = mine;
+        } else {
+            node.setIterator(mine);
+        }
+        return new FileTreeWalker(this, entryDepth, entryAncestors, theirs);
+    }
+
+    /**
+     * Returns an iterator over entries read from a directory that, if reading
+     * the directory failed, throws the given exception after the entries.
+     */
+    private static Iterator<Path> entries(List<Path> entries,
+                                          DirectoryIteratorException error)
+    {
+        if (error == null)
+            return entries.iterator();
+        return new Iterator<Path>() {
+            private final Iterator<Path> iterator = entries.iterator();
+            private boolean thrown;
+            @Override
+            public boolean hasNext() {
+                if (iterator.hasNext())
+                    return true;
+                if (!thrown) {
+                    thrown = true;
+                    throw error;
+                }
+                return false;
+            }
+            @Override
+            public Path next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return iterator.next();
+            }
+        };
+    }
+
     /**
      * Pops the directory node that is the current top of the stack so that
      * there are no more events for the directory (including no END_DIRECTORY)
@@ -3582,6 +3582,11 @@ public final class Files {
      * file tree while iterating, so it may (or may not) reflect updates to
      * the file tree that occur after returned from this method.
      *
+     * <p> If the stream is made {@link Stream#parallel parallel} then the
+     * file tree is split between the threads executing the stream pipeline,
+     * each of them reading the directories of its part of the tree. Paths
+     * are then not encountered in a depth-first order.
+     *
      * <p> By default, symbolic links are not automatically followed by this
      * method. If the {@code options} parameter contains the {@link
      * FileVisitOption#FOLLOW_LINKS FOLLOW_LINKS} option then symbolic links are
@@ -3647,15 +3652,13 @@ public final class Files {
                                     FileVisitOption... options)
         throws IOException
     {
-        FileTreeIterator iterator = new FileTreeIterator(start, maxDepth, options);
+        FileTreeSpliterator spliterator = new FileTreeSpliterator(start, maxDepth, options);
         try {
-            Spliterator<FileTreeWalker.Event> spliterator =
-                Spliterators.spliteratorUnknownSize(iterator, Spliterator.DISTINCT);
             return StreamSupport.stream(spliterator, false)
-                                .onClose(iterator::close)
+                                .onClose(spliterator::close)
                                 .map(entry -> entry.file());
         } catch (Error|RuntimeException e) {
-            iterator.close();
+            spliterator.close();
             throw e;
         }
     }
@@ -3764,16 +3767,14 @@ public final class Files {
                                     FileVisitOption... options)
         throws IOException
     {
-        FileTreeIterator iterator = new FileTreeIterator(start, maxDepth, options);
+        FileTreeSpliterator spliterator = new FileTreeSpliterator(start, maxDepth, options);
         try {
-            Spliterator<FileTreeWalker.Event> spliterator =
-                Spliterators.spliteratorUnknownSize(iterator, Spliterator.DISTINCT);
             return StreamSupport.stream(spliterator, false)
-                                .onClose(iterator::close)
+                                .onClose(spliterator::close)
                                 .filter(entry -> matcher.test(entry.file(), entry.attributes()))
                                 .map(entry -> entry.file());
         } catch (Error|RuntimeException e) {
-            iterator.close();
+            spliterator.close();
             throw e;
         }
     }
@@ -37,6 +37,7 @@ package java.util.concurrent;
 
 import java.util.Collection;
 import java.util.concurrent.locks.AbstractQueuedSynchronizer;
+import java.util.concurrent.locks.SpinPolicy;
 
 /**
  * A counting semaphore.  Conceptually, a semaphore maintains a set of
@@ -176,6 +177,10 @@ public class Semaphore implements java.io.Serializable {
             setState(permits);
         }
 
+        final void spinWith(SpinPolicy policy) {
+            setSpinPolicy(policy);
+        }
+
         final int getPermits() {
             return getState();
         }
@@ -286,6 +291,27 @@ public class Semaphore implements java.io.Serializable {
         sync = fair ? new FairSync(permits) : new NonfairSync(permits);
     }
 
+    /**
+     * Creates a {@code Semaphore} with the given number of
+     * permits, fairness setting and spin policy.  Threads that have
+     * to wait for permits spin as directed by the spin policy before
+     * they become disabled for thread scheduling purposes, and the
+     * spin policy records the contention of the semaphore.
+     *
+     * @param permits the initial number of permits available.
+     *        This value may be negative, in which case releases
+     *        must occur before any acquires will be granted.
+     * @param fair {@code true} if this semaphore will guarantee
+     *        first-in first-out granting of permits under contention,
+     *        else {@code false}
+     * @param policy the spin policy, or {@code null} to never spin
+     * @since 9
+     */
+    public Semaphore(int permits, boolean fair, SpinPolicy policy) {
+        this(permits, fair);
+        sync.spinWith(policy);
+    }
+
     /**
      * Acquires a permit from this semaphore, blocking until one is
      * available, or the thread is {@linkplain Thread#interrupt interrupted}.
@@ -693,6 +719,17 @@ public class Semaphore implements java.io.Serializable {
         return sync.getQueueLength();
     }
 
+    /**
+     * Returns the spin policy of this semaphore, which records the
+     * contention of the semaphore.
+     *
+     * @return the spin policy, or {@code null} if there is none
+     * @since 9
+     */
+    public final SpinPolicy getSpinPolicy() {
+        return sync.getSpinPolicy();
+    }
+
     /**
      * Returns a collection containing threads that may be waiting to acquire.
      * Because the actual set of threads may change dynamically while
@@ -98,6 +98,13 @@ public abstract class AbstractQueuedLongSynchronizer
      */
     private volatile long state;
 
+    /**
+     * The spin policy of the queued acquires, or null to park without
+     * spinning.  Not serialized, as a policy records the contention of
+     * this instance.
+     */
+    private transient volatile SpinPolicy spinPolicy;
+
     /**
      * Returns the current value of synchronization state.
      * This operation has memory semantics of a {@code volatile} read.
@@ -133,6 +140,37 @@ public abstract class AbstractQueuedLongSynchronizer
         return STATE.compareAndSet(this, expect, update);
     }
 
+    /**
+     * Sets the spin policy of the acquires of this synchronizer that
+     * have to queue.  With a policy, the first queued thread retries
+     * to acquire, up to the spin limit of the policy, before it parks,
+     * and the contended acquisitions are recorded by the policy.  With
+     * no policy, which is the default, queued threads park as soon as
+     * they can be signalled.
+     *
+     * <p>This method is intended to be called while constructing the
+     * synchronizer.  A policy set later applies to the acquires that
+     * are queued afterwards.  The policy is not serialized.
+     *
+     * @param policy the spin policy, or {@code null} for none
+     * @see SpinPolicy
+     * @since 9
+     */
+    protected final void setSpinPolicy(SpinPolicy policy) {
+        spinPolicy = policy;
+    }
+
+    /**
+     * Returns the spin policy of this synchronizer.
+     *
+     * @return the spin policy, or {@code null} if there is none
+     * @see #setSpinPolicy
+     * @since 9
+     */
+    public final SpinPolicy getSpinPolicy() {
+        return spinPolicy;
+    }
+
     // Queuing utilities
 
     /**
@@ -423,6 +461,10 @@ public abstract class AbstractQueuedLongSynchronizer
      * @return {@code true} if interrupted while waiting
      */
     final boolean acquireQueued(final Node node, long arg) {
+        final SpinPolicy policy = spinPolicy;
+        final int budget = (policy == null) ? 0 : policy.spins();
+        final long startTime = (policy == null) ? 0L : System.nanoTime();
+        int spins = budget, parks = 0;
         try {
             boolean interrupted = false;
             for (;;) {
@@ -430,11 +472,19 @@ public abstract class AbstractQueuedLongSynchronizer
                 if (p == head && tryAcquire(arg)) {
                     setHead(node);
                     p.next = null; // help GC
+                    if (policy != null)
+                        policy.acquired(startTime, budget - spins, budget, parks);
                     return interrupted;
                 }
-                if (shouldParkAfterFailedAcquire(p, node) &&
-                    parkAndCheckInterrupt())
-                    interrupted = true;
+                if (spins > 0 && p == head) {
+                    --spins;
+                    Thread.onSpinWait();
+                }
+                else if (shouldParkAfterFailedAcquire(p, node)) {
+                    ++parks;
+                    if (parkAndCheckInterrupt())
+                        interrupted = true;
+                }
             }
         } catch (Throwable t) {
             cancelAcquire(node);
@@ -449,17 +499,31 @@ public abstract class AbstractQueuedLongSynchronizer
     private void doAcquireInterruptibly(long arg)
         throws InterruptedException {
         final Node node = addWaiter(Node.EXCLUSIVE);
+        final SpinPolicy policy = spinPolicy;
+        final int budget = (policy == null) ? 0 : policy.spins();
+        final long startTime = (policy == null) ? 0L : System.nanoTime();
+        int spins = budget, parks = 0;
         try {
             for (;;) {
                 final Node p = node.predecessor();
                 if (p == head && tryAcquire(arg)) {
                     setHead(node);
                     p.next = null; // help GC
+                    if (policy != null)
+                        policy.acquired(startTime, budget - spins, budget, parks);
                     return;
                 }
-                if (shouldParkAfterFailedAcquire(p, node) &&
-                    parkAndCheckInterrupt())
-                    throw new InterruptedException();
+                if (spins > 0 && p == head) {
+                    --spins;
+                    Thread.onSpinWait();
+                    if (Thread.interrupted())
+                        throw new InterruptedException();
+                }
+                else if (shouldParkAfterFailedAcquire(p, node)) {
+                    ++parks;
+                    if (parkAndCheckInterrupt())
+                        throw new InterruptedException();
+                }
             }
         } catch (Throwable t) {
             cancelAcquire(node);
@@ -480,12 +544,18 @@ public abstract class AbstractQueuedLongSynchronizer
             return false;
         final long deadline = System.nanoTime() + nanosTimeout;
         final Node node = addWaiter(Node.EXCLUSIVE);
+        final SpinPolicy policy = spinPolicy;
+        final int budget = (policy == null) ? 0 : policy.spins();
+        final long startTime = (policy == null) ? 0L : System.nanoTime();
+        int spins = budget, parks = 0;
         try {
             for (;;) {
                 final Node p = node.predecessor();
                 if (p == head && tryAcquire(arg)) {
                     setHead(node);
                     p.next = null; // help GC
+                    if (policy != null)
+                        policy.acquired(startTime, budget - spins, budget, parks);
                     return true;
                 }
                 nanosTimeout = deadline - System.nanoTime();
@@ -493,9 +563,15 @@ public abstract class AbstractQueuedLongSynchronizer
                     cancelAcquire(node);
                     return false;
                 }
-                if (shouldParkAfterFailedAcquire(p, node) &&
-                    nanosTimeout > SPIN_FOR_TIMEOUT_THRESHOLD)
+                if (spins > 0 && p == head) {
+                    --spins;
+                    Thread.onSpinWait();
+                }
+                else if (shouldParkAfterFailedAcquire(p, node) &&
+                         nanosTimeout > SPIN_FOR_TIMEOUT_THRESHOLD) {
+                    ++parks;
                     LockSupport.parkNanos(this, nanosTimeout);
+                }
                 if (Thread.interrupted())
                     throw new InterruptedException();
             }
@@ -511,6 +587,10 @@ public abstract class AbstractQueuedLongSynchronizer
      */
     private void doAcquireShared(long arg) {
         final Node node = addWaiter(Node.SHARED);
+        final SpinPolicy policy = spinPolicy;
+        final int budget = (policy == null) ? 0 : policy.spins();
+        final long startTime = (policy == null) ? 0L : System.nanoTime();
+        int spins = budget, parks = 0;
         try {
             boolean interrupted = false;
             for (;;) {
@@ -520,14 +600,22 @@ public abstract class AbstractQueuedLongSynchronizer
                     if (r >= 0) {
                         setHeadAndPropagate(node, r);
                         p.next = null; // help GC
+                        if (policy != null)
+                            policy.acquired(startTime, budget - spins, budget, parks);
                         if (interrupted)
                             selfInterrupt();
                         return;
                     }
                 }
-                if (shouldParkAfterFailedAcquire(p, node) &&
-                    parkAndCheckInterrupt())
-                    interrupted = true;
+                if (spins > 0 && p == head) {
+                    --spins;
+                    Thread.onSpinWait();
+                }
+                else if (shouldParkAfterFailedAcquire(p, node)) {
+                    ++parks;
+                    if (parkAndCheckInterrupt())
+                        interrupted = true;
+                }
             }
         } catch (Throwable t) {
             cancelAcquire(node);
@@ -542,6 +630,10 @@ public abstract class AbstractQueuedLongSynchronizer
     private void doAcquireSharedInterruptibly(long arg)
         throws InterruptedException {
         final Node node = addWaiter(Node.SHARED);
+        final SpinPolicy policy = spinPolicy;
+        final int budget = (policy == null) ? 0 : policy.spins();
+        final long startTime = (policy == null) ? 0L : System.nanoTime();
+        int spins = budget, parks = 0;
         try {
             for (;;) {
                 final Node p = node.predecessor();
@@ -550,12 +642,22 @@ public abstract class AbstractQueuedLongSynchronizer
                     if (r >= 0) {
                         setHeadAndPropagate(node, r);
                         p.next = null; // help GC
+                        if (policy != null)
+                            policy.acquired(startTime, budget - spins, budget, parks);
                         return;
                     }
                 }
-                if (shouldParkAfterFailedAcquire(p, node) &&
-                    parkAndCheckInterrupt())
-                    throw new InterruptedException();
+                if (spins > 0 && p == head) {
+                    --spins;
+                    Thread.onSpinWait();
+                    if (Thread.interrupted())
+                        throw new InterruptedException();
+                }
+                else if (shouldParkAfterFailedAcquire(p, node)) {
+                    ++parks;
+                    if (parkAndCheckInterrupt())
+                        throw new InterruptedException();
+                }
             }
         } catch (Throwable t) {
             cancelAcquire(node);
@@ -576,6 +678,10 @@ public abstract class AbstractQueuedLongSynchronizer
             return false;
         final long deadline = System.nanoTime() + nanosTimeout;
         final Node node = addWaiter(Node.SHARED);
+        final SpinPolicy policy = spinPolicy;
+        final int budget = (policy == null) ? 0 : policy.spins();
+        final long startTime = (policy == null) ? 0L : System.nanoTime();
+        int spins = budget, parks = 0;
         try {
             for (;;) {
                 final Node p = node.predecessor();
@@ -584,6 +690,8 @@ public abstract class AbstractQueuedLongSynchronizer
                     if (r >= 0) {
                         setHeadAndPropagate(node, r);
                         p.next = null; // help GC
+                        if (policy != null)
+                            policy.acquired(startTime, budget - spins, budget, parks);
                         return true;
                     }
                 }
@@ -592,9 +700,15 @@ public abstract class AbstractQueuedLongSynchronizer
                     cancelAcquire(node);
                     return false;
                 }
-                if (shouldParkAfterFailedAcquire(p, node) &&
-                    nanosTimeout > SPIN_FOR_TIMEOUT_THRESHOLD)
+                if (spins > 0 && p == head) {
+                    --spins;
+                    Thread.onSpinWait();
+                }
+                else if (shouldParkAfterFailedAcquire(p, node) &&
+                         nanosTimeout > SPIN_FOR_TIMEOUT_THRESHOLD) {
+                    ++parks;
                     LockSupport.parkNanos(this, nanosTimeout);
+                }
                 if (Thread.interrupted())
                     throw new InterruptedException();
             }
@@ -176,7 +176,10 @@ import java.util.concurrent.TimeUnit;
  * augment this by preceding calls to acquire methods with
  * "fast-path" checks, possibly prechecking {@link #hasContended}
  * and/or {@link #hasQueuedThreads} to only do so if the synchronizer
- * is likely not to be contended.
+ * is likely not to be contended.  Synchronizers that are held for
+ * very short times may instead {@linkplain #setSpinPolicy set} a
+ * {@link SpinPolicy}, so that the first queued thread spins for a
+ * while, adapted to the recent hold times, before it blocks.
  *
  * <p>This class provides an efficient and scalable basis for
  * synchronization in part by specializing its range of use to
@@ -567,6 +570,13 @@ public abstract class AbstractQueuedSynchronizer
      */
     private volatile int state;
 
+    /**
+     * The spin policy of the queued acquires, or null to park without
+     * spinning.  Not serialized, as a policy records the contention of
+     * this instance.
+     */
+    private transient volatile SpinPolicy spinPolicy;
+
     /**
      * Returns the current value of synchronization state.
      * This operation has memory semantics of a {@code volatile} read.
@@ -600,6 +610,37 @@ public abstract class AbstractQueuedSynchronizer
         return STATE.compareAndSet(this, expect, update);
     }
 
+    /**
+     * Sets the spin policy of the acquires of this synchronizer that
+     * have to queue.  With a policy, the first queued thread retries
+     * to acquire, up to the spin limit of the policy, before it parks,
+     * and the contended acquisitions are recorded by the policy.  With
+     * no policy, which is the default, queued threads park as soon as
+     * they can be signalled.
+     *
+     * <p>This method is intended to be called while constructing the
+     * synchronizer.  A policy set later applies to the acquires that
+     * are queued afterwards.  The policy is not serialized.
+     *
+     * @param policy the spin policy, or {@code null} for none
+     * @see SpinPolicy
+     * @since 9
+     */
+    protected final void setSpinPolicy(SpinPolicy policy) {
+        spinPolicy = policy;
+    }
+
+    /**
+     * Returns the spin policy of this synchronizer.
+     *
+     * @return the spin policy, or {@code null} if there is none
+     * @see #setSpinPolicy
+     * @since 9
+     */
+    public final SpinPolicy getSpinPolicy() {
+        return spinPolicy;
+    }
+
     // Queuing utilities
 
     /**
@@ -890,6 +931,10 @@ public abstract class AbstractQueuedSynchronizer
      * @return {@code true} if interrupted while waiting
      */
     final boolean acquireQueued(final Node node, int arg) {
+        final SpinPolicy policy = spinPolicy;
+        final int budget = (policy == null) ? 0 : policy.spins();
+        final long startTime = (policy == null) ? 0L : System.nanoTime();
+        int spins = budget, parks = 0;
         try {
             boolean interrupted = false;
             for (;;) {
@@ -897,11 +942,19 @@ public abstract class AbstractQueuedSynchronizer
                 if (p == head && tryAcquire(arg)) {
                     setHead(node);
                     p.next = null; // help GC
+                    if (policy != null)
+                        policy.acquired(startTime, budget - spins, budget, parks);
                     return interrupted;
                 }
-                if (shouldParkAfterFailedAcquire(p, node) &&
-                    parkAndCheckInterrupt())
-                    interrupted = true;
+                if (spins > 0 && p == head) {
+                    --spins;
+                    Thread.onSpinWait();
+                }
+                else if (shouldParkAfterFailedAcquire(p, node)) {
+                    ++parks;
+                    if (parkAndCheckInterrupt())
+                        interrupted = true;
+                }
             }
         } catch (Throwable t) {
             cancelAcquire(node);
@@ -916,17 +969,31 @@ public abstract class AbstractQueuedSynchronizer
     private void doAcquireInterruptibly(int arg)
         throws InterruptedException {
         final Node node = addWaiter(Node.EXCLUSIVE);
+        final SpinPolicy policy = spinPolicy;
+        final int budget = (policy == null) ? 0 : policy.spins();
+        final long startTime = (policy == null) ? 0L : System.nanoTime();
+        int spins = budget, parks = 0;
         try {
             for (;;) {
                 final Node p = node.predecessor();
                 if (p == head && tryAcquire(arg)) {
                     setHead(node);
                     p.next = null; // help GC
+                    if (policy != null)
+                        policy.acquired(startTime, budget - spins, budget, parks);
                     return;
                 }
-                if (shouldParkAfterFailedAcquire(p, node) &&
-                    parkAndCheckInterrupt())
-                    throw new InterruptedException();
+                if (spins > 0 && p == head) {
+                    --spins;
+                    Thread.onSpinWait();
+                    if (Thread.interrupted())
+                        throw new InterruptedException();
+                }
+                else if (shouldParkAfterFailedAcquire(p, node)) {
+                    ++parks;
+                    if (parkAndCheckInterrupt())
+                        throw new InterruptedException();
+                }
             }
         } catch (Throwable t) {
             cancelAcquire(node);
@@ -947,12 +1014,18 @@ public abstract class AbstractQueuedSynchronizer
             return false;
         final long deadline = System.nanoTime() + nanosTimeout;
         final Node node = addWaiter(Node.EXCLUSIVE);
+        final SpinPolicy policy = spinPolicy;
+        final int budget = (policy == null) ? 0 : policy.spins();
+        final long startTime = (policy == null) ? 0L : System.nanoTime();
+        int spins = budget, parks = 0;
         try {
             for (;;) {
                 final Node p = node.predecessor();
                 if (p == head && tryAcquire(arg)) {
                     setHead(node);
                     p.next = null; // help GC
+                    if (policy != null)
+                        policy.acquired(startTime, budget - spins, budget, parks);
                     return true;
                 }
                 nanosTimeout = deadline - System.nanoTime();
@@ -960,9 +1033,15 @@ public abstract class AbstractQueuedSynchronizer
                     cancelAcquire(node);
                     return false;
                 }
-                if (shouldParkAfterFailedAcquire(p, node) &&
-                    nanosTimeout > SPIN_FOR_TIMEOUT_THRESHOLD)
+                if (spins > 0 && p == head) {
+                    --spins;
+                    Thread.onSpinWait();
+                }
+                else if (shouldParkAfterFailedAcquire(p, node) &&
+                         nanosTimeout > SPIN_FOR_TIMEOUT_THRESHOLD) {
+                    ++parks;
                     LockSupport.parkNanos(this, nanosTimeout);
+                }
                 if (Thread.interrupted())
                     throw new InterruptedException();
             }
@@ -978,6 +1057,10 @@ public abstract class AbstractQueuedSynchronizer
      */
     private void doAcquireShared(int arg) {
         final Node node = addWaiter(Node.SHARED);
+        final SpinPolicy policy = spinPolicy;
+        final int budget = (policy == null) ? 0 : policy.spins();
+        final long startTime = (policy == null) ? 0L : System.nanoTime();
+        int spins = budget, parks = 0;
         try {
             boolean interrupted = false;
             for (;;) {
@@ -987,14 +1070,22 @@ public abstract class AbstractQueuedSynchronizer
                     if (r >= 0) {
                         setHeadAndPropagate(node, r);
                         p.next = null; // help GC
+                        if (policy != null)
+                            policy.acquired(startTime, budget - spins, budget, parks);
                         if (interrupted)
                             selfInterrupt();
                         return;
                     }
                 }
-                if (shouldParkAfterFailedAcquire(p, node) &&
-                    parkAndCheckInterrupt())
-                    interrupted = true;
+                if (spins > 0 && p == head) {
+                    --spins;
+                    Thread.onSpinWait();
+                }
+                else if (shouldParkAfterFailedAcquire(p, node)) {
+                    ++parks;
+                    if (parkAndCheckInterrupt())
+                        interrupted = true;
+                }
             }
         } catch (Throwable t) {
             cancelAcquire(node);
@@ -1009,6 +1100,10 @@ public abstract class AbstractQueuedSynchronizer
     private void doAcquireSharedInterruptibly(int arg)
         throws InterruptedException {
         final Node node = addWaiter(Node.SHARED);
+        final SpinPolicy policy = spinPolicy;
+        final int budget = (policy == null) ? 0 : policy.spins();
+        final long startTime = (policy == null) ? 0L : System.nanoTime();
+        int spins = budget, parks = 0;
         try {
             for (;;) {
                 final Node p = node.predecessor();
@@ -1017,12 +1112,22 @@ public abstract class AbstractQueuedSynchronizer
                     if (r >= 0) {
                         setHeadAndPropagate(node, r);
                         p.next = null; // help GC
+                        if (policy != null)
+                            policy.acquired(startTime, budget - spins, budget, parks);
                         return;
                     }
                 }
-                if (shouldParkAfterFailedAcquire(p, node) &&
-                    parkAndCheckInterrupt())
-                    throw new InterruptedException();
+                if (spins > 0 && p == head) {
+                    --spins;
+                    Thread.onSpinWait();
+                    if (Thread.interrupted())
+                        throw new InterruptedException();
+                }
+                else if (shouldParkAfterFailedAcquire(p, node)) {
+                    ++parks;
+                    if (parkAndCheckInterrupt())
+                        throw new InterruptedException();
+                }
             }
         } catch (Throwable t) {
             cancelAcquire(node);
@@ -1043,6 +1148,10 @@ public abstract class AbstractQueuedSynchronizer
             return false;
         final long deadline = System.nanoTime() + nanosTimeout;
         final Node node = addWaiter(Node.SHARED);
+        final SpinPolicy policy = spinPolicy;
+        final int budget = (policy == null) ? 0 : policy.spins();
+        final long startTime = (policy == null) ? 0L : System.nanoTime();
+        int spins = budget, parks = 0;
         try {
             for (;;) {
                 final Node p = node.predecessor();
@@ -1051,6 +1160,8 @@ public abstract class AbstractQueuedSynchronizer
                     if (r >= 0) {
                         setHeadAndPropagate(node, r);
                         p.next = null; // help GC
+                        if (policy != null)
+                            policy.acquired(startTime, budget - spins, budget, parks);
                         return true;
                     }
                 }
@@ -1059,9 +1170,15 @@ public abstract class AbstractQueuedSynchronizer
                     cancelAcquire(node);
                     return false;
                 }
-                if (shouldParkAfterFailedAcquire(p, node) &&
-                    nanosTimeout > SPIN_FOR_TIMEOUT_THRESHOLD)
+                if (spins > 0 && p == head) {
+                    --spins;
+                    Thread.onSpinWait();
+                }
+                else if (shouldParkAfterFailedAcquire(p, node) &&
+                         nanosTimeout > SPIN_FOR_TIMEOUT_THRESHOLD) {
+                    ++parks;
                     LockSupport.parkNanos(this, nanosTimeout);
+                }
                 if (Thread.interrupted())
                     throw new InterruptedException();
             }
@@ -0,0 +1,646 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent.locks;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ReadWriteLock} biased towards readers, for data that is
+ * read by many threads and seldom written.
+ *
+ * <p>The read lock of a {@link ReentrantReadWriteLock} or of a {@link
+ * StampedLock} updates a single state word, so that every read-lock
+ * acquisition writes the same cache line, which then moves from
+ * processor to processor even though the readers never wait for each
+ * other.  A {@code BiasedReadWriteLock} instead counts its readers in
+ * a number of <em>stripes</em>, each in a cache line of its own, and
+ * each thread always counts itself in the same stripe, chosen from
+ * its identifier.  A reader only reads the state word of the lock, so
+ * that, when there are at least as many stripes as reading threads,
+ * readers do not write any cache line that other readers write.  The
+ * price is paid by writers, which have to scan all the stripes to
+ * know whether the lock is read.
+ *
+ * <p>The lock supports three modes:
+ *
+ * <ul>
+ *
+ *  <li><b>Writing.</b> The {@linkplain #writeLock write lock} is
+ *   exclusive.  A writer first announces itself, which keeps new
+ *   readers out, then waits for the other writers, and then for the
+ *   current readers to leave.
+ *
+ *  <li><b>Reading.</b> The {@linkplain #readLock read lock} may be
+ *   held by any number of threads at the same time, as long as no
+ *   writer holds the lock or waits for it.
+ *
+ *  <li><b>Optimistic Reading.</b> Method {@link #tryOptimisticRead}
+ *   returns a non-zero stamp only if the lock is not currently held
+ *   for writing, and method {@link #validate} returns {@code true} if
+ *   the lock has not been held for writing since the stamp was
+ *   obtained, as for a {@link StampedLock}.  An optimistic read does
+ *   not write anything, and its use is as fragile as with a {@code
+ *   StampedLock}.
+ *
+ * </ul>
+ *
+ * <p>The lock prefers writers: a waiting writer keeps new readers out,
+ * and when a writer releases the lock while other writers wait, the
+ * lock is handed over to one of them, and the readers are let in only
+ * when no writer is left.  Readers may therefore starve if writers
+ * keep coming; the lock is meant for data that is written seldom.
+ * The writers are not ordered among themselves.
+ *
+ * <p>This lock is not reentrant: a thread that holds the lock, in any
+ * mode, must not acquire it again, and a thread that holds the write
+ * lock must not acquire the read lock.  The read lock is released
+ * by the thread that acquired it.  Neither lock supports {@link
+ * Condition}s; {@link Lock#newCondition} throws {@code
+ * UnsupportedOperationException}.
+ *
+ * <p><b>Sample Usage.</b> A routing table that is read-locked by many
+ * threads, and that is first read optimistically:
+ *
+ * <pre> {@code
+ * class Routes {
+ *   private final BiasedReadWriteLock rwl = new BiasedReadWriteLock();
+ *   private final Map<String, Route> routes = new HashMap<>();
+ *   private volatile int version;
+ *
+ *   int version() { // an optimistic read of a single field
+ *     long stamp = rwl.tryOptimisticRead();
+ *     int v = version;
+ *     if (!rwl.validate(stamp)) {
+ *       rwl.readLock().lock();
+ *       try {
+ *         v = version;
+ *       } finally {
+ *         rwl.readLock().unlock();
+ *       }
+ *     }
+ *     return v;
+ *   }
+ *
+ *   Route route(String destination) {
+ *     rwl.readLock().lock();
+ *     try {
+ *       return routes.get(destination);
+ *     } finally {
+ *       rwl.readLock().unlock();
+ *     }
+ *   }
+ *
+ *   void update(String destination, Route route) {
+ *     rwl.writeLock().lock();
+ *     try {
+ *       routes.put(destination, route);
+ *       version++;
+ *     } finally {
+ *       rwl.writeLock().unlock();
+ *     }
+ *   }
+ * }}</pre>
+ *
+ * <p>The stripes take 128 bytes each; by default there are twice as
+ * many stripes as available processors, rounded up to a power of two.
+ *
+ * @since 9
+ */
+public class BiasedReadWriteLock implements ReadWriteLock {
+    /*
+     * Implementation notes:
+     *
+     * The state word holds the write bit, the number of writers that
+     * have announced themselves but do not hold the lock (the waiting
+     * writers), and a version that is incremented by every release of
+     * the write lock.  The stamps of optimistic reads are the state
+     * without the waiting writers.
+     *
+     * A reader increments its stripe and then reads the state: if no
+     * writer holds or waits for the lock, the reader holds the lock;
+     * else it decrements its stripe, wakes the writer if there is one,
+     * and waits in the reader gate until the state lets readers in.
+     * A writer sets the write bit and then sums the stripes.  As the
+     * stripes and the state are both accessed with volatile mode, the
+     * writer sees the increment of a reader that missed the write bit.
+     * A reader that decrements its stripe and then sees the write bit
+     * unparks the writer, which parks while the sum is not zero.
+     *
+     * The writers are serialized by a plain exclusive AQS, and the
+     * readers that wait are queued in a shared AQS whose acquires
+     * succeed when readers may enter, and which is released when the
+     * last writer leaves, which wakes all of the queued readers.  The
+     * write bit is set and cleared only by the holder of the writer
+     * AQS, and the waiting writers are counted with atomic adds, so
+     * that the state is only updated with getAndAdd.
+     *
+     * The stripe of a thread is derived from its identifier, so that a
+     * thread releases the read lock in the stripe where it acquired
+     * it.  The stripes are spread in an array of longs, PAD longs
+     * apart, after a first padding of PAD longs.
+     */
+
+    /** Number of processors, for spin control */
+    private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** Number of checks of the readers before a writer parks */
+    private static final int SPINS = (NCPU > 1) ? 1 << 7 : 0;
+
+    /** Number of longs in each stripe: 128 bytes, two cache lines */
+    private static final int PAD = 16;
+
+    /** The maximum number of stripes */
+    private static final int MAX_STRIPES = 1 << 16;
+
+    // Bits of the state
+    private static final long WBIT    = 1L;
+    private static final long WAITER  = 1L << 1;
+    private static final long WMASK   = 0xfffeL;
+    private static final long VERSION = 1L << 16;
+    private static final long WRITING = WBIT | WMASK;
+    private static final long SBITS   = ~WMASK;
+
+    /** Initial value for the state; non-zero, so that stamps are non-zero */
+    private static final long ORIGIN = VERSION;
+
+    /** The state of the lock */
+    private volatile long state;
+
+    /** The thread that holds the write lock, or that drains the readers */
+    private volatile Thread owner;
+
+    /** The reader counts, one in every PAD longs */
+    private final long[] counts;
+
+    /** stripes - 1 */
+    private final int mask;
+
+    private final WriterSync writers;
+    private final ReaderGate gate;
+
+    private final ReadLockView readLockView;
+    private final WriteLockView writeLockView;
+
+    /**
+     * Creates a new lock with the default number of stripes.
+     */
+    public BiasedReadWriteLock() {
+        this(NCPU << 1);
+    }
+
+    /**
+     * Creates a new lock with the given number of stripes, rounded up
+     * to a power of two.  Readers of different stripes do not write the
+     * same cache lines.
+     *
+     * @param stripes the number of reader stripes, at most {@code 65536}
+     * @throws IllegalArgumentException if {@code stripes} is not
+     *         positive or is more than {@code 65536}
+     */
+    public BiasedReadWriteLock(int stripes) {
+        if (stripes <= 0 || stripes > MAX_STRIPES)
+            throw new IllegalArgumentException();
+        int n = (stripes == 1) ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.counts = new long[(n + 1) * PAD];
+        this.mask = n - 1;
+        this.state = ORIGIN;
+        this.writers = new WriterSync();
+        this.gate = new ReaderGate();
+        this.readLockView = new ReadLockView();
+        this.writeLockView = new WriteLockView();
+    }
+
+    /**
+     * Returns the lock used for reading.
+     *
+     * @return the lock used for reading
+     */
+    public Lock readLock() { return readLockView; }
+
+    /**
+     * Returns the lock used for writing.
+     *
+     * @return the lock used for writing
+     */
+    public Lock writeLock() { return writeLockView; }
+
+    /**
+     * Returns a stamp that can later be validated, or zero
+     * if exclusively locked.
+     *
+     * @return a valid optimistic read stamp, or zero if exclusively locked
+     */
+    public long tryOptimisticRead() {
+        long s;
+        return (((s = state) & WBIT) == 0L) ? (s & SBITS) : 0L;
+    }
+
+    /**
+     * Returns true if the lock has not been exclusively acquired
+     * since issuance of the given stamp. Always returns false if the
+     * stamp is zero.  Invoking this method with a value not obtained
+     * from {@link #tryOptimisticRead} for this lock has no defined
+     * effect or result.
+     *
+     * @param stamp a stamp
+     * @return {@code true} if the lock has not been exclusively acquired
+     * since issuance of the given stamp; else false
+     */
+    public boolean validate(long stamp) {
+        VarHandle.acquireFence();
+        return stamp != 0L && (state & SBITS) == stamp;
+    }
+
+    /**
+     * Returns {@code true} if the lock is currently held exclusively,
+     * or if its holder waits for the readers to leave.
+     *
+     * @return {@code true} if the lock is currently held exclusively
+     */
+    public boolean isWriteLocked() {
+        return (state & WBIT) != 0L;
+    }
+
+    /**
+     * Returns {@code true} if writers wait for the write lock, which
+     * keeps new readers out.
+     *
+     * @return {@code true} if there may be writers waiting
+     */
+    public boolean hasQueuedWriters() {
+        return (state & WMASK) != 0L;
+    }
+
+    /**
+     * Queries the number of read locks held for this lock. This
+     * method is designed for use in monitoring system state, not for
+     * synchronization control, and may count readers that are about to
+     * give up.
+     *
+     * @return the number of read locks held
+     */
+    public int getReadLockCount() {
+        return (int) readers();
+    }
+
+    /**
+     * Returns a string identifying this lock, as well as its lock
+     * state.  The state, in brackets, includes the String {@code
+     * "Unlocked"} or the String {@code "Write-locked"} and the number
+     * of read locks held.
+     *
+     * @return a string identifying this lock, as well as its lock state
+     */
+    public String toString() {
+        return super.toString() +
+            (isWriteLocked() ? "[Write-locked]" :
+             "[Unlocked, Read locks = " + getReadLockCount() + "]");
+    }
+
+    // Readers
+
+    /**
+     * Returns the index of the count of the current thread.
+     */
+    private int stripe() {
+        long h = Thread.currentThread().getId() * 0x9e3779b97f4a7c15L;
+        return (((int) (h >>> 32) & mask) + 1) * PAD;
+    }
+
+    /**
+     * Returns the sum of the reader counts.
+     */
+    private long readers() {
+        long[] cs = counts;
+        long sum = 0L;
+        for (int i = PAD; i < cs.length; i += PAD)
+            sum += (long) COUNTS.getVolatile(cs, i);
+        return sum;
+    }
+
+    /**
+     * Unparks the writer that drains the readers, if there is one.
+     */
+    private void signalWriter() {
+        Thread w;
+        if ((state & WBIT) != 0L && (w = owner) != null)
+            LockSupport.unpark(w);
+    }
+
+    /**
+     * Acquires the read lock, blocking as directed.
+     *
+     * @param interruptible whether to throw InterruptedException
+     * @param timed whether to give up after nanos
+     * @param nanos the wait time, if timed
+     * @return {@code true} if acquired, {@code false} if timed out
+     */
+    private boolean acquireRead(boolean interruptible, boolean timed, long nanos)
+            throws InterruptedException {
+        final long[] cs = counts;
+        final int i = stripe();
+        final long deadline = timed ? System.nanoTime() + nanos : 0L;
+        for (;;) {
+            COUNTS.getAndAdd(cs, i, 1L);
+            if ((state & WRITING) == 0L)
+                return true;
+            COUNTS.getAndAdd(cs, i, -1L);
+            signalWriter();
+            if (timed) {
+                if ((nanos = deadline - System.nanoTime()) <= 0L ||
+                    !gate.tryAcquireSharedNanos(1, nanos))
+                    return false;
+            }
+            else if (interruptible)
+                gate.acquireSharedInterruptibly(1);
+            else
+                gate.acquireShared(1);
+        }
+    }
+
+    private boolean tryAcquireRead() {
+        final long[] cs = counts;
+        final int i = stripe();
+        if ((state & WRITING) == 0L) {
+            COUNTS.getAndAdd(cs, i, 1L);
+            if ((state & WRITING) == 0L)
+                return true;
+            COUNTS.getAndAdd(cs, i, -1L);
+            signalWriter();
+        }
+        return false;
+    }
+
+    private void releaseRead() {
+        final long[] cs = counts;
+        final int i = stripe();
+        if ((long) COUNTS.getAndAdd(cs, i, -1L) <= 0L) {
+            COUNTS.getAndAdd(cs, i, 1L);
+            throw new IllegalMonitorStateException();
+        }
+        signalWriter();
+    }
+
+    /**
+     * Returns true if readers may enter.
+     */
+    final boolean readable() {
+        return (state & WRITING) == 0L;
+    }
+
+    // Writers
+
+    /**
+     * Counts the current thread as a waiting writer, which keeps new
+     * readers out.
+     */
+    private void announceWriter() {
+        long s = (long) STATE.getAndAdd(this, WAITER);
+        if ((s & WMASK) == WMASK) {
+            STATE.getAndAdd(this, -WAITER);
+            throw new Error("Maximum lock count exceeded");
+        }
+    }
+
+    /**
+     * Withdraws a waiting writer that gave up, letting the readers in
+     * if it was the last writer.
+     */
+    private void withdrawWriter() {
+        long s = (long) STATE.getAndAdd(this, -WAITER) - WAITER;
+        if ((s & WRITING) == 0L)
+            gate.releaseShared(1);
+    }
+
+    /**
+     * Gives up the write lock before the readers have left, without
+     * changing the version.
+     */
+    private void abortWrite() {
+        owner = null;
+        long s = (long) STATE.getAndAdd(this, -WBIT) - WBIT;
+        writers.release(1);
+        if ((s & WRITING) == 0L)
+            gate.releaseShared(1);
+    }
+
+    /**
+     * Acquires the write lock, blocking as directed.
+     *
+     * @param interruptible whether to throw InterruptedException
+     * @param timed whether to give up after nanos
+     * @param nanos the wait time, if timed
+     * @return {@code true} if acquired, {@code false} if timed out
+     */
+    private boolean acquireWrite(boolean interruptible, boolean timed, long nanos)
+            throws InterruptedException {
+        final long deadline = timed ? System.nanoTime() + nanos : 0L;
+        announceWriter();
+        try {
+            if (timed) {
+                if (!writers.tryAcquireNanos(1, nanos)) {
+                    withdrawWriter();
+                    return false;
+                }
+            }
+            else if (interruptible)
+                writers.acquireInterruptibly(1);
+            else
+                writers.acquire(1);
+        } catch (Throwable ex) {
+            withdrawWriter();
+            throw ex;
+        }
+        owner = Thread.currentThread();
+        STATE.getAndAdd(this, WBIT - WAITER);
+        boolean interrupted = false;
+        for (int spins = SPINS; readers() != 0L; ) {
+            if (spins > 0) {
+                --spins;
+                Thread.onSpinWait();
+                continue;
+            }
+            if (timed) {
+                if ((nanos = deadline - System.nanoTime()) <= 0L) {
+                    abortWrite();
+                    if (interrupted)
+                        Thread.currentThread().interrupt();
+                    return false;
+                }
+                LockSupport.parkNanos(this, nanos);
+            }
+            else
+                LockSupport.park(this);
+            if (Thread.interrupted()) {
+                if (interruptible) {
+                    abortWrite();
+                    throw new InterruptedException();
+                }
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        return true;
+    }
+
+    private boolean tryAcquireWrite() {
+        if ((state & WRITING) != 0L || !writers.tryAcquire(1))
+            return false;
+        owner = Thread.currentThread();
+        STATE.getAndAdd(this, WBIT);
+        if (readers() == 0L)
+            return true;
+        abortWrite();
+        return false;
+    }
+
+    /**
+     * Releases the write lock, handing it over to the waiting writers
+     * if there are any, else letting the readers in.
+     */
+    private void releaseWrite() {
+        if (owner != Thread.currentThread())
+            throw new IllegalMonitorStateException();
+        owner = null;
+        long s = (long) STATE.getAndAdd(this, VERSION - WBIT) + VERSION - WBIT;
+        writers.release(1);
+        if ((s & WRITING) == 0L)
+            gate.releaseShared(1);
+    }
+
+    /**
+     * Serializes the writers.
+     */
+    static final class WriterSync extends AbstractQueuedSynchronizer {
+        private static final long serialVersionUID = 5184390278532017812L;
+
+        protected boolean tryAcquire(int acquires) {
+            return compareAndSetState(0, 1);
+        }
+
+        protected boolean tryRelease(int releases) {
+            setState(0);
+            return true;
+        }
+    }
+
+    /**
+     * Queues the readers that wait for the writers to leave.  Acquires
+     * succeed when readers may enter, and releases wake all the queued
+     * readers.
+     */
+    final class ReaderGate extends AbstractQueuedSynchronizer {
+        private static final long serialVersionUID = -2037485128612943508L;
+
+        protected int tryAcquireShared(int acquires) {
+            return readable() ? 1 : -1;
+        }
+
+        protected boolean tryReleaseShared(int releases) {
+            return true;
+        }
+    }
+
+    // Views
+
+    final class ReadLockView implements Lock {
+        public void lock() {
+            try {
+                acquireRead(false, false, 0L);
+            } catch (InterruptedException cannotHappen) {
+                throw new Error(cannotHappen);
+            }
+        }
+        public void lockInterruptibly() throws InterruptedException {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            acquireRead(true, false, 0L);
+        }
+        public boolean tryLock() { return tryAcquireRead(); }
+        public boolean tryLock(long time, TimeUnit unit)
+            throws InterruptedException {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            return acquireRead(true, true, unit.toNanos(time));
+        }
+        public void unlock() { releaseRead(); }
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+        public String toString() {
+            return super.toString() +
+                "[Read locks = " + getReadLockCount() + "]";
+        }
+    }
+
+    final class WriteLockView implements Lock {
+        public void lock() {
+            try {
+                acquireWrite(false, false, 0L);
+            } catch (InterruptedException cannotHappen) {
+                throw new Error(cannotHappen);
+            }
+        }
+        public void lockInterruptibly() throws InterruptedException {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            acquireWrite(true, false, 0L);
+        }
+        public boolean tryLock() { return tryAcquireWrite(); }
+        public boolean tryLock(long time, TimeUnit unit)
+            throws InterruptedException {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            return acquireWrite(true, true, unit.toNanos(time));
+        }
+        public void unlock() { releaseWrite(); }
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+        public String toString() {
+            Thread o = owner;
+            return super.toString() + ((o == null || !isWriteLocked()) ?
+                                       "[Unlocked]" :
+                                       "[Locked by thread " + o.getName() + "]");
+        }
+    }
+
+    // VarHandle mechanics
+    private static final VarHandle STATE;
+    private static final VarHandle COUNTS;
+    static {
+        try {
+            MethodHandles.Lookup l = MethodHandles.lookup();
+            STATE = l.findVarHandle(BiasedReadWriteLock.class, "state", long.class);
+            COUNTS = MethodHandles.arrayElementVarHandle(long[].class);
+        } catch (ReflectiveOperationException e) {
+            throw new Error(e);
+        }
+    }
+}
@@ -249,6 +249,22 @@ public class ReentrantLock implements Lock, java.io.Serializable {
         sync = fair ? new FairSync() : new NonfairSync();
     }
 
+    /**
+     * Creates an instance of {@code ReentrantLock} with the
+     * given fairness policy and spin policy.  Threads that have to
+     * wait for the lock spin as directed by the spin policy before
+     * they become disabled for thread scheduling purposes, and the
+     * spin policy records the contention of the lock.
+     *
+     * @param fair {@code true} if this lock should use a fair ordering policy
+     * @param policy the spin policy, or {@code null} to never spin
+     * @since 9
+     */
+    public ReentrantLock(boolean fair, SpinPolicy policy) {
+        this(fair);
+        sync.setSpinPolicy(policy);
+    }
+
     /**
      * Acquires the lock.
      *
@@ -640,6 +656,17 @@ public class ReentrantLock implements Lock, java.io.Serializable {
         return sync.getQueueLength();
     }
 
+    /**
+     * Returns the spin policy of this lock, which records the
+     * contention of the lock.
+     *
+     * @return the spin policy, or {@code null} if there is none
+     * @since 9
+     */
+    public final SpinPolicy getSpinPolicy() {
+        return sync.getSpinPolicy();
+    }
+
     /**
      * Returns a collection containing threads that may be waiting to
      * acquire this lock.  Because the actual set of threads may change
@@ -243,6 +243,22 @@ public class ReentrantReadWriteLock
         writerLock = new WriteLock(this);
     }
 
+    /**
+     * Creates a new {@code ReentrantReadWriteLock} with
+     * the given fairness policy and spin policy.  The spin policy
+     * applies to, and records the contention of, both the read lock
+     * and the write lock.
+     *
+     * @param fair {@code true} if this lock should use a fair ordering policy
+     * @param policy the spin policy, or {@code null} to never spin
+     * @see SpinPolicy
+     * @since 9
+     */
+    public ReentrantReadWriteLock(boolean fair, SpinPolicy policy) {
+        this(fair);
+        sync.setSpinPolicy(policy);
+    }
+
     public ReentrantReadWriteLock.WriteLock writeLock() { return writerLock; }
     public ReentrantReadWriteLock.ReadLock  readLock()  { return readerLock; }
 
@@ -1395,6 +1411,17 @@ public class ReentrantReadWriteLock
         return sync.getQueueLength();
     }
 
+    /**
+     * Returns the spin policy of this lock, which records the
+     * contention of both the read lock and the write lock.
+     *
+     * @return the spin policy, or {@code null} if there is none
+     * @since 9
+     */
+    public final SpinPolicy getSpinPolicy() {
+        return sync.getSpinPolicy();
+    }
+
     /**
      * Returns a collection containing threads that may be waiting to
      * acquire either the read or write lock.  Because the actual set
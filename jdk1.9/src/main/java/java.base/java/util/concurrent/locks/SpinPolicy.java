@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent.locks;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A policy that lets the first queued thread of an {@link
+ * AbstractQueuedSynchronizer} or {@link AbstractQueuedLongSynchronizer}
+ * spin for a while before it parks, and that records the contention
+ * of the synchronizer.
+ *
+ * <p>Without a policy, a thread that fails to acquire a synchronizer
+ * is queued and parks as soon as its predecessor is set to signal it,
+ * so every contended acquire pays for a park and an unpark, even when
+ * the synchronizer is released a few hundred nanoseconds later.  With
+ * a policy, the thread at the head of the queue retries the acquire,
+ * calling {@link Thread#onSpinWait} between retries, up to a number
+ * of times given by the <em>spin limit</em> of the policy, and only
+ * then parks.  The other queued threads park as usual.
+ *
+ * <p>An adaptive policy learns its spin limit from the recent hold
+ * times of the synchronizer: when the spinning thread acquires after
+ * {@code n} retries, the synchronizer was held for about {@code n}
+ * retries more, and the limit moves towards {@code 2 * n}; when the
+ * thread has to park anyway, the hold times are too long for spinning
+ * to pay off, and the limit is halved.  A limit of zero disables
+ * spinning, except for an occasional probe, so that a policy adapts
+ * again when the hold times become shorter.  The limit is never more
+ * than the maximum given when the policy is created, and a policy
+ * created with a maximum of zero never spins, and only records the
+ * contention.
+ *
+ * <p>The uncontended paths of the synchronizer do not consult the
+ * policy.  A policy records, for the acquires that had to queue:
+ * <ul>
+ * <li>the number of such <em>contended acquisitions</em>;
+ * <li>the number of them that acquired while spinning, without
+ *     parking;
+ * <li>the number of times that the queued threads parked;
+ * <li>the total time that the queued threads waited.
+ * </ul>
+ * The statistics are estimates, meant for monitoring and profiling,
+ * and are not updated atomically with each other.  Acquires that are
+ * cancelled, by an interrupt or a timeout, are not recorded.
+ *
+ * <p>A policy is usually given to the constructor of a lock, for
+ * example {@link ReentrantLock#ReentrantLock(boolean, SpinPolicy)},
+ * and may be shared by several synchronizers, in which case it learns
+ * from, and records, all of them.
+ *
+ * <pre> {@code
+ * SpinPolicy policy = new SpinPolicy();
+ * ReentrantLock lock = new ReentrantLock(false, policy);
+ * ...
+ * System.out.println(policy.getContendedAcquisitions() + " acquisitions, "
+ *                    + policy.getParks() + " parks, "
+ *                    + policy.getAverageWaitNanos() + " ns");}</pre>
+ *
+ * <p>Spinning only helps when there are more processors than threads
+ * that contend for the synchronizer, and when the synchronizer is held
+ * for short times; otherwise it wastes processor time.  On a
+ * uniprocessor, a policy never spins.
+ *
+ * @since 9
+ * @see AbstractQueuedSynchronizer#setSpinPolicy
+ * @see AbstractQueuedLongSynchronizer#setSpinPolicy
+ */
+public class SpinPolicy {
+
+    /**
+     * The default maximum number of retries of an acquire.
+     */
+    public static final int DEFAULT_MAX_SPINS = 1 << 10;
+
+    /**
+     * The spin limit of a new adaptive policy, and the least limit
+     * after an acquire while spinning.
+     */
+    private static final int MIN_SPINS = 1 << 6;
+
+    /**
+     * One in PROBE_RATE + 1 contended acquisitions spins MIN_SPINS
+     * times when the limit is zero.
+     */
+    private static final int PROBE_RATE = (1 << 6) - 1;
+
+    /** Whether spinning can help: the holder may run while we spin. */
+    private static final boolean MP =
+        Runtime.getRuntime().availableProcessors() > 1;
+
+    private final int maxSpins;
+
+    /**
+     * The current spin limit.  Races between threads that update it
+     * only lose some of the learning, so it is not updated atomically.
+     */
+    private volatile int spinLimit;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder spinAcquisitions = new LongAdder();
+    private final LongAdder parks = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    /**
+     * Creates an adaptive policy with a maximum spin limit of
+     * {@link #DEFAULT_MAX_SPINS}.
+     */
+    public SpinPolicy() {
+        this(DEFAULT_MAX_SPINS);
+    }
+
+    /**
+     * Creates an adaptive policy with the given maximum spin limit.
+     *
+     * @param maxSpins the maximum number of retries of an acquire
+     *        before parking, or zero to never spin
+     * @throws IllegalArgumentException if {@code maxSpins} is negative
+     */
+    public SpinPolicy(int maxSpins) {
+        if (maxSpins < 0)
+            throw new IllegalArgumentException();
+        this.maxSpins = maxSpins;
+        this.spinLimit = MP ? Math.min(maxSpins, MIN_SPINS) : 0;
+    }
+
+    /**
+     * Returns the maximum spin limit of this policy.
+     *
+     * @return the maximum number of retries of an acquire
+     */
+    public final int getMaxSpins() {
+        return maxSpins;
+    }
+
+    /**
+     * Returns the current spin limit of this policy.
+     *
+     * @return the number of retries of the next contended acquire
+     */
+    public final int getSpinLimit() {
+        return spinLimit;
+    }
+
+    /**
+     * Returns the number of acquires that had to queue.
+     *
+     * @return the number of contended acquisitions
+     */
+    public final long getContendedAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    /**
+     * Returns the number of contended acquisitions that acquired
+     * while spinning, without parking.
+     *
+     * @return the number of acquisitions while spinning
+     */
+    public final long getSpinAcquisitions() {
+        return spinAcquisitions.sum();
+    }
+
+    /**
+     * Returns the number of times that queued threads parked.
+     *
+     * @return the number of parks
+     */
+    public final long getParks() {
+        return parks.sum();
+    }
+
+    /**
+     * Returns the total time that the contended acquisitions waited.
+     *
+     * @return the total wait time, in nanoseconds
+     */
+    public final long getTotalWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    /**
+     * Returns the average time that a contended acquisition waited.
+     *
+     * @return the average wait time, in nanoseconds, or zero if there
+     *         were no contended acquisitions
+     */
+    public final long getAverageWaitNanos() {
+        long n = acquisitions.sum();
+        return (n == 0L) ? 0L : waitNanos.sum() / n;
+    }
+
+    /**
+     * Resets the statistics of this policy to zero.  The spin limit is
+     * not reset.  This method is not atomic with the acquires that
+     * are recorded concurrently.
+     */
+    public void resetStatistics() {
+        acquisitions.reset();
+        spinAcquisitions.reset();
+        parks.reset();
+        waitNanos.reset();
+    }
+
+    /**
+     * Returns the number of retries of a contended acquire.
+     */
+    final int spins() {
+        if (!MP)
+            return 0;
+        int limit = spinLimit;
+        if (limit == 0 && maxSpins != 0
+            && (LockSupport.nextSecondarySeed() & PROBE_RATE) == 0)
+            limit = Math.min(maxSpins, MIN_SPINS);
+        return limit;
+    }
+
+    /**
+     * Records a contended acquisition, and adapts the spin limit.
+     *
+     * @param startTime the value of {@link System#nanoTime} when the
+     *        acquire was queued
+     * @param spun the number of retries while spinning
+     * @param budget the number of retries allowed
+     * @param parkCount the number of times that the thread parked
+     */
+    final void acquired(long startTime, int spun, int budget, int parkCount) {
+        waitNanos.add(System.nanoTime() - startTime);
+        acquisitions.increment();
+        if (parkCount == 0) {
+            if (spun > 0) {
+                spinAcquisitions.increment();
+                int limit = spinLimit;
+                int target = Math.min(maxSpins, Math.max(spun << 1, MIN_SPINS));
+                int next = (target >= limit) ? target
+                    : limit - ((limit - target) >>> 3);
+                if (next != limit)
+                    spinLimit = next;
+            }
+        }
+        else {
+            parks.add(parkCount);
+            if (budget > 0 && spun >= budget) {
+                int limit = spinLimit;
+                if (limit != 0)
+                    spinLimit = limit >>> 1;
+            }
+        }
+    }
+
+    /**
+     * Returns a string identifying this policy, as well as its spin
+     * limit and statistics.
+     *
+     * @return a string identifying this policy, as well as its state
+     */
+    public String toString() {
+        return super.toString() +
+            "[spinLimit = " + spinLimit +
+            ", acquisitions = " + acquisitions.sum() +
+            ", spinAcquisitions = " + spinAcquisitions.sum() +
+            ", parks = " + parks.sum() +
+            ", averageWaitNanos = " + getAverageWaitNanos() + "]";
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.regex;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * A character sequence over a range of bytes, read as Latin-1, US-ASCII or
+ * UTF-8 characters, that a matcher reuses for all its byte inputs.
+ *
+ * <p> Latin-1 and US-ASCII input, and UTF-8 input that only has ASCII
+ * characters, are read in place: the character at an index is the byte at
+ * the same offset, or {@code '\uFFFD'} for a US-ASCII byte that is not
+ * ASCII.  Other UTF-8 input is decoded into a character array, with the
+ * offset of the first byte of each character, which are kept for the next
+ * inputs.  Each maximal subpart of a malformed UTF-8 sequence is decoded
+ * as one {@code '\uFFFD'}, as the UTF-8 decoder of the platform does.
+ */
+final class ByteInput implements CharSequence {
+
+    // the charsets of the input
+    static final int LATIN1 = 0;
+    static final int ASCII = 1;
+    static final int UTF8 = 2;
+
+    // the bytes, either an array or a buffer with no accessible array
+    private byte[] array;
+    private ByteBuffer buffer;
+
+    // index of the first byte in the array or buffer
+    private int offset;
+
+    // the index of the first byte, as seen by the caller
+    private int origin;
+
+    // the number of chars
+    private int length;
+
+    // true if the bytes are US-ASCII, read in place
+    private boolean ascii;
+
+    // the decoded chars and the relative offsets of their bytes, if decoded
+    private boolean decoded;
+    private char[] chars = new char[0];
+    private int[] offsets = new int[1];
+
+    /**
+     * Sets the input to the given array range.
+     */
+    void set(byte[] bytes, int off, int len, int charset) {
+        array = bytes;
+        buffer = null;
+        offset = off;
+        origin = off;
+        init(len, charset);
+    }
+
+    /**
+     * Sets the input to the remaining bytes of the given buffer.  The
+     * position of the buffer is not changed.
+     */
+    void set(ByteBuffer bytes, int charset) {
+        if (bytes.hasArray()) {
+            array = bytes.array();
+            buffer = null;
+            offset = bytes.arrayOffset() + bytes.position();
+        } else {
+            array = null;
+            buffer = bytes;
+            offset = bytes.position();
+        }
+        origin = bytes.position();
+        init(bytes.remaining(), charset);
+    }
+
+    /**
+     * Clears the references to the last input.
+     */
+    void clear() {
+        array = null;
+        buffer = null;
+        length = 0;
+        decoded = false;
+    }
+
+    private byte byteAt(int i) {
+        return (array != null) ? array[offset + i] : buffer.get(offset + i);
+    }
+
+    private void init(int len, int charset) {
+        decoded = false;
+        ascii = (charset == ASCII);
+        length = len;
+        if (charset != UTF8)
+            return;
+        int i = 0;
+        while (i < len && byteAt(i) >= 0)
+            i++;
+        if (i == len)
+            return;
+
+        // not ASCII, decode; a maximal subpart of a malformed sequence
+        // becomes U+FFFD
+        if (chars.length < len) {
+            chars = new char[len];
+            offsets = new int[len + 1];
+        }
+        for (int j = 0; j < i; j++) {
+            chars[j] = (char)byteAt(j);
+            offsets[j] = j;
+        }
+        int n = i;
+        while (i < len) {
+            int b = byteAt(i);
+            offsets[n] = i;
+            if (b >= 0) {
+                chars[n++] = (char)b;
+                i++;
+                continue;
+            }
+            int size = sequenceSize(i, len);
+            if (size < 0) {
+                chars[n++] = '\uFFFD';
+                i -= size;
+            } else if (size == 2) {
+                chars[n++] = (char)(((b & 0x1f) << 6) | (byteAt(i + 1) & 0x3f));
+                i += 2;
+            } else if (size == 3) {
+                chars[n++] = (char)(((b & 0x0f) << 12) |
+                                    ((byteAt(i + 1) & 0x3f) << 6) |
+                                    (byteAt(i + 2) & 0x3f));
+                i += 3;
+            } else {
+                int cp = ((b & 0x07) << 18) |
+                         ((byteAt(i + 1) & 0x3f) << 12) |
+                         ((byteAt(i + 2) & 0x3f) << 6) |
+                         (byteAt(i + 3) & 0x3f);
+                chars[n++] = Character.highSurrogate(cp);
+                offsets[n] = i;
+                chars[n++] = Character.lowSurrogate(cp);
+                i += 4;
+            }
+        }
+        offsets[n] = len;
+        length = n;
+        decoded = true;
+    }
+
+    /**
+     * Returns the number of bytes of the well-formed sequence at index i,
+     * or, if it is malformed, minus the number of bytes that are replaced
+     * by one U+FFFD.  They are those of the maximal subpart of the
+     * sequence, except for an encoded surrogate, which is replaced as a
+     * whole, as the UTF-8 decoder of the platform does.
+     */
+    private int sequenceSize(int i, int len) {
+        int b = byteAt(i) & 0xff;
+        int remaining = len - i;
+        if (b >= 0xc2 && b <= 0xdf) {
+            if (remaining < 2 || !isContinuation(byteAt(i + 1)))
+                return -1;
+            return 2;
+        }
+        if (b >= 0xe0 && b <= 0xef) {
+            if (remaining < 2)
+                return -1;
+            int b1 = byteAt(i + 1) & 0xff;
+            if ((b == 0xe0 && b1 < 0xa0) || !isContinuation(b1))
+                return -1;            // overlong
+            if (remaining < 3 || !isContinuation(byteAt(i + 2)))
+                return -2;
+            if (b == 0xed && b1 >= 0xa0)
+                return -3;            // surrogate
+            return 3;
+        }
+        if (b >= 0xf0 && b <= 0xf4) {
+            if (remaining < 2)
+                return -1;
+            int b1 = byteAt(i + 1) & 0xff;
+            if ((b == 0xf0 && b1 < 0x90) || (b == 0xf4 && b1 > 0x8f)
+                    || !isContinuation(b1))
+                return -1;            // overlong or above U+10FFFF
+            if (remaining < 3 || !isContinuation(byteAt(i + 2)))
+                return -2;
+            if (remaining < 4 || !isContinuation(byteAt(i + 3)))
+                return -3;
+            return 4;
+        }
+        return -1;
+    }
+
+    private static boolean isContinuation(int b) {
+        return (b & 0xc0) == 0x80;
+    }
+
+    /**
+     * Returns the index, in the array or buffer of the input, of the byte
+     * at which the char at the given index starts, or of the end of the
+     * input if the index is the length.
+     */
+    int byteIndex(int index) {
+        return origin + (decoded ? offsets[index] : index);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        Objects.checkIndex(index, length);
+        if (decoded)
+            return chars[index];
+        return charOf(byteAt(index));
+    }
+
+    private char charOf(byte b) {
+        return (ascii && b < 0) ? '\uFFFD' : (char)(b & 0xff);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || start > end || end > length)
+            throw new IndexOutOfBoundsException(
+                "start " + start + ", end " + end + ", length " + length);
+        if (decoded)
+            return new String(chars, start, end - start);
+        char[] cs = new char[end - start];
+        for (int i = 0; i < cs.length; i++)
+            cs[i] = charOf(byteAt(start + i));
+        return new String(cs);
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length).toString();
+    }
+}
@@ -0,0 +1,1382 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * A linear-time matching engine for the patterns compiled with the
+ * {@link Pattern#LINEAR_TIME} flag.
+ *
+ * <p> The pattern is parsed again into a small syntax tree, which is
+ * compiled to a program of NFA instructions.  The boundaries of a match are
+ * found by running deterministic automata whose states are the ordered
+ * lists of the NFA threads that are alive at a position, built lazily as
+ * the input is scanned and kept in a cache of bounded size:
+ * <ul>
+ * <li> a forward automaton with leftmost-first (Perl) priorities gives the
+ *      end of the match, as the backtracking engine would find it;
+ * <li> a backward automaton of the reversed program, run from that end,
+ *      gives the leftmost start of the match;
+ * <li> a forward automaton that keeps all threads decides {@code matches}.
+ * </ul>
+ * The capturing groups, if any, are then found by simulating the NFA over
+ * the match only, with a copy of the group boundaries per thread (a Pike
+ * VM).  Every step costs at most time proportional to the size of the
+ * program, whatever the input.
+ *
+ * <p> Only the regular subset of the syntax is supported: literals, the
+ * predefined character classes, simple character classes, the dot,
+ * capturing and non-capturing groups, alternations, greedy and reluctant
+ * quantifiers of non-empty expressions, and the boundary matchers
+ * {@code ^ $ \A \Z \z} when {@code MULTILINE} is not set.  {@link #compile}
+ * returns {@code null} for any other pattern, which is then matched by the
+ * backtracking engine.
+ */
+final class LazyDFA {
+
+    // Instructions
+    private static final int CHARS    = 0;  // x: index of the char set
+    private static final int MATCH    = 1;
+    private static final int JMP      = 2;  // x: target
+    private static final int SPLIT    = 3;  // x: preferred target, y: other
+    private static final int SAVE     = 4;  // x: index in Matcher.groups
+    private static final int BEGIN    = 5;  // ^ and \A
+    private static final int DOLLAR   = 6;  // $ and \Z
+    private static final int UNIX_DOLLAR = 7; // $ and \Z in UNIX_LINES mode
+    private static final int END      = 8;  // \z
+
+    /** Largest number of instructions of a supported program. */
+    private static final int MAX_PROGRAM = 10000;
+
+    /** Approximate number of bytes of the states cached per automaton. */
+    private static final int CACHE_LIMIT = 1 << 18;
+
+    private final Prog forward;
+    private final int groupCount;
+
+    // the pattern starts with ^ or \A, so that the root is a Begin node
+    private final boolean beginRooted;
+
+    // start of each class of code points that all char sets treat alike
+    private final int[] classStarts;
+    // class of each Latin-1 code point
+    private final int[] latin1Classes;
+
+    private final Machine firstMatch;    // leftmost-first, for find and lookingAt
+    private final Machine allMatches;    // all threads, for matches
+    private final Machine reverse;       // all threads of the reversed program
+
+    // all threads started at every position, for a set of patterns
+    private final Machine setMatches;
+
+    private LazyDFA(Prog forward, Prog backward, int groupCount,
+                    boolean beginRooted) {
+        this.forward = forward;
+        this.groupCount = groupCount;
+        this.beginRooted = beginRooted;
+
+        int[] bounds = new int[forward.sets.size() * 2 + 1];
+        int n = 0;
+        bounds[n++] = 0;
+        for (int[] set : forward.sets) {
+            for (int i = 0; i < set.length; i += 2) {
+                if (n + 2 > bounds.length)
+                    bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                bounds[n++] = set[i];
+                if (set[i + 1] < Character.MAX_CODE_POINT)
+                    bounds[n++] = set[i + 1] + 1;
+            }
+        }
+        Arrays.sort(bounds, 0, n);
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (k == 0 || bounds[i] != bounds[k - 1])
+                bounds[k++] = bounds[i];
+        }
+        classStarts = Arrays.copyOf(bounds, k);
+        latin1Classes = new int[256];
+        for (int c = 0, cl = 0; c < 256; c++) {
+            while (cl + 1 < k && classStarts[cl + 1] <= c)
+                cl++;
+            latin1Classes[c] = cl;
+        }
+
+        if (backward != null) {
+            firstMatch = new Machine(forward, true, false);
+            allMatches = new Machine(forward, false, false);
+            reverse = new Machine(backward, false, false);
+            setMatches = null;
+        } else {
+            firstMatch = allMatches = reverse = null;
+            setMatches = new Machine(forward, false, true);
+        }
+    }
+
+    /**
+     * Returns the engine for the given pattern, or null if the pattern
+     * uses a construct that is not supported.
+     *
+     * @param pattern the pattern string
+     * @param flags the match flags
+     * @param groupCount the number of capturing groups of the pattern
+     */
+    static LazyDFA compile(String pattern, int flags, int groupCount) {
+        try {
+            ArrayList<int[]> sets = new ArrayList<>();
+            Expr expr = parse(pattern, flags, groupCount, sets);
+            if (expr == null)
+                return null;
+            Prog forward = new Prog();
+            forward.sets = sets;
+            forward.emit(expr, false);
+            forward.emit(MATCH, 0, 0);
+            Prog backward = new Prog();
+            backward.sets = forward.sets;
+            backward.emit(expr, true);
+            backward.emit(MATCH, 0, 0);
+            Expr first = (expr.kind == Expr.CAT) ? expr.subs[0] : expr;
+            boolean beginRooted = first.kind == Expr.ASSERT && first.assertion == BEGIN;
+            return new LazyDFA(forward, backward, groupCount, beginRooted);
+        } catch (Unsupported e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the syntax tree of the given pattern, adding its char sets to
+     * sets, or null if the flags are not supported.
+     *
+     * @throws Unsupported if the pattern uses a construct that is not
+     *         supported
+     */
+    private static Expr parse(String pattern, int flags, int groupCount,
+                              ArrayList<int[]> sets) {
+        if ((flags & (Pattern.MULTILINE | Pattern.UNICODE_CASE | Pattern.CANON_EQ |
+                      Pattern.COMMENTS | Pattern.UNICODE_CHARACTER_CLASS)) != 0)
+            return null;
+        Parser parser = new Parser(pattern, flags, sets);
+        Expr expr = parser.parse();
+        return (parser.groupCount == groupCount) ? expr : null;
+    }
+
+    /**
+     * Returns an automaton that finds which of the given patterns have a
+     * match in an input, or null if none of them is supported.  The
+     * indices of the supported patterns are set in supported.
+     */
+    static LazyDFA compileSet(Pattern[] patterns, BitSet supported) {
+        ArrayList<int[]> sets = new ArrayList<>();
+        sets.add(new int[0]);   // matches nothing
+        Prog prog = new Prog();
+        prog.sets = sets;
+        for (int i = 0; i < patterns.length; i++) {
+            Pattern p = patterns[i];
+            int size = prog.size;
+            int setCount = sets.size();
+            try {
+                Expr expr = parse(p.pattern(), p.flags(),
+                                  p.capturingGroupCount - 1, sets);
+                if (expr == null)
+                    continue;
+                // threads for pattern i, then for the next patterns
+                int split = prog.emit(SPLIT, size + 1, 0);
+                prog.emit(expr, false);
+                prog.emit(MATCH, i, 0);
+                if (prog.size >= MAX_PROGRAM)
+                    throw Unsupported.INSTANCE;     // no room left for the end
+                prog.y[split] = prog.size;
+                supported.set(i);
+            } catch (Unsupported e) {
+                prog.size = size;
+                while (sets.size() > setCount)
+                    sets.remove(sets.size() - 1);
+            }
+        }
+        if (supported.isEmpty())
+            return null;
+        prog.emit(CHARS, 0, 0);
+        return new LazyDFA(prog, null, 0, false);
+    }
+
+    /**
+     * Scans text with a set automaton, and sets in matched the index of
+     * every pattern of the set that has a match.  The scan stops when
+     * remaining more patterns have been found.
+     */
+    void findAll(CharSequence text, BitSet matched, int remaining) {
+        Machine mc = setMatches;
+        Prog prog = forward;
+        int endIndex = text.length();
+        State s = mc.start(true);
+        int p = 0;
+        while (true) {
+            State r = prog.isSpecial(p, 0, endIndex)
+                      ? mc.resolve(s, p, text, 0, endIndex) : s;
+            if (r.match) {
+                for (int pc : r.pcs) {
+                    if (prog.op[pc] == MATCH && !matched.get(prog.x[pc])) {
+                        matched.set(prog.x[pc]);
+                        if (--remaining == 0)
+                            return;
+                    }
+                }
+            }
+            if (p >= endIndex)
+                return;
+            int cp = codePointAt(text, p, endIndex);
+            s = mc.next(r, cp, classOf(cp));
+            p += Character.charCount(cp);
+        }
+    }
+
+    /**
+     * Searches for the next match from the given index, as
+     * {@code Pattern.root} does.
+     */
+    boolean search(Matcher m, int from) {
+        int end = scanForward(firstMatch, m, from, true);
+        if (end < 0)
+            return false;
+        int start = scanBackward(m, end, from);
+        return found(m, start, end);
+    }
+
+    /**
+     * Matches at the given index, as {@code Pattern.matchRoot} does.
+     *
+     * @param entire true if the match must end at the end of the region
+     */
+    boolean match(Matcher m, int from, boolean entire) {
+        int end = scanForward(entire ? allMatches : firstMatch, m, from, false);
+        if (end < 0 || (entire && end != m.to))
+            return false;
+        return found(m, from, end);
+    }
+
+    private boolean found(Matcher m, int start, int end) {
+        m.first = start;
+        m.last = end;
+        m.groups[0] = start;
+        m.groups[1] = end;
+        if (groupCount > 0)
+            captureGroups(m, start, end);
+        return true;
+    }
+
+    /**
+     * Runs the given forward automaton from {@code from}, and returns the
+     * end of the match, or -1.  A match of {@code allMatches} is only
+     * reported at the end of the region.
+     */
+    private int scanForward(Machine mc, Matcher m, int from, boolean unanchored) {
+        CharSequence text = m.text;
+        int to = m.to;
+        int beginIndex = m.anchoringBounds ? m.from : 0;
+        int endIndex = m.anchoringBounds ? m.to : m.getTextLength();
+        int end = -1;
+        boolean requireEnd = false;
+        boolean hitEnd = false;
+        State s = mc.start(unanchored);
+        int p = from;
+        while (true) {
+            State r = forward.isSpecial(p, beginIndex, endIndex)
+                      ? mc.resolve(s, p, text, beginIndex, endIndex) : s;
+            if (r.match && (mc.cut || p == to)) {
+                end = p;
+                requireEnd = r.endUsed;
+            }
+            if (p >= to) {
+                hitEnd = r.live;
+                break;
+            }
+            if (!r.live && !(r.restart && !r.match))
+                break;
+            int cp = codePointAt(text, p, to);
+            s = mc.next(r, cp, classOf(cp));
+            p += Character.charCount(cp);
+        }
+        // like Start, a failed search tried every position up to the end
+        m.hitEnd = hitEnd || requireEnd || (unanchored && end < 0 && !beginRooted);
+        m.requireEnd = requireEnd;
+        return end;
+    }
+
+    /**
+     * Runs the backward automaton from {@code end} down to {@code lower},
+     * and returns the smallest start of a match that ends at {@code end}.
+     */
+    private int scanBackward(Matcher m, int end, int lower) {
+        CharSequence text = m.text;
+        int beginIndex = m.anchoringBounds ? m.from : 0;
+        int endIndex = m.anchoringBounds ? m.to : m.getTextLength();
+        Prog backward = reverse.prog;
+        int start = end;
+        State s = reverse.start(false);
+        int p = end;
+        while (true) {
+            State r = backward.isSpecial(p, beginIndex, endIndex)
+                      ? reverse.resolve(s, p, text, beginIndex, endIndex) : s;
+            if (r.match)
+                start = p;
+            if (p <= lower || !r.live)
+                break;
+            int cp = codePointBefore(text, p, lower);
+            s = reverse.next(r, cp, classOf(cp));
+            p -= Character.charCount(cp);
+        }
+        return start;
+    }
+
+    /**
+     * Finds the groups of the match [start, end) with the highest
+     * priority, by simulating the NFA over it.
+     */
+    private void captureGroups(Matcher m, int start, int end) {
+        Prog prog = forward;
+        int slots = 2 * (groupCount + 1);
+        Captures c = m.dfaCaptures;
+        if (c == null || c.dfa != this)
+            m.dfaCaptures = c = new Captures(this, prog.size, slots);
+        Threads clist = c.clist;
+        Threads nlist = c.nlist;
+        int[] caps = c.caps;
+        int[] stack = c.stack;
+        clist.clear();
+        Arrays.fill(caps, -1);
+        addThread(clist, 0, caps, start, m, stack);
+        int p = start;
+        while (clist.n > 0) {
+            if (p == end) {
+                for (int i = 0; i < clist.n; i++) {
+                    if (prog.op[clist.pcs[i]] == MATCH) {
+                        System.arraycopy(clist.caps, i * slots + 2, m.groups, 2, slots - 2);
+                        return;
+                    }
+                }
+                return;
+            }
+            int cp = codePointAt(m.text, p, m.to);
+            int np = p + Character.charCount(cp);
+            nlist.clear();
+            for (int i = 0; i < clist.n; i++) {
+                int pc = clist.pcs[i];
+                if (prog.op[pc] == CHARS && contains(prog.sets.get(prog.x[pc]), cp)) {
+                    System.arraycopy(clist.caps, i * slots, caps, 0, slots);
+                    addThread(nlist, pc + 1, caps, np, m, stack);
+                }
+            }
+            Threads t = clist;
+            clist = nlist;
+            nlist = t;
+            p = np;
+        }
+    }
+
+    /*
+     * Adds the threads reachable from pc at position p, in priority order.
+     * caps is modified while following SAVE instructions and restored.
+     */
+    private void addThread(Threads list, int pc0, int[] caps, int p,
+                           Matcher m, int[] stack) {
+        Prog prog = forward;
+        int sp = 0;
+        stack[sp++] = pc0;
+        while (sp > 0) {
+            int pc = stack[--sp];
+            if (pc < 0) {
+                // restore a slot
+                caps[-pc - 1] = stack[--sp];
+                continue;
+            }
+            if (!list.mark(pc))
+                continue;
+            switch (prog.op[pc]) {
+            case JMP:
+                stack[sp++] = prog.x[pc];
+                break;
+            case SPLIT:
+                stack[sp++] = prog.y[pc];
+                stack[sp++] = prog.x[pc];
+                break;
+            case SAVE:
+                int slot = prog.x[pc];
+                stack[sp++] = caps[slot];
+                stack[sp++] = -slot - 1;
+                caps[slot] = p;
+                stack[sp++] = pc + 1;
+                break;
+            case CHARS:
+            case MATCH:
+                list.add(pc, caps);
+                break;
+            default:
+                if (holds(prog.op[pc], p, m.text,
+                          m.anchoringBounds ? m.from : 0,
+                          m.anchoringBounds ? m.to : m.getTextLength()))
+                    stack[sp++] = pc + 1;
+            }
+        }
+    }
+
+    /** Returns the class of the given code point. */
+    private int classOf(int cp) {
+        if (cp < 256)
+            return latin1Classes[cp];
+        int lo = 0, hi = classStarts.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (classStarts[mid] <= cp)
+                lo = mid;
+            else
+                hi = mid - 1;
+        }
+        return lo;
+    }
+
+    private static int codePointAt(CharSequence text, int p, int limit) {
+        char c1 = text.charAt(p);
+        if (Character.isHighSurrogate(c1) && p + 1 < limit) {
+            char c2 = text.charAt(p + 1);
+            if (Character.isLowSurrogate(c2))
+                return Character.toCodePoint(c1, c2);
+        }
+        return c1;
+    }
+
+    private static int codePointBefore(CharSequence text, int p, int limit) {
+        char c2 = text.charAt(p - 1);
+        if (Character.isLowSurrogate(c2) && p - 2 >= limit) {
+            char c1 = text.charAt(p - 2);
+            if (Character.isHighSurrogate(c1))
+                return Character.toCodePoint(c1, c2);
+        }
+        return c2;
+    }
+
+    /**
+     * Evaluates the assertion instruction op at position p, as the nodes
+     * Begin, Dollar, UnixDollar and End do.
+     */
+    private static boolean holds(int op, int p, CharSequence seq,
+                                 int beginIndex, int endIndex) {
+        switch (op) {
+        case BEGIN:
+            return p == beginIndex;
+        case END:
+            return p == endIndex;
+        case UNIX_DOLLAR:
+            return p == endIndex || (p == endIndex - 1 && seq.charAt(p) == '\n');
+        default: // DOLLAR
+            if (p == endIndex)
+                return true;
+            if (p == endIndex - 2)
+                return seq.charAt(p) == '\r' && seq.charAt(p + 1) == '\n';
+            if (p == endIndex - 1) {
+                char ch = seq.charAt(p);
+                if (ch == '\n')
+                    return p == 0 || seq.charAt(p - 1) != '\r';
+                return ch == '\r' || ch == '\u0085' || (ch|1) == '\u2029';
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A program of NFA instructions.  The first instruction is the start.
+     */
+    private static final class Prog {
+        int[] op = new int[16];
+        int[] x = new int[16];
+        int[] y = new int[16];
+        int size;
+        ArrayList<int[]> sets;
+        boolean hasBegin, hasEnd;
+
+        int emit(int o, int a, int b) {
+            if (size >= MAX_PROGRAM)
+                throw Unsupported.INSTANCE;
+            if (size == op.length) {
+                op = Arrays.copyOf(op, size * 2);
+                x = Arrays.copyOf(x, size * 2);
+                y = Arrays.copyOf(y, size * 2);
+            }
+            op[size] = o;
+            x[size] = a;
+            y[size] = b;
+            return size++;
+        }
+
+        /** Emits the instructions of e, reversed if backward. */
+        void emit(Expr e, boolean backward) {
+            switch (e.kind) {
+            case Expr.SET:
+                emit(CHARS, e.setIndex, 0);
+                break;
+            case Expr.CAT:
+                for (int i = 0; i < e.subs.length; i++)
+                    emit(e.subs[backward ? e.subs.length - 1 - i : i], backward);
+                break;
+            case Expr.ALT:
+                int[] jumps = new int[e.subs.length - 1];
+                for (int i = 0; i < jumps.length; i++) {
+                    int split = emit(SPLIT, size + 1, 0);
+                    emit(e.subs[i], backward);
+                    jumps[i] = emit(JMP, 0, 0);
+                    y[split] = size;
+                }
+                emit(e.subs[jumps.length], backward);
+                for (int j : jumps)
+                    x[j] = size;
+                break;
+            case Expr.GROUP:
+                if (!backward)
+                    emit(SAVE, 2 * e.group, 0);
+                emit(e.subs[0], backward);
+                if (!backward)
+                    emit(SAVE, 2 * e.group + 1, 0);
+                break;
+            case Expr.REPEAT:
+                for (int i = 0; i < e.min; i++)
+                    emit(e.subs[0], backward);
+                if (e.max < 0) {
+                    int split = emit(SPLIT, 0, 0);
+                    emit(e.subs[0], backward);
+                    emit(JMP, split, 0);
+                    branch(split, split + 1, size, e.greedy);
+                } else if (e.max > e.min) {
+                    int[] splits = new int[e.max - e.min];
+                    for (int i = 0; i < splits.length; i++) {
+                        splits[i] = emit(SPLIT, 0, 0);
+                        emit(e.subs[0], backward);
+                    }
+                    for (int split : splits)
+                        branch(split, split + 1, size, e.greedy);
+                }
+                break;
+            case Expr.ASSERT:
+                if (e.assertion == BEGIN)
+                    hasBegin = true;
+                else
+                    hasEnd = true;
+                emit(e.assertion, 0, 0);
+                break;
+            default: // EMPTY
+            }
+        }
+
+        private void branch(int split, int body, int out, boolean greedy) {
+            x[split] = greedy ? body : out;
+            y[split] = greedy ? out : body;
+        }
+
+        /**
+         * Returns true if an assertion may hold at position p, so that the
+         * threads waiting on it must be resolved there.
+         */
+        boolean isSpecial(int p, int beginIndex, int endIndex) {
+            return (hasBegin && p == beginIndex) || (hasEnd && p >= endIndex - 2);
+        }
+    }
+
+    /**
+     * A state of an automaton: the ordered list of the threads of the NFA
+     * that wait for a character, or for an assertion to be evaluated, or
+     * that have matched.
+     */
+    private static final class State {
+        final int[] pcs;
+        final boolean restart;   // a thread is started at every position
+        final boolean match;     // a thread has matched
+        final boolean live;      // a thread waits for a character
+        final boolean endUsed;   // the match depends on an end assertion
+        final int hash;
+        final State[] next;      // transitions by class, filled lazily
+
+        State(int[] pcs, boolean restart, boolean match, boolean live,
+              boolean endUsed, int classes) {
+            this.pcs = pcs;
+            this.restart = restart;
+            this.match = match;
+            this.live = live;
+            this.endUsed = endUsed;
+            this.hash = Arrays.hashCode(pcs) * 31 + (restart ? 1 : 0);
+            this.next = new State[classes];
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof State))
+                return false;
+            State s = (State)o;
+            return hash == s.hash && restart == s.restart && Arrays.equals(pcs, s.pcs);
+        }
+    }
+
+    /**
+     * A lazily built automaton over a program.  The states are created
+     * under the lock of the machine, on the first use of a transition, and
+     * are dropped all together when they use more than the cache limit.
+     * Transitions are read without locking: a state is immutable but for
+     * its transitions, and a missing transition is just created again.
+     */
+    private final class Machine {
+        final Prog prog;
+        final boolean cut;       // drop the threads of lower priority than a match
+        final boolean set;       // start threads at every position, even after a match
+
+        private final int[] mark;
+        private final int[] stack;
+        private final int[] out;
+        private int stamp, n;
+        private boolean matched, endUsed;
+
+        // the input of resolve
+        private CharSequence seq;
+        private int beginIndex, endIndex;
+
+        private HashMap<State, State> states = new HashMap<>();
+        private int cacheSize;
+        private volatile State anchoredStart, unanchoredStart;
+
+        Machine(Prog prog, boolean cut, boolean set) {
+            this.prog = prog;
+            this.cut = cut;
+            this.set = set;
+            this.mark = new int[prog.size];
+            this.stack = new int[2 * prog.size + 1];
+            this.out = new int[prog.size];
+        }
+
+        State start(boolean restart) {
+            State s = restart ? unanchoredStart : anchoredStart;
+            if (s == null) {
+                synchronized (this) {
+                    reset();
+                    add(0, -1);
+                    s = intern(restart);
+                    if (restart)
+                        unanchoredStart = s;
+                    else
+                        anchoredStart = s;
+                }
+            }
+            return s;
+        }
+
+        /** Returns the state after reading cp, of class cl, in state s. */
+        State next(State s, int cp, int cl) {
+            State t = (cl < s.next.length) ? s.next[cl] : null;
+            if (t == null) {
+                synchronized (this) {
+                    reset();
+                    boolean stopped = false;
+                    for (int pc : s.pcs) {
+                        if (prog.op[pc] == CHARS &&
+                            contains(prog.sets.get(prog.x[pc]), cp) &&
+                            add(pc + 1, -1)) {
+                            stopped = true;
+                            break;
+                        }
+                    }
+                    boolean restart = s.restart && (set || !s.match);
+                    if (restart && !stopped)
+                        add(0, -1);
+                    t = intern(restart);
+                }
+                if (cl < s.next.length)
+                    s.next[cl] = t;
+            }
+            return t;
+        }
+
+        /**
+         * Returns s with the assertions that it waits on evaluated at
+         * position p.  The returned state is not cached.
+         */
+        synchronized State resolve(State s, int p, CharSequence seq,
+                                   int beginIndex, int endIndex) {
+            reset();
+            this.seq = seq;
+            this.beginIndex = beginIndex;
+            this.endIndex = endIndex;
+            for (int pc : s.pcs) {
+                if (add(pc, p))
+                    break;
+            }
+            this.seq = null;
+            return new State(Arrays.copyOf(out, n), s.restart, matched,
+                             isLive(), matched && endUsed, 0);
+        }
+
+        private void reset() {
+            if (++stamp == 0) {
+                Arrays.fill(mark, 0);
+                stamp = 1;
+            }
+            n = 0;
+            matched = false;
+            endUsed = false;
+        }
+
+        private boolean isLive() {
+            for (int i = 0; i < n; i++) {
+                if (prog.op[out[i]] == CHARS)
+                    return true;
+            }
+            return false;
+        }
+
+        /**
+         * Adds the threads reachable from pc0 in priority order.  The
+         * assertions are evaluated at position p of seq, or added as
+         * threads if p is negative.  Returns true if a match cut the lower
+         * threads.
+         */
+        private boolean add(int pc0, int p) {
+            int sp = 0;
+            stack[sp++] = pc0;
+            while (sp > 0) {
+                int pc = stack[--sp];
+                if (mark[pc] == stamp)
+                    continue;
+                mark[pc] = stamp;
+                switch (prog.op[pc]) {
+                case JMP:
+                    stack[sp++] = prog.x[pc];
+                    break;
+                case SPLIT:
+                    stack[sp++] = prog.y[pc];
+                    stack[sp++] = prog.x[pc];
+                    break;
+                case SAVE:
+                    stack[sp++] = pc + 1;
+                    break;
+                case CHARS:
+                    out[n++] = pc;
+                    break;
+                case MATCH:
+                    out[n++] = pc;
+                    matched = true;
+                    if (cut)
+                        return true;
+                    break;
+                default:
+                    if (p < 0) {
+                        out[n++] = pc;
+                    } else if (holds(prog.op[pc], p, seq, beginIndex, endIndex)) {
+                        if (prog.op[pc] != BEGIN)
+                            endUsed = true;
+                        stack[sp++] = pc + 1;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private State intern(boolean restart) {
+            int[] pcs = Arrays.copyOf(out, n);
+            State s = new State(pcs, restart, matched, isLive(), false,
+                                classStarts.length);
+            State t = states.get(s);
+            if (t != null)
+                return t;
+            cacheSize += 64 + 4 * (pcs.length + classStarts.length);
+            if (cacheSize > CACHE_LIMIT) {
+                // flush, the states in use stay valid
+                states = new HashMap<>();
+                cacheSize = 0;
+                anchoredStart = null;
+                unanchoredStart = null;
+            }
+            states.put(s, s);
+            return s;
+        }
+    }
+
+    /**
+     * The buffers used to find the groups of a match, kept by a matcher
+     * for its next matches with the same automaton.
+     */
+    static final class Captures {
+        final LazyDFA dfa;
+        final Threads clist;
+        final Threads nlist;
+        final int[] caps;
+        final int[] stack;
+
+        Captures(LazyDFA dfa, int size, int slots) {
+            this.dfa = dfa;
+            this.clist = new Threads(size, slots);
+            this.nlist = new Threads(size, slots);
+            this.caps = new int[slots];
+            this.stack = new int[3 * size + 1];
+        }
+    }
+
+    /**
+     * The threads of the Pike VM, with the group boundaries of each.
+     */
+    private static final class Threads {
+        final int[] mark;
+        final int[] pcs;
+        final int[] caps;
+        final int slots;
+        int stamp = 1, n;
+
+        Threads(int size, int slots) {
+            this.mark = new int[size];
+            this.pcs = new int[size];
+            this.caps = new int[size * slots];
+            this.slots = slots;
+        }
+
+        void clear() {
+            if (++stamp == 0) {
+                Arrays.fill(mark, 0);
+                stamp = 1;
+            }
+            n = 0;
+        }
+
+        boolean mark(int pc) {
+            if (mark[pc] == stamp)
+                return false;
+            mark[pc] = stamp;
+            return true;
+        }
+
+        void add(int pc, int[] c) {
+            pcs[n] = pc;
+            System.arraycopy(c, 0, caps, n * slots, slots);
+            n++;
+        }
+    }
+
+    // Char sets: sorted arrays of disjoint inclusive ranges [lo, hi]
+
+    private static final int[] DIGIT = { '0', '9' };
+    private static final int[] WORD = { '0', '9', 'A', 'Z', '_', '_', 'a', 'z' };
+    private static final int[] SPACE = { '\t', '\r', ' ', ' ' };
+    private static final int[] ANY = { 0, Character.MAX_CODE_POINT };
+    private static final int[] DOT = negate(new int[] {
+        '\n', '\n', '\r', '\r', '\u0085', '\u0085', '\u2028', '\u2029' });
+    private static final int[] UNIX_DOT = negate(new int[] { '\n', '\n' });
+
+    static boolean contains(int[] set, int cp) {
+        int lo = 0, hi = set.length / 2 - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cp < set[2 * mid])
+                hi = mid - 1;
+            else if (cp > set[2 * mid + 1])
+                lo = mid + 1;
+            else
+                return true;
+        }
+        return false;
+    }
+
+    /** Sorts and merges the first n ints of ranges. */
+    private static int[] normalize(int[] ranges, int n) {
+        long[] packed = new long[n / 2];
+        for (int i = 0; i < packed.length; i++)
+            packed[i] = ((long)ranges[2 * i] << 32) | ranges[2 * i + 1];
+        Arrays.sort(packed);
+        int[] set = new int[n];
+        int k = 0;
+        for (long r : packed) {
+            int lo = (int)(r >>> 32), hi = (int)r;
+            if (k > 0 && lo <= set[k - 1] + 1) {
+                set[k - 1] = Math.max(set[k - 1], hi);
+            } else {
+                set[k++] = lo;
+                set[k++] = hi;
+            }
+        }
+        return Arrays.copyOf(set, k);
+    }
+
+    private static int[] negate(int[] set) {
+        int[] neg = new int[set.length + 2];
+        int k = 0, next = 0;
+        for (int i = 0; i < set.length; i += 2) {
+            if (set[i] > next) {
+                neg[k++] = next;
+                neg[k++] = set[i] - 1;
+            }
+            next = set[i + 1] + 1;
+        }
+        if (next <= Character.MAX_CODE_POINT) {
+            neg[k++] = next;
+            neg[k++] = Character.MAX_CODE_POINT;
+        }
+        return Arrays.copyOf(neg, k);
+    }
+
+    /** Adds the other case of the ASCII letters of the set. */
+    private static int[] foldAscii(int[] set) {
+        int[] r = Arrays.copyOf(set, set.length * 2 + 4);
+        int n = set.length;
+        for (int i = 0; i < set.length; i += 2) {
+            n = foldRange(r, n, set[i], set[i + 1], 'a', 'z', 'A' - 'a');
+            n = foldRange(r, n, set[i], set[i + 1], 'A', 'Z', 'a' - 'A');
+        }
+        return normalize(r, n);
+    }
+
+    private static int foldRange(int[] r, int n, int lo, int hi,
+                                 int first, int last, int delta) {
+        lo = Math.max(lo, first);
+        hi = Math.min(hi, last);
+        if (lo <= hi) {
+            r[n++] = lo + delta;
+            r[n++] = hi + delta;
+        }
+        return n;
+    }
+
+    /**
+     * A node of the syntax tree.
+     */
+    private static final class Expr {
+        static final int SET = 0, CAT = 1, ALT = 2, GROUP = 3, REPEAT = 4,
+                         ASSERT = 5, EMPTY = 6;
+
+        final int kind;
+        Expr[] subs;
+        int setIndex;
+        int group;
+        int min, max;            // max is -1 if unbounded
+        boolean greedy;
+        int assertion;
+
+        Expr(int kind) {
+            this.kind = kind;
+        }
+
+        boolean nullable() {
+            switch (kind) {
+            case SET:
+                return false;
+            case CAT:
+                for (Expr e : subs) {
+                    if (!e.nullable())
+                        return false;
+                }
+                return true;
+            case ALT:
+                for (Expr e : subs) {
+                    if (e.nullable())
+                        return true;
+                }
+                return false;
+            case GROUP:
+                return subs[0].nullable();
+            case REPEAT:
+                return min == 0 || subs[0].nullable();
+            default:
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Thrown when the pattern uses a construct that is not supported.
+     */
+    private static final class Unsupported extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        static final Unsupported INSTANCE = new Unsupported();
+
+        private Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Parses the supported subset of the syntax.  The pattern has already
+     * been compiled by {@code Pattern}, so it is known to be well-formed;
+     * anything unusual is reported as unsupported.
+     */
+    private static final class Parser {
+        private final int[] cps;
+        private final int flags;
+        private final ArrayList<int[]> sets;
+        private int cursor;
+        private int[] escapedSet;
+        int groupCount;
+
+        Parser(String pattern, int flags, ArrayList<int[]> sets) {
+            int[] a = new int[pattern.length()];
+            int n = 0;
+            for (int i = 0; i < pattern.length(); ) {
+                int c = pattern.codePointAt(i);
+                a[n++] = c;
+                i += Character.charCount(c);
+            }
+            this.cps = Arrays.copyOf(a, n);
+            this.flags = flags;
+            this.sets = sets;
+        }
+
+        Expr parse() {
+            Expr e;
+            if ((flags & Pattern.LITERAL) != 0) {
+                Expr[] subs = new Expr[cps.length];
+                for (int i = 0; i < cps.length; i++)
+                    subs[i] = literal(cps[i]);
+                e = cat(subs);
+                cursor = cps.length;
+            } else {
+                e = alternation();
+            }
+            if (cursor != cps.length)
+                throw Unsupported.INSTANCE;
+            return e;
+        }
+
+        private int peek(int offset) {
+            int i = cursor + offset;
+            return i < cps.length ? cps[i] : -1;
+        }
+
+        private int read() {
+            if (cursor >= cps.length)
+                throw Unsupported.INSTANCE;
+            return cps[cursor++];
+        }
+
+        private Expr alternation() {
+            ArrayList<Expr> alts = new ArrayList<>();
+            alts.add(sequence());
+            while (peek(0) == '|') {
+                cursor++;
+                alts.add(sequence());
+            }
+            if (alts.size() == 1)
+                return alts.get(0);
+            Expr e = new Expr(Expr.ALT);
+            e.subs = alts.toArray(new Expr[0]);
+            return e;
+        }
+
+        private Expr sequence() {
+            ArrayList<Expr> seq = new ArrayList<>();
+            for (int c = peek(0); c != -1 && c != '|' && c != ')'; c = peek(0))
+                seq.add(closure(atom()));
+            return cat(seq.toArray(new Expr[0]));
+        }
+
+        private static Expr cat(Expr[] subs) {
+            if (subs.length == 1)
+                return subs[0];
+            Expr e = new Expr(subs.length == 0 ? Expr.EMPTY : Expr.CAT);
+            e.subs = subs;
+            return e;
+        }
+
+        private Expr atom() {
+            int c = read();
+            switch (c) {
+            case '(':
+                int group = 0;
+                if (peek(0) == '?') {
+                    if (peek(1) != ':')
+                        throw Unsupported.INSTANCE;
+                    cursor += 2;
+                } else {
+                    group = ++groupCount;
+                }
+                Expr body = alternation();
+                if (read() != ')')
+                    throw Unsupported.INSTANCE;
+                if (group == 0)
+                    return body;
+                Expr e = new Expr(Expr.GROUP);
+                e.subs = new Expr[] { body };
+                e.group = group;
+                return e;
+            case '[':
+                return set(charClass());
+            case '.':
+                if ((flags & Pattern.DOTALL) != 0)
+                    return set(ANY);
+                return set((flags & Pattern.UNIX_LINES) != 0 ? UNIX_DOT : DOT);
+            case '^':
+                return assertion(BEGIN);
+            case '$':
+                return assertion(dollar());
+            case '\\':
+                switch (peek(0)) {
+                case 'A':
+                    cursor++;
+                    return assertion(BEGIN);
+                case 'Z':
+                    cursor++;
+                    return assertion(dollar());
+                case 'z':
+                    cursor++;
+                    return assertion(END);
+                default:
+                    int ch = escape();
+                    return ch < 0 ? set(escapedSet) : literal(ch);
+                }
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw Unsupported.INSTANCE;
+            default:
+                return literal(c);
+            }
+        }
+
+        private int dollar() {
+            return (flags & Pattern.UNIX_LINES) != 0 ? UNIX_DOLLAR : DOLLAR;
+        }
+
+        private Expr closure(Expr atom) {
+            int min, max;
+            switch (peek(0)) {
+            case '*':
+                cursor++;
+                min = 0;
+                max = -1;
+                break;
+            case '+':
+                cursor++;
+                min = 1;
+                max = -1;
+                break;
+            case '?':
+                cursor++;
+                min = 0;
+                max = 1;
+                break;
+            case '{':
+                cursor++;
+                min = number();
+                max = min;
+                if (peek(0) == ',') {
+                    cursor++;
+                    max = (peek(0) == '}') ? -1 : number();
+                }
+                if (read() != '}' || (max >= 0 && max < min))
+                    throw Unsupported.INSTANCE;
+                break;
+            default:
+                return atom;
+            }
+            boolean greedy = true;
+            if (peek(0) == '?') {
+                cursor++;
+                greedy = false;
+            }
+            int c = peek(0);
+            if (c == '+' || c == '*' || c == '?' || c == '{' || atom.nullable())
+                throw Unsupported.INSTANCE;
+            Expr e = new Expr(Expr.REPEAT);
+            e.subs = new Expr[] { atom };
+            e.min = min;
+            e.max = max;
+            e.greedy = greedy;
+            return e;
+        }
+
+        private int number() {
+            int n = 0, digits = 0;
+            for (int c = peek(0); c >= '0' && c <= '9'; c = peek(0)) {
+                n = n * 10 + (c - '0');
+                if (n > MAX_PROGRAM)
+                    throw Unsupported.INSTANCE;
+                cursor++;
+                digits++;
+            }
+            if (digits == 0)
+                throw Unsupported.INSTANCE;
+            return n;
+        }
+
+        private Expr assertion(int op) {
+            if ((flags & Pattern.MULTILINE) != 0)
+                throw Unsupported.INSTANCE;
+            Expr e = new Expr(Expr.ASSERT);
+            e.assertion = op;
+            return e;
+        }
+
+        private Expr literal(int c) {
+            // single surrogates of a slice are matched as chars
+            if (Character.isSurrogate((char)c) && c <= 0xFFFF)
+                throw Unsupported.INSTANCE;
+            int[] set = { c, c };
+            if ((flags & Pattern.CASE_INSENSITIVE) != 0)
+                set = foldAscii(set);
+            return set(set);
+        }
+
+        private Expr set(int[] set) {
+            Expr e = new Expr(Expr.SET);
+            e.setIndex = sets.size();
+            sets.add(set);
+            return e;
+        }
+
+        /**
+         * Parses a character class after its '['.
+         */
+        private int[] charClass() {
+            boolean negate = false;
+            if (peek(0) == '^') {
+                cursor++;
+                negate = true;
+            }
+            if (peek(0) == ']')
+                throw Unsupported.INSTANCE;
+            int[] ranges = new int[16];
+            int n = 0;
+            boolean first = true;
+            for (int c = read(); c != ']'; c = read(), first = false) {
+                if (n + 8 > ranges.length)
+                    ranges = Arrays.copyOf(ranges, ranges.length * 2);
+                int lo = c;
+                if (c == '[' || (c == '&' && peek(0) == '&') ||
+                    (c == '-' && !first && peek(0) != ']'))
+                    throw Unsupported.INSTANCE;
+                if (c == '\\') {
+                    lo = escape();
+                    if (lo < 0) {
+                        if (n + escapedSet.length > ranges.length)
+                            ranges = Arrays.copyOf(ranges, n + escapedSet.length + 16);
+                        System.arraycopy(escapedSet, 0, ranges, n, escapedSet.length);
+                        n += escapedSet.length;
+                        if (peek(0) == '-' && peek(1) != ']')
+                            throw Unsupported.INSTANCE;
+                        continue;
+                    }
+                }
+                int hi = lo;
+                if (peek(0) == '-' && peek(1) != ']' && peek(1) != -1) {
+                    cursor++;
+                    hi = read();
+                    if (hi == '[')
+                        throw Unsupported.INSTANCE;
+                    if (hi == '\\')
+                        hi = escape();
+                    if (hi < lo)
+                        throw Unsupported.INSTANCE;
+                }
+                ranges[n++] = lo;
+                ranges[n++] = hi;
+            }
+            int[] set = normalize(ranges, n);
+            if ((flags & Pattern.CASE_INSENSITIVE) != 0)
+                set = foldAscii(set);
+            return negate ? negate(set) : set;
+        }
+
+        /**
+         * Parses an escape after its '\'.  Returns the code point, or -1 if
+         * it is a predefined character class, which is then escapedSet.
+         */
+        private int escape() {
+            int c = read();
+            switch (c) {
+            case 'd': escapedSet = DIGIT; return -1;
+            case 'D': escapedSet = negate(DIGIT); return -1;
+            case 's': escapedSet = SPACE; return -1;
+            case 'S': escapedSet = negate(SPACE); return -1;
+            case 'w': escapedSet = WORD; return -1;
+            case 'W': escapedSet = negate(WORD); return -1;
+            case 't': return '\t';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 'f': return '\f';
+            case 'a': return '\u0007';
+            case 'e': return '\u001B';
+            case 'c': return read() ^ 64;
+            case '0': return octal();
+            case 'x': return hex();
+            case 'u':
+                int u = 0;
+                for (int i = 0; i < 4; i++)
+                    u = (u << 4) + hexDigit(read());
+                if (Character.isSurrogate((char)u))
+                    throw Unsupported.INSTANCE;
+                return u;
+            default:
+                if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') ||
+                    (c >= '0' && c <= '9'))
+                    throw Unsupported.INSTANCE;
+                return c;
+            }
+        }
+
+        private int octal() {
+            int n = read() - '0';
+            if (n < 0 || n > 7)
+                throw Unsupported.INSTANCE;
+            int m = peek(0) - '0';
+            if (m < 0 || m > 7)
+                return n;
+            cursor++;
+            int o = peek(0) - '0';
+            if (o < 0 || o > 7 || n > 3)
+                return n * 8 + m;
+            cursor++;
+            return n * 64 + m * 8 + o;
+        }
+
+        private int hex() {
+            int c = read();
+            if (c == '{') {
+                int ch = 0;
+                for (c = read(); c != '}'; c = read()) {
+                    ch = (ch << 4) + hexDigit(c);
+                    if (ch > Character.MAX_CODE_POINT)
+                        throw Unsupported.INSTANCE;
+                }
+                return ch;
+            }
+            return hexDigit(c) * 16 + hexDigit(read());
+        }
+
+        private static int hexDigit(int c) {
+            int d = Character.digit(c, 16);
+            if (d < 0 || c > 'f')
+                throw Unsupported.INSTANCE;
+            return d;
+        }
+    }
+}
@@ -25,6 +25,10 @@
 
 package java.util.regex;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -185,6 +189,17 @@ public final class Matcher implements MatchResult {
      */
     IntHashSet[] localsPos;
 
+    /**
+     * The input of the last reset with bytes, kept for the next ones.
+     */
+    ByteInput byteInput;
+
+    /**
+     * The buffers used by the linear-time matching to find the groups of
+     * a match, kept for the next ones.
+     */
+    LazyDFA.Captures dfaCaptures;
+
     /**
      * Boolean indicating whether or not more input could change
      * the results of the last match.
@@ -364,6 +379,10 @@ public final class Matcher implements MatchResult {
       * matcher's position in the input is maintained and its
       * last append position is unaffected.</p>
       *
+      * <p> The state storage of this matcher is reused if it is large
+      * enough for the new pattern, so that a single matcher can be used
+      * with several patterns and inputs without allocating.</p>
+      *
       * @param  newPattern
       *         The new pattern used by this matcher
       * @return  This matcher
@@ -376,15 +395,23 @@ public final class Matcher implements MatchResult {
             throw new IllegalArgumentException("Pattern cannot be null");
         parentPattern = newPattern;
 
-        // Reallocate state storage
+        // Reallocate state storage if it is too small
         int parentGroupCount = Math.max(newPattern.capturingGroupCount, 10);
-        groups = new int[parentGroupCount * 2];
-        locals = new int[newPattern.localCount];
+        if (groups.length < parentGroupCount * 2)
+            groups = new int[parentGroupCount * 2];
+        if (locals.length < newPattern.localCount)
+            locals = new int[newPattern.localCount];
         for (int i = 0; i < groups.length; i++)
             groups[i] = -1;
         for (int i = 0; i < locals.length; i++)
             locals[i] = -1;
-        localsPos = new IntHashSet[parentPattern.localTCNCount];
+        if (localsPos.length < newPattern.localTCNCount) {
+            localsPos = Arrays.copyOf(localsPos, newPattern.localTCNCount);
+        }
+        for (int i = 0; i < localsPos.length; i++) {
+            if (localsPos[i] != null)
+                localsPos[i].clear();
+        }
         modCount++;
         return this;
     }
@@ -434,9 +461,183 @@ public final class Matcher implements MatchResult {
      */
     public Matcher reset(CharSequence input) {
         text = input;
+        if (byteInput != null)
+            byteInput.clear();
+        return reset();
+    }
+
+    /**
+     * Resets this matcher with a new input sequence, the characters of a
+     * range of a byte array in the given charset.
+     *
+     * <p> The bytes are not decoded into a string: Latin-1 and US-ASCII
+     * bytes, and UTF-8 bytes of ASCII characters, are matched in place,
+     * and other UTF-8 bytes are decoded into storage that this matcher
+     * reuses for its next inputs.  US-ASCII bytes that are not ASCII, and
+     * each maximal subpart of a malformed UTF-8 sequence, are read as the
+     * replacement character {@code '\uFFFD'}, as by the decoders of the
+     * charsets.  The indices reported
+     * by this matcher are indices of characters in the range; the {@link
+     * #byteStart(int) byteStart} and {@link #byteEnd(int) byteEnd} methods
+     * report the corresponding indices in the array.
+     *
+     * <p> The array is not copied, and must not be modified while it is
+     * the input of this matcher.  Resetting a matcher discards all of its
+     * explicit state information and sets its append position to zero, as
+     * by {@link #reset(CharSequence)}.
+     *
+     * @param  input
+     *         The array of bytes
+     *
+     * @param  offset
+     *         The index of the first byte of the input
+     *
+     * @param  length
+     *         The number of bytes of the input
+     *
+     * @param  charset
+     *         The charset of the bytes, {@code ISO-8859-1}, {@code US-ASCII}
+     *         or {@code UTF-8}
+     *
+     * @return  This matcher
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If {@code offset} or {@code length} are negative, or
+     *          {@code offset + length} is greater than {@code input.length}
+     *
+     * @throws  IllegalArgumentException
+     *          If the charset is not supported
+     *
+     * @since 9
+     */
+    public Matcher reset(byte[] input, int offset, int length, Charset charset) {
+        Objects.checkFromIndexSize(offset, length, input.length);
+        int cs = byteCharset(charset);
+        if (byteInput == null)
+            byteInput = new ByteInput();
+        byteInput.set(input, offset, length, cs);
+        text = byteInput;
+        return reset();
+    }
+
+    /**
+     * Resets this matcher with a new input sequence, the characters of the
+     * remaining bytes of a buffer in the given charset.
+     *
+     * <p> The bytes are read as by {@link #reset(byte[], int, int, Charset)},
+     * from the position to the limit of the buffer, which are not changed.
+     * The {@link #byteStart(int) byteStart} and {@link #byteEnd(int) byteEnd}
+     * methods report indices in the buffer.
+     *
+     * @param  input
+     *         The buffer of bytes
+     *
+     * @param  charset
+     *         The charset of the bytes, {@code ISO-8859-1}, {@code US-ASCII}
+     *         or {@code UTF-8}
+     *
+     * @return  This matcher
+     *
+     * @throws  IllegalArgumentException
+     *          If the charset is not supported
+     *
+     * @since 9
+     */
+    public Matcher reset(ByteBuffer input, Charset charset) {
+        Objects.requireNonNull(input);
+        int cs = byteCharset(charset);
+        if (byteInput == null)
+            byteInput = new ByteInput();
+        byteInput.set(input, cs);
+        text = byteInput;
         return reset();
     }
 
+    private static int byteCharset(Charset charset) {
+        if (charset == StandardCharsets.UTF_8)
+            return ByteInput.UTF8;
+        if (charset == StandardCharsets.ISO_8859_1)
+            return ByteInput.LATIN1;
+        if (charset == StandardCharsets.US_ASCII)
+            return ByteInput.ASCII;
+        String name = charset.name();
+        if (name.equals("UTF-8"))
+            return ByteInput.UTF8;
+        if (name.equals("ISO-8859-1"))
+            return ByteInput.LATIN1;
+        if (name.equals("US-ASCII"))
+            return ByteInput.ASCII;
+        throw new IllegalArgumentException("Unsupported charset: " + name);
+    }
+
+    /**
+     * Returns the index of the first byte of the subsequence captured by the
+     * given group during the previous match operation, in the byte array or
+     * buffer of the input.
+     *
+     * <p> If the input of this matcher was not set by {@link
+     * #reset(byte[], int, int, Charset)} or {@link #reset(ByteBuffer, Charset)},
+     * this method returns the same index as {@link #start(int) start}.
+     * Neither method creates a string, so that groups can be extracted
+     * as ranges of the input.  </p>
+     *
+     * @param  group
+     *         The index of a capturing group in this matcher's pattern
+     *
+     * @return  The index of the first byte captured by the group,
+     *          or {@code -1} if the match was successful but the group
+     *          itself did not match anything
+     *
+     * @throws  IllegalStateException
+     *          If no match has yet been attempted,
+     *          or if the previous match operation failed
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If there is no capturing group in the pattern
+     *          with the given index
+     *
+     * @since 9
+     */
+    public int byteStart(int group) {
+        return byteIndex(start(group));
+    }
+
+    /**
+     * Returns the index after the last byte of the subsequence captured by
+     * the given group during the previous match operation, in the byte array
+     * or buffer of the input.
+     *
+     * <p> If the input of this matcher was not set by {@link
+     * #reset(byte[], int, int, Charset)} or {@link #reset(ByteBuffer, Charset)},
+     * this method returns the same index as {@link #end(int) end}.  </p>
+     *
+     * @param  group
+     *         The index of a capturing group in this matcher's pattern
+     *
+     * @return  The index after the last byte captured by the group,
+     *          or {@code -1} if the match was successful but the group
+     *          itself did not match anything
+     *
+     * @throws  IllegalStateException
+     *          If no match has yet been attempted,
+     *          or if the previous match operation failed
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If there is no capturing group in the pattern
+     *          with the given index
+     *
+     * @since 9
+     */
+    public int byteEnd(int group) {
+        return byteIndex(end(group));
+    }
+
+    private int byteIndex(int index) {
+        if (index < 0 || text != byteInput)
+            return index;
+        return byteInput.byteIndex(index);
+    }
+
     /**
      * Returns the start index of the previous match.
      *
@@ -1725,7 +1926,9 @@ public final class Matcher implements MatchResult {
                 localsPos[i].clear();
         }
         acceptMode = NOANCHOR;
-        boolean result = parentPattern.root.match(this, from, text);
+        LazyDFA dfa = parentPattern.dfa;
+        boolean result = (dfa != null) ? dfa.search(this, from)
+                                       : parentPattern.root.match(this, from, text);
         if (!result)
             this.first = -1;
         this.oldLast = this.last;
@@ -1752,7 +1955,9 @@ public final class Matcher implements MatchResult {
                 localsPos[i].clear();
         }
         acceptMode = anchor;
-        boolean result = parentPattern.matchRoot.match(this, from, text);
+        LazyDFA dfa = parentPattern.dfa;
+        boolean result = (dfa != null) ? dfa.match(this, from, anchor == ENDANCHOR)
+                                       : parentPattern.matchRoot.match(this, from, text);
         if (!result)
             this.first = -1;
         this.oldLast = this.last;
@@ -941,12 +941,66 @@ public final class Pattern
      */
     public static final int UNICODE_CHARACTER_CLASS = 0x100;
 
+    /**
+     * Enables linear-time matching.
+     *
+     * <p> When this flag is specified, and the pattern only uses the regular
+     * subset of the syntax, then {@link Matcher#matches matches}, {@link
+     * Matcher#lookingAt lookingAt} and {@link Matcher#find find} take time
+     * proportional to the length of the input, however the pattern is
+     * written.  Matches are found with a deterministic automaton that is
+     * built lazily, and kept in a cache of bounded size, instead of by
+     * backtracking.  The same matches are found, with the same groups
+     * except as given below.
+     *
+     * <p> The regular subset is made of literal characters, the predefined
+     * character classes, character classes without unions or
+     * intersections, the dot, capturing and non-capturing groups,
+     * alternations, and greedy or reluctant quantifiers of expressions that
+     * cannot match the empty string.  The boundary matchers {@code ^},
+     * {@code $}, {@code \A}, {@code \Z} and {@code \z} are supported
+     * when the {@link #MULTILINE} flag is not specified.  The flags
+     * {@link #UNICODE_CASE}, {@link #CANON_EQ}, {@link #COMMENTS} and
+     * {@link #UNICODE_CHARACTER_CLASS} are not supported.  Patterns that
+     * use any other construct, such as back references, lookaround,
+     * possessive quantifiers or embedded flags, are matched as if this flag
+     * was not specified.
+     *
+     * <p> The groups are found by following the match with the highest
+     * priority through the whole pattern, and each group captures the last
+     * subsequence it matched on that path.  The backtracking matcher does
+     * not always do so for a group inside a repetition that is itself
+     * inside a repetition, so the captured subsequence of such a group may
+     * differ.  For example, when {@code ((a)*b)+} matches {@code "abaab"},
+     * group 2 is the {@code "a"} at index 3 with this flag, and the one at
+     * index 0, from the first iteration of the outer repetition, without
+     * it.
+     *
+     * <p> {@link Matcher#hitEnd hitEnd} and {@link Matcher#requireEnd
+     * requireEnd} are computed from the automaton, rather than from the
+     * paths that the backtracking matcher tried.  {@code hitEnd} is true
+     * if the automaton could still match when it reached the end of the
+     * input, or if a failed {@link Matcher#find find} tried every position
+     * up to the end of the input.  {@code requireEnd} is only true if the
+     * match found depends on {@code $}, {@code \Z} or {@code \z} holding
+     * at the end of the input, while the backtracking matcher also sets it
+     * when a path that it tried, and that failed later, tested one of them
+     * there.  For example, when {@code (?:a|b$)*a} finds {@code "aa"} in
+     * {@code "aab"}, {@code requireEnd} is false with this flag and true
+     * without it.
+     *
+     * <p> There is no embedded flag character for enabling linear-time
+     * matching.
+     * @since 9
+     */
+    public static final int LINEAR_TIME = 0x200;
+
     /**
      * Contains all possible flags for compile(regex, flags).
      */
     private static final int ALL_FLAGS = CASE_INSENSITIVE | MULTILINE |
             DOTALL | UNICODE_CASE | CANON_EQ | UNIX_LINES | LITERAL |
-            UNICODE_CHARACTER_CLASS | COMMENTS;
+            UNICODE_CHARACTER_CLASS | COMMENTS | LINEAR_TIME;
 
     /* Pattern has only two serialized components: The pattern string
      * and the flags, which are all that is needed to recompile the pattern
@@ -994,6 +1048,12 @@ public final class Pattern
      */
     transient Node matchRoot;
 
+    /**
+     * The linear-time engine, if the pattern was compiled with the
+     * LINEAR_TIME flag and is supported by it.
+     */
+    transient LazyDFA dfa;
+
     /**
      * Temporary storage used by parsing pattern slice.
      */
@@ -1093,8 +1153,8 @@ public final class Pattern
      *         Match flags, a bit mask that may include
      *         {@link #CASE_INSENSITIVE}, {@link #MULTILINE}, {@link #DOTALL},
      *         {@link #UNICODE_CASE}, {@link #CANON_EQ}, {@link #UNIX_LINES},
-     *         {@link #LITERAL}, {@link #UNICODE_CHARACTER_CLASS}
-     *         and {@link #COMMENTS}
+     *         {@link #LITERAL}, {@link #UNICODE_CHARACTER_CLASS},
+     *         {@link #COMMENTS} and {@link #LINEAR_TIME}
      *
      * @return the given regular expression compiled into a pattern with the given flags
      * @throws  IllegalArgumentException
@@ -1806,6 +1866,10 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
             }
         }
 
+        if (has(LINEAR_TIME)) {
+            dfa = LazyDFA.compile(pattern, flags, capturingGroupCount - 1);
+        }
+
         // Release temporary storage
         temp = null;
         buffer = null;
@@ -1815,6 +1879,41 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
         topClosureNodes = null;
     }
 
+    /**
+     * Returns the longest sequence of literal characters that every match of
+     * this pattern contains, or null if there is none.  Only the slices of
+     * the top-level sequence of nodes, that is matched whatever alternative
+     * is taken, are considered.
+     */
+    String requiredLiteral() {
+        if (!compiled) {
+            synchronized(this) {
+                if (!compiled)
+                    compile();
+            }
+        }
+        if (has(CANON_EQ))
+            return null;
+        int[] longest = null;
+        for (Node node = matchRoot; node != null; node = node.next) {
+            if (node instanceof Slice) {
+                int[] buf = ((Slice)node).buffer;
+                if (longest == null || buf.length > longest.length)
+                    longest = buf;
+            } else if (!(node instanceof CharProperty ||
+                         node instanceof CharPropertyGreedy ||
+                         node instanceof Curly || node instanceof GroupCurly ||
+                         node instanceof Ques || node instanceof GroupHead ||
+                         node instanceof GroupTail || node instanceof Begin ||
+                         node instanceof Caret || node instanceof UnixCaret ||
+                         node instanceof Dollar || node instanceof UnixDollar ||
+                         node instanceof End || node instanceof Bound)) {
+                break;
+            }
+        }
+        return (longest == null) ? null : new String(longest, 0, longest.length);
+    }
+
     Map<String, Integer> namedGroups() {
         Map<String, Integer> groups = namedGroups;
         if (groups == null) {
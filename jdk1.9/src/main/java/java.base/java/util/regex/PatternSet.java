@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A compiled set of regular expressions, that finds which of them have a
+ * match in an input with a single scan of the input.
+ *
+ * <p> A pattern set is created by compiling a list of regular expressions
+ * with the same match flags:
+ *
+ * <blockquote><pre>
+ * PatternSet events = PatternSet.compile("^ERROR", "timeout after \\d+ms",
+ *                                        "user=(admin|root)");
+ * int[] kinds = events.find(line);</pre></blockquote>
+ *
+ * <p> The result of {@link #find(CharSequence) find} is the same as that of
+ * calling {@link Matcher#find() find} on a fresh matcher of every pattern of
+ * the set, but the input is not scanned once per pattern:
+ *
+ * <ul>
+ * <li> the patterns that only use the regular subset of the syntax
+ *      supported by the {@link Pattern#LINEAR_TIME} flag are compiled into
+ *      a single automaton, which is run once over the input;
+ * <li> the other patterns are matched one by one, but only when the input
+ *      contains the literal characters that any of their matches must
+ *      contain.  These literals are searched for, all together, with an
+ *      Aho-Corasick automaton.
+ * </ul>
+ *
+ * <p> Instances of this class are immutable and are safe for use by
+ * multiple concurrent threads.
+ *
+ * @see Pattern
+ * @since 9
+ */
+public final class PatternSet {
+
+    private final Pattern[] patterns;
+
+    // the automaton of the supported patterns, or null
+    private final LazyDFA dfa;
+
+    // the patterns of the automaton
+    private final BitSet inDfa;
+
+    // the index in the prefilter of the literal of each pattern, or -1
+    private final int[] literalIndex;
+
+    // the literals of the patterns, or null if none
+    private final Prefilter prefilter;
+
+    private PatternSet(Pattern[] patterns) {
+        this.patterns = patterns;
+        this.inDfa = new BitSet(patterns.length);
+        this.dfa = LazyDFA.compileSet(patterns, inDfa);
+
+        HashMap<String, Integer> literals = new HashMap<>();
+        literalIndex = new int[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            String literal = patterns[i].requiredLiteral();
+            if (literal == null || literal.isEmpty()) {
+                literalIndex[i] = -1;
+            } else {
+                Integer index = literals.putIfAbsent(literal, literals.size());
+                literalIndex[i] = (index == null) ? literals.size() - 1 : index;
+            }
+        }
+        if (literals.isEmpty()) {
+            prefilter = null;
+        } else {
+            String[] strings = new String[literals.size()];
+            for (Map.Entry<String, Integer> e : literals.entrySet())
+                strings[e.getValue()] = e.getKey();
+            prefilter = new Prefilter(strings);
+        }
+    }
+
+    /**
+     * Compiles the given regular expressions into a pattern set.
+     *
+     * @param  regexes
+     *         The expressions to be compiled
+     *
+     * @return the given regular expressions compiled into a pattern set
+     *
+     * @throws  PatternSyntaxException
+     *          If the syntax of an expression is invalid
+     */
+    public static PatternSet compile(String... regexes) {
+        return compile(Arrays.asList(regexes), 0);
+    }
+
+    /**
+     * Compiles the given regular expressions into a pattern set with the
+     * given flags.
+     *
+     * @param  regexes
+     *         The expressions to be compiled
+     *
+     * @param  flags
+     *         Match flags, a bit mask that may include the flags accepted
+     *         by {@link Pattern#compile(String, int)}
+     *
+     * @return the given regular expressions compiled into a pattern set
+     *         with the given flags
+     *
+     * @throws  IllegalArgumentException
+     *          If bit values other than those corresponding to the defined
+     *          match flags are set in {@code flags}
+     *
+     * @throws  PatternSyntaxException
+     *          If the syntax of an expression is invalid
+     */
+    public static PatternSet compile(List<String> regexes, int flags) {
+        Pattern[] patterns = new Pattern[regexes.size()];
+        for (int i = 0; i < patterns.length; i++)
+            patterns[i] = Pattern.compile(Objects.requireNonNull(regexes.get(i)), flags);
+        return new PatternSet(patterns);
+    }
+
+    /**
+     * Returns the number of patterns of this set.
+     *
+     * @return the number of patterns
+     */
+    public int size() {
+        return patterns.length;
+    }
+
+    /**
+     * Returns the pattern of the given index.
+     *
+     * @param  index
+     *         The index of the pattern, in the order of compilation
+     *
+     * @return the pattern
+     *
+     * @throws  IndexOutOfBoundsException
+     *          If there is no pattern with the given index
+     */
+    public Pattern pattern(int index) {
+        return patterns[index];
+    }
+
+    /**
+     * Returns the indices of the patterns of this set that have a match in
+     * the given input.
+     *
+     * @param  input
+     *         The character sequence to be matched
+     *
+     * @return the indices, in increasing order, of the patterns for which
+     *         {@code pattern(index).matcher(input).find()} would return
+     *         {@code true}
+     */
+    public int[] find(CharSequence input) {
+        BitSet matched = new BitSet(patterns.length);
+        find(input, matched);
+        return matched.stream().toArray();
+    }
+
+    /**
+     * Finds the patterns of this set that have a match in the given input,
+     * and sets their indices in the given bit set.  The other bits are not
+     * modified.
+     *
+     * @param  input
+     *         The character sequence to be matched
+     *
+     * @param  matched
+     *         The bit set to which the indices of the patterns with a match
+     *         are added
+     *
+     * @return {@code true} if, and only if, a pattern has a match
+     */
+    public boolean find(CharSequence input, BitSet matched) {
+        Objects.requireNonNull(input);
+        BitSet result = new BitSet(patterns.length);
+        boolean[] literalFound = (prefilter != null) ? prefilter.scan(input) : null;
+
+        // patterns of the automaton that may match
+        int candidates = 0;
+        for (int i = inDfa.nextSetBit(0); i >= 0; i = inDfa.nextSetBit(i + 1)) {
+            if (literalIndex[i] < 0 || literalFound[literalIndex[i]])
+                candidates++;
+        }
+        if (candidates > 0)
+            dfa.findAll(input, result, candidates);
+
+        for (int i = 0; i < patterns.length; i++) {
+            if (!inDfa.get(i) &&
+                (literalIndex[i] < 0 || literalFound[literalIndex[i]]) &&
+                patterns[i].matcher(input).find()) {
+                result.set(i);
+            }
+        }
+        matched.or(result);
+        return !result.isEmpty();
+    }
+
+    /**
+     * Returns the string representation of this pattern set, the list of
+     * its regular expressions.
+     *
+     * @return  The string representation of this pattern set
+     */
+    @Override
+    public String toString() {
+        ArrayList<String> list = new ArrayList<>(patterns.length);
+        for (Pattern p : patterns)
+            list.add(p.pattern());
+        return list.toString();
+    }
+
+    /**
+     * An Aho-Corasick automaton that finds which of a list of strings occur
+     * in an input.
+     */
+    private static final class Prefilter {
+        private final int count;
+
+        // the trie: the sorted edges of each node, and their targets
+        private char[][] labels = new char[8][];
+        private int[][] targets = new int[8][];
+        private int size = 1;
+
+        private int[] fail;        // longest proper suffix that is a node
+        private int[] output;      // index of the string ending at a node, or -1
+        private int[] dictLink;    // next suffix node with an output, or 0
+
+        Prefilter(String[] strings) {
+            count = strings.length;
+            labels[0] = new char[0];
+            targets[0] = new int[0];
+            int[] ends = new int[count];
+            for (int i = 0; i < count; i++) {
+                int node = 0;
+                String s = strings[i];
+                for (int j = 0; j < s.length(); j++)
+                    node = child(node, s.charAt(j), true);
+                ends[i] = node;
+            }
+            output = new int[size];
+            Arrays.fill(output, -1);
+            for (int i = 0; i < count; i++)
+                output[ends[i]] = i;
+            computeLinks();
+        }
+
+        /** Returns the child of node for c, or -1, or a new child if add. */
+        private int child(int node, char c, boolean add) {
+            char[] l = labels[node];
+            int i = Arrays.binarySearch(l, c);
+            if (i >= 0)
+                return targets[node][i];
+            if (!add)
+                return -1;
+            if (size == labels.length) {
+                labels = Arrays.copyOf(labels, size * 2);
+                targets = Arrays.copyOf(targets, size * 2);
+            }
+            int child = size++;
+            labels[child] = new char[0];
+            targets[child] = new int[0];
+            i = -i - 1;
+            char[] nl = new char[l.length + 1];
+            int[] nt = new int[l.length + 1];
+            System.arraycopy(l, 0, nl, 0, i);
+            System.arraycopy(targets[node], 0, nt, 0, i);
+            nl[i] = c;
+            nt[i] = child;
+            System.arraycopy(l, i, nl, i + 1, l.length - i);
+            System.arraycopy(targets[node], i, nt, i + 1, l.length - i);
+            labels[node] = nl;
+            targets[node] = nt;
+            return child;
+        }
+
+        /** Computes the failure and dictionary links, breadth first. */
+        private void computeLinks() {
+            fail = new int[size];
+            dictLink = new int[size];
+            int[] queue = new int[size];
+            int head = 0, tail = 0;
+            for (int t : targets[0])
+                queue[tail++] = t;
+            while (head < tail) {
+                int node = queue[head++];
+                char[] l = labels[node];
+                for (int i = 0; i < l.length; i++) {
+                    int t = targets[node][i];
+                    int f = fail[node];
+                    int next;
+                    while ((next = child(f, l[i], false)) < 0 && f != 0)
+                        f = fail[f];
+                    fail[t] = (next >= 0 && next != t) ? next : 0;
+                    dictLink[t] = (output[fail[t]] >= 0) ? fail[t] : dictLink[fail[t]];
+                    queue[tail++] = t;
+                }
+            }
+        }
+
+        /**
+         * Returns, for each string, whether it occurs in the input.
+         */
+        boolean[] scan(CharSequence input) {
+            boolean[] found = new boolean[count];
+            int remaining = count;
+            int node = 0;
+            for (int i = 0, len = input.length(); i < len; i++) {
+                char c = input.charAt(i);
+                int next;
+                while ((next = child(node, c, false)) < 0 && node != 0)
+                    node = fail[node];
+                node = (next < 0) ? 0 : next;
+                for (int o = node; o != 0; o = dictLink[o]) {
+                    int index = output[o];
+                    if (index >= 0 && !found[index]) {
+                        found[index] = true;
+                        if (--remaining == 0)
+                            return found;
+                    }
+                }
+            }
+            return found;
+        }
+    }
+}
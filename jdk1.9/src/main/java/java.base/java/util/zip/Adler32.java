@@ -29,6 +29,8 @@ import java.nio.ByteBuffer;
 import sun.nio.ch.DirectBuffer;
 
 import jdk.internal.HotSpotIntrinsicCandidate;
+import jdk.internal.misc.JavaNioAccess;
+import jdk.internal.misc.SharedSecrets;
 
 /**
  * A class that can be used to compute the Adler-32 checksum of a data
@@ -98,7 +100,13 @@ class Adler32 implements Checksum {
         if (rem <= 0)
             return;
         if (buffer instanceof DirectBuffer) {
-            adler = updateByteBuffer(adler, ((DirectBuffer)buffer).address(), pos, rem);
+            JavaNioAccess nio = SharedSecrets.getJavaNioAccess();
+            nio.acquireScope(buffer);
+            try {
+                adler = updateByteBuffer(adler, ((DirectBuffer)buffer).address(), pos, rem);
+            } finally {
+                nio.releaseScope(buffer);
+            }
         } else if (buffer.hasArray()) {
             adler = updateBytes(adler, buffer.array(), pos + buffer.arrayOffset(), rem);
         } else {
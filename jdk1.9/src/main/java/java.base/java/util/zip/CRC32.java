@@ -30,6 +30,8 @@ import java.util.Objects;
 
 import sun.nio.ch.DirectBuffer;
 import jdk.internal.HotSpotIntrinsicCandidate;
+import jdk.internal.misc.JavaNioAccess;
+import jdk.internal.misc.SharedSecrets;
 
 /**
  * A class that can be used to compute the CRC-32 of a data stream.
@@ -97,7 +99,13 @@ class CRC32 implements Checksum {
         if (rem <= 0)
             return;
         if (buffer instanceof DirectBuffer) {
-            crc = updateByteBuffer(crc, ((DirectBuffer)buffer).address(), pos, rem);
+            JavaNioAccess nio = SharedSecrets.getJavaNioAccess();
+            nio.acquireScope(buffer);
+            try {
+                crc = updateByteBuffer(crc, ((DirectBuffer)buffer).address(), pos, rem);
+            } finally {
+                nio.releaseScope(buffer);
+            }
         } else if (buffer.hasArray()) {
             crc = updateBytes(crc, buffer.array(), pos + buffer.arrayOffset(), rem);
         } else {
@@ -28,6 +28,8 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
 import jdk.internal.HotSpotIntrinsicCandidate;
+import jdk.internal.misc.JavaNioAccess;
+import jdk.internal.misc.SharedSecrets;
 import jdk.internal.misc.Unsafe;
 import sun.nio.ch.DirectBuffer;
 
@@ -171,8 +173,14 @@ public final class CRC32C implements Checksum {
         }
 
         if (buffer instanceof DirectBuffer) {
-            crc = updateDirectByteBuffer(crc, ((DirectBuffer) buffer).address(),
-                                         pos, limit);
+            JavaNioAccess nio = SharedSecrets.getJavaNioAccess();
+            nio.acquireScope(buffer);
+            try {
+                crc = updateDirectByteBuffer(crc, ((DirectBuffer) buffer).address(),
+                                             pos, limit);
+            } finally {
+                nio.releaseScope(buffer);
+            }
         } else if (buffer.hasArray()) {
             crc = updateBytes(crc, buffer.array(), pos + buffer.arrayOffset(),
                               limit + buffer.arrayOffset());
@@ -59,6 +59,8 @@ import java.util.jar.Attributes;
 import java.util.jar.Manifest;
 import java.util.stream.Stream;
 
+import jdk.internal.misc.JavaNioAccess;
+import jdk.internal.misc.SharedSecrets;
 import jdk.internal.misc.VM;
 import jdk.internal.module.ModulePatcher.PatchedModuleReader;
 import jdk.internal.module.SystemModules;
@@ -106,6 +108,9 @@ public class BuiltinClassLoader
     // the URL class path or null if there is no class path
     private final URLClassPath ucp;
 
+    // the archive of class files loaded from the class path, or null
+    private ClassDataArchive archive;
+
 
     /**
      * A module defined/loaded by a built-in class loader.
@@ -173,6 +178,17 @@ public class BuiltinClassLoader
         return ucp != null;
     }
 
+    /**
+     * Enables the archive of the class files loaded from the class path.
+     * This method must be invoked before the class loader is used.
+     *
+     * @param path the file path of the archive, null or empty to disable
+     */
+    void enableClassDataArchive(String path) {
+        if (ucp != null)
+            archive = ClassDataArchive.create(path, ucp);
+    }
+
     /**
      * Register a module this class loader. This has the effect of making the
      * types in the module visible.
@@ -692,6 +708,11 @@ public class BuiltinClassLoader
      */
     private Class<?> findClassOnClassPathOrNull(String cn) {
         String path = cn.replace('.', '/').concat(".class");
+        if (archive != null) {
+            Class<?> c = defineArchivedClassOrNull(cn, path);
+            if (c != null)
+                return c;
+        }
         if (System.getSecurityManager() == null) {
             Resource res = ucp.getResource(path, false);
             if (res != null) {
@@ -781,24 +802,71 @@ public class BuiltinClassLoader
         URL url = res.getCodeSourceURL();
 
         // if class is in a named package then ensure that the package is defined
+        boolean sealed = false;
         int pos = cn.lastIndexOf('.');
         if (pos != -1) {
             String pn = cn.substring(0, pos);
             Manifest man = res.getManifest();
-            defineOrCheckPackage(pn, man, url);
+            sealed = defineOrCheckPackage(pn, man, url).isSealed();
         }
 
         // defines the class to the runtime
+        Class<?> c;
+        CodeSigner[] signers;
         ByteBuffer bb = res.getByteBuffer();
         if (bb != null) {
-            CodeSigner[] signers = res.getCodeSigners();
+            signers = res.getCodeSigners();
             CodeSource cs = new CodeSource(url, signers);
-            return defineClass(cn, bb, cs);
+            c = defineClass(cn, bb, cs);
         } else {
             byte[] b = res.getBytes();
-            CodeSigner[] signers = res.getCodeSigners();
+            signers = res.getCodeSigners();
             CodeSource cs = new CodeSource(url, signers);
-            return defineClass(cn, b, 0, b.length, cs);
+            c = defineClass(cn, b, 0, b.length, cs);
+        }
+
+        // classes of sealed packages and signed classes are not archived as
+        // their verification needs the JAR file
+        if (archive != null && pos != -1 && !sealed && signers == null)
+            archive.record(res.getName(), url);
+        return c;
+    }
+
+    /**
+     * Defines the given binary class name to the VM, loading the class
+     * bytes from the class data archive.  The class is only defined from
+     * the archive if its package is already defined, so that the package
+     * is defined with the attributes of the manifest of its JAR file.
+     *
+     * @return the resulting Class or {@code null} if the class is not in the
+     *         archive or its package is not defined yet
+     * @throws SecurityException if there is a sealing violation (JAR spec)
+     */
+    private Class<?> defineArchivedClassOrNull(String cn, String path) {
+        int pos = cn.lastIndexOf('.');
+        if (pos == -1)
+            return null;
+        ClassDataArchive.Entry e = archive.lookup(path);
+        if (e == null)
+            return null;
+        URL url = e.codeSourceURL();
+        Package pkg = getAndVerifyPackage(cn.substring(0, pos), null, url);
+        if (pkg == null || pkg.isSealed())
+            return null;
+        CodeSource cs = new CodeSource(url, (CodeSigner[]) null);
+        // keep the archive mapped while the class is defined from it
+        ByteBuffer data = e.data();
+        JavaNioAccess nioAccess = SharedSecrets.getJavaNioAccess();
+        try {
+            nioAccess.acquireScope(data);
+        } catch (IllegalStateException ise) {
+            // unmapped at shutdown
+            return null;
+        }
+        try {
+            return defineClass(cn, data, cs);
+        } finally {
+            nioAccess.releaseScope(data);
         }
     }
 
@@ -0,0 +1,533 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package jdk.internal.loader;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.BufferedOutputStream;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.DirectBufferScope;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+import jdk.internal.misc.JavaNioAccess;
+import jdk.internal.misc.SharedSecrets;
+
+/**
+ * A persisted archive of the class files that the application class loader
+ * loads from the JAR files of the class path.
+ *
+ * <p> The archive is enabled by setting the system property {@code
+ * jdk.internal.loader.classDataArchive} to the path of the archive file.  On
+ * the first run the names of the classes defined from local, unsigned JAR
+ * files are recorded, and their class files are written to the archive when
+ * the VM shuts down.  On later runs the archive is memory-mapped and the
+ * recorded classes are defined directly from the mapping, without searching
+ * the class path or inflating JAR entries.
+ *
+ * <p> The archive records the class path and the size and last modification
+ * time of each JAR file it has class files from, and the CRC-32 and size of
+ * each class file as given by the central directory of its JAR file.  It is
+ * ignored, and rewritten at shutdown, if any of them has changed, so that a
+ * JAR file that is replaced with one of the same size and time stamp, as
+ * reproducible builds produce, is still detected.  It is also rewritten when
+ * classes that it does not have were loaded.
+ *
+ * <p> Defining a class from the archive skips the class path search, so
+ * only the class files of the JAR files at the start of the class path, up
+ * to the first entry that is a directory or not a local file, are archived,
+ * and the archive also records every JAR file before the last one it has
+ * class files from.  No entry that is searched before an archived JAR file
+ * can then have gained the class unnoticed.  As the entries of the {@code
+ * Class-Path} attribute of a JAR manifest are searched right after the JAR
+ * file, the first JAR file with that attribute also ends the archived
+ * JAR files.
+ *
+ * <p> The archive is mapped in a {@link DirectBufferScope}, which is closed
+ * before the archive is replaced, as a mapped file cannot be replaced on
+ * some platforms.  Classes that are loaded after that are loaded from the
+ * class path.  The new archive is written to a temporary file in the same
+ * directory, and atomically moved over the old one where the file system
+ * supports it, so that concurrent VMs never map a partially written archive.
+ *
+ * <p> The archive is a sequence of big-endian values:
+ * <pre>
+ *     int      magic
+ *     int      version
+ *     int      number of class path URLs, followed by each URL as a string
+ *     int      number of JAR files, in class path order, followed for
+ *                each of them by string URL, long size, long last
+ *                modified time
+ *     int      number of classes, followed for each of them by
+ *                string resource name, int JAR file index, int CRC-32,
+ *                int offset, int length
+ *     byte[]   class file data, offsets are relative to its start
+ * </pre>
+ * where a string is an {@code int} length followed by its UTF-8 bytes.
+ */
+final class ClassDataArchive {
+    private static final int MAGIC = 0xCA5EDA7A;
+    private static final int VERSION = 3;
+
+    // slot of the shutdown hook that writes the archive, it runs after the
+    // application shutdown hooks
+    private static final int SHUTDOWN_HOOK_SLOT = 3;
+
+    /**
+     * A class file of the archive.
+     */
+    static final class Entry {
+        private final URL codeSourceURL;
+        private final int crc;
+        private final ByteBuffer data;
+
+        Entry(URL codeSourceURL, int crc, ByteBuffer data) {
+            this.codeSourceURL = codeSourceURL;
+            this.crc = crc;
+            this.data = data;
+        }
+
+        /**
+         * Returns the URL of the JAR file that the class file is from.
+         */
+        URL codeSourceURL() {
+            return codeSourceURL;
+        }
+
+        /**
+         * Returns the CRC-32 of the class file.
+         */
+        int crc() {
+            return crc;
+        }
+
+        /**
+         * Returns a read-only buffer over the mapped class file.  The mapping
+         * must be acquired with {@link JavaNioAccess#acquireScope} while the
+         * buffer is accessed.
+         */
+        ByteBuffer data() {
+            return data.duplicate();
+        }
+    }
+
+    private final File file;
+    private final URLClassPath ucp;
+
+    // the classes of the archive, set when first used
+    private volatile Map<String, Entry> entries;
+
+    // the scope of the mapping, null if the archive is not mapped
+    private DirectBufferScope scope;
+
+    // resource name -> JAR file URL of the classes defined from the class
+    // path that are not in the archive
+    private final Map<String, URL> recorded = new ConcurrentHashMap<>();
+    private boolean hookRegistered;
+
+    private ClassDataArchive(File file, URLClassPath ucp) {
+        this.file = file;
+        this.ucp = ucp;
+    }
+
+    /**
+     * Returns the archive for the given class path if enabled, null
+     * otherwise.
+     */
+    static ClassDataArchive create(String path, URLClassPath ucp) {
+        if (path == null || path.isEmpty())
+            return null;
+        return new ClassDataArchive(new File(path), ucp);
+    }
+
+    /**
+     * Returns the class file of the given resource name, or null if it is
+     * not in the archive.
+     */
+    Entry lookup(String rn) {
+        Map<String, Entry> map = entries;
+        if (map == null)
+            map = map();
+        return map.get(rn);
+    }
+
+    /**
+     * Records that the class file of the given resource name has been
+     * loaded from the given resource on the class path.  Only class files
+     * of local JAR files are recorded.
+     */
+    void record(String rn, URL csURL) {
+        if (csURL == null || !"file".equals(csURL.getProtocol())
+                || csURL.getPath().endsWith("/"))
+            return;
+        Map<String, Entry> map = entries;
+        if (map != null && map.containsKey(rn))
+            return;
+        if (recorded.putIfAbsent(rn, csURL) == null && !hookRegistered)
+            registerShutdownHook();
+    }
+
+    private synchronized void registerShutdownHook() {
+        if (hookRegistered)
+            return;
+        hookRegistered = true;
+        try {
+            SharedSecrets.getJavaLangAccess()
+                .registerShutdownHook(SHUTDOWN_HOOK_SLOT, false, this::write);
+        } catch (IllegalStateException e) {
+            // shutdown in progress
+        }
+    }
+
+    /*
+     * Maps the archive file and reads its index.  Returns an empty map if
+     * the file does not exist, is malformed or stale.
+     */
+    private synchronized Map<String, Entry> map() {
+        Map<String, Entry> map = entries;
+        if (map != null)
+            return map;
+        map = Collections.emptyMap();
+        if (file.isFile()) {
+            DirectBufferScope s = DirectBufferScope.open();
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                 FileChannel fc = raf.getChannel()) {
+                MappedByteBuffer mbb = s.map(fc, FileChannel.MapMode.READ_ONLY, 0, fc.size());
+                Map<String, Entry> m = readIndex(mbb);
+                if (m != null) {
+                    map = m;
+                    scope = s;
+                }
+            } catch (IOException | RuntimeException e) {
+                // ignore the archive, it is rewritten at shutdown
+            }
+            if (scope == null)
+                s.close();
+        }
+        entries = map;
+        return map;
+    }
+
+    /*
+     * Stops defining classes from the archive and unmaps it, so that it can
+     * be replaced.  Returns false if it is still mapped as a class is being
+     * defined from it.
+     */
+    private synchronized boolean unmap() {
+        entries = Collections.emptyMap();
+        DirectBufferScope s = scope;
+        if (s != null) {
+            try {
+                s.close();
+            } catch (IllegalStateException e) {
+                return false;
+            }
+            scope = null;
+        }
+        return true;
+    }
+
+    private Map<String, Entry> readIndex(ByteBuffer bb) throws IOException {
+        if (bb.getInt() != MAGIC || bb.getInt() != VERSION)
+            return null;
+
+        // the class path must be unchanged
+        URL[] urls = ucp.getURLs();
+        int n = bb.getInt();
+        if (n != urls.length)
+            return null;
+        for (int i = 0; i < n; i++) {
+            if (!getString(bb).equals(urls[i].toString()))
+                return null;
+        }
+
+        // the JAR files must be unchanged, and be searched before any
+        // directory on the class path
+        int prefix = localJarPrefix(urls);
+        n = bb.getInt();
+        URL[] jars = new URL[n];
+        for (int i = 0, k = 0; i < n; i++, k++) {
+            String s = getString(bb);
+            while (k < prefix && !s.equals(urls[k].toString()))
+                k++;
+            if (k == prefix)
+                return null;
+            URL url = urls[k];
+            long size = bb.getLong();
+            long lastModified = bb.getLong();
+            File f = new File(new FileURLMapper(url).getPath());
+            if (f.length() != size || f.lastModified() != lastModified)
+                return null;
+            jars[i] = url;
+        }
+
+        n = bb.getInt();
+        String[] names = new String[n];
+        int[] desc = new int[n * 4];
+        for (int i = 0; i < n; i++) {
+            names[i] = getString(bb);
+            desc[4 * i] = bb.getInt();
+            desc[4 * i + 1] = bb.getInt();
+            desc[4 * i + 2] = bb.getInt();
+            desc[4 * i + 3] = bb.getInt();
+        }
+
+        // the class files must be unchanged, their CRC-32 and size are
+        // compared with the central directories, which are read when the
+        // JAR files are opened, so no class file is inflated
+        JarFile[] jfs = new JarFile[jars.length];
+        try {
+            for (int i = 0; i < n; i++) {
+                int jarIndex = desc[4 * i];
+                JarFile jf = jfs[jarIndex];
+                if (jf == null) {
+                    File f = new File(new FileURLMapper(jars[jarIndex]).getPath());
+                    jf = jfs[jarIndex] = openJarFile(f);
+                }
+                ZipEntry ze = jf.getEntry(names[i]);
+                if (ze == null || (int) ze.getCrc() != desc[4 * i + 1]
+                        || ze.getSize() != desc[4 * i + 3])
+                    return null;
+            }
+        } finally {
+            for (JarFile jf : jfs) {
+                if (jf != null)
+                    jf.close();
+            }
+        }
+
+        ByteBuffer data = bb.slice().asReadOnlyBuffer();
+        Map<String, Entry> map = new HashMap<>(n * 4 / 3 + 1);
+        for (int i = 0; i < n; i++) {
+            ByteBuffer b = data.duplicate();
+            b.position(desc[4 * i + 2]);
+            b.limit(desc[4 * i + 2] + desc[4 * i + 3]);
+            map.put(names[i], new Entry(jars[desc[4 * i]], desc[4 * i + 1], b.slice()));
+        }
+        return map;
+    }
+
+    /*
+     * Returns the number of class path entries, from the start, that are
+     * local JAR files.
+     */
+    private static int localJarPrefix(URL[] urls) {
+        int n = 0;
+        while (n < urls.length && "file".equals(urls[n].getProtocol())
+                && !urls[n].getPath().endsWith("/"))
+            n++;
+        return n;
+    }
+
+    private static JarFile openJarFile(File f) throws IOException {
+        return new JarFile(f, false, JarFile.OPEN_READ, JarFile.runtimeVersion());
+    }
+
+    private static String getString(ByteBuffer bb) {
+        byte[] b = new byte[bb.getInt()];
+        bb.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    /*
+     * Writes the archived and the recorded class files to a new archive,
+     * if classes were recorded.
+     */
+    private void write() {
+        if (recorded.isEmpty())
+            return;
+        Map<String, Entry> archived = map();
+
+        // the class files grouped by JAR file, in class path order, of the
+        // JAR files before the first directory, up to the last of them that
+        // has class files
+        URL[] urls = ucp.getURLs();
+        int prefix = localJarPrefix(urls);
+        Map<URL, List<String>> byJar = new LinkedHashMap<>();
+        for (int i = 0; i < prefix; i++)
+            byJar.putIfAbsent(urls[i], new ArrayList<>());
+        for (Map.Entry<String, Entry> e : archived.entrySet()) {
+            List<String> rns = byJar.get(e.getValue().codeSourceURL());
+            if (rns != null)
+                rns.add(e.getKey());
+        }
+        for (Map.Entry<String, URL> e : recorded.entrySet()) {
+            List<String> rns = byJar.get(e.getValue());
+            if (rns != null)
+                rns.add(e.getKey());
+        }
+        for (int i = prefix - 1; i >= 0; i--) {
+            List<String> rns = byJar.get(urls[i]);
+            if (rns != null && !rns.isEmpty())
+                break;
+            byJar.remove(urls[i]);
+        }
+        if (byJar.isEmpty())
+            return;
+
+        Path target = file.getAbsoluteFile().toPath();
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(target.getParent(),
+                                       target.getFileName().toString(), ".tmp");
+            writeArchive(tmp, urls, archived, byJar);
+            if (!unmap()) {
+                // a class is being defined from the old archive
+                Files.delete(tmp);
+                return;
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE,
+                           StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignore) { }
+            }
+        }
+    }
+
+    private void writeArchive(Path tmp,
+                              URL[] urls,
+                              Map<String, Entry> archived,
+                              Map<URL, List<String>> byJar) throws IOException {
+        List<URL> jars = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<int[]> desc = new ArrayList<>();
+        JavaNioAccess nioAccess = SharedSecrets.getJavaNioAccess();
+        List<byte[]> data = new ArrayList<>();
+        long[] sizes = new long[byJar.size()];
+        long[] times = new long[byJar.size()];
+        int offset = 0;
+
+        for (Map.Entry<URL, List<String>> e : byJar.entrySet()) {
+            URL url = e.getKey();
+            File f = new File(new FileURLMapper(url).getPath());
+            int jarIndex = jars.size();
+            sizes[jarIndex] = f.length();
+            times[jarIndex] = f.lastModified();
+            jars.add(url);
+            if (!f.isFile())
+                continue;
+            List<String> rns = e.getValue();
+            Collections.sort(rns);
+            boolean hasClassPath;
+            try (JarFile jf = openJarFile(f)) {
+                for (String rn : rns) {
+                    byte[] b;
+                    int crc;
+                    Entry archivedEntry = archived.get(rn);
+                    if (archivedEntry != null) {
+                        ByteBuffer bb = archivedEntry.data();
+                        nioAccess.acquireScope(bb);
+                        try {
+                            b = new byte[bb.remaining()];
+                            bb.get(b);
+                        } finally {
+                            nioAccess.releaseScope(bb);
+                        }
+                        crc = archivedEntry.crc();
+                    } else {
+                        ZipEntry ze = jf.getEntry(rn);
+                        if (ze == null)
+                            continue;
+                        try (InputStream in = jf.getInputStream(ze)) {
+                            b = in.readAllBytes();
+                        }
+                        crc = (int) ze.getCrc();
+                    }
+                    names.add(rn);
+                    desc.add(new int[] { jarIndex, crc, offset, b.length });
+                    data.add(b);
+                    offset = Math.addExact(offset, b.length);
+                }
+                Manifest man = jf.getManifest();
+                hasClassPath = man != null && man.getMainAttributes()
+                        .getValue(Attributes.Name.CLASS_PATH) != null;
+            }
+            // the entries of its Class-Path are searched before the next
+            // JAR files
+            if (hasClassPath)
+                break;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(urls.length);
+            for (URL u : urls)
+                putString(out, u.toString());
+            out.writeInt(jars.size());
+            for (int i = 0; i < jars.size(); i++) {
+                putString(out, jars.get(i).toString());
+                out.writeLong(sizes[i]);
+                out.writeLong(times[i]);
+            }
+            out.writeInt(names.size());
+            for (int i = 0; i < names.size(); i++) {
+                putString(out, names.get(i));
+                int[] d = desc.get(i);
+                out.writeInt(d[0]);
+                out.writeInt(d[1]);
+                out.writeInt(d[2]);
+                out.writeInt(d[3]);
+            }
+            for (byte[] b : data)
+                out.write(b);
+        }
+    }
+
+    private static void putString(DataOutputStream out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+}
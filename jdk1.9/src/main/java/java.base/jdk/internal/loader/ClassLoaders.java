@@ -78,11 +78,14 @@ public class ClassLoaders {
             cp = "";
         if (mainMid == null || cp.length() > 0)
             addClassPathToUCP(cp, ucp);
+        ucp.enablePackageIndex();
 
         // create the class loaders
         BOOT_LOADER = new BootClassLoader(bcp);
         PLATFORM_LOADER = new PlatformClassLoader(BOOT_LOADER);
         APP_LOADER = new AppClassLoader(PLATFORM_LOADER, ucp);
+        APP_LOADER.enableClassDataArchive(
+            VM.getSavedProperty("jdk.internal.loader.classDataArchive"));
     }
 
     /**
@@ -52,6 +52,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Properties;
 import java.util.Set;
@@ -87,6 +88,7 @@ public class URLClassPath {
     private static final boolean DEBUG;
     private static final boolean DISABLE_JAR_CHECKING;
     private static final boolean DISABLE_ACC_CHECKING;
+    private static final boolean DISABLE_PACKAGE_INDEX;
 
     static {
         Properties props = GetPropertyAction.privilegedGetProperties();
@@ -97,6 +99,9 @@ public class URLClassPath {
 
         p = props.getProperty("jdk.net.URLClassPath.disableRestrictedPermissions");
         DISABLE_ACC_CHECKING = p != null ? p.equals("true") || p.equals("") : false;
+
+        p = props.getProperty("jdk.internal.loader.URLClassPath.disablePackageIndex");
+        DISABLE_PACKAGE_INDEX = p != null ? p.equals("true") || p.equals("") : false;
     }
 
     /* The original search path of URLs. */
@@ -117,6 +122,12 @@ public class URLClassPath {
     /* Whether this URLClassLoader has been closed yet */
     private boolean closed = false;
 
+    /* Whether lookups may use a package index, see enablePackageIndex */
+    private boolean packageIndexEnabled;
+
+    /* The index of the packages of the loaders, null if not built yet */
+    private volatile PackageIndex packageIndex;
+
     /* The context to be used when loading classes and resources.  If non-null
      * this is the context that was captured during the creation of the
      * URLClassLoader. null implies no additional security restrictions. */
@@ -166,6 +177,7 @@ public class URLClassPath {
         if (closed) {
             return Collections.emptyList();
         }
+        packageIndex = null;
         List<IOException> result = new LinkedList<>();
         for (Loader loader : loaders) {
             try {
@@ -195,6 +207,102 @@ public class URLClassPath {
             urls.add(0, url);
             path.add(url);
         }
+        packageIndex = null;
+    }
+
+    /**
+     * Enables the use of a package index by {@link #getResource(String,boolean)}
+     * and {@link #findResource(String,boolean)}.
+     *
+     * <p> On the first lookup all loaders of the search path are opened and
+     * the packages of each JAR file are read from its central directory.
+     * A lookup then consults, in search path order, only the loaders whose
+     * JAR file has entries in the package of the resource and the loaders
+     * that cannot be indexed, such as those of directories.  The index is
+     * rebuilt when the search path is extended.  As the loaders are opened
+     * eagerly, the index should only be enabled for search paths of local
+     * files such as the application class path.
+     */
+    synchronized void enablePackageIndex() {
+        packageIndexEnabled = !DISABLE_PACKAGE_INDEX;
+    }
+
+    /*
+     * Returns the package index, building it if needed, or null if the
+     * search path is not indexed.
+     */
+    private PackageIndex packageIndex() {
+        PackageIndex index = packageIndex;
+        if (index == null && packageIndexEnabled) {
+            index = buildPackageIndex();
+        }
+        return index;
+    }
+
+    private synchronized PackageIndex buildPackageIndex() {
+        PackageIndex index = packageIndex;
+        if (index != null || closed || !packageIndexEnabled) {
+            return index;
+        }
+        HashMap<String, ArrayList<Loader>> map = new HashMap<>();
+        ArrayList<Loader> unindexed = new ArrayList<>();
+        Loader loader;
+        for (int i = 0; (loader = getLoader(i)) != null; i++) {
+            Set<String> packages = loader.packages();
+            if (packages == null) {
+                // consulted for every package
+                unindexed.add(loader);
+                for (ArrayList<Loader> list : map.values()) {
+                    list.add(loader);
+                }
+            } else {
+                for (String pkg : packages) {
+                    ArrayList<Loader> list = map.get(pkg);
+                    if (list == null) {
+                        list = new ArrayList<>(unindexed);
+                        map.put(pkg, list);
+                    }
+                    list.add(loader);
+                }
+            }
+        }
+        index = new PackageIndex(map, unindexed);
+        packageIndex = index;
+        return index;
+    }
+
+    /*
+     * Maps the package of a resource name to the loaders that may have
+     * the resource, in search path order.
+     */
+    private static final class PackageIndex {
+        private static final Loader[] NO_LOADERS = new Loader[0];
+
+        private final HashMap<String, Loader[]> loaders;
+        private final Loader[] unindexed;
+
+        PackageIndex(HashMap<String, ArrayList<Loader>> map,
+                     ArrayList<Loader> unindexed) {
+            this.loaders = new HashMap<>(map.size() * 4 / 3 + 1);
+            for (Map.Entry<String, ArrayList<Loader>> e : map.entrySet()) {
+                this.loaders.put(e.getKey(), e.getValue().toArray(NO_LOADERS));
+            }
+            this.unindexed = unindexed.toArray(NO_LOADERS);
+        }
+
+        Loader[] loadersFor(String name) {
+            Loader[] ls = loaders.get(packageOf(name));
+            return (ls != null) ? ls : unindexed;
+        }
+    }
+
+    /*
+     * Returns the package of a resource name, the part up to and including
+     * the last '/' or the empty string.
+     */
+    static String packageOf(String name) {
+        int i = name.lastIndexOf('/');
+        return (i < 0) ? "" : name.substring(0, i + 1);
     }
 
     /**
@@ -216,6 +324,17 @@ public class URLClassPath {
      * if the resource could not be found.
      */
     public URL findResource(String name, boolean check) {
+        PackageIndex index = packageIndex();
+        if (index != null) {
+            for (Loader loader : index.loadersFor(name)) {
+                URL url = loader.findResource(name, check);
+                if (url != null) {
+                    return url;
+                }
+            }
+            return null;
+        }
+
         Loader loader;
         for (int i = 0; (loader = getLoader(i)) != null; i++) {
             URL url = loader.findResource(name, check);
@@ -239,6 +358,17 @@ public class URLClassPath {
             System.err.println("URLClassPath.getResource(\"" + name + "\")");
         }
 
+        PackageIndex index = packageIndex();
+        if (index != null) {
+            for (Loader loader : index.loadersFor(name)) {
+                Resource res = loader.getResource(name, check);
+                if (res != null) {
+                    return res;
+                }
+            }
+            return null;
+        }
+
         Loader loader;
         for (int i = 0; (loader = getLoader(i)) != null; i++) {
             Resource res = loader.getResource(name, check);
@@ -624,6 +754,14 @@ public class URLClassPath {
         URL[] getClassPath() throws IOException {
             return null;
         }
+
+        /*
+         * Returns the packages in which this loader has resources, or null
+         * if they are not known.
+         */
+        Set<String> packages() {
+            return null;
+        }
     }
 
     /*
@@ -984,6 +1122,31 @@ public class URLClassPath {
         }
 
 
+        /*
+         * Returns the packages of the entries of the JAR file, or null if
+         * the JAR file has an index or is a multi-release JAR file, as
+         * resources may then be found in other JAR files or under other
+         * names.
+         */
+        @Override
+        Set<String> packages() {
+            if (closed || index != null || jar.isMultiRelease()) {
+                return null;
+            }
+            HashSet<String> packages = new HashSet<>();
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                packages.add(packageOf(name));
+                // a directory entry is also found by its name without
+                // the trailing '/'
+                if (name.length() > 1 && name.endsWith("/")) {
+                    packages.add(packageOf(name.substring(0, name.length() - 1)));
+                }
+            }
+            return packages;
+        }
+
         /*
          * Returns the JAR file local class path, or null if none.
          */
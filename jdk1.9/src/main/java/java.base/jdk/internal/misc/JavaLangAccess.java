@@ -133,6 +133,17 @@ public interface JavaLangAccess {
      */
     String newStringUnsafe(char[] chars);
 
+    /**
+     * Returns a new string whose characters are the given ISO-8859-1 bytes.
+     * When compact strings are enabled the byte array is not copied, and so
+     * must never be modified after the String is created, in order to
+     * fulfill String's contract.
+     *
+     * @param bytes the ISO-8859-1 bytes of the string
+     * @return a newly created string whose content is the byte array
+     */
+    String newStringLatin1Unsafe(byte[] bytes);
+
     /**
      * Returns a new Thread with the given Runnable and an
      * inherited AccessControlContext.
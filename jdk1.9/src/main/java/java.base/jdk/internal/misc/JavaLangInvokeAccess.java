@@ -25,7 +25,10 @@
 
 package jdk.internal.misc;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
 import java.util.Map;
 
 public interface JavaLangInvokeAccess {
@@ -85,4 +88,18 @@ public interface JavaLangInvokeAccess {
      */
     byte[] generateInvokersHolderClassBytes(String className,
             MethodType[] methodTypes);
+
+    /**
+     * Returns a direct method handle to the given method, without checking
+     * access. Used by {@code MethodHandleMethodAccessorImpl} to implement
+     * {@code Method.invoke}; the method must not be caller sensitive.
+     */
+    MethodHandle unreflect(Method method);
+
+    /**
+     * Returns a direct method handle to the given constructor, without
+     * checking access. Used by {@code MethodHandleConstructorAccessorImpl}
+     * to implement {@code Constructor.newInstance}.
+     */
+    MethodHandle unreflectConstructor(Constructor<?> ctor);
 }
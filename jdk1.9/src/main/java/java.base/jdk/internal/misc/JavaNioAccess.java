@@ -53,4 +53,24 @@ public interface JavaNioAccess {
      */
     void truncate(Buffer buf);
 
+    /**
+     * Prevents the scope that owns the memory of a direct buffer, if any,
+     * from being closed until {@link #releaseScope releaseScope} is invoked,
+     * so that the memory at the address of the buffer can be accessed.
+     *
+     * @throws IllegalStateException if the scope has been closed
+     */
+    void acquireScope(Buffer buf);
+
+    /**
+     * Releases the scope of a buffer acquired by {@link #acquireScope
+     * acquireScope}.
+     */
+    void releaseScope(Buffer buf);
+
+    /**
+     * Tells whether the memory of a buffer is owned by a scope.
+     */
+    boolean hasScope(Buffer buf);
+
 }
@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package jdk.internal.misc;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * The VM-wide policy that decides how much of the stack is captured when
+ * a {@code Throwable} fills in its stack trace.
+ *
+ * <p> A policy is set for an exception class by name and applies to that
+ * class and its subclasses, the most specific setting winning.  The capture
+ * depth of a class is one of:
+ * <ul>
+ * <li>{@link #FULL}: the default, the VM records the complete backtrace;</li>
+ * <li>{@link #NONE}: no stack trace is captured at all, the throwable
+ * reports an empty stack trace;</li>
+ * <li>a positive number of frames: at most that many frames are captured
+ * with a {@code StackWalker}, which walks no further than that, and are
+ * decoded into stack trace elements only when the stack trace is first
+ * requested.</li>
+ * </ul>
+ *
+ * <p> The initial policy can be given with the system property
+ * {@code jdk.stackTraceCapture} as a comma separated list of
+ * <i>class-name</i>{@code =}<i>depth</i> entries where <i>depth</i> is
+ * {@code full}, {@code none} or a positive number, and capture counting
+ * enabled with {@code jdk.stackTraceCapture.count=true}.  Both can be
+ * changed at runtime through {@code com.sun.management.StackTraceCaptureMXBean}.
+ */
+public final class StackTraceCapture {
+
+    /** Capture depth denoting the complete backtrace recorded by the VM. */
+    public static final int FULL = -1;
+
+    /** Capture depth denoting that no stack trace is captured. */
+    public static final int NONE = 0;
+
+    // Class name -> capture depth, replaced as a whole on each update.
+    // null until a policy is set so that the common case costs a single
+    // volatile read.
+    private static volatile Map<String, Integer> policies;
+
+    // Class name -> number of stack traces filled in, null when counting
+    // is disabled
+    private static volatile ConcurrentHashMap<String, LongAdder> counts;
+
+    // true once the system properties have been consulted
+    private static volatile boolean initialized;
+
+    private StackTraceCapture() { }
+
+    /**
+     * Returns the capture depth for throwables of the given class: {@link
+     * #FULL}, {@link #NONE} or a positive number of frames.
+     */
+    public static int captureDepth(Class<?> c) {
+        Map<String, Integer> p = policies;
+        if (p == null) {
+            // Throwables are created before the system properties are
+            // initialized, these always get the full stack trace
+            if (initialized || !VM.isBooted())
+                return FULL;
+            initialize();
+            if ((p = policies) == null)
+                return FULL;
+        }
+        for (Class<?> k = c; k != null && k != Object.class; k = k.getSuperclass()) {
+            Integer depth = p.get(k.getName());
+            if (depth != null)
+                return depth;
+        }
+        return FULL;
+    }
+
+    /**
+     * Records that a throwable of the given class has filled in its stack
+     * trace, if counting is enabled.
+     */
+    public static void recordCapture(Class<?> c) {
+        ConcurrentHashMap<String, LongAdder> m = counts;
+        if (m != null) {
+            String name = c.getName();
+            LongAdder count = m.get(name);
+            if (count == null) {
+                LongAdder newCount = new LongAdder();
+                count = m.putIfAbsent(name, newCount);
+                if (count == null)
+                    count = newCount;
+            }
+            count.increment();
+        }
+    }
+
+    /**
+     * Sets the capture depth for the named class and its subclasses.
+     *
+     * @throws IllegalArgumentException if {@code depth} is less than
+     *         {@link #FULL}
+     */
+    public static synchronized void setCaptureDepth(String className, int depth) {
+        if (className == null)
+            throw new NullPointerException();
+        if (depth < FULL)
+            throw new IllegalArgumentException("Invalid capture depth: " + depth);
+        initialize();
+        Map<String, Integer> p = policies;
+        Map<String, Integer> newPolicies = (p == null) ? new HashMap<>() : new HashMap<>(p);
+        newPolicies.put(className, depth);
+        policies = newPolicies;
+    }
+
+    /**
+     * Removes the policy set for the named class, if any.
+     */
+    public static synchronized void clearCaptureDepth(String className) {
+        if (className == null)
+            throw new NullPointerException();
+        initialize();
+        Map<String, Integer> p = policies;
+        if (p != null && p.containsKey(className)) {
+            Map<String, Integer> newPolicies = new HashMap<>(p);
+            newPolicies.remove(className);
+            policies = newPolicies.isEmpty() ? null : newPolicies;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the policies, keyed by class name.
+     */
+    public static Map<String, Integer> captureDepths() {
+        initialize();
+        Map<String, Integer> p = policies;
+        return (p == null) ? Collections.emptyMap()
+                           : Collections.unmodifiableMap(new TreeMap<>(p));
+    }
+
+    /**
+     * Enables or disables counting; disabling it discards the counts.
+     */
+    public static synchronized void setCounting(boolean enable) {
+        initialize();
+        if (enable) {
+            if (counts == null)
+                counts = new ConcurrentHashMap<>();
+        } else {
+            counts = null;
+        }
+    }
+
+    public static boolean isCounting() {
+        initialize();
+        return counts != null;
+    }
+
+    /**
+     * Returns a snapshot of the counts, keyed by class name.
+     */
+    public static Map<String, Long> captureCounts() {
+        initialize();
+        ConcurrentHashMap<String, LongAdder> m = counts;
+        if (m == null)
+            return Collections.emptyMap();
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> e : m.entrySet()) {
+            result.put(e.getKey(), e.getValue().sum());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    public static void resetCaptureCounts() {
+        ConcurrentHashMap<String, LongAdder> m = counts;
+        if (m != null)
+            m.clear();
+    }
+
+    private static void initialize() {
+        if (initialized)
+            return;
+        synchronized (StackTraceCapture.class) {
+            if (initialized || !VM.isBooted())
+                return;
+            String value = VM.getSavedProperty("jdk.stackTraceCapture");
+            if (value != null && !value.isEmpty()) {
+                Map<String, Integer> p = new HashMap<>();
+                for (String entry : value.split(",")) {
+                    int eq = entry.indexOf('=');
+                    if (eq <= 0)
+                        continue;
+                    int depth = parseDepth(entry.substring(eq + 1).trim());
+                    if (depth >= FULL)
+                        p.put(entry.substring(0, eq).trim(), depth);
+                }
+                if (!p.isEmpty())
+                    policies = p;
+            }
+            if (Boolean.parseBoolean(VM.getSavedProperty("jdk.stackTraceCapture.count")))
+                counts = new ConcurrentHashMap<>();
+            initialized = true;
+        }
+    }
+
+    // Returns the depth for a policy value or FULL - 1 if it is malformed
+    private static int parseDepth(String s) {
+        if (s.equalsIgnoreCase("full"))
+            return FULL;
+        if (s.equalsIgnoreCase("none"))
+            return NONE;
+        try {
+            int depth = Integer.parseInt(s);
+            return (depth > 0) ? depth : FULL - 1;
+        } catch (NumberFormatException x) {
+            return FULL - 1;
+        }
+    }
+
+    /**
+     * Captures the frames of the current thread's stack into {@code frames},
+     * excluding the frames that construct the throwable and fill in its
+     * stack trace, and returns the number of frames captured.  The stack is
+     * only walked as far as needed to fill the array.  Returns -1 if the
+     * stack cannot be walked, which happens when the walker is itself being
+     * initialized by this thread.
+     */
+    public static int capture(Throwable t, StackWalker.StackFrame[] frames) {
+        StackWalker walker = WalkerHolder.WALKER;
+        if (walker == null)
+            return -1;
+        return walker.walk(new FrameCollector(t, frames));
+    }
+
+    /**
+     * Collects the frames of a walk.  A plain class rather than a lambda or
+     * a stream pipeline: linking an invokedynamic call site may itself
+     * throw, and capture the stack of the new throwable recursively.
+     */
+    private static final class FrameCollector
+        implements Function<Stream<StackWalker.StackFrame>, Integer>
+    {
+        private final Throwable t;
+        private final StackWalker.StackFrame[] frames;
+
+        FrameCollector(Throwable t, StackWalker.StackFrame[] frames) {
+            this.t = t;
+            this.frames = frames;
+        }
+
+        @Override
+        public Integer apply(Stream<StackWalker.StackFrame> s) {
+            Iterator<StackWalker.StackFrame> it = s.iterator();
+            int n = 0;
+            boolean skipping = true;
+            while (n < frames.length && it.hasNext()) {
+                StackWalker.StackFrame f = it.next();
+                if (skipping) {
+                    if (isFillInFrame(f, t))
+                        continue;
+                    skipping = false;
+                }
+                frames[n++] = f;
+            }
+            return n;
+        }
+    }
+
+    private static boolean isFillInFrame(StackWalker.StackFrame f, Throwable t) {
+        Class<?> c = f.getDeclaringClass();
+        if (c == StackTraceCapture.class || c == FrameCollector.class)
+            return true;
+        String name = f.getMethodName();
+        return (name.equals("<init>") || name.equals("fillInStackTrace"))
+                && c.isInstance(t);
+    }
+
+    private static class WalkerHolder {
+        static final StackWalker WALKER =
+            AccessController.doPrivileged(new PrivilegedAction<StackWalker>() {
+                public StackWalker run() {
+                    return StackWalker.getInstance(
+                        StackWalker.Option.RETAIN_CLASS_REFERENCE);
+                }
+            });
+    }
+}
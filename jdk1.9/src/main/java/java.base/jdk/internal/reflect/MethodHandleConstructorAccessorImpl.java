@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package jdk.internal.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import jdk.internal.misc.SharedSecrets;
+import jdk.internal.vm.annotation.Stable;
+
+/** Invokes a Constructor through a direct method handle to it, adapted
+    once to take an argument array. Used instead of
+    MethodAccessorGenerator when "sun.reflect.useMethodHandleAccessors"
+    is set. */
+
+class MethodHandleConstructorAccessorImpl extends ConstructorAccessorImpl {
+    private final Class<?>[] parameterTypes;
+    // (Object[])Object; @Stable so that the JIT trusts the final field
+    @Stable
+    private final MethodHandle target;
+
+    MethodHandleConstructorAccessorImpl(Constructor<?> c) {
+        this.parameterTypes = c.getParameterTypes();
+
+        MethodHandle mh = SharedSecrets.getJavaLangInvokeAccess().unreflectConstructor(c);
+        int paramCount = parameterTypes.length;
+        mh = mh.asType(MethodType.genericMethodType(paramCount));
+        this.target = mh.asSpreader(Object[].class, paramCount);
+    }
+
+    public Object newInstance(Object[] args)
+        throws InstantiationException,
+               IllegalArgumentException,
+               InvocationTargetException
+    {
+        MethodHandleMethodAccessorImpl.checkArguments(parameterTypes, args);
+
+        // the arguments are known to convert, anything thrown from here on
+        // comes from the constructor itself
+        try {
+            return target.invokeExact(args);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package jdk.internal.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import jdk.internal.misc.SharedSecrets;
+import jdk.internal.vm.annotation.Stable;
+import sun.invoke.util.Wrapper;
+
+/** Invokes a Method through a direct method handle to it, adapted once
+    to take the receiver and an argument array. Unlike the bytecode-based
+    implementation no class is defined per Method. Used instead of
+    MethodAccessorGenerator when "sun.reflect.useMethodHandleAccessors"
+    is set. */
+
+class MethodHandleMethodAccessorImpl extends MethodAccessorImpl {
+    private final Class<?> declaringClass;
+    private final Class<?>[] parameterTypes;
+    private final boolean isStatic;
+    // (Object, Object[])Object; @Stable so that the JIT trusts the final
+    // field and can inline through the handle when this accessor is a
+    // constant
+    @Stable
+    private final MethodHandle target;
+
+    MethodHandleMethodAccessorImpl(Method method) {
+        this.declaringClass = method.getDeclaringClass();
+        this.parameterTypes = method.getParameterTypes();
+        this.isStatic = Modifier.isStatic(method.getModifiers());
+
+        MethodHandle mh = SharedSecrets.getJavaLangInvokeAccess().unreflect(method);
+        int paramCount = parameterTypes.length;
+        if (isStatic) {
+            mh = mh.asType(MethodType.genericMethodType(paramCount));
+            mh = MethodHandles.dropArguments(mh, 0, Object.class);
+        } else {
+            mh = mh.asType(MethodType.genericMethodType(paramCount + 1));
+        }
+        this.target = mh.asSpreader(Object[].class, paramCount);
+    }
+
+    public Object invoke(Object obj, Object[] args)
+        throws IllegalArgumentException, InvocationTargetException
+    {
+        if (!isStatic) {
+            if (obj == null) {
+                throw new NullPointerException();
+            }
+            if (!declaringClass.isInstance(obj)) {
+                throw new IllegalArgumentException(
+                    "object is not an instance of declaring class");
+            }
+        }
+        checkArguments(parameterTypes, args);
+
+        // the arguments are known to convert, anything thrown from here on
+        // comes from the method itself
+        try {
+            return target.invokeExact(obj, args);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * Checks that the given arguments can be passed to parameters of the
+     * given types, by an identity or widening conversion after unboxing for
+     * primitive parameters, as specified by Method.invoke.
+     */
+    static void checkArguments(Class<?>[] parameterTypes, Object[] args) {
+        int argCount = (args == null) ? 0 : args.length;
+        if (argCount != parameterTypes.length) {
+            throw new IllegalArgumentException("wrong number of arguments");
+        }
+        for (int i = 0; i < argCount; i++) {
+            Class<?> type = parameterTypes[i];
+            Object arg = args[i];
+            if (type.isPrimitive()) {
+                if (arg == null ||
+                    !Wrapper.isWrapperType(arg.getClass()) ||
+                    !Wrapper.forPrimitiveType(type).isConvertibleFrom(
+                        Wrapper.forWrapperType(arg.getClass()))) {
+                    throw new IllegalArgumentException("argument type mismatch");
+                }
+            } else if (arg != null && !type.isInstance(arg)) {
+                throw new IllegalArgumentException("argument type mismatch");
+            }
+        }
+    }
+}
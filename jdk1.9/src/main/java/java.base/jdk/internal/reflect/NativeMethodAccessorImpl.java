@@ -29,7 +29,7 @@ import java.lang.reflect.*;
 import sun.reflect.misc.ReflectUtil;
 
 /** Used only for the first few invocations of a Method; afterward,
-    switches to bytecode-based implementation */
+    switches to bytecode-based or method handle based implementation */
 
 class NativeMethodAccessorImpl extends MethodAccessorImpl {
     private final Method method;
@@ -48,14 +48,8 @@ class NativeMethodAccessorImpl extends MethodAccessorImpl {
         // found from the generated bytecode.
         if (++numInvocations > ReflectionFactory.inflationThreshold()
                 && !ReflectUtil.isVMAnonymousClass(method.getDeclaringClass())) {
-            MethodAccessorImpl acc = (MethodAccessorImpl)
-                new MethodAccessorGenerator().
-                    generateMethod(method.getDeclaringClass(),
-                                   method.getName(),
-                                   method.getParameterTypes(),
-                                   method.getReturnType(),
-                                   method.getExceptionTypes(),
-                                   method.getModifiers());
+            MethodAccessorImpl acc =
+                ReflectionFactory.inflatedMethodAccessor(method);
             parent.setDelegate(acc);
         }
 
@@ -89,6 +89,11 @@ public class ReflectionFactory {
     private static boolean noInflation        = false;
     private static int     inflationThreshold = 15;
 
+    // Inflate to accessors that invoke a direct method handle instead of
+    // spinning a class per Method/Constructor with MethodAccessorGenerator.
+    // Caller-sensitive methods always use the bytecode-based accessors.
+    private static boolean useMethodHandleAccessors = false;
+
     private ReflectionFactory() {
     }
 
@@ -187,13 +192,7 @@ public class ReflectionFactory {
         }
 
         if (noInflation && !ReflectUtil.isVMAnonymousClass(method.getDeclaringClass())) {
-            return new MethodAccessorGenerator().
-                generateMethod(method.getDeclaringClass(),
-                               method.getName(),
-                               method.getParameterTypes(),
-                               method.getReturnType(),
-                               method.getExceptionTypes(),
-                               method.getModifiers());
+            return inflatedMethodAccessor(method);
         } else {
             NativeMethodAccessorImpl acc =
                 new NativeMethodAccessorImpl(method);
@@ -224,11 +223,7 @@ public class ReflectionFactory {
         }
 
         if (noInflation && !ReflectUtil.isVMAnonymousClass(c.getDeclaringClass())) {
-            return new MethodAccessorGenerator().
-                generateConstructor(c.getDeclaringClass(),
-                                    c.getParameterTypes(),
-                                    c.getExceptionTypes(),
-                                    c.getModifiers());
+            return inflatedConstructorAccessor(c);
         } else {
             NativeConstructorAccessorImpl acc =
                 new NativeConstructorAccessorImpl(c);
@@ -594,6 +589,27 @@ public class ReflectionFactory {
         }
     }
 
+    /**
+     * Returns a generated accessor of the serializable fields of a class,
+     * which reads the non-null fields of {@code getFields} and writes the
+     * non-null fields of {@code setFields}.  The primitive fields are
+     * marshalled at the byte offsets given by {@code offsets}, and the
+     * object fields stored at the indices given by {@code offsets}.
+     *
+     * @param cl the class that declares the fields
+     * @param getFields the fields to read, or null
+     * @param setFields the fields to write, or null; they must not be final
+     * @param offsets the offset or index of the value of each field
+     * @return the accessor, or null if one cannot be generated for the fields
+     */
+    public final SerialFieldAccessor newFieldAccessorForSerialization(Class<?> cl,
+                                                                      Field[] getFields,
+                                                                      Field[] setFields,
+                                                                      int[] offsets) {
+        return new SerialFieldAccessorGenerator().generate(cl, getFields,
+                                                           setFields, offsets);
+    }
+
     //--------------------------------------------------------------------------
     //
     // Internals only below this point
@@ -603,6 +619,36 @@ public class ReflectionFactory {
         return inflationThreshold;
     }
 
+    /** Returns the accessor that replaces the native one for the given
+        method once inflated. */
+    static MethodAccessorImpl inflatedMethodAccessor(Method method) {
+        if (useMethodHandleAccessors && !Reflection.isCallerSensitive(method)) {
+            return new MethodHandleMethodAccessorImpl(method);
+        }
+        return (MethodAccessorImpl)
+            new MethodAccessorGenerator().
+                generateMethod(method.getDeclaringClass(),
+                               method.getName(),
+                               method.getParameterTypes(),
+                               method.getReturnType(),
+                               method.getExceptionTypes(),
+                               method.getModifiers());
+    }
+
+    /** Returns the accessor that replaces the native one for the given
+        constructor once inflated. */
+    static ConstructorAccessorImpl inflatedConstructorAccessor(Constructor<?> c) {
+        if (useMethodHandleAccessors) {
+            return new MethodHandleConstructorAccessorImpl(c);
+        }
+        return (ConstructorAccessorImpl)
+            new MethodAccessorGenerator().
+                generateConstructor(c.getDeclaringClass(),
+                                    c.getParameterTypes(),
+                                    c.getExceptionTypes(),
+                                    c.getModifiers());
+    }
+
     /** We have to defer full initialization of this class until after
         the static initializer is run since java.lang.reflect.Method's
         static initializer (more properly, that for
@@ -633,6 +679,11 @@ public class ReflectionFactory {
             }
         }
 
+        val = props.getProperty("sun.reflect.useMethodHandleAccessors");
+        if (val != null && val.equals("true")) {
+            useMethodHandleAccessors = true;
+        }
+
         initted = true;
     }
 
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package jdk.internal.reflect;
+
+/** This interface provides the batch access to the serializable
+    fields of a class that java.io.ObjectStreamClass performs for
+    default serialization. Implementations are generated by
+    SerialFieldAccessorGenerator for the fields of one class, and read
+    and write the fields with plain field instructions instead of
+    per-field Unsafe accesses. Primitive values are marshalled in the
+    big-endian format of java.io.Bits, at the offsets given when the
+    accessor was generated. */
+
+public interface SerialFieldAccessor {
+    /** Marshals the primitive field values of obj into buf */
+    public void getPrimFieldValues(Object obj, byte[] buf);
+
+    /** Sets the primitive fields of obj to values unmarshalled from buf */
+    public void setPrimFieldValues(Object obj, byte[] buf);
+
+    /** Stores the object field values of obj into vals */
+    public void getObjFieldValues(Object obj, Object[] vals);
+
+    /** Sets the object fields of obj to the values from vals. Throws
+        ClassCastException if a value is not assignable to its field;
+        the fields before it have then been set. */
+    public void setObjFieldValues(Object obj, Object[] vals);
+}
@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package jdk.internal.reflect;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+
+/** Generator for SerialFieldAccessor objects. The generated class
+    has one method per kind of batch access of java.io.ObjectStreamClass,
+    with straight-line code that reads or writes each field with
+    getfield or putfield, and converts primitive values with the static
+    methods of SerialFieldAccessorImpl. */
+
+class SerialFieldAccessorGenerator extends AccessorGenerator {
+
+    private static final short NUM_BASE_CPOOL_ENTRIES = (short) 14;
+    // Name, descriptor, NameAndType and Methodref of the get and put
+    // methods of each of the 8 primitive types
+    private static final short NUM_MARSHALLING_CPOOL_ENTRIES = (short) 64;
+    // The four accessor methods plus the constructor
+    private static final short NUM_METHODS = (short) 5;
+
+    private static final String PRIM_DESCRIPTOR = "(Ljava/lang/Object;[B)V";
+    private static final String OBJ_DESCRIPTOR =
+        "(Ljava/lang/Object;[Ljava/lang/Object;)V";
+
+    private static volatile int symnum;
+
+    private Field[] getFields;
+    private Field[] setFields;
+    private int[] offsets;
+
+    // Constant pool indices of the Fieldref of each field, and of the
+    // CONSTANT_Class_info of the type of each object field
+    private short[] fieldRefs;
+    private short[] typeClasses;
+
+    // Constant pool indices of the Methodrefs of the marshalling
+    // methods, by primitive type
+    private final short[] getMethodRefs = new short[8];
+    private final short[] putMethodRefs = new short[8];
+
+    private short getPrimIdx;
+    private short setPrimIdx;
+    private short getObjIdx;
+    private short setObjIdx;
+
+    SerialFieldAccessorGenerator() {
+    }
+
+    /** Generates an accessor of the given fields of declaringClass,
+        whose values are read from getFields and written to setFields.
+        A null element of either array is skipped by the corresponding
+        methods. The fields must be instance fields of declaringClass,
+        and the fields to set must not be final. Returns null if the
+        offsets do not fit in the generated code. This routine is not
+        thread-safe. */
+    public SerialFieldAccessor generate(final Class<?> declaringClass,
+                                        Field[] getFields,
+                                        Field[] setFields,
+                                        int[] offsets)
+    {
+        this.getFields = getFields;
+        this.setFields = setFields;
+        this.offsets = offsets;
+        int nfields = offsets.length;
+
+        int numCPEntries = NUM_BASE_CPOOL_ENTRIES + NUM_COMMON_CPOOL_ENTRIES +
+            NUM_MARSHALLING_CPOOL_ENTRIES;
+        for (int i = 0; i < nfields; i++) {
+            Field f = field(i);
+            if (f == null) {
+                continue;
+            }
+            if (f.getDeclaringClass() != declaringClass ||
+                Modifier.isStatic(f.getModifiers()) ||
+                (setFields[i] != null && Modifier.isFinal(f.getModifiers()))) {
+                throw new IllegalArgumentException("Illegal field " + f);
+            }
+            if (offsets[i] < 0 || offsets[i] > Short.MAX_VALUE) {
+                return null;
+            }
+            numCPEntries += f.getType().isPrimitive() ? 4 : 6;
+        }
+        if (numCPEntries >= Short.MAX_VALUE) {
+            return null;
+        }
+
+        ByteVector vec = ByteVectorFactory.create();
+        asm = new ClassFileAssembler(vec);
+        asm.emitMagicAndVersion();
+
+        // Constant pool entries:
+        // (+  = Shared entries provided by AccessorGenerator)
+        //     [UTF-8] [This class's name]
+        //     [CONSTANT_Class_info] for above
+        //     [UTF-8] "jdk/internal/reflect/SerialFieldAccessorImpl"
+        //     [CONSTANT_Class_info] for above
+        //     [UTF-8] [Target class's name]
+        //     [CONSTANT_Class_info] for above
+        //     [UTF-8] "getPrimFieldValues"
+        //     [UTF-8] "(Ljava/lang/Object;[B)V"
+        //     [UTF-8] "setPrimFieldValues"
+        //     [UTF-8] "(Ljava/lang/Object;[B)V"
+        //     [UTF-8] "getObjFieldValues"
+        //     [UTF-8] "(Ljava/lang/Object;[Ljava/lang/Object;)V"
+        //     [UTF-8] "setObjFieldValues"
+        //     [UTF-8] "(Ljava/lang/Object;[Ljava/lang/Object;)V"
+        // +   [30 entries shared by all accessor generators]
+        //     for each primitive type, Z, B, C, S, I, F, J and D:
+        //     [UTF-8] "get" + type name
+        //     [UTF-8] "([BI)" + type
+        //     [CONSTANT_NameAndType_info] for above
+        //     [CONSTANT_Methodref_info] for above
+        //     [UTF-8] "put" + type name
+        //     [UTF-8] "([BI" + type + ")V"
+        //     [CONSTANT_NameAndType_info] for above
+        //     [CONSTANT_Methodref_info] for above
+        //     for each field:
+        //     [UTF-8] field name
+        //     [UTF-8] field descriptor
+        //     [CONSTANT_NameAndType_info] for above
+        //     [CONSTANT_Fieldref_info] for above
+        //     and for the fields of object type:
+        //     [UTF-8] field type's name
+        //     [CONSTANT_Class_info] for above
+
+        asm.emitShort(add((short) numCPEntries, S1));
+
+        final String generatedName = generateName();
+        asm.emitConstantPoolUTF8(generatedName);
+        asm.emitConstantPoolClass(asm.cpi());
+        thisClass = asm.cpi();
+        asm.emitConstantPoolUTF8("jdk/internal/reflect/SerialFieldAccessorImpl");
+        asm.emitConstantPoolClass(asm.cpi());
+        superClass = asm.cpi();
+        asm.emitConstantPoolUTF8(getClassName(declaringClass, false));
+        asm.emitConstantPoolClass(asm.cpi());
+        targetClass = asm.cpi();
+        asm.emitConstantPoolUTF8("getPrimFieldValues");
+        getPrimIdx = asm.cpi();
+        asm.emitConstantPoolUTF8(PRIM_DESCRIPTOR);
+        asm.emitConstantPoolUTF8("setPrimFieldValues");
+        setPrimIdx = asm.cpi();
+        asm.emitConstantPoolUTF8(PRIM_DESCRIPTOR);
+        asm.emitConstantPoolUTF8("getObjFieldValues");
+        getObjIdx = asm.cpi();
+        asm.emitConstantPoolUTF8(OBJ_DESCRIPTOR);
+        asm.emitConstantPoolUTF8("setObjFieldValues");
+        setObjIdx = asm.cpi();
+        asm.emitConstantPoolUTF8(OBJ_DESCRIPTOR);
+
+        emitCommonConstantPoolEntries();
+
+        for (int t = 0; t < primitiveTypes.length; t++) {
+            Class<?> type = primitiveTypes[t];
+            String typeName = getClassName(type, true);
+            String name = marshallingName(type);
+            asm.emitConstantPoolUTF8("get" + name);
+            asm.emitConstantPoolUTF8("([BI)" + typeName);
+            asm.emitConstantPoolNameAndType(sub(asm.cpi(), S1), asm.cpi());
+            asm.emitConstantPoolMethodref(superClass, asm.cpi());
+            getMethodRefs[t] = asm.cpi();
+            asm.emitConstantPoolUTF8("put" + name);
+            asm.emitConstantPoolUTF8("([BI" + typeName + ")V");
+            asm.emitConstantPoolNameAndType(sub(asm.cpi(), S1), asm.cpi());
+            asm.emitConstantPoolMethodref(superClass, asm.cpi());
+            putMethodRefs[t] = asm.cpi();
+        }
+
+        fieldRefs = new short[nfields];
+        typeClasses = new short[nfields];
+        for (int i = 0; i < nfields; i++) {
+            Field f = field(i);
+            if (f == null) {
+                continue;
+            }
+            asm.emitConstantPoolUTF8(f.getName());
+            asm.emitConstantPoolUTF8(getClassName(f.getType(), true));
+            asm.emitConstantPoolNameAndType(sub(asm.cpi(), S1), asm.cpi());
+            asm.emitConstantPoolFieldref(targetClass, asm.cpi());
+            fieldRefs[i] = asm.cpi();
+            if (!f.getType().isPrimitive()) {
+                asm.emitConstantPoolUTF8(getClassName(f.getType(), false));
+                asm.emitConstantPoolClass(asm.cpi());
+                typeClasses[i] = asm.cpi();
+            }
+        }
+
+        if (asm.cpi() != numCPEntries) {
+            throw new InternalError("Adjust this code (cpi = " + asm.cpi() +
+                                    ", numCPEntries = " + numCPEntries + ")");
+        }
+
+        // Access flags
+        asm.emitShort(ACC_PUBLIC);
+
+        // This class
+        asm.emitShort(thisClass);
+
+        // Superclass
+        asm.emitShort(superClass);
+
+        // Interfaces count and interfaces
+        asm.emitShort(S0);
+
+        // Fields count and fields
+        asm.emitShort(S0);
+
+        // Methods count and methods
+        asm.emitShort(NUM_METHODS);
+
+        emitConstructor();
+        emitGetFieldValues(getPrimIdx, true);
+        emitSetFieldValues(setPrimIdx, true);
+        emitGetFieldValues(getObjIdx, false);
+        emitSetFieldValues(setObjIdx, false);
+
+        // Additional attributes (none)
+        asm.emitShort(S0);
+
+        // Load class
+        vec.trim();
+        final byte[] bytes = vec.getData();
+        return AccessController.doPrivileged(
+            new PrivilegedAction<SerialFieldAccessor>() {
+                @SuppressWarnings("deprecation") // Class.newInstance
+                public SerialFieldAccessor run() {
+                    try {
+                        return (SerialFieldAccessor)
+                            ClassDefiner.defineClass
+                                (generatedName,
+                                 bytes,
+                                 0,
+                                 bytes.length,
+                                 declaringClass.getClassLoader()).newInstance();
+                    } catch (InstantiationException | IllegalAccessException e) {
+                        throw new InternalError(e);
+                    }
+                }
+            });
+    }
+
+    private Field field(int i) {
+        return (getFields[i] != null) ? getFields[i] : setFields[i];
+    }
+
+    /** Emits getPrimFieldValues or getObjFieldValues. Local 1 is the
+        object, local 2 the array, and local 3 the object cast to the
+        target class. */
+    private void emitGetFieldValues(short nameIdx, boolean primitive) {
+        ClassFileAssembler cb = new ClassFileAssembler();
+        cb.setMaxLocals(4);
+        cb.opc_aload_1();
+        cb.opc_checkcast(targetClass);
+        cb.opc_astore_3();
+        for (int i = 0; i < getFields.length; i++) {
+            Field f = getFields[i];
+            if (f == null || f.getType().isPrimitive() != primitive) {
+                continue;
+            }
+            Class<?> type = f.getType();
+            int size = typeSizeInStackSlots(type);
+            cb.opc_aload_2();
+            cb.opc_sipush((short) offsets[i]);
+            cb.opc_aload_3();
+            cb.opc_getfield(fieldRefs[i], size);
+            if (primitive) {
+                cb.opc_invokestatic(putMethodRefs[primitiveIndex(type)],
+                                    2 + size, 0);
+            } else {
+                cb.opc_aastore();
+            }
+        }
+        cb.opc_return();
+        emitMethod(nameIdx, 3, cb, null, null);
+    }
+
+    /** Emits setPrimFieldValues or setObjFieldValues, with the same
+        locals as the get methods. */
+    private void emitSetFieldValues(short nameIdx, boolean primitive) {
+        ClassFileAssembler cb = new ClassFileAssembler();
+        cb.setMaxLocals(4);
+        cb.opc_aload_1();
+        cb.opc_checkcast(targetClass);
+        cb.opc_astore_3();
+        for (int i = 0; i < setFields.length; i++) {
+            Field f = setFields[i];
+            if (f == null || f.getType().isPrimitive() != primitive) {
+                continue;
+            }
+            Class<?> type = f.getType();
+            int size = typeSizeInStackSlots(type);
+            cb.opc_aload_3();
+            cb.opc_aload_2();
+            cb.opc_sipush((short) offsets[i]);
+            if (primitive) {
+                cb.opc_invokestatic(getMethodRefs[primitiveIndex(type)],
+                                    2, size);
+            } else {
+                cb.opc_aaload();
+                cb.opc_checkcast(typeClasses[i]);
+            }
+            cb.opc_putfield(fieldRefs[i], size);
+        }
+        cb.opc_return();
+        emitMethod(nameIdx, 3, cb, null, null);
+    }
+
+    private static int primitiveIndex(Class<?> type) {
+        for (int t = 0; t < primitiveTypes.length; t++) {
+            if (primitiveTypes[t] == type) {
+                return t;
+            }
+        }
+        throw new InternalError("Should have found primitive type");
+    }
+
+    /** Returns the suffix of the marshalling methods of SerialFieldAccessorImpl
+        for the given primitive type */
+    private static String marshallingName(Class<?> type) {
+        String name = type.getName();
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static synchronized String generateName() {
+        int num = ++symnum;
+        return "jdk/internal/reflect/GeneratedSerialFieldAccessor" + num;
+    }
+}
@@ -155,12 +155,14 @@ module java.base {
         jdk.attach,
         jdk.charsets,
         jdk.compiler,
+        jdk.crypto.cryptoki,
         jdk.incubator.httpclient,
         jdk.internal.vm.ci,
         jdk.jdeps,
         jdk.jfr,
         jdk.jlink,
         jdk.jshell,
+        jdk.management,
         jdk.management.resource,
         jdk.net,
         jdk.scripting.nashorn,
@@ -32,6 +32,8 @@ import java.nio.ByteBuffer;
 import java.nio.channels.*;
 import java.nio.channels.spi.*;
 import java.util.*;
+import jdk.internal.misc.JavaNioAccess;
+import jdk.internal.misc.SharedSecrets;
 import sun.net.ResourceManager;
 import sun.net.ext.ExtendedSocketOptions;
 
@@ -47,6 +49,10 @@ class DatagramChannelImpl
     // Used to make native read and write calls
     private static NativeDispatcher nd = new DatagramDispatcher();
 
+    // Used to hold the scope of a buffer open during native I/O
+    private static final JavaNioAccess NIO_ACCESS =
+        SharedSecrets.getJavaNioAccess();
+
     // Our file descriptor
     private final FileDescriptor fd;
 
@@ -412,8 +418,14 @@ class DatagramChannelImpl
                                         int rem, int pos)
         throws IOException
     {
-        int n = receive0(fd, ((DirectBuffer)bb).address() + pos, rem,
+        int n;
+        NIO_ACCESS.acquireScope(bb);
+        try {
+            n = receive0(fd, ((DirectBuffer)bb).address() + pos, rem,
                          isConnected());
+        } finally {
+            NIO_ACCESS.releaseScope(bb);
+        }
         if (n > 0)
             bb.position(pos + n);
         return n;
@@ -518,6 +530,7 @@ class DatagramChannelImpl
 
         boolean preferIPv6 = (family != StandardProtocolFamily.INET);
         int written;
+        NIO_ACCESS.acquireScope(bb);
         try {
             written = send0(preferIPv6, fd, ((DirectBuffer)bb).address() + pos,
                             rem, target.getAddress(), target.getPort());
@@ -525,6 +538,8 @@ class DatagramChannelImpl
             if (isConnected())
                 throw pue;
             written = rem;
+        } finally {
+            NIO_ACCESS.releaseScope(bb);
         }
         if (written > 0)
             bb.position(pos + written);
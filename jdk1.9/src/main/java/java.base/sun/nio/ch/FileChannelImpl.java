@@ -28,6 +28,7 @@ package sun.nio.ch;
 import java.io.FileDescriptor;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.DirectBufferScope;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
@@ -797,6 +798,8 @@ public class FileChannelImpl
 
     // -- Memory-mapped buffers --
 
+    // Run by the cleaner of the mapped buffer, or, for a region mapped in a
+    // DirectBufferScope, when that scope is closed
     private static class Unmapper
         implements Runnable
     {
@@ -864,6 +867,17 @@ public class FileChannelImpl
 
     public MappedByteBuffer map(MapMode mode, long position, long size)
         throws IOException
+    {
+        return map(mode, position, size, null);
+    }
+
+    /**
+     * Invoked by DirectBufferScope to map a region whose Unmapper is run when
+     * the given scope, if not null, is closed rather than by a cleaner.
+     */
+    public MappedByteBuffer map(MapMode mode, long position, long size,
+                                DirectBufferScope scope)
+        throws IOException
     {
         ensureOpen();
         if (mode == null)
@@ -926,9 +940,9 @@ public class FileChannelImpl
                     // a valid file descriptor is not required
                     FileDescriptor dummy = new FileDescriptor();
                     if ((!writable) || (imode == MAP_RO))
-                        return Util.newMappedByteBufferR(0, 0, dummy, null);
+                        return Util.newMappedByteBufferR(0, 0, dummy, null, scope);
                     else
-                        return Util.newMappedByteBuffer(0, 0, dummy, null);
+                        return Util.newMappedByteBuffer(0, 0, dummy, null, scope);
                 }
 
                 pagePosition = (int)(position % allocationGranularity);
@@ -973,12 +987,14 @@ public class FileChannelImpl
                 return Util.newMappedByteBufferR(isize,
                                                  addr + pagePosition,
                                                  mfd,
-                                                 um);
+                                                 um,
+                                                 scope);
             } else {
                 return Util.newMappedByteBuffer(isize,
                                                 addr + pagePosition,
                                                 mfd,
-                                                um);
+                                                um,
+                                                scope);
             }
         } finally {
             threads.remove(ti);
@@ -28,6 +28,8 @@ package sun.nio.ch;
 import java.io.FileDescriptor;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import jdk.internal.misc.JavaNioAccess;
+import jdk.internal.misc.SharedSecrets;
 
 
 /**
@@ -41,6 +43,9 @@ public class IOUtil {
      */
     static final int IOV_MAX;
 
+    private static final JavaNioAccess NIO_ACCESS =
+        SharedSecrets.getJavaNioAccess();
+
     private IOUtil() { }                // No instantiation
 
     static int write(FileDescriptor fd, ByteBuffer src, long position,
@@ -85,12 +90,17 @@ public class IOUtil {
         int written = 0;
         if (rem == 0)
             return 0;
-        if (position != -1) {
-            written = nd.pwrite(fd,
-                                ((DirectBuffer)bb).address() + pos,
-                                rem, position);
-        } else {
-            written = nd.write(fd, ((DirectBuffer)bb).address() + pos, rem);
+        NIO_ACCESS.acquireScope(bb);
+        try {
+            if (position != -1) {
+                written = nd.pwrite(fd,
+                                    ((DirectBuffer)bb).address() + pos,
+                                    rem, position);
+            } else {
+                written = nd.write(fd, ((DirectBuffer)bb).address() + pos, rem);
+            }
+        } finally {
+            NIO_ACCESS.releaseScope(bb);
         }
         if (written > 0)
             bb.position(pos + written);
@@ -126,7 +136,7 @@ public class IOUtil {
                     vec.setBuffer(iov_len, buf, pos, rem);
 
                     // allocate shadow buffer to ensure I/O is done with direct buffer
-                    if (!(buf instanceof DirectBuffer)) {
+                    if (Util.needsTemporaryDirectBuffer(buf)) {
                         ByteBuffer shadow = Util.getTemporaryDirectBuffer(rem);
                         shadow.put(buf);
                         shadow.flip();
@@ -216,11 +226,16 @@ public class IOUtil {
         if (rem == 0)
             return 0;
         int n = 0;
-        if (position != -1) {
-            n = nd.pread(fd, ((DirectBuffer)bb).address() + pos,
-                         rem, position);
-        } else {
-            n = nd.read(fd, ((DirectBuffer)bb).address() + pos, rem);
+        NIO_ACCESS.acquireScope(bb);
+        try {
+            if (position != -1) {
+                n = nd.pread(fd, ((DirectBuffer)bb).address() + pos,
+                             rem, position);
+            } else {
+                n = nd.read(fd, ((DirectBuffer)bb).address() + pos, rem);
+            }
+        } finally {
+            NIO_ACCESS.releaseScope(bb);
         }
         if (n > 0)
             bb.position(pos + n);
@@ -259,7 +274,7 @@ public class IOUtil {
                     vec.setBuffer(iov_len, buf, pos, rem);
 
                     // allocate shadow buffer to ensure I/O is done with direct buffer
-                    if (!(buf instanceof DirectBuffer)) {
+                    if (Util.needsTemporaryDirectBuffer(buf)) {
                         ByteBuffer shadow = Util.getTemporaryDirectBuffer(rem);
                         vec.setShadow(iov_len, shadow);
                         buf = shadow;
@@ -28,10 +28,12 @@ package sun.nio.ch;
 import java.lang.reflect.*;
 import java.io.FileDescriptor;
 import java.nio.ByteBuffer;
+import java.nio.DirectBufferScope;
 import java.nio.MappedByteBuffer;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.*;
+import jdk.internal.misc.SharedSecrets;
 import jdk.internal.misc.Unsafe;
 import sun.security.action.GetPropertyAction;
 
@@ -204,6 +206,16 @@ public class Util {
         }
     }
 
+    /**
+     * Tells whether I/O on the given buffer must be done with a temporary
+     * direct buffer: the buffer is not direct, or its memory is owned by a
+     * buffer scope that could be closed while the I/O is in progress
+     */
+    static boolean needsTemporaryDirectBuffer(ByteBuffer bb) {
+        return !(bb instanceof DirectBuffer)
+            || SharedSecrets.getJavaNioAccess().hasScope(bb);
+    }
+
     /**
      * Returns a temporary buffer of at least the given size
      */
@@ -378,7 +390,8 @@ public class Util {
                             new Class<?>[] { int.class,
                                              long.class,
                                              FileDescriptor.class,
-                                             Runnable.class });
+                                             Runnable.class,
+                                             DirectBufferScope.class });
                         ctor.setAccessible(true);
                         directByteBufferConstructor = ctor;
                     } catch (ClassNotFoundException   |
@@ -393,7 +406,8 @@ public class Util {
 
     static MappedByteBuffer newMappedByteBuffer(int size, long addr,
                                                 FileDescriptor fd,
-                                                Runnable unmapper)
+                                                Runnable unmapper,
+                                                DirectBufferScope scope)
     {
         MappedByteBuffer dbb;
         if (directByteBufferConstructor == null)
@@ -403,10 +417,15 @@ public class Util {
               new Object[] { size,
                              addr,
                              fd,
-                             unmapper });
+                             unmapper,
+                             scope });
+        } catch (InvocationTargetException e) {
+            // The scope was closed while the region was being mapped
+            if (e.getCause() instanceof IllegalStateException)
+                throw (IllegalStateException)e.getCause();
+            throw new InternalError(e);
         } catch (InstantiationException |
-                 IllegalAccessException |
-                 InvocationTargetException e) {
+                 IllegalAccessException e) {
             throw new InternalError(e);
         }
         return dbb;
@@ -423,7 +442,8 @@ public class Util {
                             new Class<?>[] { int.class,
                                              long.class,
                                              FileDescriptor.class,
-                                             Runnable.class });
+                                             Runnable.class,
+                                             DirectBufferScope.class });
                         ctor.setAccessible(true);
                         directByteBufferRConstructor = ctor;
                     } catch (ClassNotFoundException |
@@ -438,7 +458,8 @@ public class Util {
 
     static MappedByteBuffer newMappedByteBufferR(int size, long addr,
                                                  FileDescriptor fd,
-                                                 Runnable unmapper)
+                                                 Runnable unmapper,
+                                                 DirectBufferScope scope)
     {
         MappedByteBuffer dbb;
         if (directByteBufferRConstructor == null)
@@ -448,10 +469,15 @@ public class Util {
               new Object[] { size,
                              addr,
                              fd,
-                             unmapper });
+                             unmapper,
+                             scope });
+        } catch (InvocationTargetException e) {
+            // The scope was closed while the region was being mapped
+            if (e.getCause() instanceof IllegalStateException)
+                throw (IllegalStateException)e.getCause();
+            throw new InternalError(e);
         } catch (InstantiationException |
-                 IllegalAccessException |
-                 InvocationTargetException e) {
+                 IllegalAccessException e) {
             throw new InternalError(e);
         }
         return dbb;
@@ -417,8 +417,8 @@ public class WindowsAsynchronousFileChannelImpl
             long overlapped = 0L;
             long address;
 
-            // Substitute a native buffer if not direct
-            if (dst instanceof DirectBuffer) {
+            // Substitute a native buffer if not direct, or if owned by a scope
+            if (!Util.needsTemporaryDirectBuffer(dst)) {
                 buf = dst;
                 address = ((DirectBuffer)dst).address() + pos;
             } else {
@@ -594,8 +594,8 @@ public class WindowsAsynchronousFileChannelImpl
             long overlapped = 0L;
             long address;
 
-            // Substitute a native buffer if not direct
-            if (src instanceof DirectBuffer) {
+            // Substitute a native buffer if not direct, or if owned by a scope
+            if (!Util.needsTemporaryDirectBuffer(src)) {
                 buf = src;
                 address = ((DirectBuffer)src).address() + pos;
             } else {
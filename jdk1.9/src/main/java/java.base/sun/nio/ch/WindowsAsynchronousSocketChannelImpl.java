@@ -419,7 +419,7 @@ class WindowsAsynchronousSocketChannelImpl
                 assert (pos <= lim);
                 int rem = (pos <= lim ? lim - pos : 0);
                 long a;
-                if (!(dst instanceof DirectBuffer)) {
+                if (Util.needsTemporaryDirectBuffer(dst)) {
                     // substitute with direct buffer
                     ByteBuffer bb = Util.getTemporaryDirectBuffer(rem);
                     shadow[i] = bb;
@@ -467,7 +467,7 @@ class WindowsAsynchronousSocketChannelImpl
 
             // Put results from shadow into the slow buffers
             for (int i=0; i<numBufs; i++) {
-                if (!(bufs[i] instanceof DirectBuffer)) {
+                if (Util.needsTemporaryDirectBuffer(bufs[i])) {
                     shadow[i].flip();
                     try {
                         bufs[i].put(shadow[i]);
@@ -480,7 +480,7 @@ class WindowsAsynchronousSocketChannelImpl
 
         void releaseBuffers() {
             for (int i=0; i<numBufs; i++) {
-                if (!(bufs[i] instanceof DirectBuffer)) {
+                if (Util.needsTemporaryDirectBuffer(bufs[i])) {
                     Util.releaseTemporaryDirectBuffer(shadow[i]);
                 }
             }
@@ -690,7 +690,7 @@ class WindowsAsynchronousSocketChannelImpl
                 assert (pos <= lim);
                 int rem = (pos <= lim ? lim - pos : 0);
                 long a;
-                if (!(src instanceof DirectBuffer)) {
+                if (Util.needsTemporaryDirectBuffer(src)) {
                     // substitute with direct buffer
                     ByteBuffer bb = Util.getTemporaryDirectBuffer(rem);
                     bb.put(src);
@@ -744,7 +744,7 @@ class WindowsAsynchronousSocketChannelImpl
 
         void releaseBuffers() {
             for (int i=0; i<numBufs; i++) {
-                if (!(bufs[i] instanceof DirectBuffer)) {
+                if (Util.needsTemporaryDirectBuffer(bufs[i])) {
                     Util.releaseTemporaryDirectBuffer(shadow[i]);
                 }
             }
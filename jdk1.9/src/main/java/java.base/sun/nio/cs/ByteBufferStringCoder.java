@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package sun.nio.cs;
+
+import java.nio.ByteBuffer;
+
+/*
+ * FastPath ByteBuffer<->String coding for charsets whose characters map
+ * directly onto the compact (Latin-1) representation of String and
+ * StringBuilder. Used by AbstractStringBuilder.append(ByteBuffer, Charset)
+ * and appendTo(ByteBuffer, Charset), which decode into and encode from
+ * the Latin-1 value array of the builder, so that no intermediate
+ * CharBuffer, char[] or String is needed for Latin-1 content.
+ * Malformed input and unmappable characters are replaced, as by
+ * String(byte[], Charset) and String.getBytes(Charset).
+ */
+
+public interface ByteBufferStringCoder {
+
+    /*
+     * Decodes bytes of src, from its position, into the Latin-1 array dst,
+     * from index dp, for as long as they decode to characters in
+     * U+0000..U+00FF and dst has room. Stops before the first byte of any
+     * other character or of malformed input, so that the rest of src
+     * decodes separately to the same characters as it would have as a
+     * whole. Advances the position of src past the bytes decoded, and
+     * returns the index in dst after the last character decoded.
+     */
+    int decodeLatin1(ByteBuffer src, byte[] dst, int dp);
+
+    /*
+     * Decodes the remaining bytes of src into a String, advancing the
+     * position of src to its limit.
+     */
+    String decodeToString(ByteBuffer src);
+
+    /*
+     * Encodes the Latin-1 characters src[0] to src[len - 1] into dst,
+     * advancing the position of dst, and returns the number of bytes
+     * written. Throws BufferOverflowException, leaving dst unchanged, if
+     * dst does not have enough room for the whole encoding.
+     */
+    int encodeLatin1(byte[] src, int len, ByteBuffer dst);
+}
@@ -35,10 +35,11 @@ import java.util.Arrays;
 import java.util.Objects;
 
 import jdk.internal.HotSpotIntrinsicCandidate;
+import jdk.internal.misc.SharedSecrets;
 
 class ISO_8859_1
     extends Charset
-    implements HistoricallyNamedCharset
+    implements HistoricallyNamedCharset, ByteBufferStringCoder
 {
 
     public ISO_8859_1() {
@@ -62,6 +63,25 @@ class ISO_8859_1
         return new Encoder(this);
     }
 
+    public int decodeLatin1(ByteBuffer src, byte[] dst, int dp) {
+        // every byte is a character
+        int n = Math.min(src.remaining(), dst.length - dp);
+        src.get(dst, dp, n);
+        return dp + n;
+    }
+
+    public String decodeToString(ByteBuffer src) {
+        // the bytes become the String's value
+        byte[] ba = new byte[src.remaining()];
+        decodeLatin1(src, ba, 0);
+        return SharedSecrets.getJavaLangAccess().newStringLatin1Unsafe(ba);
+    }
+
+    public int encodeLatin1(byte[] src, int len, ByteBuffer dst) {
+        dst.put(src, 0, len);
+        return len;
+    }
+
     private static class Decoder extends CharsetDecoder
                                  implements ArrayDecoder {
         private Decoder(Charset cs) {
@@ -25,16 +25,18 @@
 
 package sun.nio.cs;
 
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CoderResult;
+import jdk.internal.misc.SharedSecrets;
 
 public class US_ASCII
     extends Charset
-    implements HistoricallyNamedCharset
+    implements HistoricallyNamedCharset, ByteBufferStringCoder
 {
 
     public US_ASCII() {
@@ -57,6 +59,47 @@ public class US_ASCII
         return new Encoder(this);
     }
 
+    public int decodeLatin1(ByteBuffer src, byte[] dst, int dp) {
+        int pos = src.position();
+        int lim = Math.min(src.limit(), pos + dst.length - dp);
+        while (pos < lim) {
+            byte b = src.get(pos);
+            if (b < 0)
+                break;
+            dst[dp++] = b;
+            pos++;
+        }
+        src.position(pos);
+        return dp;
+    }
+
+    public String decodeToString(ByteBuffer src) {
+        int len = src.remaining();
+        byte[] ba = new byte[len];
+        int dp = decodeLatin1(src, ba, 0);
+        if (dp == len)
+            return SharedSecrets.getJavaLangAccess().newStringLatin1Unsafe(ba);
+        // malformed, the replacement is not a Latin-1 character
+        char[] ca = new char[len];
+        for (int i = 0; i < dp; i++)
+            ca[i] = (char)ba[i];
+        for (int i = dp; i < len; i++) {
+            byte b = src.get();
+            ca[i] = (b >= 0) ? (char)b : '\uFFFD';
+        }
+        return new String(ca);
+    }
+
+    public int encodeLatin1(byte[] src, int len, ByteBuffer dst) {
+        if (dst.remaining() < len)
+            throw new BufferOverflowException();
+        for (int i = 0; i < len; i++) {
+            byte b = src[i];
+            dst.put(b >= 0 ? b : (byte)'?');
+        }
+        return len;
+    }
+
     private static class Decoder extends CharsetDecoder
                                  implements ArrayDecoder {
 
@@ -26,6 +26,7 @@
 package sun.nio.cs;
 
 import java.nio.Buffer;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
@@ -33,6 +34,8 @@ import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CoderResult;
 import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import jdk.internal.misc.SharedSecrets;
 
 /* Legal UTF-8 Byte Sequences
  *
@@ -55,6 +58,7 @@ import java.nio.charset.CodingErrorAction;
  */
 
 class UTF_8 extends Unicode
+    implements ByteBufferStringCoder
 {
     public UTF_8() {
         super("UTF-8", StandardCharsets.aliases_UTF_8);
@@ -72,6 +76,74 @@ class UTF_8 extends Unicode
         return new Encoder(this);
     }
 
+    public int decodeLatin1(ByteBuffer src, byte[] dst, int dp) {
+        int pos = src.position();
+        int lim = src.limit();
+        int dl = dst.length;
+        while (pos < lim && dp < dl) {
+            int b1 = src.get(pos);
+            if (b1 >= 0) {
+                dst[dp++] = (byte)b1;
+                pos++;
+            } else if ((b1 & 0xfe) == 0xc2 && pos + 1 < lim &&
+                       !Decoder.isNotContinuation(src.get(pos + 1))) {
+                // 2 bytes, C2..C3 80..BF, U+0080..U+00FF
+                dst[dp++] = (byte)(((b1 & 0x1f) << 6) | (src.get(pos + 1) & 0x3f));
+                pos += 2;
+            } else {
+                break;
+            }
+        }
+        src.position(pos);
+        return dp;
+    }
+
+    public String decodeToString(ByteBuffer src) {
+        int len = src.remaining();
+        byte[] ba = new byte[len];
+        int dp = decodeLatin1(src, ba, 0);
+        if (!src.hasRemaining())
+            return SharedSecrets.getJavaLangAccess().newStringLatin1Unsafe(
+                (dp == len) ? ba : Arrays.copyOf(ba, dp));
+
+        // characters beyond U+00FF or malformed input from here on, which
+        // fit after the Latin-1 characters as each of them took a byte
+        int rest = src.remaining();
+        src.get(ba, dp, rest);
+        char[] ca = new char[dp + rest];
+        for (int i = 0; i < dp; i++)
+            ca[i] = (char)(ba[i] & 0xff);
+        char[] ra = new char[rest];
+        int n = ((ArrayDecoder)new Decoder(this)
+                     .onMalformedInput(CodingErrorAction.REPLACE)
+                     .onUnmappableCharacter(CodingErrorAction.REPLACE))
+                .decode(ba, dp, rest, ra);
+        System.arraycopy(ra, 0, ca, dp, n);
+        return new String(ca, 0, dp + n);
+    }
+
+    public int encodeLatin1(byte[] src, int len, ByteBuffer dst) {
+        int n = len;
+        for (int i = 0; i < len; i++) {
+            if (src[i] < 0)
+                n++;
+        }
+        if (dst.remaining() < n)
+            throw new BufferOverflowException();
+        for (int i = 0; i < len; i++) {
+            byte b = src[i];
+            if (b >= 0) {
+                dst.put(b);
+            } else {
+                // 2 bytes, 11 bits
+                int c = b & 0xff;
+                dst.put((byte)(0xc0 | (c >> 6)));
+                dst.put((byte)(0x80 | (c & 0x3f)));
+            }
+        }
+        return n;
+    }
+
     private static final void updatePositions(Buffer src, int sp,
                                               Buffer dst, int dp) {
         src.position(sp - src.arrayOffset());
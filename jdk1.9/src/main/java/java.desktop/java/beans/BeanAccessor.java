@@ -0,0 +1,411 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.beans;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import sun.reflect.misc.ReflectUtil;
+
+/**
+ * The {@code BeanAccessor} class reads and writes the properties of the
+ * <em>JavaBeans</em> of a class through method handles, which are looked
+ * up once from the {@link BeanInfo} of the class.
+ * <p>
+ * The accessor of a class is created the first time that it is requested,
+ * and is then cached with the class, without locking, until the class is
+ * flushed from the caches of the {@link Introspector}.  Reading a property
+ * does not use {@link PropertyDescriptor#getReadMethod} nor
+ * {@link Method#invoke}:
+ * <pre>
+ *     BeanAccessor.Property name = BeanAccessor.of(Person.class).getProperty("name");
+ *     ...
+ *     Object value = name.get(person);
+ *     name.set(person, "Duke");
+ * </pre>
+ * The accessor of a class is created from the bean info that is returned
+ * by {@link Introspector#getBeanInfo(Class)} at that time, and is used by
+ * all threads, whatever their {@link ThreadGroup}.
+ * <p>
+ * The read and write methods must be accessible through the
+ * {@linkplain MethodHandles#publicLookup public lookup}, which is the case
+ * of the public methods of public classes in exported packages; a method
+ * that is not accessible is handled as if it did not exist.
+ * <p>
+ * Instances of this class are immutable and are safe for use by multiple
+ * concurrent threads.
+ *
+ * @see Introspector#getBeanInfo(Class)
+ *
+ * @since 9
+ */
+public final class BeanAccessor {
+
+    private static volatile ClassValue<BeanAccessor> cache = newCache();
+
+    private static ClassValue<BeanAccessor> newCache() {
+        return new ClassValue<BeanAccessor>() {
+            @Override
+            protected BeanAccessor computeValue(Class<?> type) {
+                try {
+                    return new BeanAccessor(type, Introspector.getBeanInfo(type));
+                } catch (IntrospectionException exception) {
+                    // not cached, as the bean info is not
+                    throw new UndeclaredThrowableException(exception);
+                }
+            }
+        };
+    }
+
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<?> beanClass;
+    private final Property[] properties;
+    private final Map<String, Property> names;
+    private volatile BeanProperties beanProperties;
+
+    /**
+     * Returns the accessor of the properties of the given class.
+     *
+     * @param beanClass  the bean class
+     * @return the accessor of the class
+     *
+     * @throws IntrospectionException if an exception occurs during
+     *         introspection
+     * @throws NullPointerException if {@code beanClass} is {@code null}
+     * @throws SecurityException if the caller cannot access the package
+     *         of the class
+     */
+    public static BeanAccessor of(Class<?> beanClass) throws IntrospectionException {
+        ReflectUtil.checkPackageAccess(beanClass);
+        try {
+            return cache.get(beanClass);
+        } catch (UndeclaredThrowableException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof IntrospectionException) {
+                throw (IntrospectionException) cause;
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * Removes the accessor of the given class from the cache.
+     */
+    static void flushFromCache(Class<?> beanClass) {
+        cache.remove(beanClass);
+    }
+
+    /**
+     * Removes the accessors of all classes from the cache.
+     */
+    static void flushCache() {
+        cache = newCache();
+    }
+
+    private BeanAccessor(Class<?> beanClass, BeanInfo info) {
+        this.beanClass = beanClass;
+        PropertyDescriptor[] pds = info.getPropertyDescriptors();
+        if (pds == null) {
+            pds = new PropertyDescriptor[0];
+        }
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        Map<String, Property> names = new HashMap<>();
+        for (PropertyDescriptor pd : pds) {
+            MethodHandle getter = unreflect(lookup, pd.getReadMethod(), GETTER);
+            MethodHandle setter = unreflect(lookup, pd.getWriteMethod(), SETTER);
+            names.put(pd.getName(), new Property(pd.getName(), pd.getPropertyType(),
+                                                 getter, setter, pd.isTransient()));
+        }
+        Property[] properties = names.values().toArray(new Property[names.size()]);
+        Arrays.sort(properties, (p1, p2) -> p1.name.compareTo(p2.name));
+        this.properties = properties;
+        this.names = names;
+    }
+
+    private static MethodHandle unreflect(MethodHandles.Lookup lookup, Method method, MethodType type) {
+        if (method == null || method.getParameterCount() != type.parameterCount() - 1) {
+            return null;
+        }
+        try {
+            return lookup.unreflect(method).asType(type);
+        } catch (IllegalAccessException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the bean class of this accessor.
+     *
+     * @return the bean class
+     */
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    /**
+     * Returns the properties of the bean class, sorted by name.
+     *
+     * @return an unmodifiable list of the properties
+     */
+    public List<Property> getProperties() {
+        return Collections.unmodifiableList(Arrays.asList(properties));
+    }
+
+    /**
+     * Returns the property of the given name.
+     *
+     * @param name  the name of the property
+     * @return the property, or {@code null} if the bean class has no
+     *         property of this name
+     */
+    public Property getProperty(String name) {
+        return names.get(name);
+    }
+
+    /**
+     * Returns the value of the named property of the given bean.
+     *
+     * @param bean  the bean
+     * @param name  the name of the property
+     * @return the value of the property, boxed if its type is primitive
+     *
+     * @throws IllegalArgumentException if there is no such property
+     * @throws UnsupportedOperationException if the property is not readable
+     * @throws ClassCastException if the bean is not an instance of the bean class
+     * @throws NullPointerException if the bean is {@code null}
+     * @throws UndeclaredThrowableException if the read method throws
+     *         a checked exception
+     *
+     * @see Property#get
+     */
+    public Object get(Object bean, String name) {
+        return property(name).get(bean);
+    }
+
+    /**
+     * Sets the value of the named property of the given bean.
+     *
+     * @param bean  the bean
+     * @param name  the name of the property
+     * @param value  the new value of the property, boxed if its type is primitive
+     *
+     * @throws IllegalArgumentException if there is no such property
+     * @throws UnsupportedOperationException if the property is not writable
+     * @throws ClassCastException if the bean is not an instance of the bean class,
+     *         or if the value cannot be converted to the type of the property
+     * @throws NullPointerException if the bean is {@code null}, or if the value
+     *         is {@code null} and the type of the property is primitive
+     * @throws UndeclaredThrowableException if the write method throws
+     *         a checked exception
+     *
+     * @see Property#set
+     */
+    public void set(Object bean, String name, Object value) {
+        property(name).set(bean, value);
+    }
+
+    private Property property(String name) {
+        Property property = names.get(name);
+        if (property == null) {
+            throw new IllegalArgumentException("No property " + name + " in " + beanClass.getName());
+        }
+        return property;
+    }
+
+    /**
+     * Returns the persistent properties of the bean class.
+     */
+    BeanProperties getBeanProperties() {
+        BeanProperties bp = beanProperties;
+        if (bp == null) {
+            beanProperties = bp = new BeanProperties(beanClass, this, null);
+        }
+        return bp;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + "[beanClass=" + beanClass.getName() +
+               "; properties=" + Arrays.toString(properties) + "]";
+    }
+
+    /**
+     * A property of a bean class, with the method handles of its read
+     * and write methods.
+     *
+     * @since 9
+     */
+    public static final class Property {
+        private final String name;
+        private final Class<?> type;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final boolean isTransient;
+
+        Property(String name, Class<?> type, MethodHandle getter, MethodHandle setter, boolean isTransient) {
+            this.name = name;
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+            this.isTransient = isTransient;
+        }
+
+        /**
+         * Returns the name of this property.
+         *
+         * @return the programmatic name of the property
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the type of this property.
+         *
+         * @return the type of the property, or {@code null} if it is
+         *         unknown, as for {@link PropertyDescriptor#getPropertyType}
+         */
+        public Class<?> getPropertyType() {
+            return type;
+        }
+
+        /**
+         * Tells whether this property has an accessible read method.
+         *
+         * @return {@code true} if the property can be read
+         */
+        public boolean isReadable() {
+            return getter != null;
+        }
+
+        /**
+         * Tells whether this property has an accessible write method.
+         *
+         * @return {@code true} if the property can be written
+         */
+        public boolean isWritable() {
+            return setter != null;
+        }
+
+        /**
+         * Tells whether this property is transient.
+         */
+        boolean isTransient() {
+            return isTransient;
+        }
+
+        /**
+         * Returns a method handle of type {@code (Object)Object} that
+         * calls the read method of this property.
+         *
+         * @return the method handle of the read method, or {@code null}
+         *         if the property is not readable
+         */
+        public MethodHandle getReadHandle() {
+            return getter;
+        }
+
+        /**
+         * Returns a method handle of type {@code (Object,Object)void} that
+         * calls the write method of this property.
+         *
+         * @return the method handle of the write method, or {@code null}
+         *         if the property is not writable
+         */
+        public MethodHandle getWriteHandle() {
+            return setter;
+        }
+
+        /**
+         * Returns the value of this property of the given bean.
+         *
+         * @param bean  the bean
+         * @return the value of the property, boxed if its type is primitive
+         *
+         * @throws UnsupportedOperationException if the property is not readable
+         * @throws ClassCastException if the bean is not an instance of the
+         *         class of the property
+         * @throws NullPointerException if the bean is {@code null}
+         * @throws UndeclaredThrowableException if the read method throws
+         *         a checked exception
+         */
+        public Object get(Object bean) {
+            if (getter == null) {
+                throw new UnsupportedOperationException("Property " + name + " is not readable");
+            }
+            try {
+                return (Object) getter.invokeExact(bean);
+            } catch (RuntimeException | Error exception) {
+                throw exception;
+            } catch (Throwable throwable) {
+                throw new UndeclaredThrowableException(throwable);
+            }
+        }
+
+        /**
+         * Sets the value of this property of the given bean.
+         *
+         * @param bean  the bean
+         * @param value  the new value of the property, boxed if its type is primitive
+         *
+         * @throws UnsupportedOperationException if the property is not writable
+         * @throws ClassCastException if the bean is not an instance of the
+         *         class of the property, or if the value cannot be
+         *         converted to the type of the property
+         * @throws NullPointerException if the bean is {@code null}, or if the
+         *         value is {@code null} and the type of the property is primitive
+         * @throws UndeclaredThrowableException if the write method throws
+         *         a checked exception
+         */
+        public void set(Object bean, Object value) {
+            if (setter == null) {
+                throw new UnsupportedOperationException("Property " + name + " is not writable");
+            }
+            try {
+                setter.invokeExact(bean, value);
+            } catch (RuntimeException | Error exception) {
+                throw exception;
+            } catch (Throwable throwable) {
+                throw new UndeclaredThrowableException(throwable);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
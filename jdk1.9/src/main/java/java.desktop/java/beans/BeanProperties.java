@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.beans;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import java.beans.BeanAccessor.Property;
+
+/**
+ * The persistent properties of a class, as described by its
+ * {@link BeanAccessor}, and a method handle for the public no-argument
+ * constructor of the class.
+ * <p>
+ * The persistent properties are those with a read method and a write
+ * method which are not {@linkplain FeatureDescriptor#isTransient transient},
+ * which are the properties written by the {@link DefaultPersistenceDelegate}.
+ * Properties whose methods cannot be looked up with the
+ * {@linkplain MethodHandles#publicLookup public lookup} are left out.
+ * <p>
+ * The persistent properties of a class are cached with its accessor.
+ *
+ * @see BinaryEncoder
+ * @see BinaryDecoder
+ */
+final class BeanProperties {
+
+    private static final MethodType CONSTRUCTOR = MethodType.methodType(Object.class);
+
+    private final Class<?> type;
+    private final BeanAccessor accessor;
+    private final MethodHandle constructor;
+    private final Property[] properties;
+    private final IntrospectionException exception;
+
+    /**
+     * Returns the persistent properties of the given class.
+     *
+     * @param type  the class to introspect
+     * @return the properties of the class
+     */
+    static BeanProperties of(Class<?> type) {
+        try {
+            return BeanAccessor.of(type).getBeanProperties();
+        } catch (IntrospectionException exception) {
+            return new BeanProperties(type, null, exception);
+        }
+    }
+
+    /**
+     * Creates the persistent properties of a class from its accessor,
+     * which is {@code null} if the introspection of the class failed.
+     */
+    BeanProperties(Class<?> type, BeanAccessor accessor, IntrospectionException exception) {
+        this.type = type;
+        this.accessor = accessor;
+        this.constructor = findConstructor(type);
+        List<Property> list = new ArrayList<>();
+        if (accessor != null) {
+            for (Property property : accessor.getProperties()) {
+                if (isPersistent(property)) {
+                    list.add(property);
+                }
+            }
+        }
+        this.properties = list.toArray(new Property[list.size()]);
+        this.exception = exception;
+    }
+
+    private static boolean isPersistent(Property property) {
+        return property.isReadable() && property.isWritable() && !property.isTransient();
+    }
+
+    private static MethodHandle findConstructor(Class<?> type) {
+        int mod = type.getModifiers();
+        if (!Modifier.isPublic(mod) || Modifier.isAbstract(mod) || type.isArray() || type.isPrimitive()) {
+            return null;
+        }
+        try {
+            return MethodHandles.publicLookup()
+                    .findConstructor(type, MethodType.methodType(void.class))
+                    .asType(CONSTRUCTOR);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the introspected class.
+     *
+     * @return the class
+     */
+    Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Tells whether the class has a public no-argument constructor.
+     *
+     * @return {@code true} if {@link #newInstance} can create instances
+     */
+    boolean isInstantiable() {
+        return constructor != null;
+    }
+
+    /**
+     * Creates an instance of the class with its no-argument constructor.
+     *
+     * @return the new instance
+     * @throws InstantiationException if the class has no public
+     *         no-argument constructor
+     * @throws Exception if the constructor throws it
+     */
+    Object newInstance() throws Exception {
+        if (constructor == null) {
+            throw new InstantiationException("No public default constructor in " + type.getName());
+        }
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(t);
+        }
+    }
+
+    /**
+     * Returns the persistent properties, sorted by name.  The returned
+     * array must not be modified.
+     *
+     * @return the properties
+     */
+    Property[] getProperties() {
+        return properties;
+    }
+
+    /**
+     * Returns the persistent property of the given name.
+     *
+     * @param name  the name of the property
+     * @return the property, or {@code null} if there is none
+     */
+    Property getProperty(String name) {
+        if (accessor == null) {
+            return null;
+        }
+        Property property = accessor.getProperty(name);
+        return (property != null && isPersistent(property)) ? property : null;
+    }
+
+    /**
+     * Returns the exception thrown by the introspection of the class,
+     * in which case the class has no properties.
+     *
+     * @return the exception, or {@code null}
+     */
+    IntrospectionException getException() {
+        return exception;
+    }
+
+    @Override
+    public String toString() {
+        return type.getName() + Arrays.toString(properties);
+    }
+}
@@ -0,0 +1,654 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.beans;
+
+import com.sun.beans.finder.ClassFinder;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.Array;
+import java.security.AccessControlContext;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static java.beans.BinaryFormat.*;
+
+/**
+ * The {@code BinaryDecoder} class reads the objects written by the
+ * {@link BinaryEncoder} class, one at a time, as they are read from the
+ * underlying stream.  It is used just like the {@link XMLDecoder} class:
+ * <pre>
+ *       BinaryDecoder d = new BinaryDecoder(
+ *                             new FileInputStream("Test.bin"));
+ *       Object result = d.readObject();
+ *       d.close();
+ * </pre>
+ * <p>
+ * The beans, collections and maps are created with the public no-argument
+ * constructor of their classes, and the properties of the beans are set
+ * with their public write methods, which are found once per class with the
+ * {@link Introspector}.  The properties read from the stream that a class
+ * no longer has are ignored.
+ * <p>
+ * As with the {@code XMLDecoder}, the exceptions thrown by the
+ * constructors and write methods, and the classes that cannot be found,
+ * are reported to the {@linkplain #setExceptionListener exception listener},
+ * and only the objects that depend on them are not read.  A stream that is
+ * truncated or that is not in the format of the {@code BinaryEncoder} is
+ * reported too, and then no more objects are read from it.
+ * <p>
+ * As with the {@code XMLDecoder}, an archive can create instances of any
+ * bean class that can be loaded and call their write methods, so archives
+ * from untrusted sources should not be read.
+ *
+ * @see BinaryEncoder
+ * @see XMLDecoder
+ *
+ * @since 9
+ */
+public class BinaryDecoder implements AutoCloseable {
+
+    private final AccessControlContext acc = AccessController.getContext();
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private byte[] buf = new byte[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+
+    private InputStream in;
+    private final ClassLoader loader;
+    private ExceptionListener exceptionListener;
+    private boolean started;
+    private boolean ended;
+
+    private final List<Object> handles = new ArrayList<>();
+    private final List<String> strings = new ArrayList<>();
+    private final List<ClassEntry> classes = new ArrayList<>();
+
+    /**
+     * A class read from the stream.
+     */
+    private static final class ClassEntry {
+        final String name;
+        final Class<?> type;                       // or null if not found
+        BeanAccessor.Property[] properties;      // the properties of the stream
+
+        ClassEntry(String name, Class<?> type) {
+            this.name = name;
+            this.type = type;
+        }
+    }
+
+    /**
+     * Creates a new decoder for reading archives
+     * created by the {@code BinaryEncoder} class.
+     *
+     * @param in The underlying stream.
+     *
+     * @throws  IllegalArgumentException
+     *          if {@code in} is {@code null}
+     *
+     * @see BinaryEncoder#BinaryEncoder(java.io.OutputStream)
+     */
+    public BinaryDecoder(InputStream in) {
+        this(in, null, null);
+    }
+
+    /**
+     * Creates a new decoder for reading archives
+     * created by the {@code BinaryEncoder} class.
+     *
+     * @param in the underlying stream.
+     * @param exceptionListener the exception handler for the stream, or
+     *        {@code null} to use the default
+     * @param cl the class loader used for instantiating objects.
+     *        {@code null} indicates that the default class loader should
+     *        be used
+     *
+     * @throws  IllegalArgumentException
+     *          if {@code in} is {@code null}
+     */
+    public BinaryDecoder(InputStream in, ExceptionListener exceptionListener, ClassLoader cl) {
+        if (in == null) {
+            throw new IllegalArgumentException("the input stream cannot be null");
+        }
+        this.in = in;
+        this.exceptionListener = exceptionListener;
+        this.loader = cl;
+    }
+
+    /**
+     * Sets the exception handler for this stream to {@code exceptionListener}.
+     * The exception handler is notified when this stream catches recoverable
+     * exceptions.
+     *
+     * @param exceptionListener The exception handler for this stream;
+     *     if {@code null} the default exception listener will be used.
+     *
+     * @see #getExceptionListener
+     */
+    public void setExceptionListener(ExceptionListener exceptionListener) {
+        this.exceptionListener = exceptionListener;
+    }
+
+    /**
+     * Gets the exception handler for this stream.
+     *
+     * @return The exception handler for this stream.
+     *     Will return the default exception listener if this has not explicitly been set.
+     *
+     * @see #setExceptionListener
+     */
+    public ExceptionListener getExceptionListener() {
+        return (exceptionListener != null) ? exceptionListener : Statement.defaultExceptionListener;
+    }
+
+    /**
+     * Reads the next object from the underlying input stream.
+     *
+     * @return the next object read
+     *
+     * @throws ArrayIndexOutOfBoundsException if the stream contains no objects
+     *         (or no more objects)
+     *
+     * @see BinaryEncoder#writeObject
+     */
+    public Object readObject() {
+        if (!hasNext()) {
+            throw new ArrayIndexOutOfBoundsException("no more objects");
+        }
+        return AccessController.doPrivileged(new PrivilegedAction<Object>() {
+            public Object run() {
+                try {
+                    Object value = readValue();
+                    return (value != NONE_VALUE) ? value : null;
+                } catch (IOException exception) {
+                    ended = true;
+                    getExceptionListener().exceptionThrown(exception);
+                    return null;
+                }
+            }
+        }, acc);
+    }
+
+    /**
+     * This method closes the input stream associated
+     * with this stream.
+     */
+    @Override
+    public void close() {
+        if (in == null) {
+            return;
+        }
+        ended = true;
+        try {
+            in.close();
+        } catch (IOException exception) {
+            getExceptionListener().exceptionThrown(exception);
+        }
+        in = null;
+    }
+
+    /**
+     * Tells whether there is another value, reading the header of the
+     * stream first if it was not read yet.
+     */
+    private boolean hasNext() {
+        if (ended) {
+            return false;
+        }
+        try {
+            if (!started) {
+                started = true;
+                for (byte b : MAGIC) {
+                    if (readByte() != (b & 0xFF)) {
+                        throw new StreamCorruptedException("invalid stream header");
+                    }
+                }
+                int version = readByte();
+                if (version != VERSION) {
+                    throw new StreamCorruptedException("unsupported version " + version);
+                }
+            }
+            if (pos == limit && !fill()) {
+                ended = true;
+            }
+        } catch (IOException exception) {
+            ended = true;
+            getExceptionListener().exceptionThrown(exception);
+        }
+        return !ended;
+    }
+
+    // the value of a NONE tag, which the callers do not store
+    private static final Object NONE_VALUE = new Object();
+
+    private Object readValue() throws IOException {
+        int tag = readByte();
+        switch (tag) {
+            case NONE:
+                return NONE_VALUE;
+            case NULL:
+                return null;
+            case REF:
+                return handles.get(readIndex(handles.size()));
+            case FALSE:
+                return Boolean.FALSE;
+            case TRUE:
+                return Boolean.TRUE;
+            case BYTE:
+                return (byte) readByte();
+            case SHORT:
+                return (short) readSigned();
+            case CHAR:
+                return (char) readVarint();
+            case INT:
+                return (int) readSigned();
+            case LONG:
+                return readSigned();
+            case FLOAT:
+                return Float.intBitsToFloat(readInt());
+            case DOUBLE:
+                return Double.longBitsToDouble(readLong());
+            case STRING: {
+                String s = readString();
+                strings.add(s);
+                return s;
+            }
+            case STRING_REF:
+                return strings.get(readIndex(strings.size()));
+            case CLASS:
+                return readClass().type;
+            case ENUM:
+                return readEnum();
+            case DATE: {
+                Date date = new Date(readSigned());
+                newHandle(date);
+                return date;
+            }
+            case ARRAY:
+                return readArray();
+            case COLLECTION:
+                return readCollection();
+            case MAP:
+                return readMap();
+            case BEAN:
+                return readBean();
+            default:
+                throw new StreamCorruptedException("invalid tag " + tag);
+        }
+    }
+
+    private int newHandle(Object value) {
+        handles.add(value);
+        return handles.size() - 1;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object readEnum() throws IOException {
+        ClassEntry entry = readClass();
+        String name = readString();
+        if (entry.type == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf((Class) entry.type, name);
+        } catch (RuntimeException exception) {
+            getExceptionListener().exceptionThrown(exception);
+            return null;
+        }
+    }
+
+    private Object readArray() throws IOException {
+        int handle = newHandle(null);
+        ClassEntry entry = readClass();
+        int length = readLength();
+        Class<?> component = (entry.type != null) ? entry.type.getComponentType() : null;
+        if (component == null) {
+            if (entry.type != null) {
+                throw new StreamCorruptedException("invalid array class " + entry.name);
+            }
+            // the class of the elements was not found, they are not primitive
+            for (int i = 0; i < length; i++) {
+                readValue();
+            }
+            return null;
+        }
+        // the length is not trusted: every element takes at least one byte
+        require(length);
+        Object array = Array.newInstance(component, length);
+        handles.set(handle, array);
+        readElements(array, component, length);
+        return array;
+    }
+
+    /**
+     * Reads the {@code length} elements of an array.
+     */
+    private void readElements(Object array, Class<?> component, int length)
+            throws IOException {
+        if (!component.isPrimitive()) {
+            Object[] a = (Object[]) array;
+            for (int i = 0; i < length; i++) {
+                Object element = readValue();
+                if (element != NONE_VALUE) {
+                    try {
+                        a[i] = element;
+                    } catch (ArrayStoreException exception) {
+                        getExceptionListener().exceptionThrown(exception);
+                    }
+                }
+            }
+        } else if (component == int.class) {
+            int[] a = (int[]) array;
+            for (int i = 0; i < length; i++) {
+                a[i] = (int) readSigned();
+            }
+        } else if (component == long.class) {
+            long[] a = (long[]) array;
+            for (int i = 0; i < length; i++) {
+                a[i] = readSigned();
+            }
+        } else if (component == double.class) {
+            double[] a = (double[]) array;
+            for (int i = 0; i < length; i++) {
+                a[i] = Double.longBitsToDouble(readLong());
+            }
+        } else if (component == float.class) {
+            float[] a = (float[]) array;
+            for (int i = 0; i < length; i++) {
+                a[i] = Float.intBitsToFloat(readInt());
+            }
+        } else if (component == byte.class) {
+            byte[] a = (byte[]) array;
+            for (int i = 0; i < length; i++) {
+                a[i] = (byte) readByte();
+            }
+        } else if (component == boolean.class) {
+            boolean[] a = (boolean[]) array;
+            for (int i = 0; i < length; i++) {
+                a[i] = readByte() != 0;
+            }
+        } else if (component == short.class) {
+            short[] a = (short[]) array;
+            for (int i = 0; i < length; i++) {
+                a[i] = (short) readSigned();
+            }
+        } else {
+            char[] a = (char[]) array;
+            for (int i = 0; i < length; i++) {
+                a[i] = (char) readVarint();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object readCollection() throws IOException {
+        int handle = newHandle(null);
+        ClassEntry entry = readClass();
+        Collection<Object> collection = null;
+        if (entry.type != null) {
+            Object instance = newInstance(entry.type);
+            if (instance instanceof Collection) {
+                collection = (Collection<Object>) instance;
+            } else if (instance != null) {
+                getExceptionListener().exceptionThrown(
+                        new ClassCastException(entry.name + " is not a collection class"));
+            }
+        }
+        handles.set(handle, collection);
+        int size = readLength();
+        for (int i = 0; i < size; i++) {
+            Object element = readValue();
+            if (collection != null && element != NONE_VALUE) {
+                try {
+                    collection.add(element);
+                } catch (RuntimeException exception) {
+                    getExceptionListener().exceptionThrown(exception);
+                }
+            }
+        }
+        return collection;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object readMap() throws IOException {
+        int handle = newHandle(null);
+        ClassEntry entry = readClass();
+        Map<Object, Object> map = null;
+        if (entry.type != null) {
+            Object instance = newInstance(entry.type);
+            if (instance instanceof Map) {
+                map = (Map<Object, Object>) instance;
+            } else if (instance != null) {
+                getExceptionListener().exceptionThrown(
+                        new ClassCastException(entry.name + " is not a map class"));
+            }
+        }
+        handles.set(handle, map);
+        int size = readLength();
+        for (int i = 0; i < size; i++) {
+            Object key = readValue();
+            Object value = readValue();
+            if (map != null && key != NONE_VALUE && value != NONE_VALUE) {
+                try {
+                    map.put(key, value);
+                } catch (RuntimeException exception) {
+                    getExceptionListener().exceptionThrown(exception);
+                }
+            }
+        }
+        return map;
+    }
+
+    private Object readBean() throws IOException {
+        int handle = newHandle(null);
+        ClassEntry entry = readClass();
+        if (entry.properties == null) {
+            BeanProperties bp = (entry.type != null) ? BeanProperties.of(entry.type) : null;
+            int size = readLength();
+            require(size);
+            BeanAccessor.Property[] properties = new BeanAccessor.Property[size];
+            for (int i = 0; i < size; i++) {
+                String name = readString();
+                if (bp != null) {
+                    properties[i] = bp.getProperty(name);
+                }
+            }
+            entry.properties = properties;
+        }
+        Object bean = (entry.type != null) ? newInstance(entry.type) : null;
+        handles.set(handle, bean);
+        for (BeanAccessor.Property property : entry.properties) {
+            Object value = readValue();
+            if (bean != null && property != null && value != NONE_VALUE) {
+                try {
+                    property.set(bean, value);
+                } catch (Exception exception) {
+                    getExceptionListener().exceptionThrown(exception);
+                }
+            }
+        }
+        return bean;
+    }
+
+    private Object newInstance(Class<?> type) {
+        try {
+            return BeanProperties.of(type).newInstance();
+        } catch (Exception exception) {
+            getExceptionListener().exceptionThrown(exception);
+            return null;
+        }
+    }
+
+    private ClassEntry readClass() throws IOException {
+        int index = readIndex(classes.size() + 1);
+        if (index > 0) {
+            return classes.get(index - 1);
+        }
+        String name = readString();
+        Class<?> type = null;
+        try {
+            type = ClassFinder.resolveClass(name, loader);
+        } catch (ClassNotFoundException | SecurityException exception) {
+            getExceptionListener().exceptionThrown(exception);
+        }
+        ClassEntry entry = new ClassEntry(name, type);
+        classes.add(entry);
+        return entry;
+    }
+
+    private String readString() throws IOException {
+        int size = readLength();
+        char[] chars = new char[Math.min(size, BUFFER_SIZE)];
+        int length = 0;
+        int end = 0;
+        while (end < size) {
+            if (length == chars.length) {
+                chars = Arrays.copyOf(chars, Math.min(size, chars.length * 2));
+            }
+            int c = readByte();
+            end++;
+            if (c >= 0x80) {
+                int n = ((c & 0xE0) == 0xC0) ? 1 : ((c & 0xF0) == 0xE0) ? 2 : -1;
+                if (n < 0 || end + n > size) {
+                    throw new StreamCorruptedException("malformed string");
+                }
+                c &= (n == 1) ? 0x1F : 0x0F;
+                for (int i = 0; i < n; i++) {
+                    int b = readByte();
+                    if ((b & 0xC0) != 0x80) {
+                        throw new StreamCorruptedException("malformed string");
+                    }
+                    c = (c << 6) | (b & 0x3F);
+                }
+                end += n;
+            }
+            chars[length++] = (char) c;
+        }
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * Reads a varint that must be less than the given bound.
+     */
+    private int readIndex(int bound) throws IOException {
+        long index = readVarint();
+        if (index < 0 || index >= bound) {
+            throw new StreamCorruptedException("invalid index " + index);
+        }
+        return (int) index;
+    }
+
+    private int readLength() throws IOException {
+        return readIndex(Integer.MAX_VALUE);
+    }
+
+    private long readSigned() throws IOException {
+        long v = readVarint();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private long readVarint() throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            v |= (long) (b & 0x7F) << shift;
+            if (b < 0x80) {
+                return v;
+            }
+        }
+        throw new StreamCorruptedException("malformed varint");
+    }
+
+    private int readInt() throws IOException {
+        return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+    }
+
+    private long readLong() throws IOException {
+        return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+    }
+
+    private int readByte() throws IOException {
+        if (pos == limit && !fill()) {
+            throw new EOFException();
+        }
+        return buf[pos++] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        if (in == null) {
+            return false;
+        }
+        if (buf.length > BUFFER_SIZE) {
+            buf = new byte[BUFFER_SIZE];
+        }
+        int n = in.read(buf, 0, buf.length);
+        if (n <= 0) {
+            return false;
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    /**
+     * Reads ahead until at least {@code n} bytes are buffered, growing the
+     * buffer as they are read.  The lengths read from the stream are checked
+     * with this method before the objects that hold that many values are
+     * allocated, so that a corrupt length fails with an {@code EOFException}
+     * instead of allocating memory for values that the stream does not have.
+     */
+    private void require(int n) throws IOException {
+        while (limit - pos < n) {
+            if (in == null) {
+                throw new EOFException();
+            }
+            if (pos > 0) {
+                System.arraycopy(buf, pos, buf, 0, limit - pos);
+                limit -= pos;
+                pos = 0;
+            }
+            if (limit == buf.length) {
+                buf = Arrays.copyOf(buf, (int) Math.min(n, 2L * buf.length));
+            }
+            int r = in.read(buf, limit, buf.length - limit);
+            if (r <= 0) {
+                throw new EOFException();
+            }
+            limit += r;
+        }
+    }
+}
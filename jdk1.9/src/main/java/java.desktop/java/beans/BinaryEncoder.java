@@ -0,0 +1,541 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.beans;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static java.beans.BinaryFormat.*;
+
+/**
+ * The {@code BinaryEncoder} class writes graphs of <em>JavaBeans</em>
+ * to a stream in a compact binary form, which is read back by the
+ * {@link BinaryDecoder} class.  It is used just like the
+ * {@link XMLEncoder} class:
+ * <pre>
+ *       BinaryEncoder e = new BinaryEncoder(
+ *                             new FileOutputStream("Test.bin"));
+ *       e.writeObject(settings);
+ *       e.close();
+ * </pre>
+ * Unlike the {@code XMLEncoder}, which archives any object for which
+ * a {@link PersistenceDelegate} can express the calls that recreate it,
+ * a binary encoder only writes the following values:
+ * <ul>
+ * <li>{@code null}, strings, classes, enum constants, dates and the
+ *     instances of the wrapper classes of the primitive types;
+ * <li>arrays of these values;
+ * <li>collections and maps of these values.  A collection or map whose
+ *     class has no public no-argument constructor is read back as an
+ *     {@code ArrayList}, {@code LinkedHashSet} or {@code TreeSet}, or as
+ *     a {@code LinkedHashMap} or {@code TreeMap};
+ * <li><em>JavaBeans</em> with a public no-argument constructor, as the
+ *     values of their properties that have public read and write methods
+ *     and that are not {@linkplain Transient transient}.  As with the
+ *     {@code XMLEncoder}, the properties whose values are equal to those
+ *     of a new instance of the bean are not written.
+ * </ul>
+ * Any other object is reported to the exception listener, and is read
+ * back as {@code null}, or leaves the property that referred to it
+ * unchanged.
+ * <p>
+ * The properties of each class are found once, with the {@link Introspector},
+ * and are then accessed with method handles.  The values are written as
+ * they are found, with no intermediate representation of the graph, and
+ * the name of each class and property is written only once per stream.
+ * References to an object already written, and strings equal to a string
+ * already written, are written as the index of the first occurrence,
+ * so shared objects and cycles are preserved.
+ * <p>
+ * As with the {@code XMLEncoder}, the exceptions thrown while writing,
+ * including the {@code IOException}s of the underlying stream, are
+ * reported to the {@linkplain #setExceptionListener exception listener}.
+ *
+ * @see BinaryDecoder
+ * @see XMLEncoder
+ *
+ * @since 9
+ */
+public class BinaryEncoder implements AutoCloseable {
+
+    private final byte[] buf = new byte[8192];
+    private int count;
+
+    private OutputStream out;
+    private ExceptionListener exceptionListener;
+    private boolean failed;
+
+    private final Map<Object, Integer> handles = new IdentityHashMap<>();
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final Map<Class<?>, Integer> classes = new IdentityHashMap<>();
+    private final Set<Class<?>> beanClasses = new HashSet<>();
+
+    // the property values of a new instance of each class, or null
+    private final Map<Class<?>, Object[]> defaults = new IdentityHashMap<>();
+
+    /**
+     * Creates a new binary encoder to write out <em>JavaBeans</em>
+     * to the stream {@code out}.
+     *
+     * @param out  the stream to which the objects will be written
+     *
+     * @throws  IllegalArgumentException
+     *          if {@code out} is {@code null}
+     *
+     * @see BinaryDecoder#BinaryDecoder(java.io.InputStream)
+     */
+    public BinaryEncoder(OutputStream out) {
+        if (out == null) {
+            throw new IllegalArgumentException("the output stream cannot be null");
+        }
+        this.out = out;
+        for (byte b : MAGIC) {
+            writeByte(b);
+        }
+        writeByte(VERSION);
+    }
+
+    /**
+     * Sets the exception handler for this stream to {@code exceptionListener}.
+     * The exception handler is notified when this stream catches recoverable
+     * exceptions.
+     *
+     * @param exceptionListener The exception handler for this stream;
+     *       if {@code null} the default exception listener will be used.
+     *
+     * @see #getExceptionListener
+     */
+    public void setExceptionListener(ExceptionListener exceptionListener) {
+        this.exceptionListener = exceptionListener;
+    }
+
+    /**
+     * Gets the exception handler for this stream.
+     *
+     * @return The exception handler for this stream;
+     *    Will return the default exception listener if this has not explicitly been set.
+     *
+     * @see #setExceptionListener
+     */
+    public ExceptionListener getExceptionListener() {
+        return (exceptionListener != null) ? exceptionListener : Statement.defaultExceptionListener;
+    }
+
+    /**
+     * Writes the specified object and the objects it refers to.
+     *
+     * @param o The object to be written to the stream.
+     *
+     * @see BinaryDecoder#readObject
+     */
+    public void writeObject(Object o) {
+        writeValue(o, true);
+    }
+
+    /**
+     * Writes the buffered bytes to the underlying stream, and flushes it.
+     */
+    public void flush() {
+        drain();
+        if (!failed && out != null) {
+            try {
+                out.flush();
+            } catch (IOException exception) {
+                fail(exception);
+            }
+        }
+    }
+
+    /**
+     * This method calls {@code flush}, and then closes the
+     * underlying output stream.
+     */
+    @Override
+    public void close() {
+        if (out == null) {
+            return;
+        }
+        flush();
+        try {
+            out.close();
+        } catch (IOException exception) {
+            getExceptionListener().exceptionThrown(exception);
+        }
+        out = null;
+    }
+
+    /**
+     * Writes a value.  An object that cannot be written is reported,
+     * and is written as {@code null} at the top level, or otherwise as
+     * no value, which leaves the property or element unset.
+     */
+    private void writeValue(Object o, boolean top) {
+        if (o == null) {
+            writeByte(NULL);
+            return;
+        }
+        Class<?> type = o.getClass();
+        if (type == String.class) {
+            writeStringValue((String) o);
+        } else if (type == Integer.class) {
+            writeByte(INT);
+            writeSigned((Integer) o);
+        } else if (type == Long.class) {
+            writeByte(LONG);
+            writeSigned((Long) o);
+        } else if (type == Boolean.class) {
+            writeByte((Boolean) o ? TRUE : FALSE);
+        } else if (type == Double.class) {
+            writeByte(DOUBLE);
+            writeLong(Double.doubleToRawLongBits((Double) o));
+        } else if (type == Float.class) {
+            writeByte(FLOAT);
+            writeInt(Float.floatToRawIntBits((Float) o));
+        } else if (type == Short.class) {
+            writeByte(SHORT);
+            writeSigned((Short) o);
+        } else if (type == Byte.class) {
+            writeByte(BYTE);
+            writeByte((Byte) o);
+        } else if (type == Character.class) {
+            writeByte(CHAR);
+            writeVarint((Character) o);
+        } else if (type == Class.class) {
+            writeByte(CLASS);
+            writeClass((Class<?>) o);
+        } else if (o instanceof Enum) {
+            writeByte(ENUM);
+            writeClass(((Enum<?>) o).getDeclaringClass());
+            writeString(((Enum<?>) o).name());
+        } else {
+            Integer handle = handles.get(o);
+            if (handle != null) {
+                writeByte(REF);
+                writeVarint(handle);
+            } else if (type == Date.class) {
+                writeHandle(o);
+                writeByte(DATE);
+                writeSigned(((Date) o).getTime());
+            } else if (type.isArray()) {
+                writeArray(o, type);
+            } else if (o instanceof Collection) {
+                writeCollection((Collection<?>) o, type);
+            } else if (o instanceof Map) {
+                writeMap((Map<?, ?>) o, type);
+            } else {
+                BeanProperties bp = BeanProperties.of(type);
+                if (bp.isInstantiable()) {
+                    writeBean(o, bp);
+                } else {
+                    getExceptionListener().exceptionThrown(new InstantiationException(
+                            "Cannot write an instance of " + type.getName() +
+                            ": no public default constructor"));
+                    writeByte(top ? NULL : NONE);
+                }
+            }
+        }
+    }
+
+    private void writeHandle(Object o) {
+        handles.put(o, handles.size());
+    }
+
+    private void writeArray(Object array, Class<?> type) {
+        writeHandle(array);
+        writeByte(ARRAY);
+        writeClass(type);
+        int length = Array.getLength(array);
+        writeVarint(length);
+        Class<?> component = type.getComponentType();
+        if (!component.isPrimitive()) {
+            for (Object element : (Object[]) array) {
+                writeValue(element, false);
+            }
+        } else if (component == int.class) {
+            for (int v : (int[]) array) {
+                writeSigned(v);
+            }
+        } else if (component == long.class) {
+            for (long v : (long[]) array) {
+                writeSigned(v);
+            }
+        } else if (component == double.class) {
+            for (double v : (double[]) array) {
+                writeLong(Double.doubleToRawLongBits(v));
+            }
+        } else if (component == float.class) {
+            for (float v : (float[]) array) {
+                writeInt(Float.floatToRawIntBits(v));
+            }
+        } else if (component == byte.class) {
+            for (byte v : (byte[]) array) {
+                writeByte(v);
+            }
+        } else if (component == boolean.class) {
+            for (boolean v : (boolean[]) array) {
+                writeByte(v ? 1 : 0);
+            }
+        } else if (component == short.class) {
+            for (short v : (short[]) array) {
+                writeSigned(v);
+            }
+        } else {
+            for (char v : (char[]) array) {
+                writeVarint(v);
+            }
+        }
+    }
+
+    private void writeCollection(Collection<?> collection, Class<?> type) {
+        if (!BeanProperties.of(type).isInstantiable()) {
+            if (collection instanceof SortedSet && ((SortedSet<?>) collection).comparator() == null) {
+                type = TreeSet.class;
+            } else if (collection instanceof Set) {
+                type = LinkedHashSet.class;
+            } else {
+                type = ArrayList.class;
+            }
+        }
+        writeHandle(collection);
+        writeByte(COLLECTION);
+        writeClass(type);
+        // the size is written first, so the elements are copied
+        Object[] elements = collection.toArray();
+        writeVarint(elements.length);
+        for (Object element : elements) {
+            writeValue(element, false);
+        }
+    }
+
+    private void writeMap(Map<?, ?> map, Class<?> type) {
+        if (!BeanProperties.of(type).isInstantiable()) {
+            if (map instanceof SortedMap && ((SortedMap<?, ?>) map).comparator() == null) {
+                type = TreeMap.class;
+            } else {
+                type = LinkedHashMap.class;
+            }
+        }
+        writeHandle(map);
+        writeByte(MAP);
+        writeClass(type);
+        List<Map.Entry<?, ?>> entries = new ArrayList<>(map.entrySet());
+        writeVarint(entries.size());
+        for (Map.Entry<?, ?> entry : entries) {
+            writeValue(entry.getKey(), false);
+            writeValue(entry.getValue(), false);
+        }
+    }
+
+    private void writeBean(Object bean, BeanProperties bp) {
+        Class<?> type = bp.getType();
+        BeanAccessor.Property[] properties = bp.getProperties();
+        writeHandle(bean);
+        writeByte(BEAN);
+        writeClass(type);
+        if (beanClasses.add(type)) {
+            if (bp.getException() != null) {
+                getExceptionListener().exceptionThrown(bp.getException());
+            }
+            writeVarint(properties.length);
+            for (BeanAccessor.Property property : properties) {
+                writeString(property.getName());
+            }
+        }
+        Object[] defaultValues = getDefaults(bp);
+        for (int i = 0; i < properties.length; i++) {
+            Object value;
+            try {
+                value = properties[i].get(bean);
+            } catch (Exception exception) {
+                getExceptionListener().exceptionThrown(exception);
+                writeByte(NONE);
+                continue;
+            }
+            if (defaultValues != null && isDefault(value, defaultValues[i])) {
+                writeByte(NONE);
+            } else {
+                writeValue(value, false);
+            }
+        }
+    }
+
+    /**
+     * Tells whether a property value need not be written, which is when
+     * it is an immutable value equal to the value of a new instance.
+     */
+    private static boolean isDefault(Object value, Object defaultValue) {
+        if (value == null || defaultValue == null) {
+            return value == defaultValue;
+        }
+        Class<?> type = value.getClass();
+        if (type != defaultValue.getClass()) {
+            return false;
+        }
+        // Double.equals and Float.equals compare the bits
+        return (type == String.class || type == Class.class || value instanceof Enum ||
+                type == Integer.class || type == Long.class || type == Boolean.class ||
+                type == Double.class || type == Float.class || type == Short.class ||
+                type == Byte.class || type == Character.class) &&
+                value.equals(defaultValue);
+    }
+
+    private Object[] getDefaults(BeanProperties bp) {
+        Class<?> type = bp.getType();
+        if (defaults.containsKey(type)) {
+            return defaults.get(type);
+        }
+        Object[] values = null;
+        try {
+            Object instance = bp.newInstance();
+            BeanAccessor.Property[] properties = bp.getProperties();
+            values = new Object[properties.length];
+            for (int i = 0; i < properties.length; i++) {
+                values[i] = properties[i].get(instance);
+            }
+        } catch (Exception exception) {
+            // write every property
+            values = null;
+        }
+        defaults.put(type, values);
+        return values;
+    }
+
+    private void writeClass(Class<?> type) {
+        Integer index = classes.get(type);
+        if (index != null) {
+            writeVarint(index + 1);
+        } else {
+            classes.put(type, classes.size());
+            writeVarint(0);
+            writeString(type.getName());
+        }
+    }
+
+    private void writeStringValue(String s) {
+        Integer index = strings.get(s);
+        if (index != null) {
+            writeByte(STRING_REF);
+            writeVarint(index);
+        } else {
+            strings.put(s, strings.size());
+            writeByte(STRING);
+            writeString(s);
+        }
+    }
+
+    private void writeString(String s) {
+        int length = s.length();
+        int size = length;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                size += (c >= 0x800) ? 2 : 1;
+            }
+        }
+        writeVarint(size);
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                writeByte(c);
+            } else if (c < 0x800) {
+                writeByte(0xC0 | (c >> 6));
+                writeByte(0x80 | (c & 0x3F));
+            } else {
+                writeByte(0xE0 | (c >> 12));
+                writeByte(0x80 | ((c >> 6) & 0x3F));
+                writeByte(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void writeSigned(long v) {
+        writeVarint((v << 1) ^ (v >> 63));
+    }
+
+    private void writeVarint(long v) {
+        while ((v & ~0x7FL) != 0) {
+            writeByte((int) (v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        writeByte((int) v);
+    }
+
+    private void writeInt(int v) {
+        writeByte(v >>> 24);
+        writeByte(v >>> 16);
+        writeByte(v >>> 8);
+        writeByte(v);
+    }
+
+    private void writeLong(long v) {
+        writeInt((int) (v >>> 32));
+        writeInt((int) v);
+    }
+
+    private void writeByte(int b) {
+        if (count == buf.length) {
+            drain();
+        }
+        buf[count++] = (byte) b;
+    }
+
+    /**
+     * Writes the buffered bytes to the underlying stream.  After the first
+     * failure, which is reported, or after the stream is closed, the bytes
+     * are dropped.
+     */
+    private void drain() {
+        if (!failed && out != null && count > 0) {
+            try {
+                out.write(buf, 0, count);
+            } catch (IOException exception) {
+                fail(exception);
+            }
+        }
+        count = 0;
+    }
+
+    private void fail(IOException exception) {
+        failed = true;
+        getExceptionListener().exceptionThrown(exception);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.beans;
+
+/**
+ * The constants of the format written by {@link BinaryEncoder}
+ * and read by {@link BinaryDecoder}.
+ * <p>
+ * A stream starts with the {@link #MAGIC} bytes and the {@link #VERSION}
+ * byte, followed by the values of the written objects.  Every value starts
+ * with a tag byte, which tells how the following bytes are read:
+ * <ul>
+ * <li>{@code NONE}: no value, the property is not set;
+ * <li>{@code NULL}, {@code FALSE}, {@code TRUE}: no more bytes;
+ * <li>{@code REF}: the handle of an object already read, as a varint;
+ * <li>{@code BYTE}: the byte;
+ * <li>{@code SHORT}, {@code INT}, {@code LONG}: a zigzag varint;
+ * <li>{@code CHAR}: a varint;
+ * <li>{@code FLOAT}, {@code DOUBLE}: the big-endian bits;
+ * <li>{@code STRING}: a new string;
+ * <li>{@code STRING_REF}: the index of a string already read, as a varint;
+ * <li>{@code CLASS}: a class descriptor;
+ * <li>{@code ENUM}: a class descriptor and the name of the constant;
+ * <li>{@code DATE}: the time as a zigzag varint;
+ * <li>{@code ARRAY}: the descriptor of the array class, the length and
+ *     the elements, which are values if the component type is not
+ *     primitive, or else are written as their boxed values are written,
+ *     without tags;
+ * <li>{@code COLLECTION}: a class descriptor, the size and the elements;
+ * <li>{@code MAP}: a class descriptor, the size and the keys and values;
+ * <li>{@code BEAN}: a class descriptor, the names of the properties if
+ *     the class is used for a bean for the first time, and then the value
+ *     of every property.
+ * </ul>
+ * A varint is an unsigned integer written 7 bits at a time, low bits
+ * first, with the high bit of every byte but the last one set, and a
+ * zigzag varint is a signed integer {@code n} written as the varint
+ * {@code (n << 1) ^ (n >> 63)}.  A string is written as the varint length
+ * of its bytes, and then each {@code char} as 1, 2 or 3 bytes as in
+ * {@link java.io.DataOutput#writeUTF}, except that {@code '\u0000'}
+ * is written as a single byte.  A class descriptor is either the varint 0,
+ * for a new class, followed by the name of the class as a string, or the
+ * varint index of a class already written plus 1.
+ * <p>
+ * The strings, classes, and the arrays, collections, maps, beans and
+ * dates are numbered in the order in which they start, from 0, each in
+ * their own sequence.
+ */
+final class BinaryFormat {
+
+    static final byte[] MAGIC = {'J', 'B', 'B'};
+    static final int VERSION = 1;
+
+    static final int NONE = 0;
+    static final int NULL = 1;
+    static final int REF = 2;
+    static final int FALSE = 3;
+    static final int TRUE = 4;
+    static final int BYTE = 5;
+    static final int SHORT = 6;
+    static final int CHAR = 7;
+    static final int INT = 8;
+    static final int LONG = 9;
+    static final int FLOAT = 10;
+    static final int DOUBLE = 11;
+    static final int STRING = 12;
+    static final int STRING_REF = 13;
+    static final int CLASS = 14;
+    static final int ENUM = 15;
+    static final int DATE = 16;
+    static final int ARRAY = 17;
+    static final int COLLECTION = 18;
+    static final int MAP = 19;
+    static final int BEAN = 20;
+
+    private BinaryFormat() {
+    }
+}
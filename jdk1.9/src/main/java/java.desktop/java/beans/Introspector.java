@@ -25,7 +25,6 @@
 package java.beans;
 
 import com.sun.beans.TypeResolver;
-import com.sun.beans.WeakCache;
 import com.sun.beans.finder.ClassFinder;
 import com.sun.beans.introspect.ClassInfo;
 import com.sun.beans.introspect.EventSetInfo;
@@ -115,9 +114,6 @@ public class Introspector {
      */
     public static final int IGNORE_ALL_BEANINFO        = 3;
 
-    // Static Caches to speed up introspection.
-    private static final WeakCache<Class<?>, Method[]> declaredMethodCache = new WeakCache<>();
-
     private Class<?> beanClass;
     private BeanInfo explicitBeanInfo;
     private BeanInfo superBeanInfo;
@@ -197,15 +193,10 @@ public class Introspector {
             return (new Introspector(beanClass, null, USE_ALL_BEANINFO)).getBeanInfo();
         }
         ThreadGroupContext context = ThreadGroupContext.getContext();
-        BeanInfo beanInfo;
-        synchronized (declaredMethodCache) {
-            beanInfo = context.getBeanInfo(beanClass);
-        }
+        BeanInfo beanInfo = context.getBeanInfo(beanClass);
         if (beanInfo == null) {
             beanInfo = new Introspector(beanClass, null, USE_ALL_BEANINFO).getBeanInfo();
-            synchronized (declaredMethodCache) {
-                context.putBeanInfo(beanClass, beanInfo);
-            }
+            context.putBeanInfo(beanClass, beanInfo);
         }
         return beanInfo;
     }
@@ -376,10 +367,8 @@ public class Introspector {
      */
 
     public static void flushCaches() {
-        synchronized (declaredMethodCache) {
-            ThreadGroupContext.getContext().clearBeanInfoCache();
-            declaredMethodCache.clear();
-        }
+        ThreadGroupContext.getContext().clearBeanInfoCache();
+        BeanAccessor.flushCache();
     }
 
     /**
@@ -402,10 +391,8 @@ public class Introspector {
         if (clz == null) {
             throw new NullPointerException();
         }
-        synchronized (declaredMethodCache) {
-            ThreadGroupContext.getContext().removeBeanInfo(clz);
-            declaredMethodCache.put(clz, null);
-        }
+        ThreadGroupContext.getContext().removeBeanInfo(clz);
+        BeanAccessor.flushFromCache(clz);
     }
 
     //======================================================================
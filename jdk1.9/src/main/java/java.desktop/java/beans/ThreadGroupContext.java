@@ -29,8 +29,6 @@ import com.sun.beans.finder.BeanInfoFinder;
 import com.sun.beans.finder.PropertyEditorFinder;
 
 import java.awt.GraphicsEnvironment;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 /**
  * The {@code ThreadGroupContext} is an application-dependent
@@ -60,7 +58,8 @@ final class ThreadGroupContext {
     private volatile boolean isDesignTime;
     private volatile Boolean isGuiAvailable;
 
-    private Map<Class<?>, BeanInfo> beanInfoCache;
+    // the bean infos, cached with their classes; replaced to clear it
+    private volatile ClassValue<BeanInfoRef> beanInfoCache = newBeanInfoCache();
     private BeanInfoFinder beanInfoFinder;
     private PropertyEditorFinder propertyEditorFinder;
 
@@ -88,29 +87,39 @@ final class ThreadGroupContext {
     }
 
 
+    /**
+     * The bean info of a class, which is set once it is computed.
+     */
+    private static final class BeanInfoRef {
+        volatile BeanInfo info;
+    }
+
+    private static ClassValue<BeanInfoRef> newBeanInfoCache() {
+        return new ClassValue<BeanInfoRef>() {
+            @Override
+            protected BeanInfoRef computeValue(Class<?> type) {
+                return new BeanInfoRef();
+            }
+        };
+    }
+
     BeanInfo getBeanInfo(Class<?> type) {
-        return (this.beanInfoCache != null)
-                ? this.beanInfoCache.get(type)
-                : null;
+        return this.beanInfoCache.get(type).info;
     }
 
     BeanInfo putBeanInfo(Class<?> type, BeanInfo info) {
-        if (this.beanInfoCache == null) {
-            this.beanInfoCache = new WeakHashMap<>();
-        }
-        return this.beanInfoCache.put(type, info);
+        BeanInfoRef ref = this.beanInfoCache.get(type);
+        BeanInfo old = ref.info;
+        ref.info = info;
+        return old;
     }
 
     void removeBeanInfo(Class<?> type) {
-        if (this.beanInfoCache != null) {
-            this.beanInfoCache.remove(type);
-        }
+        this.beanInfoCache.remove(type);
     }
 
     void clearBeanInfoCache() {
-        if (this.beanInfoCache != null) {
-            this.beanInfoCache.clear();
-        }
+        this.beanInfoCache = newBeanInfoCache();
     }
 
 
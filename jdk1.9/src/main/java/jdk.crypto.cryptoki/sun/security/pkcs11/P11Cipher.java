@@ -639,7 +639,7 @@ final class P11Cipher extends CipherSpi {
             int inOfs = 0;
             byte[] inArray = null;
 
-            if (inBuffer instanceof DirectBuffer) {
+            if (P11Util.hasAddress(inBuffer)) {
                 inAddr = ((DirectBuffer) inBuffer).address();
                 inOfs = origPos;
             } else if (inBuffer.hasArray()) {
@@ -650,7 +650,7 @@ final class P11Cipher extends CipherSpi {
             long outAddr = 0;
             int outOfs = 0;
             byte[] outArray = null;
-            if (outBuffer instanceof DirectBuffer) {
+            if (P11Util.hasAddress(outBuffer)) {
                 outAddr = ((DirectBuffer) outBuffer).address();
                 outOfs = outBuffer.position();
             } else {
@@ -719,7 +719,7 @@ final class P11Cipher extends CipherSpi {
                 }
             }
             bytesBuffered += (inLen - k);
-            if (!(outBuffer instanceof DirectBuffer) &&
+            if (!P11Util.hasAddress(outBuffer) &&
                     !outBuffer.hasArray()) {
                 outBuffer.put(outArray, outOfs, k);
             } else {
@@ -810,7 +810,7 @@ final class P11Cipher extends CipherSpi {
             long outAddr = 0;
             byte[] outArray = null;
             int outOfs = 0;
-            if (outBuffer instanceof DirectBuffer) {
+            if (P11Util.hasAddress(outBuffer)) {
                 outAddr = ((DirectBuffer) outBuffer).address();
                 outOfs = outBuffer.position();
             } else {
@@ -863,7 +863,7 @@ final class P11Cipher extends CipherSpi {
                 }
             }
             if ((!encrypt && paddingObj != null) ||
-                    (!(outBuffer instanceof DirectBuffer) &&
+                    (!P11Util.hasAddress(outBuffer) &&
                     !outBuffer.hasArray())) {
                 outBuffer.put(outArray, outOfs, k);
             } else {
@@ -278,7 +278,7 @@ final class P11Digest extends MessageDigestSpi implements Cloneable,
             return;
         }
 
-        if (byteBuffer instanceof DirectBuffer == false) {
+        if (!P11Util.hasAddress(byteBuffer)) {
             super.engineUpdate(byteBuffer);
             return;
         }
@@ -253,7 +253,7 @@ final class P11Mac extends MacSpi {
             if (len <= 0) {
                 return;
             }
-            if (byteBuffer instanceof DirectBuffer == false) {
+            if (!P11Util.hasAddress(byteBuffer)) {
                 super.engineUpdate(byteBuffer);
                 return;
             }
@@ -530,7 +530,7 @@ final class P11Signature extends SignatureSpi {
         }
         switch (type) {
         case T_UPDATE:
-            if (byteBuffer instanceof DirectBuffer == false) {
+            if (!P11Util.hasAddress(byteBuffer)) {
                 // cannot do better than default impl
                 super.engineUpdate(byteBuffer);
                 return;
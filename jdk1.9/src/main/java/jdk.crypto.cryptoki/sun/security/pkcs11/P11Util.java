@@ -26,8 +26,12 @@
 package sun.security.pkcs11;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.security.*;
 
+import jdk.internal.misc.SharedSecrets;
+import sun.nio.ch.DirectBuffer;
+
 /**
  * Collection of static utility methods.
  *
@@ -99,6 +103,15 @@ public final class P11Util {
         return p;
     }
 
+    // Tells whether the address of a buffer can be passed to the token.
+    // The memory of a direct buffer allocated through a DirectBufferScope
+    // may be freed while the token accesses it, so such a buffer is
+    // accessed through an array, like a heap buffer without one.
+    static boolean hasAddress(ByteBuffer b) {
+        return (b instanceof DirectBuffer)
+            && !SharedSecrets.getJavaNioAccess().hasScope(b);
+    }
+
     static byte[] convert(byte[] input, int offset, int len) {
         if ((offset == 0) && (len == input.length)) {
             return input;
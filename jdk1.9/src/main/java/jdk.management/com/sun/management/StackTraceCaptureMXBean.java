@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package com.sun.management;
+
+import java.lang.management.PlatformManagedObject;
+import java.util.Map;
+
+/**
+ * Management interface for the stack trace capture policy of the Java
+ * virtual machine.
+ *
+ * <p>Filling in the stack trace of a {@code Throwable} is usually the
+ * dominant cost of creating it.  The capture depth can be set for an
+ * exception class, by name, and applies to that class and its subclasses;
+ * the setting for the most specific class wins.  The capture depth is one of:
+ * <ul>
+ * <li>{@link #FULL_CAPTURE}: the complete stack trace is captured, this is
+ * the default;</li>
+ * <li>{@link #NO_CAPTURE}: no stack trace is captured, the throwable has an
+ * empty stack trace;</li>
+ * <li>a positive number of frames: at most that many frames from the top of
+ * the stack are captured.  These frames are decoded into
+ * {@code StackTraceElement} objects only when the stack trace is first
+ * requested.</li>
+ * </ul>
+ * A change of policy affects the throwables filled in after the change.
+ * The initial policy can be given on the command line with the
+ * {@code jdk.stackTraceCapture} system property, for example
+ * {@code -Djdk.stackTraceCapture=java.lang.NumberFormatException=none,com.example.RetryException=8}.
+ *
+ * <p>The MXBean can also count the stack traces filled in per exception
+ * class to find the classes worth a policy.  Counting is disabled by
+ * default; it can be enabled on the command line with
+ * {@code -Djdk.stackTraceCapture.count=true}.
+ *
+ * <p>The {@code ObjectName} for uniquely identifying the MXBean within an
+ * MBeanServer is:
+ * <blockquote>
+ *    {@code com.sun.management:type=StackTraceCapture}
+ * </blockquote>
+ *
+ * It can be obtained by calling the
+ * {@link PlatformManagedObject#getObjectName} method.
+ *
+ * All methods throw a {@code NullPointerException} if any input argument is
+ * {@code null} unless it's stated otherwise.
+ *
+ * @see java.lang.management.ManagementFactory#getPlatformMXBeans(Class)
+ * @since 9
+ */
+public interface StackTraceCaptureMXBean extends PlatformManagedObject {
+    /**
+     * Capture depth denoting that the complete stack trace is captured.
+     */
+    public static final int FULL_CAPTURE = -1;
+
+    /**
+     * Capture depth denoting that no stack trace is captured.
+     */
+    public static final int NO_CAPTURE = 0;
+
+    /**
+     * Returns the capture depths that have been set, keyed by exception
+     * class name.
+     *
+     * @return a map from class name to capture depth.
+     */
+    public Map<String, Integer> getCaptureDepths();
+
+    /**
+     * Sets the capture depth of the named exception class and its
+     * subclasses.
+     *
+     * @param className the binary name of the exception class
+     * @param depth {@link #FULL_CAPTURE}, {@link #NO_CAPTURE} or the
+     *        maximum number of frames to capture
+     *
+     * @throws IllegalArgumentException if {@code depth} is less than
+     *         {@link #FULL_CAPTURE}.
+     * @throws java.lang.SecurityException
+     *     if a security manager exists and the caller does not have
+     *     ManagementPermission("control").
+     */
+    public void setCaptureDepth(String className, int depth);
+
+    /**
+     * Removes the capture depth set for the named exception class, if any.
+     *
+     * @param className the binary name of the exception class
+     *
+     * @throws java.lang.SecurityException
+     *     if a security manager exists and the caller does not have
+     *     ManagementPermission("control").
+     */
+    public void clearCaptureDepth(String className);
+
+    /**
+     * Tests if counting of stack trace captures is enabled.
+     *
+     * @return {@code true} if counting is enabled; {@code false} otherwise.
+     */
+    public boolean isCaptureCountingEnabled();
+
+    /**
+     * Enables or disables counting of stack trace captures.  Disabling
+     * counting discards the counts.
+     *
+     * @param enable {@code true} to enable; {@code false} to disable.
+     *
+     * @throws java.lang.SecurityException
+     *     if a security manager exists and the caller does not have
+     *     ManagementPermission("control").
+     */
+    public void setCaptureCountingEnabled(boolean enable);
+
+    /**
+     * Returns the number of stack traces filled in since counting was
+     * enabled or last reset, keyed by exception class name.  The stack
+     * traces that are captured partially or not at all are included.
+     *
+     * @return a map from class name to the number of stack traces filled
+     *         in; empty if counting is disabled.
+     */
+    public Map<String, Long> getCaptureCounts();
+
+    /**
+     * Resets the counts of stack trace captures to zero.
+     *
+     * @throws java.lang.SecurityException
+     *     if a security manager exists and the caller does not have
+     *     ManagementPermission("control").
+     */
+    public void resetCaptureCounts();
+}
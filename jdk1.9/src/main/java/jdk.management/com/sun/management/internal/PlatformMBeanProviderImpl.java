@@ -26,6 +26,7 @@ package com.sun.management.internal;
 
 import com.sun.management.DiagnosticCommandMBean;
 import com.sun.management.HotSpotDiagnosticMXBean;
+import com.sun.management.StackTraceCaptureMXBean;
 import com.sun.management.ThreadMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryManagerMXBean;
@@ -51,6 +52,7 @@ public final class PlatformMBeanProviderImpl extends PlatformMBeanProvider {
     private final List<PlatformComponent<?>> mxbeanList;
     private static HotSpotDiagnostic hsDiagMBean = null;
     private static OperatingSystemMXBean osMBean = null;
+    private static StackTraceCaptureMXBean stackTraceCaptureMBean = null;
 
     static {
        AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
@@ -230,6 +232,37 @@ public final class PlatformMBeanProviderImpl extends PlatformMBeanProvider {
             }
         });
 
+        /**
+         * Stack trace capture policy of the Java virtual machine.
+         */
+        initMBeanList.add(new PlatformComponent<com.sun.management.StackTraceCaptureMXBean>() {
+            private final Set<String> stackTraceCaptureMXBeanInterfaceNames =
+                    Collections.unmodifiableSet(Collections.<String>singleton(
+                            "com.sun.management.StackTraceCaptureMXBean"));
+
+            @Override
+            public Set<Class<? extends com.sun.management.StackTraceCaptureMXBean>> mbeanInterfaces() {
+                return Collections.singleton(com.sun.management.StackTraceCaptureMXBean.class);
+            }
+
+            @Override
+            public Set<String> mbeanInterfaceNames() {
+                return stackTraceCaptureMXBeanInterfaceNames;
+            }
+
+            @Override
+            public String getObjectNamePattern() {
+                return StackTraceCaptureImpl.STACK_TRACE_CAPTURE_MXBEAN_NAME;
+            }
+
+            @Override
+            public Map<String, com.sun.management.StackTraceCaptureMXBean> nameToMBeanMap() {
+                return Collections.<String, com.sun.management.StackTraceCaptureMXBean>singletonMap(
+                        StackTraceCaptureImpl.STACK_TRACE_CAPTURE_MXBEAN_NAME,
+                        getStackTraceCaptureMXBean());
+            }
+        });
+
         /**
          * Diagnostic command MBean
          */
@@ -276,6 +309,13 @@ public final class PlatformMBeanProviderImpl extends PlatformMBeanProvider {
         return hsDiagMBean;
     }
 
+    private static synchronized StackTraceCaptureMXBean getStackTraceCaptureMXBean() {
+        if (stackTraceCaptureMBean == null) {
+            stackTraceCaptureMBean = new StackTraceCaptureImpl();
+        }
+        return stackTraceCaptureMBean;
+    }
+
     private static synchronized OperatingSystemMXBean getOperatingSystemMXBean() {
         if (osMBean == null) {
             osMBean = new OperatingSystemImpl(ManagementFactoryHelper.getVMManagement());
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package com.sun.management.internal;
+
+import java.util.Map;
+import javax.management.ObjectName;
+
+import com.sun.management.StackTraceCaptureMXBean;
+import jdk.internal.misc.StackTraceCapture;
+import sun.management.Util;
+
+/**
+ * Implementation of the stack trace capture MBean.
+ */
+public class StackTraceCaptureImpl implements StackTraceCaptureMXBean {
+    static final String STACK_TRACE_CAPTURE_MXBEAN_NAME =
+        "com.sun.management:type=StackTraceCapture";
+
+    public StackTraceCaptureImpl() {
+    }
+
+    @Override
+    public Map<String, Integer> getCaptureDepths() {
+        return StackTraceCapture.captureDepths();
+    }
+
+    @Override
+    public void setCaptureDepth(String className, int depth) {
+        if (className == null) {
+            throw new NullPointerException("className cannot be null");
+        }
+        Util.checkControlAccess();
+        StackTraceCapture.setCaptureDepth(className, depth);
+    }
+
+    @Override
+    public void clearCaptureDepth(String className) {
+        if (className == null) {
+            throw new NullPointerException("className cannot be null");
+        }
+        Util.checkControlAccess();
+        StackTraceCapture.clearCaptureDepth(className);
+    }
+
+    @Override
+    public boolean isCaptureCountingEnabled() {
+        return StackTraceCapture.isCounting();
+    }
+
+    @Override
+    public void setCaptureCountingEnabled(boolean enable) {
+        Util.checkControlAccess();
+        StackTraceCapture.setCounting(enable);
+    }
+
+    @Override
+    public Map<String, Long> getCaptureCounts() {
+        return StackTraceCapture.captureCounts();
+    }
+
+    @Override
+    public void resetCaptureCounts() {
+        Util.checkControlAccess();
+        StackTraceCapture.resetCaptureCounts();
+    }
+
+    @Override
+    public ObjectName getObjectName() {
+        return Util.newObjectName(STACK_TRACE_CAPTURE_MXBEAN_NAME);
+    }
+}